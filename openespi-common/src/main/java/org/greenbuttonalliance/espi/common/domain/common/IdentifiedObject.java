@@ -19,17 +19,18 @@
 
 package org.greenbuttonalliance.espi.common.domain.common;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.greenbuttonalliance.espi.common.service.EspiIdGeneratorService;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -46,24 +47,32 @@ import java.util.UUID;
  * - Lombok-generated boilerplate reduction
  * - Hibernate-managed timestamps
  * - Link management for ATOM feed generation
+ * - Explicit tracking of new instances for Spring Data
+ * 
+ * Since the ID is assigned on construction, Spring Data cannot tell new instances
+ * from detached ones by their ID and would {@code merge} every new entity, selecting
+ * it first. Instead, an instance counts as new until it has been persisted or loaded,
+ * so {@code save} persists it with a plain, batchable INSERT. Code that saves a
+ * transient instance carrying the ID of an existing row, to replace that row, must
+ * call {@link #markNotNew()} first.
  */
 @MappedSuperclass
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
-public abstract class IdentifiedObject implements Serializable {
+public abstract class IdentifiedObject implements Persistable<UUID>, Serializable {
 
     private static final long serialVersionUID = 1L;
 
     /**
      * NAESB ESPI compliant UUID identifier as primary key.
      * Generated using UUID5 based on href rel="self" values.
-     * Uses UUID type for maximum database compatibility and ESPI compliance.
+     * Stored as CHAR(36) text, or in 16 bytes with espi.schema.binary-uuid-keys
+     * (see UuidKeyConfiguration); the UUID and its hrefs are the same either way.
      */
     @Id
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "char(36)", updatable = false, nullable = false)
+    @Column(updatable = false, nullable = false)
     @EqualsAndHashCode.Include
     protected UUID id;
 
@@ -139,6 +148,15 @@ public abstract class IdentifiedObject implements Serializable {
     })
     private List<LinkType> relatedLinks = new ArrayList<>();
 
+    /**
+     * Whether this instance has been neither persisted nor loaded yet.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean newEntity = true;
+
     /**
      * Sets the UUID identifier.
      * 
@@ -161,6 +179,31 @@ public abstract class IdentifiedObject implements Serializable {
         return id;
     }
 
+    /**
+     * Tells Spring Data whether to persist or merge this instance.
+     * 
+     * @return true until the instance has been persisted or loaded
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Marks this instance as representing an existing row, so that saving it
+     * merges it into that row.
+     */
+    public void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.newEntity = false;
+    }
+
     /**
      * Gets a string representation of the ID for href generation.
      * 
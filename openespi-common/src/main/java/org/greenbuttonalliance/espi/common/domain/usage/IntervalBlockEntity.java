@@ -28,6 +28,7 @@ import org.hibernate.annotations.BatchSize;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -36,6 +37,11 @@ import java.util.Objects;
  * <p>
  * Represents a time sequence of readings of the same ReadingType.
  * Contains a date/time interval and a collection of interval readings.
+ * <p>
+ * The readings are stored either as {@code interval_readings} rows or, when
+ * imported with {@code espi.import.packed-readings} enabled, packed into a
+ * single column by {@link PackedIntervalReadings}. {@link #getReadings()}
+ * returns them in either case.
  */
 @Entity
 @Table(name = "interval_blocks")
@@ -75,6 +81,22 @@ public class IntervalBlockEntity extends IdentifiedObject {
     @BatchSize(size = 100)
     private List<IntervalReadingEntity> intervalReadings = new ArrayList<>();
 
+    /**
+     * Readings of this block in packed form, or null if they are stored as rows.
+     * Takes precedence over {@link #intervalReadings} when set.
+     */
+    @Column(name = "packed_readings", length = 16_777_215)
+    @Setter(AccessLevel.NONE)
+    private byte[] packedReadings;
+
+    /**
+     * Entity views of the packed readings, decoded on first access.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient List<IntervalReadingEntity> unpackedReadings;
+
     /**
      * Constructor with interval parameters.
      *
@@ -84,6 +106,37 @@ public class IntervalBlockEntity extends IdentifiedObject {
         this.interval = interval;
     }
 
+    /**
+     * Gets the readings of this block, whichever way they are stored. Packed
+     * readings are decoded on first access into detached, read-only entity
+     * views; changes to them are not persisted.
+     *
+     * @return the readings in start order
+     */
+    public List<IntervalReadingEntity> getReadings() {
+        if (packedReadings == null) {
+            return intervalReadings;
+        }
+        if (unpackedReadings == null) {
+            List<IntervalReadingEntity> views = new ArrayList<>();
+            for (PackedIntervalReadings.Reading reading : PackedIntervalReadings.unpack(packedReadings)) {
+                views.add(reading.toEntity(this));
+            }
+            unpackedReadings = Collections.unmodifiableList(views);
+        }
+        return unpackedReadings;
+    }
+
+    /**
+     * Sets the packed readings of this block.
+     *
+     * @param packedReadings readings packed by {@link PackedIntervalReadings}, or null
+     */
+    public void setPackedReadings(byte[] packedReadings) {
+        this.packedReadings = packedReadings;
+        this.unpackedReadings = null;
+    }
+
     // Note: Interval reading collection accessors are generated by Lombok @Data
     // Bidirectional relationship management methods removed - handled by DataCustodian/ThirdParty applications
 
@@ -151,6 +204,7 @@ public class IntervalBlockEntity extends IdentifiedObject {
             if (other.intervalReadings != null) {
                 this.intervalReadings = new ArrayList<>(other.intervalReadings);
             }
+            setPackedReadings(other.packedReadings);
 
             // Update meter reading if provided
             if (other.meterReading != null) {
@@ -19,13 +19,14 @@
 
 package org.greenbuttonalliance.espi.common.domain.usage;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import org.greenbuttonalliance.espi.common.domain.common.DateTimeInterval;
-import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
-import org.hibernate.annotations.BatchSize;
 import org.hibernate.proxy.HibernateProxy;
+import org.springframework.data.domain.Persistable;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -36,16 +37,30 @@ import java.util.Objects;
  * Represents a specific value measured by a meter or other asset.
  * Each reading is associated with a specific ReadingType and contains
  * cost, value, consumption tier, time-of-use, and critical peak pricing information.
+ * <p>
+ * Readings are only ever published nested inside their IntervalBlock, so unlike
+ * other ESPI resources they carry no UUID, timestamps or links. A reading is
+ * keyed by its block and the start of its time period, and its reading quality
+ * codes are stored in the same row, keeping the row narrow and its primary key
+ * the only index.
  */
 @Entity
 @Table(name = "interval_readings")
 @Getter
 @Setter
 @NoArgsConstructor
-public class IntervalReadingEntity extends IdentifiedObject {
+public class IntervalReadingEntity implements Persistable<IntervalReadingId>, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Block and start of this reading. The block ID is filled in from
+     * {@link #intervalBlock} when the reading is persisted.
+     */
+    @EmbeddedId
+    @Setter(AccessLevel.NONE)
+    private IntervalReadingId id = new IntervalReadingId();
+
     /**
      * Cost associated with this interval reading.
      * Represents the monetary cost for this measurement period.
@@ -82,37 +97,33 @@ public class IntervalReadingEntity extends IdentifiedObject {
     private Long cpp;
 
     /**
-     * Time period for this interval reading.
-     * Embedded value object containing start time and duration.
+     * Duration of the reading's time period, in seconds.
+     * The start is part of the {@link #id}.
+     */
+    @Column(name = "time_period_duration")
+    private Long duration;
+
+    /**
+     * Reading quality codes of this reading, empty for a reading of
+     * assumed good quality.
      */
-    @Embedded
-    @AttributeOverrides({
-        @AttributeOverride(name = "start", column = @Column(name = "time_period_start")),
-        @AttributeOverride(name = "duration", column = @Column(name = "time_period_duration"))
-    })
-    private DateTimeInterval timePeriod;
+    @Column(name = "quality", length = 255)
+    @Convert(converter = ReadingQualitiesConverter.class)
+    private List<String> qualities = new ArrayList<>();
 
     /**
      * Interval block that contains this reading.
      * Many interval readings belong to one interval block.
      */
+    @MapsId("intervalBlockId")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "interval_block_id")
     private IntervalBlockEntity intervalBlock;
 
-    /**
-     * Reading quality indicators for this interval reading.
-     * One-to-many relationship with cascade and orphan removal.
-     * -- GETTER --
-     *  Gets the reading qualities collection.
-     *  Lombok @Data should generate this, but added manually for compilation.
-     *
-     * @return the list of reading qualities
-
-     */
-    @OneToMany(mappedBy = "intervalReading", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    @BatchSize(size = 10)
-    private List<ReadingQualityEntity> readingQualities = new ArrayList<>();
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient boolean newEntity = true;
 
     /**
      * Constructor with core reading data.
@@ -124,41 +135,53 @@ public class IntervalReadingEntity extends IdentifiedObject {
     public IntervalReadingEntity(Long value, Long cost, DateTimeInterval timePeriod) {
         this.value = value;
         this.cost = cost;
-        this.timePeriod = timePeriod;
+        setTimePeriod(timePeriod);
     }
 
     /**
-     * Adds a reading quality to this interval reading.
-     * Manages bidirectional relationship.
-     * 
-     * @param readingQuality the reading quality to add
+     * Gets the time period of this reading.
+     *
+     * @return the time period, or null if neither start nor duration is set
      */
-    public void addReadingQuality(ReadingQualityEntity readingQuality) {
-        if (readingQuality != null) {
-            if (!readingQualities.contains(readingQuality)) {
-                readingQualities.add(readingQuality);
-            }
-            if (readingQuality.getIntervalReading() != this) {
-                readingQuality.setIntervalReading(this);
-            }
+    public DateTimeInterval getTimePeriod() {
+        Long start = id != null ? id.getStart() : null;
+        return start != null || duration != null ? new DateTimeInterval(start, duration) : null;
+    }
+
+    /**
+     * Sets the time period of this reading. Its start is part of the key, so
+     * it must not change once the reading is persisted.
+     *
+     * @param timePeriod the time period, or null
+     */
+    public void setTimePeriod(DateTimeInterval timePeriod) {
+        if (id == null) {
+            id = new IntervalReadingId();
         }
+        id.setStart(timePeriod != null ? timePeriod.getStart() : null);
+        this.duration = timePeriod != null ? timePeriod.getDuration() : null;
     }
 
     /**
-     * Removes a reading quality from this interval reading.
-     * Manages bidirectional relationship.
-     * 
-     * @param readingQuality the reading quality to remove
+     * Adds a reading quality code to this reading, unless already present.
+     *
+     * @param quality the quality code
      */
-    public void removeReadingQuality(ReadingQualityEntity readingQuality) {
-        if (readingQuality != null) {
-            readingQualities.remove(readingQuality);
-            if (readingQuality.getIntervalReading() == this) {
-                readingQuality.setIntervalReading(null);
-            }
+    public void addQuality(String quality) {
+        if (quality != null && !qualities.contains(quality)) {
+            qualities.add(quality);
         }
     }
 
+    /**
+     * Removes a reading quality code from this reading.
+     *
+     * @param quality the quality code
+     */
+    public void removeQuality(String quality) {
+        qualities.remove(quality);
+    }
+
     /**
      * Gets the consumption tier as an integer.
      * 
@@ -226,13 +249,12 @@ public class IntervalReadingEntity extends IdentifiedObject {
             this.consumptionTier = other.consumptionTier;
             this.tou = other.tou;
             this.cpp = other.cpp;
-            this.timePeriod = other.timePeriod;
-            
-            // Replace reading qualities - bidirectional relationship setup handled by applications
-            if (other.readingQualities != null) {
-                this.readingQualities = new ArrayList<>(other.readingQualities);
+            setTimePeriod(other.getTimePeriod());
+
+            if (other.qualities != null) {
+                this.qualities = new ArrayList<>(other.qualities);
             }
-            
+
             // Update interval block if provided
             if (other.intervalBlock != null) {
                 this.intervalBlock = other.intervalBlock;
@@ -245,9 +267,6 @@ public class IntervalReadingEntity extends IdentifiedObject {
      * Simplified - applications handle relationship cleanup.
      */
     public void unlink() {
-        // Simple collection clearing - applications handle bidirectional cleanup
-        readingQualities.clear();
-        
         // Clear relationships with simple field assignment
         this.intervalBlock = null;
     }
@@ -258,7 +277,7 @@ public class IntervalReadingEntity extends IdentifiedObject {
      * @return true if there are reading qualities, false otherwise
      */
     public boolean hasQualityIndicators() {
-        return readingQualities != null && !readingQualities.isEmpty();
+        return qualities != null && !qualities.isEmpty();
     }
 
     /**
@@ -267,7 +286,7 @@ public class IntervalReadingEntity extends IdentifiedObject {
      * @return count of reading qualities
      */
     public int getQualityIndicatorCount() {
-        return readingQualities != null ? readingQualities.size() : 0;
+        return qualities != null ? qualities.size() : 0;
     }
 
     /**
@@ -297,6 +316,24 @@ public class IntervalReadingEntity extends IdentifiedObject {
         return value != null ? Math.abs(value) : null;
     }
 
+    /**
+     * Whether this instance has not been persisted or loaded yet. Readings are
+     * saved through their block, so this only reports state.
+     *
+     * @return true until the reading has been persisted or loaded
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.newEntity = false;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -305,7 +342,8 @@ public class IntervalReadingEntity extends IdentifiedObject {
         Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
         if (thisEffectiveClass != oEffectiveClass) return false;
         IntervalReadingEntity that = (IntervalReadingEntity) o;
-        return getId() != null && Objects.equals(getId(), that.getId());
+        return getId() != null && getId().getIntervalBlockId() != null && getId().getStart() != null
+                && Objects.equals(getId(), that.getId());
     }
 
     @Override
@@ -322,10 +360,8 @@ public class IntervalReadingEntity extends IdentifiedObject {
                 "consumptionTier = " + getConsumptionTier() + ", " +
                 "tou = " + getTou() + ", " +
                 "cpp = " + getCpp() + ", " +
-                "timePeriod = " + getTimePeriod() + ", " +
-                "description = " + getDescription() + ", " +
-                "created = " + getCreated() + ", " +
-                "updated = " + getUpdated() + ", " +
-                "published = " + getPublished() + ")";
+                "start = " + (getId() != null ? getId().getStart() : null) + ", " +
+                "duration = " + getDuration() + ", " +
+                "qualities = " + getQualities() + ")";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.domain.usage;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Primary key of an {@link IntervalReadingEntity}: the interval block the
+ * reading belongs to and the start of its time period, which ESPI requires to
+ * be unique within a block.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class IntervalReadingId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * ID of the interval block, derived from the reading's block association.
+     */
+    @Column(name = "interval_block_id", nullable = false)
+    private UUID intervalBlockId;
+
+    /**
+     * Start of the reading's time period, in epoch seconds.
+     */
+    @Column(name = "time_period_start", nullable = false)
+    private Long start;
+}
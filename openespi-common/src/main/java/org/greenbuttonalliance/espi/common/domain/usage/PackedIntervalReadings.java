@@ -0,0 +1,305 @@
+
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.domain.usage;
+
+import org.greenbuttonalliance.espi.common.domain.common.DateTimeInterval;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codec of the packed form in which an interval block's readings can be stored
+ * in {@code interval_blocks.packed_readings}, instead of one
+ * {@code interval_readings} row per reading.
+ * <p>
+ * The readings are laid out by column: start, duration, value, cost,
+ * consumption tier, TOU and CPP, then the reading qualities. Each numeric
+ * column is delta-encoded as zigzag varints over its non-null values, so
+ * regular 15-minute or hourly data reduces to runs of small, repeated
+ * numbers, and a column that is null throughout takes a single byte. Quality
+ * codes are written once in a dictionary and referenced by index. The columns
+ * are then deflated behind a one-byte format version.
+ */
+public final class PackedIntervalReadings {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final int ABSENT = 0;
+    private static final int DENSE = 1;
+    private static final int SPARSE = 2;
+
+    private static final List<Function<Reading, Long>> COLUMNS = List.of(
+        Reading::start, Reading::duration, Reading::value, Reading::cost,
+        Reading::consumptionTier, Reading::tou, Reading::cpp);
+
+    private PackedIntervalReadings() {
+    }
+
+    /**
+     * One reading of a packed block.
+     *
+     * @param start start of the reading's time period, epoch seconds, or null
+     * @param duration duration of the time period in seconds, or null
+     * @param value the measured value, or null
+     * @param cost the cost, or null
+     * @param consumptionTier the consumption tier, or null
+     * @param tou the time-of-use indicator, or null
+     * @param cpp the critical peak pricing indicator, or null
+     * @param qualities the reading quality codes, empty if none
+     */
+    public record Reading(Long start, Long duration, Long value, Long cost, Long consumptionTier, Long tou, Long cpp,
+                          List<String> qualities) {
+
+        public Reading {
+            qualities = qualities != null ? List.copyOf(qualities) : List.of();
+        }
+
+        /**
+         * Creates a detached entity view of this reading, as part of a block.
+         *
+         * @param block the block the reading belongs to
+         * @return the reading entity, which is not managed and must not be persisted
+         */
+        public IntervalReadingEntity toEntity(IntervalBlockEntity block) {
+            IntervalReadingEntity entity = new IntervalReadingEntity(value, cost,
+                start != null || duration != null ? new DateTimeInterval(start, duration) : null);
+            entity.setConsumptionTier(consumptionTier);
+            entity.setTou(tou);
+            entity.setCpp(cpp);
+            entity.setIntervalBlock(block);
+            entity.setQualities(new ArrayList<>(qualities));
+            return entity;
+        }
+    }
+
+    /**
+     * Packs readings in the order given.
+     *
+     * @param readings the readings
+     * @return the packed readings
+     */
+    public static byte[] pack(List<Reading> readings) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + readings.size() * 4);
+        bytes.write(FORMAT_VERSION);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            writeVarint(out, readings.size());
+            for (Function<Reading, Long> column : COLUMNS) {
+                writeColumn(out, readings, column);
+            }
+            writeQualities(out, readings);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Unpacks readings in the order they were packed.
+     *
+     * @param packed the packed readings
+     * @return the readings
+     * @throws IllegalArgumentException if the bytes are not packed readings of a known format
+     */
+    public static List<Reading> unpack(byte[] packed) {
+        if (packed.length == 0 || packed[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown packed interval reading format "
+                + (packed.length > 0 ? packed[0] : "(empty)"));
+        }
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(packed, 1, packed.length - 1)))) {
+            int count = (int) readVarint(in);
+            Long[][] columns = new Long[COLUMNS.size()][];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = readColumn(in, count);
+            }
+            List<List<String>> qualities = readQualities(in, count);
+
+            List<Reading> readings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                readings.add(new Reading(columns[0][i], columns[1][i], columns[2][i], columns[3][i],
+                    columns[4][i], columns[5][i], columns[6][i], qualities.get(i)));
+            }
+            return readings;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt packed interval readings: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeColumn(DataOutputStream out, List<Reading> readings, Function<Reading, Long> column)
+            throws IOException {
+        int present = 0;
+        for (Reading reading : readings) {
+            if (column.apply(reading) != null) {
+                present++;
+            }
+        }
+
+        if (present == 0) {
+            out.writeByte(ABSENT);
+            return;
+        }
+        if (present == readings.size()) {
+            out.writeByte(DENSE);
+        } else {
+            out.writeByte(SPARSE);
+            byte[] nonNull = new byte[(readings.size() + 7) / 8];
+            for (int i = 0; i < readings.size(); i++) {
+                if (column.apply(readings.get(i)) != null) {
+                    nonNull[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(nonNull);
+        }
+
+        long previous = 0;
+        for (Reading reading : readings) {
+            Long value = column.apply(reading);
+            if (value != null) {
+                writeVarint(out, zigzag(value - previous));
+                previous = value;
+            }
+        }
+    }
+
+    private static Long[] readColumn(DataInputStream in, int count) throws IOException {
+        Long[] values = new Long[count];
+        int encoding = in.readUnsignedByte();
+        if (encoding == ABSENT) {
+            return values;
+        }
+
+        byte[] nonNull = null;
+        if (encoding == SPARSE) {
+            nonNull = new byte[(count + 7) / 8];
+            in.readFully(nonNull);
+        } else if (encoding != DENSE) {
+            throw new IOException("Unknown column encoding " + encoding);
+        }
+
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            if (nonNull == null || (nonNull[i >>> 3] & (1 << (i & 7))) != 0) {
+                previous += unzigzag(readVarint(in));
+                values[i] = previous;
+            }
+        }
+        return values;
+    }
+
+    private static void writeQualities(DataOutputStream out, List<Reading> readings) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Reading reading : readings) {
+            for (String quality : reading.qualities()) {
+                dictionary.putIfAbsent(quality, dictionary.size());
+            }
+        }
+
+        writeVarint(out, dictionary.size());
+        if (dictionary.isEmpty()) {
+            return;
+        }
+        for (String quality : dictionary.keySet()) {
+            byte[] utf8 = quality.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, utf8.length);
+            out.write(utf8);
+        }
+        for (Reading reading : readings) {
+            writeVarint(out, reading.qualities().size());
+            for (String quality : reading.qualities()) {
+                writeVarint(out, dictionary.get(quality));
+            }
+        }
+    }
+
+    private static List<List<String>> readQualities(DataInputStream in, int count) throws IOException {
+        String[] dictionary = new String[(int) readVarint(in)];
+        if (dictionary.length == 0) {
+            return Collections.nCopies(count, List.of());
+        }
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] utf8 = new byte[(int) readVarint(in)];
+            in.readFully(utf8);
+            dictionary[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        List<List<String>> qualities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] codes = new String[(int) readVarint(in)];
+            for (int j = 0; j < codes.length; j++) {
+                codes[j] = dictionary[(int) readVarint(in)];
+            }
+            qualities.add(Arrays.asList(codes));
+        }
+        return qualities;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated varint");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
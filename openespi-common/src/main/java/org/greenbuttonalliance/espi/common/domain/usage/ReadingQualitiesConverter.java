@@ -0,0 +1,64 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.domain.usage;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * JPA AttributeConverter storing the reading quality codes of an interval
+ * reading in a single column, comma-separated in the order given.
+ * <p>
+ * Codes are ESPI {@code QualityOfReading} values, which never contain a comma.
+ * Null codes are dropped, and a reading without qualities is stored as null.
+ */
+@Converter
+public class ReadingQualitiesConverter implements AttributeConverter<List<String>, String> {
+
+    /**
+     * Separator between the codes in the column.
+     */
+    public static final String SEPARATOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<String> qualities) {
+        if (qualities == null) {
+            return null;
+        }
+        String column = qualities.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.joining(SEPARATOR));
+        return column.isEmpty() ? null : column;
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(column.split(SEPARATOR)));
+    }
+}
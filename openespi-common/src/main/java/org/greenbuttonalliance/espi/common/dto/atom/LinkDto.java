@@ -77,6 +77,13 @@ public record LinkDto(
         return new LinkDto("related", href, "application/atom+xml");
     }
     
+    /**
+     * Creates a next link.
+     */
+    public static LinkDto next(String href) {
+        return new LinkDto("next", href, "application/atom+xml");
+    }
+    
     /**
      * Creates an alternate link.
      */
@@ -34,7 +34,7 @@ import java.util.List;
 @XmlRootElement(name = "CustomerAccount", namespace = "http://naesb.org/espi/customer")
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "CustomerAccount", namespace = "http://naesb.org/espi/customer", propOrder = {
-    "id", "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
+    "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
     "description", "accountId", "accountNumber", "budgetBill", "billingCycle", 
     "lastBillAmount", "transactionDate", "isPrePay", "customer", "customerAgreements"
 })
@@ -34,7 +34,7 @@ import java.util.List;
 @XmlRootElement(name = "CustomerAgreement", namespace = "http://naesb.org/espi/customer")
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "CustomerAgreement", namespace = "http://naesb.org/espi/customer", propOrder = {
-    "id", "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
+    "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
     "description", "signDate", "validityInterval", "customerAccount", 
     "serviceLocations", "statements"
 })
@@ -34,7 +34,7 @@ import java.util.List;
 @XmlRootElement(name = "EndDevice", namespace = "http://naesb.org/espi/customer")
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "EndDevice", namespace = "http://naesb.org/espi/customer", propOrder = {
-    "id", "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
+    "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
     "description", "amrSystem", "installCode", "isPan", "installDate", 
     "removedDate", "serialNumber", "serviceLocation"
 })
@@ -34,7 +34,7 @@ import java.util.List;
 @XmlRootElement(name = "ServiceLocation", namespace = "http://naesb.org/espi/customer")
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "ServiceLocation", namespace = "http://naesb.org/espi/customer", propOrder = {
-    "id", "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
+    "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
     "description", "accessMethod", "needsInspection", "siteAccessProblem",
     "positionAddress", "geoInfoReference", "direction", "customerAgreement"
 })
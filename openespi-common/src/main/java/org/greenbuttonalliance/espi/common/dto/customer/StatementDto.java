@@ -34,7 +34,7 @@ import java.util.List;
 @XmlRootElement(name = "Statement", namespace = "http://naesb.org/espi/customer")
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "Statement", namespace = "http://naesb.org/espi/customer", propOrder = {
-    "id", "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
+    "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
     "description", "createdDateTime", "lastModifiedDateTime", "revisionNumber",
     "subject", "docStatus", "type", "customerAgreement", "statementRefs"
 })
@@ -44,6 +44,13 @@ public record DateTimeIntervalDto(
     Long duration
 ) {
     
+    /**
+     * Default constructor for JAXB.
+     */
+    public DateTimeIntervalDto() {
+        this(null, null);
+    }
+    
     /**
      * Gets the start time as OffsetDateTime.
      * 
@@ -37,7 +37,7 @@ import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
     "description", "flickerPlt", "flickerPst", "harmonicVoltage", "longInterruptions", 
     "mainsVoltage", "measurementProtocol", "powerFrequency", "rapidVoltageChanges", 
     "shortInterruptions", "summaryInterval", "supplyVoltageDips", "supplyVoltageImbalance", 
-    "supplyVoltageVariations", "tempOvervoltage", "usagePointId"
+    "supplyVoltageVariations", "tempOvervoltage"
 })
 public record ElectricPowerQualitySummaryDto(
     
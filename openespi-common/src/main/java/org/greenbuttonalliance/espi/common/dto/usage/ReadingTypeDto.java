@@ -340,6 +340,18 @@ public record ReadingTypeDto(
              null, kind, null, null, null, uom, null, null, null, null, null);
     }
     
+    /**
+     * Returns the definition without its identity, so that reading types
+     * defined alike under different IDs compare equal.
+     * 
+     * @return a copy without id and uuid
+     */
+    public ReadingTypeDto withoutIdentity() {
+        return new ReadingTypeDto(null, null, description, accumulationBehaviour, commodity, consumptionTier,
+             currency, dataQualifier, defaultQuality, flowDirection, intervalLength, kind, phase,
+             powerOfTenMultiplier, timeAttribute, uom, cpp, measuringPeriod, tou, argument, interharmonic);
+    }
+    
     /**
      * Checks if this reading type represents energy measurements.
      * 
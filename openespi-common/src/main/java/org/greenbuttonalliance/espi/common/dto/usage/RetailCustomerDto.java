@@ -29,7 +29,7 @@ import java.util.List;
  * Security-sensitive fields like password are excluded from the DTO.
  */
 @XmlRootElement(name = "RetailCustomer", namespace = "http://naesb.org/espi")
-@XmlAccessorType(XmlAccessType.PROPERTY)
+@XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "RetailCustomer", namespace = "http://naesb.org/espi", propOrder = {
     "username", "firstName", "lastName", "email", "phone", "role", 
     "enabled", "accountCreated", "lastLogin", "accountLocked", 
@@ -37,6 +37,7 @@ import java.util.List;
 })
 public record RetailCustomerDto(
     
+    @XmlAttribute(name = "mRID")
     String uuid,
     String username,
     String firstName,
@@ -54,6 +55,13 @@ public record RetailCustomerDto(
     
 ) {
 
+    /**
+     * Default constructor for JAXB.
+     */
+    public RetailCustomerDto() {
+        this(null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
     /**
      * Gets the full name of the customer.
      * 
@@ -34,7 +34,7 @@ import java.util.List;
 @XmlRootElement(name = "UsageSummary", namespace = "http://naesb.org/espi")
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "UsageSummary", namespace = "http://naesb.org/espi", propOrder = {
-    "id", "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
+    "uuid", "published", "updated", "selfLink", "upLink", "relatedLinks",
     "description", "billingPeriod", "billLastPeriod", "billToDate", 
     "costAdditionalLastPeriod", "currency", "qualityOfReading", "statusTimeStamp"
 })
@@ -58,7 +58,7 @@ public interface IntervalBlockMapper {
     @Mapping(target = "upLink", ignore = true)
     @Mapping(target = "description", source = "description")
     @Mapping(target = "interval", source = "interval")
-    @Mapping(target = "intervalReadings", source = "intervalReadings")
+    @Mapping(target = "intervalReadings", source = "readings") // Rows or packed readings
     IntervalBlockDto toDto(IntervalBlockEntity entity);
 
     /**
@@ -79,6 +79,8 @@ public interface IntervalBlockMapper {
     @Mapping(target = "interval", source = "interval")
     @Mapping(target = "intervalReadings", source = "intervalReadings")
     @Mapping(target = "meterReading", ignore = true) // Relationships handled separately
+    @Mapping(target = "packedReadings", ignore = true) // Packed only by the import
+    @Mapping(target = "readings", ignore = true)
     IntervalBlockEntity toEntity(IntervalBlockDto dto);
 
     /**
@@ -96,5 +98,7 @@ public interface IntervalBlockMapper {
     @Mapping(target = "selfLink", ignore = true)
     @Mapping(target = "relatedLinks", ignore = true)
     @Mapping(target = "meterReading", ignore = true) // Relationships handled separately
+    @Mapping(target = "packedReadings", ignore = true) // Packed only by the import
+    @Mapping(target = "readings", ignore = true)
     void updateEntity(IntervalBlockDto dto, @MappingTarget IntervalBlockEntity entity);
 }
\ No newline at end of file
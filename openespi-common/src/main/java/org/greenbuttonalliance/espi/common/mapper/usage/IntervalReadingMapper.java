@@ -29,7 +29,9 @@ import org.mapstruct.MappingTarget;
  * MapStruct mapper for converting between IntervalReadingEntity and IntervalReadingDto.
  * 
  * Handles the conversion between the JPA entity used for persistence and the DTO 
- * used for JAXB XML marshalling in the Green Button API.
+ * used for JAXB XML marshalling in the Green Button API. Reading qualities map to
+ * and from the quality codes stored on the reading; the reading's key is derived
+ * from its block and time period.
  */
 @Mapper(componentModel = "spring", uses = {
     ReadingQualityMapper.class,
@@ -55,7 +57,7 @@ public interface IntervalReadingMapper {
     @Mapping(target = "currency", ignore = true) // IntervalReading does not have currency
     @Mapping(target = "value", source = "value")
     @Mapping(target = "timePeriod", source = "timePeriod")
-    @Mapping(target = "readingQualities", source = "readingQualities")
+    @Mapping(target = "readingQualities", source = "qualities")
     @Mapping(target = "consumptionTier", source = "consumptionTier")
     @Mapping(target = "tou", source = "tou")
     @Mapping(target = "cpp", source = "cpp")
@@ -68,18 +70,11 @@ public interface IntervalReadingMapper {
      * @param dto the interval reading DTO
      * @return the interval reading entity
      */
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "description", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "created", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "updated", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "published", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "upLink", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "selfLink", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "relatedLinks", ignore = true) // Inherited from IdentifiedObject
+    @Mapping(target = "duration", ignore = true) // Set with the time period
     @Mapping(target = "cost", source = "cost")
     @Mapping(target = "value", source = "value")
     @Mapping(target = "timePeriod", source = "timePeriod")
-    @Mapping(target = "readingQualities", source = "readingQualities")
+    @Mapping(target = "qualities", source = "readingQualities")
     @Mapping(target = "consumptionTier", source = "consumptionTier")
     @Mapping(target = "tou", source = "tou")
     @Mapping(target = "cpp", source = "cpp")
@@ -93,14 +88,8 @@ public interface IntervalReadingMapper {
      * @param dto the source DTO
      * @param entity the target entity to update
      */
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "description", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "created", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "updated", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "published", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "upLink", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "selfLink", ignore = true) // Inherited from IdentifiedObject
-    @Mapping(target = "relatedLinks", ignore = true) // Inherited from IdentifiedObject
+    @Mapping(target = "duration", ignore = true) // Set with the time period
+    @Mapping(target = "qualities", source = "readingQualities")
     @Mapping(target = "intervalBlock", ignore = true) // Relationships handled separately
     void updateEntity(IntervalReadingDto dto, @MappingTarget IntervalReadingEntity entity);
 }
\ No newline at end of file
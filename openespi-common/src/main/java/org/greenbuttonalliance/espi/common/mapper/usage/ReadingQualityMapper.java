@@ -19,65 +19,35 @@
 
 package org.greenbuttonalliance.espi.common.mapper.usage;
 
-import org.greenbuttonalliance.espi.common.domain.usage.ReadingQualityEntity;
 import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
-import org.greenbuttonalliance.espi.common.mapper.BaseIdentifiedObjectMapper;
 import org.mapstruct.Mapper;
-import org.mapstruct.Mapping;
-import org.mapstruct.MappingTarget;
 
 /**
- * MapStruct mapper for converting between ReadingQualityEntity and ReadingQualityDto.
+ * MapStruct mapper for converting between reading quality codes and ReadingQualityDto.
  * 
- * Handles the conversion between the JPA entity used for persistence and the DTO 
- * used for JAXB XML marshalling in the Green Button API.
+ * Reading qualities are persisted as plain codes on their interval reading, so
+ * the DTO's identity, timestamps and links are neither stored nor restored.
  */
 @Mapper(componentModel = "spring")
 public interface ReadingQualityMapper {
 
     /**
-     * Converts a ReadingQualityEntity to a ReadingQualityDto.
-     * Maps quality indicators and validation information.
+     * Converts a reading quality code to a ReadingQualityDto.
      * 
-     * @param entity the reading quality entity
-     * @return the reading quality DTO
+     * @param quality the reading quality code
+     * @return the reading quality DTO, or null if the code is null
      */
-    @Mapping(target = "uuid", ignore = true) // ReadingQuality does not have UUID
-    @Mapping(target = "published", ignore = true) // ReadingQuality does not have timestamps
-    @Mapping(target = "updated", ignore = true) // ReadingQuality does not have timestamps
-    @Mapping(target = "relatedLinks", ignore = true) // Links handled separately
-    @Mapping(target = "selfLink", ignore = true)
-    @Mapping(target = "upLink", ignore = true)
-    @Mapping(target = "description", ignore = true) // ReadingQuality does not have description
-    @Mapping(target = "quality", source = "quality")
-    ReadingQualityDto toDto(ReadingQualityEntity entity);
+    default ReadingQualityDto toDto(String quality) {
+        return quality != null ? new ReadingQualityDto(null, quality) : null;
+    }
 
     /**
-     * Converts a ReadingQualityDto to a ReadingQualityEntity.
-     * Maps quality indicators and validation information.
+     * Converts a ReadingQualityDto to its reading quality code.
      * 
      * @param dto the reading quality DTO
-     * @return the reading quality entity
+     * @return the reading quality code, or null if the DTO is null
      */
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "created", ignore = true)
-    @Mapping(target = "updated", ignore = true)
-    @Mapping(target = "published", ignore = true)
-    @Mapping(target = "quality", source = "quality")
-    @Mapping(target = "intervalReading", ignore = true) // Relationships handled separately
-    ReadingQualityEntity toEntity(ReadingQualityDto dto);
-
-    /**
-     * Updates an existing ReadingQualityEntity with data from a ReadingQualityDto.
-     * Useful for merge operations where the entity ID should be preserved.
-     * 
-     * @param dto the source DTO
-     * @param entity the target entity to update
-     */
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "created", ignore = true)
-    @Mapping(target = "updated", ignore = true)
-    @Mapping(target = "published", ignore = true)
-    @Mapping(target = "intervalReading", ignore = true) // Relationships handled separately
-    void updateEntity(ReadingQualityDto dto, @MappingTarget ReadingQualityEntity entity);
-}
\ No newline at end of file
+    default String toQuality(ReadingQualityDto dto) {
+        return dto != null ? dto.quality() : null;
+    }
+}
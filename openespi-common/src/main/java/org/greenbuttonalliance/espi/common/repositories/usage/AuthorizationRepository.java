@@ -20,6 +20,7 @@
 package org.greenbuttonalliance.espi.common.repositories.usage;
 
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +28,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,6 +45,9 @@ public interface AuthorizationRepository extends JpaRepository<AuthorizationEnti
 
 	Optional<AuthorizationEntity> findByState(String state);
 
+	@Query("SELECT a.updated FROM AuthorizationEntity a WHERE a.id = :id")
+	Optional<LocalDateTime> findUpdatedById(@Param("id") UUID id);
+
 	@Query("SELECT a FROM AuthorizationEntity a WHERE a.scope = :scope AND a.retailCustomer.id = :retailCustomerId")
 	Optional<AuthorizationEntity> findByScope(@Param("scope") String scope, @Param("retailCustomerId") UUID retailCustomerId);
 
@@ -70,6 +75,18 @@ public interface AuthorizationRepository extends JpaRepository<AuthorizationEnti
 	@Query("SELECT a.id FROM AuthorizationEntity a WHERE a.thirdParty = :thirdParty AND a.scope LIKE :bulkId")
 	List<UUID> findAllIdsByBulkId(@Param("thirdParty") String thirdParty, @Param("bulkId") String bulkId);
 
+	@Query("SELECT a FROM AuthorizationEntity a ORDER BY a.updated, a.id")
+	List<AuthorizationEntity> findFirstKeysetPage(Limit limit);
+
+	@Query("SELECT a FROM AuthorizationEntity a WHERE a.updated > :updated OR (a.updated = :updated AND a.id > :id) ORDER BY a.updated, a.id")
+	List<AuthorizationEntity> findKeysetPageAfter(@Param("updated") LocalDateTime updated, @Param("id") UUID id, Limit limit);
+
+	default List<AuthorizationEntity> findKeysetPage(KeysetCursor after, int limit) {
+		return after == null
+			? findFirstKeysetPage(Limit.of(limit))
+			: findKeysetPageAfter(after.updated(), after.id(), Limit.of(limit));
+	}
+
 	@Query("SELECT a FROM AuthorizationEntity a WHERE a.resourceURI LIKE :uri")
 	List<AuthorizationEntity> findByResourceUri(@Param("uri") String uri);
 
@@ -0,0 +1,158 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Journal of the entries committed by import jobs, kept in
+ * {@code import_checkpoints}.
+ * <p>
+ * A checkpoint names the last entry, by its index in the feed, that is
+ * committed for a partition of a job, together with the bytes of the document
+ * consumed when it was read and the interval data written up to it. The feed
+ * checkpoint, stored under an empty partition key, covers every entry up to
+ * its index; the other checkpoints cover the entries of one UsagePoint
+ * partition. Checkpoints are saved on the connection of the current
+ * transaction, so that they commit or roll back with the entries they
+ * describe. A partition is written by one thread at a time, which is why a
+ * plain update followed by an insert suffices.
+ * <p>
+ * Imports save a feed checkpoint every {@code espi.import.checkpoint.interval}
+ * entries; zero disables checkpoints.
+ */
+@Repository
+public class ImportCheckpointRepository {
+
+    /**
+     * Partition key of the feed checkpoint.
+     */
+    public static final String FEED = "";
+
+    private static final int MAX_PARTITION_KEY_LENGTH = 512;
+    private static final int MAX_SELF_HREF_LENGTH = 1024;
+
+    private static final String SELECT =
+        "SELECT partition_key, entry_index, byte_offset, last_self_href, interval_blocks, interval_readings " +
+        "FROM import_checkpoints WHERE job_id = ?";
+    private static final String UPDATE =
+        "UPDATE import_checkpoints SET entry_index = ?, byte_offset = ?, last_self_href = ?, interval_blocks = ?, " +
+        "interval_readings = ?, updated = ? WHERE job_id = ? AND partition_key = ?";
+    private static final String INSERT =
+        "INSERT INTO import_checkpoints (entry_index, byte_offset, last_self_href, interval_blocks, " +
+        "interval_readings, updated, job_id, partition_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE = "DELETE FROM import_checkpoints WHERE job_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int interval;
+
+    public ImportCheckpointRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${espi.import.checkpoint.interval:1000}") int interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.interval = interval;
+    }
+
+    /**
+     * @return entries between two feed checkpoints, or zero if imports keep none
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Loads the checkpoints of a job.
+     *
+     * @param jobId the job ID
+     * @return checkpoints by partition key, empty for a job that has committed nothing
+     */
+    public Map<String, Checkpoint> findByJobId(UUID jobId) {
+        Map<String, Checkpoint> checkpoints = new HashMap<>();
+        jdbcTemplate.query(SELECT, rs -> {
+            checkpoints.put(rs.getString(1), new Checkpoint(rs.getInt(2), rs.getLong(3), rs.getString(4),
+                rs.getLong(5), rs.getLong(6)));
+        }, jobId.toString());
+        return checkpoints;
+    }
+
+    /**
+     * Saves the checkpoint of a partition, replacing the previous one.
+     *
+     * @param jobId the job ID
+     * @param partition the partition key, or {@link #FEED}
+     * @param checkpoint the checkpoint
+     */
+    public void save(UUID jobId, String partition, Checkpoint checkpoint) {
+        String lastSelfHref = checkpoint.lastSelfHref();
+        if (lastSelfHref != null && lastSelfHref.length() > MAX_SELF_HREF_LENGTH) {
+            lastSelfHref = lastSelfHref.substring(0, MAX_SELF_HREF_LENGTH);
+        }
+        Object[] args = {checkpoint.entryIndex(), checkpoint.byteOffset(), lastSelfHref,
+            checkpoint.intervalBlocks(), checkpoint.intervalReadings(), Timestamp.from(Instant.now()),
+            jobId.toString(), partitionKey(partition)};
+        if (jdbcTemplate.update(UPDATE, args) == 0) {
+            jdbcTemplate.update(INSERT, args);
+        }
+    }
+
+    /**
+     * Deletes the checkpoints of a job.
+     *
+     * @param jobId the job ID
+     */
+    public void deleteByJobId(UUID jobId) {
+        jdbcTemplate.update(DELETE, jobId.toString());
+    }
+
+    /**
+     * Returns the key a partition is stored under; keys too long for the
+     * column are replaced by a name-based UUID.
+     *
+     * @param partition the partition key
+     * @return the stored key
+     */
+    public static String partitionKey(String partition) {
+        if (partition.length() <= MAX_PARTITION_KEY_LENGTH) {
+            return partition;
+        }
+        return UUID.nameUUIDFromBytes(partition.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Position of an import up to which entries are committed.
+     *
+     * @param entryIndex index, starting at 1, of the last committed entry in the feed
+     * @param byteOffset bytes of the document consumed when that entry had been read
+     * @param lastSelfHref self href of that entry, for diagnostics
+     * @param intervalBlocks interval blocks written up to that entry
+     * @param intervalReadings interval readings written up to that entry
+     */
+    public record Checkpoint(int entryIndex, long byteOffset, String lastSelfHref, long intervalBlocks,
+                             long intervalReadings) {
+    }
+}
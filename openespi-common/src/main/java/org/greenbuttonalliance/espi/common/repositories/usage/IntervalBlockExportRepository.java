@@ -0,0 +1,381 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.greenbuttonalliance.espi.common.domain.usage.PackedIntervalReadings;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read-only cursor over the interval data of a meter reading for export.
+ * <p>
+ * Interval blocks and their readings, which carry the reading qualities, are
+ * selected as scalar columns in one forward-only scroll ordered by block and
+ * reading start, one row per reading, and assembled into {@link IntervalBlockDto} projections as the cursor
+ * advances. No entities are hydrated, so nothing is added to the persistence
+ * context and no lazy collections are touched, and only the block currently
+ * being assembled is held in memory.
+ * <p>
+ * Blocks whose readings are packed come as a single row carrying the packed
+ * column, which is unpacked, and filtered by the time window, as the block is
+ * assembled; reading rows left over from an earlier row-mode import of such a
+ * block are ignored.
+ * <p>
+ * A time window bounding the reading start restricts the reading join itself
+ * rather than the whole row, so that the start range reaches the readings
+ * directly and the database scans only the monthly partitions of
+ * {@code interval_readings} it overlaps. Blocks left without readings in the
+ * window are skipped as they are assembled.
+ * <p>
+ * The returned streams must be consumed inside a transaction and closed by the
+ * caller. On MySQL the driver only streams rows when the connection uses
+ * {@code useCursorFetch=true}; otherwise the fetch size is ignored and the
+ * whole result is buffered by the driver.
+ */
+@Repository
+public class IntervalBlockExportRepository {
+
+    private static final String BLOCK_TREE_SELECT =
+        "SELECT b.id, b.description, b.published, b.updated, b.interval.start, b.interval.duration, " +
+        "r.id.start, r.duration, r.cost, r.value, r.consumptionTier, r.tou, r.cpp, r.qualities, b.packedReadings " +
+        "FROM IntervalBlockEntity b " +
+        "LEFT JOIN b.intervalReadings r";
+
+    private static final String BLOCK_TREE_ORDER = " ORDER BY b.interval.start, b.id, r.id.start";
+
+    private static final String BLOCK_VERSION_SELECT =
+        "SELECT b.id, b.updated FROM IntervalBlockEntity b WHERE b.meterReading.id = :meterReadingId";
+
+    private static final String BLOCK_VERSION_ORDER = " ORDER BY b.interval.start, b.id";
+
+    private static final String[] WATERMARK_QUERIES = {
+        "SELECT MAX(up.updated), COUNT(up) FROM UsagePointEntity up WHERE up.id IN (:usagePointIds)",
+        "SELECT MAX(m.updated), COUNT(m) FROM MeterReadingEntity m WHERE m.usagePoint.id IN (:usagePointIds)",
+        "SELECT MAX(rt.updated), COUNT(rt) FROM MeterReadingEntity m JOIN m.readingType rt " +
+            "WHERE m.usagePoint.id IN (:usagePointIds)",
+        "SELECT MAX(b.updated), COUNT(b) FROM IntervalBlockEntity b WHERE b.meterReading.usagePoint.id IN (:usagePointIds)"
+    };
+
+    private static final int WATERMARK_CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    public IntervalBlockExportRepository(EntityManager entityManager,
+                                         @Value("${espi.export.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams the interval blocks of a meter reading, each with its readings and
+     * reading qualities, in interval start order.
+     *
+     * @param meterReadingId the meter reading ID
+     * @return stream of interval blocks; must be closed to release the cursor
+     */
+    public Stream<IntervalBlockDto> streamByMeterReadingId(UUID meterReadingId) {
+        return streamByMeterReadingId(meterReadingId, IntervalTimeWindow.UNBOUNDED);
+    }
+
+    /**
+     * Streams the interval blocks of a meter reading selected by a time window.
+     * When the window bounds the reading start, each block carries only its
+     * readings in the window and blocks without such readings are skipped.
+     *
+     * @param meterReadingId the meter reading ID
+     * @param window the time window
+     * @return stream of interval blocks; must be closed to release the cursor
+     */
+    public Stream<IntervalBlockDto> streamByMeterReadingId(UUID meterReadingId, IntervalTimeWindow window) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("meterReadingId", meterReadingId));
+        return stream(BLOCK_TREE_SELECT + window.readingJoinCondition("r", parameters)
+            + " WHERE b.meterReading.id = :meterReadingId" + window.blockPredicates("b", parameters)
+            + BLOCK_TREE_ORDER, parameters, window);
+    }
+
+    /**
+     * Streams a single interval block selected by a time window, with only its
+     * readings in the window.
+     *
+     * @param intervalBlockId the interval block ID
+     * @param window the time window
+     * @return stream of at most one interval block; must be closed to release the cursor
+     */
+    public Stream<IntervalBlockDto> streamById(UUID intervalBlockId, IntervalTimeWindow window) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("intervalBlockId", intervalBlockId));
+        return stream(BLOCK_TREE_SELECT + window.readingJoinCondition("r", parameters)
+            + " WHERE b.id = :intervalBlockId" + window.blockPredicates("b", parameters)
+            + BLOCK_TREE_ORDER, parameters, window);
+    }
+
+    /**
+     * Streams the given interval blocks, each with its readings and reading
+     * qualities, in interval start order.
+     *
+     * @param blockIds the interval block IDs
+     * @return stream of interval blocks; must be closed to release the cursor
+     */
+    public Stream<IntervalBlockDto> streamByIds(Collection<UUID> blockIds) {
+        return stream(BLOCK_TREE_SELECT + " WHERE b.id IN (:blockIds)" + BLOCK_TREE_ORDER,
+            Map.of("blockIds", blockIds), IntervalTimeWindow.UNBOUNDED);
+    }
+
+    /**
+     * Finds the id and updated timestamp of each interval block of a meter
+     * reading, in the same order as {@link #streamByMeterReadingId(UUID)}.
+     *
+     * @param meterReadingId the meter reading ID
+     * @return block versions in interval start order
+     */
+    public List<IntervalBlockVersion> findVersionsByMeterReadingId(UUID meterReadingId) {
+        return findVersionsByMeterReadingId(meterReadingId, IntervalTimeWindow.UNBOUNDED);
+    }
+
+    /**
+     * Finds the id and updated timestamp of each interval block of a meter
+     * reading selected by a time window. Only block-level bounds are applied;
+     * readings of the returned blocks are not filtered.
+     *
+     * @param meterReadingId the meter reading ID
+     * @param window the time window
+     * @return block versions in interval start order
+     */
+    public List<IntervalBlockVersion> findVersionsByMeterReadingId(UUID meterReadingId, IntervalTimeWindow window) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("meterReadingId", meterReadingId));
+        TypedQuery<Object[]> query = entityManager.createQuery(
+            BLOCK_VERSION_SELECT + window.blockPredicates("b", parameters) + BLOCK_VERSION_ORDER, Object[].class);
+        parameters.forEach(query::setParameter);
+        return query.getResultStream()
+            .map(row -> new IntervalBlockVersion((UUID) row[0], (LocalDateTime) row[1]))
+            .toList();
+    }
+
+    /**
+     * Computes a watermark of the export trees of the given usage points: the
+     * latest {@code updated} timestamp of their usage points, meter readings,
+     * reading types and interval blocks, and the number of those. Any insert,
+     * update or delete that touches the trees changes the watermark, so a
+     * payload stored under it can be reused for as long as the watermark stays
+     * the same. Readings have no timestamp of their own and are not counted:
+     * whatever writes or removes them touches their block, as imports and
+     * {@link IntervalReadingPartitionRepository#touchBlocks} do, so the
+     * watermark never scans the readings.
+     *
+     * @param usagePointIds the usage point IDs
+     * @return the watermark, an opaque string
+     */
+    public String findWatermarkByUsagePointIds(List<UUID> usagePointIds) {
+        LocalDateTime latest = null;
+        long count = 0;
+        for (int from = 0; from < usagePointIds.size(); from += WATERMARK_CHUNK_SIZE) {
+            List<UUID> chunk = usagePointIds.subList(from, Math.min(from + WATERMARK_CHUNK_SIZE, usagePointIds.size()));
+            for (String query : WATERMARK_QUERIES) {
+                Object[] row = entityManager.createQuery(query, Object[].class)
+                    .setParameter("usagePointIds", chunk)
+                    .getSingleResult();
+                LocalDateTime updated = (LocalDateTime) row[0];
+                if (updated != null && (latest == null || updated.isAfter(latest))) {
+                    latest = updated;
+                }
+                count += (Long) row[1];
+            }
+        }
+        long version = latest != null ? latest.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + latest.getNano() : 0;
+        return Long.toHexString(version) + "-" + Long.toHexString(count);
+    }
+
+    private Stream<IntervalBlockDto> stream(String query, Map<String, Object> parameters, IntervalTimeWindow window) {
+        Query<Object[]> select = entityManager.unwrap(Session.class).createQuery(query, Object[].class);
+        parameters.forEach(select::setParameter);
+        ScrollableResults<Object[]> rows = select
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .scroll(ScrollMode.FORWARD_ONLY);
+
+        Iterator<IntervalBlockDto> blocks = new IntervalBlockAssembler(rows, window);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(blocks, Spliterator.ORDERED), false)
+            .onClose(rows::close);
+    }
+
+    /**
+     * Identity and version of an interval block.
+     *
+     * @param id the interval block ID
+     * @param updated the block's updated timestamp
+     */
+    public record IntervalBlockVersion(UUID id, LocalDateTime updated) {
+    }
+
+    /**
+     * Groups consecutive rows of the block tree query into interval blocks.
+     */
+    private static final class IntervalBlockAssembler implements Iterator<IntervalBlockDto> {
+
+        private final ScrollableResults<Object[]> rows;
+        private final IntervalTimeWindow window;
+        private Object[] pending;
+        private IntervalBlockDto next;
+
+        private IntervalBlockAssembler(ScrollableResults<Object[]> rows, IntervalTimeWindow window) {
+            this.rows = rows;
+            this.window = window;
+            this.pending = rows.next() ? rows.get() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && pending != null) {
+                next = assemble();
+            }
+            return next != null;
+        }
+
+        @Override
+        public IntervalBlockDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IntervalBlockDto block = next;
+            next = null;
+            return block;
+        }
+
+        /**
+         * Assembles the block of the pending row, consuming its rows.
+         *
+         * @return the block, or null if it is packed and none of its readings lie in the window
+         */
+        private IntervalBlockDto assemble() {
+            Object[] blockRow = pending;
+            UUID blockId = (UUID) blockRow[0];
+            byte[] packedReadings = (byte[]) blockRow[14];
+            List<IntervalReadingDto> readings = new ArrayList<>();
+
+            while (pending != null && blockId.equals(pending[0])) {
+                Object[] row = pending;
+                if (packedReadings == null && row[6] != null) {
+                    readings.add(toReading(row));
+                }
+                pending = rows.next() ? rows.get() : null;
+            }
+
+            if (packedReadings != null) {
+                for (PackedIntervalReadings.Reading reading : PackedIntervalReadings.unpack(packedReadings)) {
+                    if (window.containsReadingStart(reading.start())) {
+                        readings.add(toReading(reading));
+                    }
+                }
+            }
+            if (readings.isEmpty() && window.boundsReadings()) {
+                return null;
+            }
+
+            return new IntervalBlockDto(
+                null,
+                blockId.toString(),
+                toOffset((LocalDateTime) blockRow[2]),
+                toOffset((LocalDateTime) blockRow[3]),
+                null,
+                null,
+                null,
+                (String) blockRow[1],
+                interval((Long) blockRow[4], (Long) blockRow[5]),
+                readings
+            );
+        }
+
+        private static IntervalReadingDto toReading(PackedIntervalReadings.Reading reading) {
+            return new IntervalReadingDto(
+                null, null, null, null, null, null, null,
+                reading.cost(),
+                null,
+                reading.value(),
+                interval(reading.start(), reading.duration()),
+                toQualities(reading.qualities()),
+                toInteger(reading.consumptionTier()),
+                toInteger(reading.tou()),
+                toInteger(reading.cpp())
+            );
+        }
+
+        @SuppressWarnings("unchecked")
+        private static IntervalReadingDto toReading(Object[] row) {
+            return new IntervalReadingDto(
+                null, null, null, null, null, null, null,
+                (Long) row[8],
+                null,
+                (Long) row[9],
+                interval((Long) row[6], (Long) row[7]),
+                toQualities((List<String>) row[13]),
+                toInteger(row[10]),
+                toInteger(row[11]),
+                toInteger(row[12])
+            );
+        }
+
+        private static List<ReadingQualityDto> toQualities(List<String> qualities) {
+            if (qualities == null || qualities.isEmpty()) {
+                return null;
+            }
+            return qualities.stream()
+                .map(quality -> new ReadingQualityDto(null, quality))
+                .toList();
+        }
+
+        private static DateTimeIntervalDto interval(Long start, Long duration) {
+            return start != null || duration != null ? new DateTimeIntervalDto(start, duration) : null;
+        }
+
+        private static Integer toInteger(Object value) {
+            return value != null ? ((Long) value).intValue() : null;
+        }
+
+        private static OffsetDateTime toOffset(LocalDateTime localDateTime) {
+            return localDateTime != null ? localDateTime.atOffset(ZoneOffset.UTC) : null;
+        }
+    }
+}
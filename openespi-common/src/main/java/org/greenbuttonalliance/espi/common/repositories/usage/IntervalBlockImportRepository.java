@@ -0,0 +1,655 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.domain.usage.PackedIntervalReadings;
+import org.greenbuttonalliance.espi.common.domain.usage.ReadingQualitiesConverter;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
+import org.greenbuttonalliance.espi.common.utils.persistence.UuidKeyType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Write-only path for the interval data of imported feeds.
+ * <p>
+ * Interval blocks and their readings, which carry their reading qualities,
+ * are upserted with batched JDBC statements instead of entity {@code merge}, so
+ * no entities are hydrated or added to the persistence context and no SELECT
+ * precedes a write. Rows are buffered per {@link Batch} and written once
+ * {@code espi.import.batch-size} readings are pending; blocks are always
+ * written before their readings.
+ * <p>
+ * Blocks of a known meter reading are upserted on their natural key
+ * {@code (meter_reading_id, interval_start)}, other blocks on their ID, which
+ * {@link #blockId} derives from the href of their meter reading. Readings are
+ * keyed by their primary key {@code (interval_block_id, time_period_start)}. A
+ * re-delivered feed, or one overlapping an earlier one, therefore updates the
+ * rows already stored instead of duplicating them, whatever the IDs they were
+ * stored under: one {@code INSERT ... ON CONFLICT} statement per batch on
+ * PostgreSQL, {@code INSERT ... ON DUPLICATE KEY UPDATE} on MySQL and
+ * {@code MERGE ... KEY} on H2. Before its blocks are written, a batch looks up
+ * the ones already stored, with one query per meter reading, and writes them
+ * with their stored ID, meter reading and created time, which its readings
+ * then reference; as H2 replaces the whole row on {@code MERGE}, this is what
+ * keeps them there. The {@code updated} time of a block is moved to the time
+ * of the import, so that caches keyed on it see the change. The readings a
+ * block held before are deleted when it is written, so readings left out of a
+ * corrected block do not remain. The qualities of a reading are replaced with
+ * it. Readings without a time period start cannot be keyed and are skipped.
+ * <p>
+ * On PostgreSQL, readings, which make up nearly all rows, are streamed with
+ * binary {@code COPY} through {@link PostgresCopyLoader} unless
+ * {@code espi.import.copy.enabled} is false; blocks are still upserted in
+ * batches. Other databases always use batched statements.
+ * <p>
+ * With {@code espi.import.packed-readings} enabled, the readings of a block
+ * and their qualities are instead packed by {@link PackedIntervalReadings}
+ * into the block's {@code packed_readings} column, in start order, and no
+ * reading rows are written. Re-importing a block in either mode
+ * replaces its packed readings, clearing them in row mode, and deletes its
+ * reading rows, so the mode of the last import wins.
+ * <p>
+ * Statements run on the connection of the current transaction. Parent rows
+ * persisted through JPA in the same transaction must be flushed before a batch
+ * referencing them is written. On MySQL the driver only sends multi-row
+ * statements when the connection uses {@code rewriteBatchedStatements=true},
+ * on PostgreSQL when it uses {@code reWriteBatchedInserts=true}.
+ * <p>
+ * Keys are bound in the {@link UuidKeyType} selected by
+ * {@code espi.schema.binary-uuid-keys}.
+ */
+@Repository
+public class IntervalBlockImportRepository {
+
+    private static final String BLOCK_COLUMNS =
+        "id, uuid, uuid_msb, uuid_lsb, description, created, updated, published, up_link_rel, up_link_href, " +
+        "self_link_rel, self_link_href, interval_start, interval_duration, meter_reading_id, packed_readings";
+    private static final String BLOCK_KEY = "meter_reading_id, interval_start";
+    private static final List<String> BLOCK_UPDATES = List.of("description", "updated", "published", "up_link_rel",
+        "up_link_href", "self_link_rel", "self_link_href", "interval_duration", "packed_readings");
+    private static final List<String> BLOCK_UPDATES_BY_ID = List.of("description", "updated", "published",
+        "up_link_rel", "up_link_href", "self_link_rel", "self_link_href", "interval_start", "interval_duration",
+        "meter_reading_id", "packed_readings");
+
+    private static final String STORED_BLOCK_COLUMNS = "id, meter_reading_id, interval_start, created";
+    private static final String SELECT_STORED_BLOCKS_BY_START = "SELECT " + STORED_BLOCK_COLUMNS +
+        " FROM interval_blocks WHERE meter_reading_id = ? AND interval_start BETWEEN ? AND ?";
+
+    private static final String READING_COLUMNS =
+        "interval_block_id, time_period_start, time_period_duration, cost, reading_value, " +
+        "consumption_tier, tou, cpp, quality";
+    private static final String READING_KEY = "interval_block_id, time_period_start";
+    private static final List<String> READING_UPDATES = List.of("time_period_duration", "cost", "reading_value",
+        "consumption_tier", "tou", "cpp", "quality");
+
+    private static final String DELETE_READINGS =
+        "DELETE FROM interval_readings WHERE interval_block_id = ?";
+
+    private static final String UPDATE_METER_READING =
+        "UPDATE interval_blocks SET meter_reading_id = ? WHERE id = ?";
+    private static final String UPDATE_METER_READING_BY_UP_LINK =
+        "UPDATE interval_blocks SET meter_reading_id = ? WHERE up_link_href = ? AND meter_reading_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    private final ObjectProvider<PostgresCopyLoader> copyLoader;
+    private final boolean copyEnabled;
+    private final boolean packed;
+    private final boolean binaryUuidKeys;
+
+    private volatile Statements statements;
+
+    public IntervalBlockImportRepository(JdbcTemplate jdbcTemplate,
+                                         @Value("${espi.import.batch-size:1000}") int batchSize,
+                                         ObjectProvider<PostgresCopyLoader> copyLoader,
+                                         @Value("${espi.import.copy.enabled:true}") boolean copyEnabled,
+                                         @Value("${espi.import.packed-readings:false}") boolean packedReadings,
+                                         @Value("${espi.schema.binary-uuid-keys:false}") boolean binaryUuidKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.copyLoader = copyLoader;
+        this.copyEnabled = copyEnabled;
+        this.packed = packedReadings;
+        this.binaryUuidKeys = binaryUuidKeys;
+    }
+
+    /**
+     * Opens a batch for the interval data of one import.
+     *
+     * @return the batch; closing it writes the rows still pending
+     */
+    public Batch openBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Attaches imported interval blocks to meter readings that were not yet
+     * known when the blocks were written.
+     *
+     * @param meterReadingIds meter reading ID by interval block ID
+     */
+    public void updateMeterReadingIds(Map<UUID, UUID> meterReadingIds) {
+        UuidKeyType keyType = statements().keyType();
+        jdbcTemplate.batchUpdate(UPDATE_METER_READING, List.copyOf(meterReadingIds.entrySet()), batchSize,
+            (ps, entry) -> {
+                ps.setObject(1, keyType.bind(entry.getValue()));
+                ps.setObject(2, keyType.bind(entry.getKey()));
+            });
+    }
+
+    /**
+     * Attaches imported interval blocks whose IDs are not known to the meter
+     * readings they name in their up links, for blocks committed by an earlier
+     * run of an import job and passed over without being read. Blocks already
+     * attached are left alone. The up link is not indexed, so every entry
+     * scans the blocks.
+     *
+     * @param meterReadingIds meter reading ID by the up link of its interval blocks
+     */
+    public void updateMeterReadingIdsByUpLink(Map<String, UUID> meterReadingIds) {
+        UuidKeyType keyType = statements().keyType();
+        jdbcTemplate.batchUpdate(UPDATE_METER_READING_BY_UP_LINK, List.copyOf(meterReadingIds.entrySet()), batchSize,
+            (ps, entry) -> {
+                ps.setObject(1, keyType.bind(entry.getValue()));
+                ps.setString(2, entry.getKey());
+            });
+    }
+
+    /**
+     * Derives the ID of a new interval block of a known meter reading from
+     * the meter reading and its start. A block already stored keeps its ID.
+     *
+     * @param meterReadingId the meter reading ID
+     * @param block the block
+     * @return the block ID, or null if the meter reading is null or the block has no start
+     */
+    public static UUID blockId(UUID meterReadingId, IntervalBlockDto block) {
+        return meterReadingId != null ? blockId(meterReadingId.toString(), block) : null;
+    }
+
+    /**
+     * Derives the ID of an interval block imported before its meter reading
+     * from the href of the meter reading and its start, so that the same block
+     * imported twice gets the same ID, and is found again once the meter
+     * reading is known.
+     *
+     * @param meterReadingHref the self href of the meter reading
+     * @param block the block
+     * @return the block ID, or null if the href is null or the block has no start
+     */
+    public static UUID blockId(String meterReadingHref, IntervalBlockDto block) {
+        if (meterReadingHref == null || block.interval() == null || block.interval().start() == null) {
+            return null;
+        }
+        String name = meterReadingHref + "/IntervalBlock/" + block.interval().start();
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converts the readings of an imported block for packing, in start order.
+     * Readings repeated within the block are kept once, the last one winning,
+     * as their upsert would in row mode; readings without a start follow.
+     *
+     * @param block the imported block
+     * @return the readings to pack
+     */
+    static List<PackedIntervalReadings.Reading> toPackedReadings(ImportedBlock block) {
+        Map<Long, PackedIntervalReadings.Reading> byStart = new TreeMap<>();
+        List<PackedIntervalReadings.Reading> unstarted = new ArrayList<>();
+        List<IntervalReadingDto> blockReadings = block.block().intervalReadings();
+        if (blockReadings != null) {
+            for (IntervalReadingDto reading : blockReadings) {
+                PackedIntervalReadings.Reading packedReading = new PackedIntervalReadings.Reading(
+                    reading.timePeriod() != null ? reading.timePeriod().start() : null,
+                    reading.timePeriod() != null ? reading.timePeriod().duration() : null,
+                    reading.value(),
+                    reading.cost(),
+                    toLong(reading.consumptionTier()),
+                    toLong(reading.tou()),
+                    toLong(reading.cpp()),
+                    qualities(reading));
+                if (packedReading.start() != null) {
+                    byStart.put(packedReading.start(), packedReading);
+                } else {
+                    unstarted.add(packedReading);
+                }
+            }
+        }
+        List<PackedIntervalReadings.Reading> readings = new ArrayList<>(byStart.values());
+        readings.addAll(unstarted);
+        return readings;
+    }
+
+    private static List<String> qualities(IntervalReadingDto reading) {
+        if (reading.readingQualities() == null) {
+            return List.of();
+        }
+        return reading.readingQualities().stream()
+            .map(ReadingQualityDto::quality)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    }
+
+    /**
+     * An interval block entry of an imported feed.
+     *
+     * @param id the block ID
+     * @param meterReadingId the parent meter reading ID, or null if not yet known
+     * @param selfHref the self link of the entry
+     * @param upHref the up link of the entry
+     * @param published the published time of the entry, in UTC
+     * @param updated the updated time of the entry, in UTC
+     * @param block the block and its readings
+     */
+    public record ImportedBlock(UUID id, UUID meterReadingId, String selfHref, String upHref,
+                                LocalDateTime published, LocalDateTime updated, IntervalBlockDto block) {
+    }
+
+    /**
+     * A buffered interval block, bound to the ID, meter reading and created
+     * time of its stored row once that is looked up.
+     *
+     * @param created the created time of the stored row, or null for a new row
+     */
+    private record BlockRow(ImportedBlock block, UUID id, UUID meterReadingId, Timestamp created,
+                            byte[] packedReadings, int packedCount) {
+
+        BlockRow(ImportedBlock block, byte[] packedReadings, int packedCount) {
+            this(block, block.id(), block.meterReadingId(), null, packedReadings, packedCount);
+        }
+
+        /**
+         * @return true if the block is upserted on its meter reading and start, false if on its ID
+         */
+        boolean naturallyKeyed() {
+            return block.meterReadingId() != null && start() != null;
+        }
+
+        Long start() {
+            return block.block().interval() != null ? block.block().interval().start() : null;
+        }
+
+        BlockRow storedAs(StoredBlock stored) {
+            return new BlockRow(block, stored.id(), Objects.requireNonNullElse(meterReadingId, stored.meterReadingId()),
+                stored.created(), packedReadings, packedCount);
+        }
+    }
+
+    private record StoredBlock(UUID id, UUID meterReadingId, Long start, Timestamp created) {
+    }
+
+    private record ReadingRow(UUID blockId, IntervalReadingDto reading, String quality) {
+
+        ReadingRow withBlockId(UUID storedBlockId) {
+            return new ReadingRow(storedBlockId, reading, quality);
+        }
+    }
+
+    /**
+     * Buffered rows of one import. Not thread-safe.
+     */
+    public class Batch implements AutoCloseable {
+
+        // Keyed by block ID, and readings by start, so that rows repeated within a feed are written once
+        private final Map<UUID, BlockRow> blocks = new LinkedHashMap<>();
+        private final Map<UUID, Map<Long, ReadingRow>> readings = new LinkedHashMap<>();
+        private final Map<UUID, IntervalRollupRepository.Span> writtenSpans = new HashMap<>();
+        private final Timestamp created = Timestamp.valueOf(LocalDateTime.now());
+        private final UuidKeyType keyType = statements().keyType();
+
+        private long blockCount;
+        private long readingCount;
+        private long packedCount;
+        private int pendingReadings;
+
+        private Batch() {
+        }
+
+        /**
+         * Buffers an interval block with its readings and their qualities,
+         * packed or as rows, writing the pending rows once the batch size is
+         * reached.
+         *
+         * @param block the imported block
+         */
+        public void add(ImportedBlock block) {
+            addWrittenSpan(block);
+            if (packed) {
+                List<PackedIntervalReadings.Reading> packedReadings = toPackedReadings(block);
+                BlockRow previous = blocks.put(block.id(),
+                    new BlockRow(block, PackedIntervalReadings.pack(packedReadings), packedReadings.size()));
+                packedCount += packedReadings.size() - (previous != null ? previous.packedCount() : 0);
+            } else {
+                blocks.put(block.id(), new BlockRow(block, null, 0));
+                addReadings(block);
+            }
+            if (pendingReadings + packedCount >= batchSize) {
+                flush();
+            }
+        }
+
+        private void addWrittenSpan(ImportedBlock block) {
+            if (block.meterReadingId() == null) {
+                return;
+            }
+            long start = Long.MAX_VALUE;
+            long end = Long.MIN_VALUE;
+            List<IntervalReadingDto> blockReadings = block.block().intervalReadings();
+            if (blockReadings != null) {
+                for (IntervalReadingDto reading : blockReadings) {
+                    if (reading.timePeriod() != null && reading.timePeriod().start() != null) {
+                        start = Math.min(start, reading.timePeriod().start());
+                        end = Math.max(end, reading.timePeriod().start() + 1);
+                    }
+                }
+            }
+            // Readings the block held before, which are deleted when it is written, lie within its interval
+            DateTimeIntervalDto interval = block.block().interval();
+            if (interval != null && interval.start() != null && interval.duration() != null) {
+                start = Math.min(start, interval.start());
+                end = Math.max(end, interval.start() + interval.duration());
+            }
+            if (start < end) {
+                writtenSpans.merge(block.meterReadingId(), new IntervalRollupRepository.Span(start, end),
+                    IntervalRollupRepository.Span::union);
+            }
+        }
+
+        private void addReadings(ImportedBlock block) {
+            Map<Long, ReadingRow> blockRows = new LinkedHashMap<>();
+            List<IntervalReadingDto> blockReadings = block.block().intervalReadings();
+            if (blockReadings != null) {
+                for (IntervalReadingDto reading : blockReadings) {
+                    if (reading.timePeriod() == null || reading.timePeriod().start() == null) {
+                        continue;
+                    }
+                    List<String> qualities = qualities(reading);
+                    blockRows.put(reading.timePeriod().start(), new ReadingRow(block.id(), reading,
+                        qualities.isEmpty() ? null : String.join(ReadingQualitiesConverter.SEPARATOR, qualities)));
+                }
+            }
+            // A block added again replaces the readings buffered with it
+            Map<Long, ReadingRow> previous = readings.put(block.id(), blockRows);
+            pendingReadings += blockRows.size() - (previous != null ? previous.size() : 0);
+        }
+
+        /**
+         * Writes all pending rows.
+         */
+        public void flush() {
+            Statements sql = statements();
+            Map<UUID, UUID> storedIds = new HashMap<>();
+            if (!blocks.isEmpty()) {
+                List<BlockRow> rows = withStoredRows(blocks.values());
+                Map<Boolean, List<BlockRow>> byKey = rows.stream()
+                    .collect(Collectors.partitioningBy(BlockRow::naturallyKeyed));
+                jdbcTemplate.batchUpdate(sql.block(), byKey.get(true), batchSize, this::setBlock);
+                jdbcTemplate.batchUpdate(sql.blockById(), byKey.get(false), batchSize, this::setBlock);
+                rows.forEach(row -> storedIds.put(row.block().id(), row.id()));
+                jdbcTemplate.batchUpdate(DELETE_READINGS, List.copyOf(storedIds.values()), batchSize,
+                    (ps, blockId) -> ps.setObject(1, keyType.bind(blockId)));
+                blockCount += blocks.size();
+                readingCount += packedCount;
+                packedCount = 0;
+                blocks.clear();
+            }
+            if (pendingReadings > 0) {
+                List<ReadingRow> rows = readings.values().stream()
+                    .flatMap(blockRows -> blockRows.values().stream())
+                    .map(row -> row.withBlockId(storedIds.getOrDefault(row.blockId(), row.blockId())))
+                    .toList();
+                if (sql.copyLoader() != null) {
+                    copy(sql.copyLoader(), "interval_readings", READING_COLUMNS, READING_KEY, READING_UPDATES,
+                        rows, this::writeReading);
+                } else {
+                    jdbcTemplate.batchUpdate(sql.reading(), rows, batchSize, this::setReading);
+                }
+                readingCount += pendingReadings;
+                pendingReadings = 0;
+            }
+            readings.clear();
+        }
+
+        /**
+         * Binds buffered blocks to their stored rows: blocks of a known
+         * meter reading are looked up by their start, with one query per
+         * meter reading, the others by their ID.
+         */
+        private List<BlockRow> withStoredRows(Collection<BlockRow> rows) {
+            Map<UUID, Map<Long, StoredBlock>> byStart = new HashMap<>();
+            rows.stream()
+                .filter(BlockRow::naturallyKeyed)
+                .collect(Collectors.groupingBy(BlockRow::meterReadingId, Collectors.summarizingLong(BlockRow::start)))
+                .forEach((meterReadingId, starts) -> byStart.put(meterReadingId,
+                    jdbcTemplate.query(SELECT_STORED_BLOCKS_BY_START, this::mapStoredBlock,
+                            keyType.bind(meterReadingId), starts.getMin(), starts.getMax()).stream()
+                        .collect(Collectors.toMap(StoredBlock::start, stored -> stored))));
+            Map<UUID, StoredBlock> byId = new HashMap<>();
+            List<UUID> ids = rows.stream().filter(row -> !row.naturallyKeyed()).map(BlockRow::id).toList();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<UUID> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                jdbcTemplate.query("SELECT " + STORED_BLOCK_COLUMNS + " FROM interval_blocks WHERE id IN (" +
+                        String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", this::mapStoredBlock,
+                        chunk.stream().map(keyType::bind).toArray())
+                    .forEach(stored -> byId.put(stored.id(), stored));
+            }
+            return rows.stream()
+                .map(row -> {
+                    StoredBlock stored = row.naturallyKeyed()
+                        ? byStart.get(row.meterReadingId()).get(row.start())
+                        : byId.get(row.id());
+                    return stored != null ? row.storedAs(stored) : row;
+                })
+                .toList();
+        }
+
+        private StoredBlock mapStoredBlock(ResultSet rs, int rowNum) throws SQLException {
+            return new StoredBlock(keyType.read(rs.getObject("id")), keyType.read(rs.getObject("meter_reading_id")),
+                rs.getObject("interval_start", Long.class), rs.getTimestamp("created"));
+        }
+
+        /**
+         * Returns the reading starts added per meter reading since the last
+         * call, and forgets them. Blocks not yet attached to a meter reading
+         * are left out. Meant to be called once the batch is flushed, to
+         * refresh the rollups of what it wrote.
+         *
+         * @return the spans of reading starts by meter reading ID
+         */
+        public Map<UUID, IntervalRollupRepository.Span> takeWrittenSpans() {
+            Map<UUID, IntervalRollupRepository.Span> spans = new HashMap<>(writtenSpans);
+            writtenSpans.clear();
+            return spans;
+        }
+
+        public long getBlockCount() {
+            return blockCount;
+        }
+
+        public long getReadingCount() {
+            return readingCount;
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        private void setBlock(PreparedStatement ps, BlockRow blockRow) throws SQLException {
+            ImportedBlock row = blockRow.block();
+            setIdentity(ps, keyType, blockRow.id());
+            ps.setString(5, row.block().description());
+            ps.setTimestamp(6, Objects.requireNonNullElse(blockRow.created(), created));
+            ps.setTimestamp(7, updated(row.updated()));
+            ps.setTimestamp(8, row.published() != null ? Timestamp.valueOf(row.published()) : null);
+            ps.setString(9, row.upHref() != null ? "up" : null);
+            ps.setString(10, row.upHref());
+            ps.setString(11, row.selfHref() != null ? "self" : null);
+            ps.setString(12, row.selfHref());
+            ps.setObject(13, row.block().interval() != null ? row.block().interval().start() : null, Types.BIGINT);
+            ps.setObject(14, row.block().interval() != null ? row.block().interval().duration() : null, Types.BIGINT);
+            ps.setObject(15, keyType.bind(blockRow.meterReadingId()));
+            ps.setBytes(16, blockRow.packedReadings());
+        }
+
+        private void setReading(PreparedStatement ps, ReadingRow row) throws SQLException {
+            IntervalReadingDto reading = row.reading();
+            ps.setObject(1, keyType.bind(row.blockId()));
+            ps.setLong(2, reading.timePeriod().start());
+            ps.setObject(3, reading.timePeriod().duration(), Types.BIGINT);
+            ps.setObject(4, reading.cost(), Types.BIGINT);
+            ps.setObject(5, reading.value(), Types.BIGINT);
+            ps.setObject(6, toLong(reading.consumptionTier()), Types.BIGINT);
+            ps.setObject(7, toLong(reading.tou()), Types.BIGINT);
+            ps.setObject(8, toLong(reading.cpp()), Types.BIGINT);
+            ps.setString(9, row.quality());
+        }
+
+        private void writeReading(ReadingRow row, PostgresCopyLoader.BinaryRow out) throws IOException {
+            IntervalReadingDto reading = row.reading();
+            (keyType == UuidKeyType.CHAR ? out.text(row.blockId().toString()) : out.uuid(row.blockId()))
+                .int8(reading.timePeriod().start())
+                .int8(reading.timePeriod().duration())
+                .int8(reading.cost())
+                .int8(reading.value())
+                .int8(toLong(reading.consumptionTier()))
+                .int8(toLong(reading.tou()))
+                .int8(toLong(reading.cpp()))
+                .text(row.quality());
+        }
+
+        /**
+         * Returns the updated time of the entry, or the time of the import if
+         * that is later, as it nearly always is.
+         */
+        private Timestamp updated(LocalDateTime value) {
+            return value != null && value.isAfter(created.toLocalDateTime()) ? Timestamp.valueOf(value) : created;
+        }
+    }
+
+    private Statements statements() {
+        Statements resolved = statements;
+        if (resolved == null) {
+            String product;
+            try {
+                product = JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Cannot determine the import database: " + e.getMessage(), e);
+            }
+            PostgresCopyLoader loader = copyEnabled && "PostgreSQL".equals(product) ? copyLoader.getIfAvailable() : null;
+            resolved = new Statements(
+                upsert(product, "interval_blocks", BLOCK_COLUMNS, BLOCK_KEY, BLOCK_UPDATES),
+                upsert(product, "interval_blocks", BLOCK_COLUMNS, "id", BLOCK_UPDATES_BY_ID),
+                upsert(product, "interval_readings", READING_COLUMNS, READING_KEY, READING_UPDATES),
+                loader,
+                UuidKeyType.of(binaryUuidKeys, product));
+            statements = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Builds the upsert statement of a table for the database product.
+     *
+     * @param product the database product name, as normalized by {@link JdbcUtils#commonDatabaseName}
+     * @param table the table
+     * @param columns the columns inserted, in parameter order
+     * @param key the columns of the unique key a conflict is detected on
+     * @param updates the columns overwritten on conflict; H2 overwrites all columns
+     * @return the statement
+     */
+    static String upsert(String product, String table, String columns, String key, List<String> updates) {
+        String placeholders = String.join(", ", Collections.nCopies(columns.split(",").length, "?"));
+        String insert = "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")";
+        return switch (product) {
+            case "PostgreSQL" -> insert + " ON CONFLICT (" + key + ") DO UPDATE SET " + updates.stream()
+                .map(column -> column + " = EXCLUDED." + column)
+                .collect(Collectors.joining(", "));
+            case "MySQL", "MariaDB" -> insert + " ON DUPLICATE KEY UPDATE " + updates.stream()
+                .map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.joining(", "));
+            case "H2" -> "MERGE INTO " + table + " (" + columns + ") KEY (" + key + ") VALUES (" + placeholders + ")";
+            default -> throw new IllegalStateException("Upsert is not supported on " + product);
+        };
+    }
+
+    private <T> void copy(PostgresCopyLoader loader, String table, String columns, String key, List<String> updates,
+                          List<T> rows, PostgresCopyLoader.RowWriter<T> rowWriter) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            loader.upsert(connection, table, columns, key, updates, rows, rowWriter);
+            return null;
+        });
+    }
+
+    /**
+     * The statements for the database in use.
+     *
+     * @param block the upsert of blocks on their meter reading and start
+     * @param blockById the upsert of blocks on their ID
+     * @param copyLoader the loader for readings, or null to batch them
+     * @param keyType the type keys are bound as
+     */
+    private record Statements(String block, String blockById, String reading, PostgresCopyLoader copyLoader,
+                              UuidKeyType keyType) {
+    }
+
+    private static void setIdentity(PreparedStatement ps, UuidKeyType keyType, UUID id) throws SQLException {
+        ps.setObject(1, keyType.bind(id));
+        ps.setString(2, id.toString());
+        ps.setLong(3, id.getMostSignificantBits());
+        ps.setLong(4, id.getLeastSignificantBits());
+    }
+
+    private static Long toLong(Integer value) {
+        return value != null ? value.longValue() : null;
+    }
+}
@@ -57,6 +57,9 @@ public interface IntervalBlockRepository extends JpaRepository<IntervalBlockEnti
 	@Query("SELECT i FROM IntervalBlockEntity i WHERE i.meterReading.id = :meterReadingId")
 	List<IntervalBlockEntity> findAllByMeterReadingId(@Param("meterReadingId") UUID meterReadingId);
 
+	@Query("SELECT COUNT(i) > 0 FROM IntervalBlockEntity i WHERE i.id = :id AND i.meterReading.id = :meterReadingId")
+	boolean existsByIdAndMeterReadingId(@Param("id") UUID id, @Param("meterReadingId") UUID meterReadingId);
+
 	@Query("SELECT i.id FROM IntervalBlockEntity i WHERE i.meterReading.usagePoint.id = :usagePointId")
 	List<UUID> findAllIdsByUsagePointId(@Param("usagePointId") UUID usagePointId);
 
@@ -0,0 +1,352 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the monthly partitions of {@code interval_readings} and purges
+ * interval data past a retention horizon.
+ * <p>
+ * On PostgreSQL and MySQL, the V10 migrations range-partition the readings by
+ * month of {@code time_period_start}, in UTC. PostgreSQL partitions are named
+ * {@code interval_readings_YYYYMM} and hold exactly their month; readings of
+ * months without a partition are held by {@code interval_readings_default}.
+ * MySQL partitions are named {@code pYYYYMM} and hold the readings before the
+ * end of their month not held by an earlier one; {@code p_future} holds the
+ * readings after the last month. Months are created ahead of time, and a
+ * PostgreSQL month whose readings already went to the default partition is
+ * created by moving them out of it.
+ * <p>
+ * Expired months are dropped, or detached to a table of their own for
+ * archiving: PostgreSQL keeps the detached partition as an ordinary table,
+ * MySQL exchanges the partition with a new table of the same name. Other
+ * databases, and schemas not yet partitioned, fall back to deleting the
+ * expired readings row by row.
+ * <p>
+ * Statements run on the connection of the current transaction. MySQL commits
+ * implicitly on partition DDL.
+ */
+@Repository
+public class IntervalReadingPartitionRepository {
+
+    static final String TABLE = "interval_readings";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    static final String MYSQL_FUTURE_PARTITION = "p_future";
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern POSTGRES_PARTITION = Pattern.compile(TABLE + "_(\\d{6})");
+    private static final Pattern MYSQL_PARTITION = Pattern.compile("p(\\d{6})");
+    private static final Pattern HISTORY_LENGTH = Pattern.compile("HistoryLength=(\\d+)");
+
+    private static final String POSTGRES_PARTITIONED =
+        "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+        "WHERE c.relname = '" + TABLE + "' AND pg_table_is_visible(c.oid)";
+    private static final String POSTGRES_PARTITIONS =
+        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+        "WHERE i.inhparent = '" + TABLE + "'::regclass";
+    private static final String POSTGRES_DEFAULT_MONTHS =
+        "SELECT DISTINCT to_char(to_timestamp(time_period_start) AT TIME ZONE 'UTC', 'YYYYMM') " +
+        "FROM " + DEFAULT_PARTITION + " WHERE time_period_start >= ?";
+    private static final String MYSQL_PARTITIONS =
+        "SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + TABLE + "' AND PARTITION_NAME IS NOT NULL";
+
+    private static final String SCOPES =
+        "SELECT scope FROM application_information_scopes WHERE scope LIKE '%HistoryLength=%' " +
+        "UNION SELECT scope FROM authorizations WHERE scope LIKE '%HistoryLength=%'";
+
+    private static final String EXPIRED_BLOCKS =
+        "FROM interval_blocks WHERE interval_start < ? AND interval_start + COALESCE(interval_duration, 0) <= ?";
+    private static final String TOUCH_BLOCKS =
+        "UPDATE interval_blocks SET updated = ? " +
+        "WHERE interval_start < ? AND interval_start + COALESCE(interval_duration, 0) > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String product;
+
+    public IntervalReadingPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return true if {@code interval_readings} is partitioned by month
+     */
+    public boolean isPartitioned() {
+        return switch (product()) {
+            case "PostgreSQL" -> jdbcTemplate.queryForObject(POSTGRES_PARTITIONED, Integer.class) > 0;
+            case "MySQL", "MariaDB" -> !jdbcTemplate.queryForList(MYSQL_PARTITIONS, String.class).isEmpty();
+            default -> false;
+        };
+    }
+
+    /**
+     * Lists the months that have a partition of their own.
+     *
+     * @return the months, in order
+     */
+    public SortedSet<YearMonth> findPartitionMonths() {
+        return switch (product()) {
+            case "PostgreSQL" ->
+                months(jdbcTemplate.queryForList(POSTGRES_PARTITIONS, String.class), POSTGRES_PARTITION);
+            case "MySQL", "MariaDB" ->
+                months(jdbcTemplate.queryForList(MYSQL_PARTITIONS, String.class), MYSQL_PARTITION);
+            default -> new TreeSet<>();
+        };
+    }
+
+    /**
+     * Lists the months with readings in the PostgreSQL default partition, which
+     * are missing a partition of their own.
+     *
+     * @param fromMonth the first month of interest
+     * @return the months, in order; always empty on other databases
+     */
+    public SortedSet<YearMonth> findDefaultPartitionMonths(YearMonth fromMonth) {
+        if (!"PostgreSQL".equals(product())) {
+            return new TreeSet<>();
+        }
+        return jdbcTemplate.queryForList(POSTGRES_DEFAULT_MONTHS, String.class, start(fromMonth)).stream()
+            .map(month -> YearMonth.parse(month, MONTH_SUFFIX))
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Creates the partition of a month.
+     * <p>
+     * On PostgreSQL the partition is built as a table of its own, filled with
+     * the readings of the month moved out of the default partition, and
+     * attached, which does not block queries on other months. MySQL range
+     * partitions only grow at the end, so there the month is split off
+     * {@code p_future} if it follows the last partitioned month, and skipped
+     * otherwise.
+     *
+     * @param month the month
+     * @return true if the partition was created
+     */
+    public boolean createPartition(YearMonth month) {
+        return switch (product()) {
+            case "PostgreSQL" -> {
+                createPostgresPartition(month);
+                yield true;
+            }
+            case "MySQL", "MariaDB" -> {
+                SortedSet<YearMonth> months = findPartitionMonths();
+                if (!months.isEmpty() && !month.isAfter(months.last())) {
+                    yield false;
+                }
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MYSQL_FUTURE_PARTITION +
+                    " INTO (PARTITION " + mySqlPartitionName(month) +
+                    " VALUES LESS THAN (" + start(month.plusMonths(1)) + "), PARTITION " + MYSQL_FUTURE_PARTITION +
+                    " VALUES LESS THAN MAXVALUE)");
+                yield true;
+            }
+            default -> throw new IllegalStateException("Interval readings are not partitioned on " + product());
+        };
+    }
+
+    private void createPostgresPartition(YearMonth month) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + TABLE + " INCLUDING DEFAULTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+            " WHERE time_period_start >= ? AND time_period_start < ? RETURNING *) " +
+            "INSERT INTO " + partition + " SELECT * FROM moved", start(month), start(month.plusMonths(1)));
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition +
+            " FOR VALUES FROM (" + start(month) + ") TO (" + start(month.plusMonths(1)) + ")");
+    }
+
+    /**
+     * Removes the partition of a month, dropping its readings or detaching
+     * them to a table named like the PostgreSQL partition.
+     *
+     * @param month the month
+     * @param detach true to keep the readings in a table of their own
+     */
+    public void removePartition(YearMonth month, boolean detach) {
+        String archive = partitionName(month);
+        switch (product()) {
+            case "PostgreSQL" -> jdbcTemplate.execute(detach
+                ? "ALTER TABLE " + TABLE + " DETACH PARTITION " + archive
+                : "DROP TABLE " + archive);
+            case "MySQL", "MariaDB" -> {
+                String partition = mySqlPartitionName(month);
+                if (detach) {
+                    jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE " + TABLE);
+                    jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + partition +
+                        " WITH TABLE " + archive);
+                }
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+            }
+            default -> throw new IllegalStateException("Interval readings are not partitioned on " + product());
+        }
+    }
+
+    /**
+     * Deletes the readings before a horizon that are not held by a month
+     * partition: those in the PostgreSQL default partition, or all of them
+     * when the table is not partitioned. Expired readings in MySQL partitions
+     * that also hold later readings are kept until their partition expires.
+     *
+     * @param horizon the first month kept
+     * @param partitioned whether the table is partitioned
+     * @return the number of readings deleted
+     */
+    public int deleteReadingsBefore(YearMonth horizon, boolean partitioned) {
+        if (!partitioned) {
+            return jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE time_period_start < ?", start(horizon));
+        }
+        if ("PostgreSQL".equals(product())) {
+            return jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE time_period_start < ?",
+                start(horizon));
+        }
+        return 0;
+    }
+
+    /**
+     * Deletes the interval blocks ending at or before a horizon, together with
+     * their remaining reading rows, which MySQL does not cascade to from a
+     * partitioned table.
+     *
+     * @param horizon the first month kept
+     * @return the number of blocks deleted
+     */
+    public int deleteBlocksBefore(YearMonth horizon) {
+        long start = start(horizon);
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE interval_block_id IN (SELECT id " + EXPIRED_BLOCKS + ")",
+            start, start);
+        return jdbcTemplate.update("DELETE " + EXPIRED_BLOCKS, start, start);
+    }
+
+    /**
+     * Moves the {@code updated} time of the interval blocks overlapping a
+     * range of months to now. Removing readings without writing their blocks
+     * leaves the blocks unchanged, so their blocks are touched instead, in the
+     * same transaction, for exports cached under the watermark of their trees
+     * to see the change.
+     *
+     * @param fromMonth the first month of the range
+     * @param toMonth the month after the range
+     * @return the number of blocks touched
+     */
+    public int touchBlocks(YearMonth fromMonth, YearMonth toMonth) {
+        return jdbcTemplate.update(TOUCH_BLOCKS, Timestamp.valueOf(LocalDateTime.now()), start(toMonth),
+            start(fromMonth));
+    }
+
+    /**
+     * Finds the longest ESPI {@code HistoryLength}, in months, requested by
+     * the scopes of registered applications and granted authorizations.
+     *
+     * @return the history length, or empty if no scope sets one
+     */
+    public OptionalInt findLongestHistoryLength() {
+        return jdbcTemplate.queryForList(SCOPES, String.class).stream()
+            .map(IntervalReadingPartitionRepository::historyLength)
+            .filter(OptionalInt::isPresent)
+            .mapToInt(OptionalInt::getAsInt)
+            .max();
+    }
+
+    /**
+     * Reads the longest {@code HistoryLength} of a scope string, which may
+     * hold several function blocks, such as
+     * {@code FB=4_5_15;IntervalDuration=3600;BlockDuration=monthly;HistoryLength=13}.
+     *
+     * @param scope the scope string
+     * @return the history length in months, or empty if the scope sets none
+     */
+    static OptionalInt historyLength(String scope) {
+        if (scope == null) {
+            return OptionalInt.empty();
+        }
+        Matcher matcher = HISTORY_LENGTH.matcher(scope);
+        OptionalInt longest = OptionalInt.empty();
+        while (matcher.find()) {
+            try {
+                int months = Integer.parseInt(matcher.group(1));
+                if (longest.isEmpty() || months > longest.getAsInt()) {
+                    longest = OptionalInt.of(months);
+                }
+            } catch (NumberFormatException e) {
+                // Too long to be a number of months
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * @return the first second of a month, in UTC epoch seconds
+     */
+    static long start(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(MONTH_SUFFIX);
+    }
+
+    static String mySqlPartitionName(YearMonth month) {
+        return "p" + month.format(MONTH_SUFFIX);
+    }
+
+    private static SortedSet<YearMonth> months(List<String> partitions, Pattern name) {
+        SortedSet<YearMonth> months = new TreeSet<>();
+        for (String partition : partitions) {
+            Matcher matcher = name.matcher(partition);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), MONTH_SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    private String product() {
+        String resolved = product;
+        if (resolved == null) {
+            try {
+                resolved = JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Cannot determine the interval database: " + e.getMessage(), e);
+            }
+            product = resolved;
+        }
+        return resolved;
+    }
+}
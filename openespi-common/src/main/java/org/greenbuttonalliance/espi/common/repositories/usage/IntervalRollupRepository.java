@@ -0,0 +1,507 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.domain.usage.PackedIntervalReadings;
+import org.greenbuttonalliance.espi.common.utils.persistence.UuidKeyType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Hourly, daily and monthly rollups of interval data, kept in
+ * {@code meter_reading_rollups} and {@code usage_point_rollups}.
+ * <p>
+ * A rollup counts the readings starting in its bucket and holds the sum,
+ * minimum and maximum of their values and the sum of their costs. Buckets are
+ * aligned on UTC hours, days and months. The rollups of a usage point add up
+ * those of its meter readings of the same reading type; meter readings
+ * without a usage point or reading type only have rollups of their own.
+ * <p>
+ * Rollups are maintained by recomputing the buckets a write touched rather
+ * than by adding deltas, so that re-imported readings replace their previous
+ * values and minimums and maximums stay exact. The hours and days touched are
+ * recomputed from the readings, packed or not, the months from their days,
+ * and the usage point buckets from those of its meter readings. Imports
+ * refresh the spans their interval blocks cover when
+ * {@code espi.rollups.enabled} is set; {@link #rebuild(UUID)} refreshes the
+ * whole span of the blocks of a meter reading, for data written before or by
+ * other means. Buckets outside that span, such as those of readings purged by
+ * retention, are kept.
+ * <p>
+ * Statements run on the connection of the current transaction. The rollups
+ * of a usage point add up meter readings that partitioned imports may write
+ * concurrently, for instance when their hrefs do not name the usage point, so
+ * they are replaced under a lock on the usage point row, held until the
+ * transaction ends. Usage points are locked in ID order, so that transactions
+ * refreshing several of them do not deadlock.
+ */
+@Repository
+public class IntervalRollupRepository {
+
+    private static final String READINGS =
+        "SELECT b.packed_readings, r.time_period_start, r.reading_value, r.cost FROM interval_blocks b " +
+        "LEFT JOIN interval_readings r ON r.interval_block_id = b.id AND b.packed_readings IS NULL " +
+        "AND r.time_period_start >= ? AND r.time_period_start < ? " +
+        "WHERE b.meter_reading_id = ? AND b.interval_start < ? " +
+        "AND (b.interval_start >= ? OR b.interval_start + COALESCE(b.interval_duration, 0) > ?)";
+    private static final String BLOCK_SPAN =
+        "SELECT MIN(interval_start), MAX(interval_start + COALESCE(interval_duration, 0)) " +
+        "FROM interval_blocks WHERE meter_reading_id = ?";
+    private static final String METER_READINGS =
+        "SELECT DISTINCT meter_reading_id FROM interval_blocks WHERE meter_reading_id IS NOT NULL";
+    private static final String PARENTS =
+        "SELECT usage_point_id, reading_type_id FROM meter_readings WHERE id = ?";
+    private static final String LOCK_USAGE_POINT =
+        "SELECT id FROM usage_points WHERE id = ? FOR UPDATE";
+
+    private static final String COLUMNS = "bucket_start, reading_count, value_sum, value_min, value_max, cost_sum";
+    private static final String BUCKETS = "granularity = ? AND bucket_start >= ? AND bucket_start < ?";
+    private static final String SELECT_METER_READING = "SELECT " + COLUMNS + " FROM meter_reading_rollups " +
+        "WHERE meter_reading_id = ? AND " + BUCKETS + " ORDER BY bucket_start";
+    private static final String SELECT_USAGE_POINT = "SELECT " + COLUMNS + " FROM usage_point_rollups " +
+        "WHERE usage_point_id = ? AND reading_type_id = ? AND " + BUCKETS + " ORDER BY bucket_start";
+    private static final String DELETE_METER_READING =
+        "DELETE FROM meter_reading_rollups WHERE meter_reading_id = ? AND " + BUCKETS;
+    private static final String INSERT_METER_READING = "INSERT INTO meter_reading_rollups " +
+        "(meter_reading_id, granularity, " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_USAGE_POINT =
+        "DELETE FROM usage_point_rollups WHERE usage_point_id = ? AND reading_type_id = ? AND " + BUCKETS;
+    private static final String INSERT_USAGE_POINT = "INSERT INTO usage_point_rollups " +
+        "(usage_point_id, reading_type_id, granularity, " + COLUMNS + ") " +
+        "SELECT m.usage_point_id, m.reading_type_id, r.granularity, r.bucket_start, SUM(r.reading_count), " +
+        "SUM(r.value_sum), MIN(r.value_min), MAX(r.value_max), SUM(r.cost_sum) " +
+        "FROM meter_reading_rollups r JOIN meter_readings m ON m.id = r.meter_reading_id " +
+        "WHERE m.usage_point_id = ? AND m.reading_type_id = ? AND r.granularity = ? " +
+        "AND r.bucket_start >= ? AND r.bucket_start < ? " +
+        "GROUP BY m.usage_point_id, m.reading_type_id, r.granularity, r.bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UuidKeyType keyType;
+    private final boolean enabled;
+
+    public IntervalRollupRepository(JdbcTemplate jdbcTemplate, UuidKeyType keyType,
+                                    @Value("${espi.rollups.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.keyType = keyType;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true if imports maintain the rollups
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recomputes the rollups of the buckets overlapping spans of reading
+     * starts of meter readings, and those of their usage points.
+     *
+     * @param spans the reading starts written, by meter reading ID
+     */
+    public void refresh(Map<UUID, Span> spans) {
+        SortedMap<UsagePointKey, Buckets> usagePoints = new TreeMap<>();
+        spans.forEach((meterReadingId, span) -> {
+            if (span.end() <= span.start()) {
+                return;
+            }
+            Object key = keyType.bind(meterReadingId);
+            Buckets buckets = refreshMeterReading(key, span);
+            for (UsagePointKey usagePoint : jdbcTemplate.query(PARENTS, (rs, rowNum) ->
+                    rs.getObject(1) != null && rs.getObject(2) != null
+                        ? new UsagePointKey(keyType.read(rs.getObject(1)), keyType.read(rs.getObject(2)))
+                        : null, key)) {
+                if (usagePoint != null) {
+                    usagePoints.merge(usagePoint, buckets, Buckets::union);
+                }
+            }
+        });
+
+        UUID locked = null;
+        for (Map.Entry<UsagePointKey, Buckets> entry : usagePoints.entrySet()) {
+            Object usagePointId = keyType.bind(entry.getKey().usagePointId());
+            Object readingTypeId = keyType.bind(entry.getKey().readingTypeId());
+            if (!entry.getKey().usagePointId().equals(locked)) {
+                jdbcTemplate.queryForList(LOCK_USAGE_POINT, usagePointId);
+                locked = entry.getKey().usagePointId();
+            }
+            Buckets buckets = entry.getValue();
+            replaceUsagePoint(usagePointId, readingTypeId, Granularity.HOUR, buckets.dayStart(), buckets.dayEnd());
+            replaceUsagePoint(usagePointId, readingTypeId, Granularity.DAY, buckets.dayStart(), buckets.dayEnd());
+            replaceUsagePoint(usagePointId, readingTypeId, Granularity.MONTH, buckets.monthStart(), buckets.monthEnd());
+        }
+    }
+
+    /**
+     * Recomputes the rollups over the whole span of the interval blocks of a
+     * meter reading, and those of its usage point.
+     *
+     * @param meterReadingId the meter reading ID
+     */
+    public void rebuild(UUID meterReadingId) {
+        rebuild(List.of(meterReadingId));
+    }
+
+    /**
+     * Recomputes the rollups over the whole span of the interval blocks of
+     * meter readings, and those of their usage points.
+     *
+     * @param meterReadingIds the meter reading IDs
+     */
+    public void rebuild(Collection<UUID> meterReadingIds) {
+        Map<UUID, Span> spans = new HashMap<>();
+        for (UUID meterReadingId : meterReadingIds) {
+            Span span = jdbcTemplate.queryForObject(BLOCK_SPAN, (rs, rowNum) -> {
+                Long start = getLong(rs, 1);
+                return start != null ? new Span(start, Math.max(rs.getLong(2), start + 1)) : null;
+            }, keyType.bind(meterReadingId));
+            if (span != null) {
+                spans.put(meterReadingId, span);
+            }
+        }
+        refresh(spans);
+    }
+
+    /**
+     * @return the IDs of the meter readings with interval blocks
+     */
+    public List<UUID> findMeterReadingIds() {
+        return jdbcTemplate.query(METER_READINGS, (rs, rowNum) -> keyType.read(rs.getObject(1)));
+    }
+
+    /**
+     * Finds the rollups of a meter reading.
+     *
+     * @param meterReadingId the meter reading ID
+     * @param granularity the bucket size
+     * @param from the first bucket start, UTC epoch seconds
+     * @param to the bucket start to stop before
+     * @return the rollups, in bucket order; buckets without readings are absent
+     */
+    public List<Rollup> findByMeterReading(UUID meterReadingId, Granularity granularity, long from, long to) {
+        return jdbcTemplate.query(SELECT_METER_READING, IntervalRollupRepository::toRollup,
+            keyType.bind(meterReadingId), granularity.name(), from, to);
+    }
+
+    /**
+     * Finds the rollups of the meter readings of a usage point with a reading
+     * type.
+     *
+     * @param usagePointId the usage point ID
+     * @param readingTypeId the reading type ID
+     * @param granularity the bucket size
+     * @param from the first bucket start, UTC epoch seconds
+     * @param to the bucket start to stop before
+     * @return the rollups, in bucket order; buckets without readings are absent
+     */
+    public List<Rollup> findByUsagePoint(UUID usagePointId, UUID readingTypeId, Granularity granularity,
+                                         long from, long to) {
+        return jdbcTemplate.query(SELECT_USAGE_POINT, IntervalRollupRepository::toRollup,
+            keyType.bind(usagePointId), keyType.bind(readingTypeId), granularity.name(), from, to);
+    }
+
+    /**
+     * Totals the readings of a meter reading starting in a range of whole
+     * hours, from the coarsest buckets that fit in it.
+     *
+     * @param meterReadingId the meter reading ID
+     * @param from the range start, UTC epoch seconds on the hour
+     * @param to the range end, exclusive, on the hour
+     * @return the total, with the range start as bucket start
+     * @throws IllegalArgumentException if a bound is not on the hour
+     */
+    public Rollup totalByMeterReading(UUID meterReadingId, long from, long to) {
+        return total(from, to, (granularity, start, end) ->
+            findByMeterReading(meterReadingId, granularity, start, end));
+    }
+
+    /**
+     * Totals the readings of the meter readings of a usage point with a
+     * reading type starting in a range of whole hours, from the coarsest
+     * buckets that fit in it.
+     *
+     * @param usagePointId the usage point ID
+     * @param readingTypeId the reading type ID
+     * @param from the range start, UTC epoch seconds on the hour
+     * @param to the range end, exclusive, on the hour
+     * @return the total, with the range start as bucket start
+     * @throws IllegalArgumentException if a bound is not on the hour
+     */
+    public Rollup totalByUsagePoint(UUID usagePointId, UUID readingTypeId, long from, long to) {
+        return total(from, to, (granularity, start, end) ->
+            findByUsagePoint(usagePointId, readingTypeId, granularity, start, end));
+    }
+
+    private static Rollup total(long from, long to, Finder finder) {
+        if (Granularity.HOUR.start(from) != from || Granularity.HOUR.start(to) != to) {
+            throw new IllegalArgumentException("Rollup totals need bounds on the hour: " + from + ", " + to);
+        }
+        Accumulator total = new Accumulator();
+        collect(finder, Granularity.MONTH, from, to, total);
+        return total.toRollup(from);
+    }
+
+    /**
+     * Adds the buckets of a granularity lying within a range, and the edges of
+     * the range left over from the next finer granularity.
+     */
+    private static void collect(Finder finder, Granularity granularity, long from, long to, Accumulator total) {
+        if (from >= to) {
+            return;
+        }
+        if (granularity == Granularity.HOUR) {
+            finder.find(granularity, from, to).forEach(total::add);
+            return;
+        }
+        Granularity finer = Granularity.values()[granularity.ordinal() - 1];
+        long first = granularity.start(from) == from ? from : granularity.next(granularity.start(from));
+        long last = granularity.start(to);
+        if (first >= last) {
+            collect(finder, finer, from, to, total);
+            return;
+        }
+        collect(finder, finer, from, first, total);
+        finder.find(granularity, first, last).forEach(total::add);
+        collect(finder, finer, last, to, total);
+    }
+
+    /**
+     * Recomputes the rollups of a meter reading over the buckets overlapping a
+     * span of reading starts.
+     *
+     * @return the day and month buckets recomputed
+     */
+    private Buckets refreshMeterReading(Object key, Span span) {
+        long dayStart = Granularity.DAY.start(span.start());
+        long dayEnd = Granularity.DAY.next(Granularity.DAY.start(span.end() - 1));
+        long monthStart = Granularity.MONTH.start(dayStart);
+        long monthEnd = Granularity.MONTH.next(Granularity.MONTH.start(dayEnd - 1));
+
+        SortedMap<Long, Accumulator> hours = new TreeMap<>();
+        SortedMap<Long, Accumulator> days = new TreeMap<>();
+        jdbcTemplate.query(READINGS, rs -> {
+            byte[] packedReadings = rs.getBytes(1);
+            if (packedReadings != null) {
+                for (PackedIntervalReadings.Reading reading : PackedIntervalReadings.unpack(packedReadings)) {
+                    Long start = reading.start();
+                    if (start != null && start >= dayStart && start < dayEnd) {
+                        add(hours, days, start, reading.value(), reading.cost());
+                    }
+                }
+            } else {
+                Long start = getLong(rs, 2);
+                if (start != null) {
+                    add(hours, days, start, getLong(rs, 3), getLong(rs, 4));
+                }
+            }
+        }, dayStart, dayEnd, key, dayEnd, dayStart, dayStart);
+        replace(key, Granularity.HOUR, dayStart, dayEnd, hours);
+        replace(key, Granularity.DAY, dayStart, dayEnd, days);
+
+        SortedMap<Long, Accumulator> months = new TreeMap<>();
+        for (Rollup day : jdbcTemplate.query(SELECT_METER_READING, IntervalRollupRepository::toRollup,
+                key, Granularity.DAY.name(), monthStart, monthEnd)) {
+            months.computeIfAbsent(Granularity.MONTH.start(day.bucketStart()), start -> new Accumulator()).add(day);
+        }
+        replace(key, Granularity.MONTH, monthStart, monthEnd, months);
+        return new Buckets(dayStart, dayEnd, monthStart, monthEnd);
+    }
+
+    private void replace(Object key, Granularity granularity, long from, long to,
+                         SortedMap<Long, Accumulator> buckets) {
+        jdbcTemplate.update(DELETE_METER_READING, key, granularity.name(), from, to);
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, Accumulator> bucket : buckets.entrySet()) {
+            Rollup rollup = bucket.getValue().toRollup(bucket.getKey());
+            rows.add(new Object[] {key, granularity.name(), rollup.bucketStart(), rollup.readingCount(),
+                rollup.valueSum(), rollup.valueMin(), rollup.valueMax(), rollup.costSum()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_METER_READING, rows);
+        }
+    }
+
+    private void replaceUsagePoint(Object usagePointId, Object readingTypeId, Granularity granularity,
+                                   long from, long to) {
+        jdbcTemplate.update(DELETE_USAGE_POINT, usagePointId, readingTypeId, granularity.name(), from, to);
+        jdbcTemplate.update(INSERT_USAGE_POINT, usagePointId, readingTypeId, granularity.name(), from, to);
+    }
+
+    private static void add(SortedMap<Long, Accumulator> hours, SortedMap<Long, Accumulator> days,
+                            long start, Long value, Long cost) {
+        hours.computeIfAbsent(Granularity.HOUR.start(start), bucket -> new Accumulator()).add(value, cost);
+        days.computeIfAbsent(Granularity.DAY.start(start), bucket -> new Accumulator()).add(value, cost);
+    }
+
+    private static Rollup toRollup(ResultSet rs, int rowNum) throws SQLException {
+        return new Rollup(rs.getLong(1), rs.getLong(2), getLong(rs, 3), getLong(rs, 4), getLong(rs, 5),
+            getLong(rs, 6));
+    }
+
+    private static Long getLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Bucket sizes, from the finest.
+     */
+    public enum Granularity {
+        HOUR, DAY, MONTH;
+
+        /**
+         * @param epochSecond an instant, UTC epoch seconds
+         * @return the start of the bucket holding it
+         */
+        public long start(long epochSecond) {
+            return switch (this) {
+                case HOUR -> Math.floorDiv(epochSecond, 3_600L) * 3_600L;
+                case DAY -> Math.floorDiv(epochSecond, 86_400L) * 86_400L;
+                case MONTH -> monthStart(YearMonth.from(Instant.ofEpochSecond(epochSecond).atOffset(ZoneOffset.UTC)));
+            };
+        }
+
+        /**
+         * @param bucketStart the start of a bucket
+         * @return the start of the following bucket
+         */
+        public long next(long bucketStart) {
+            return switch (this) {
+                case HOUR -> bucketStart + 3_600L;
+                case DAY -> bucketStart + 86_400L;
+                case MONTH -> monthStart(YearMonth.from(Instant.ofEpochSecond(bucketStart).atOffset(ZoneOffset.UTC))
+                    .plusMonths(1));
+            };
+        }
+
+        private static long monthStart(YearMonth month) {
+            return month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * A range of reading starts, UTC epoch seconds, end exclusive.
+     */
+    public record Span(long start, long end) {
+
+        public Span union(Span other) {
+            return new Span(Math.min(start, other.start), Math.max(end, other.end));
+        }
+    }
+
+    /**
+     * The aggregates of the readings starting in a bucket. Sums, minimum and
+     * maximum are null if no reading in the bucket has a value, or a cost.
+     *
+     * @param bucketStart the bucket start, UTC epoch seconds
+     * @param readingCount the number of readings
+     * @param valueSum the sum of the reading values
+     * @param valueMin the smallest reading value
+     * @param valueMax the largest reading value
+     * @param costSum the sum of the reading costs
+     */
+    public record Rollup(long bucketStart, long readingCount, Long valueSum, Long valueMin, Long valueMax,
+                         Long costSum) {
+    }
+
+    /**
+     * The usage point rollups of one reading type.
+     */
+    private record UsagePointKey(UUID usagePointId, UUID readingTypeId) implements Comparable<UsagePointKey> {
+
+        @Override
+        public int compareTo(UsagePointKey other) {
+            int byUsagePoint = usagePointId.compareTo(other.usagePointId);
+            return byUsagePoint != 0 ? byUsagePoint : readingTypeId.compareTo(other.readingTypeId);
+        }
+    }
+
+    /**
+     * Day and month buckets to recompute, starts inclusive and ends exclusive.
+     */
+    private record Buckets(long dayStart, long dayEnd, long monthStart, long monthEnd) {
+
+        private Buckets union(Buckets other) {
+            return new Buckets(Math.min(dayStart, other.dayStart), Math.max(dayEnd, other.dayEnd),
+                Math.min(monthStart, other.monthStart), Math.max(monthEnd, other.monthEnd));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Finder {
+        List<Rollup> find(Granularity granularity, long from, long to);
+    }
+
+    private static final class Accumulator {
+
+        private long count;
+        private Long sum;
+        private Long min;
+        private Long max;
+        private Long cost;
+
+        void add(Long value, Long readingCost) {
+            count++;
+            if (value != null) {
+                sum = sum == null ? value : sum + value;
+                min = min == null ? value : Math.min(min, value);
+                max = max == null ? value : Math.max(max, value);
+            }
+            if (readingCost != null) {
+                cost = cost == null ? readingCost : cost + readingCost;
+            }
+        }
+
+        void add(Rollup rollup) {
+            count += rollup.readingCount();
+            if (rollup.valueSum() != null) {
+                sum = sum == null ? rollup.valueSum() : sum + rollup.valueSum();
+            }
+            if (rollup.valueMin() != null) {
+                min = min == null ? rollup.valueMin() : Math.min(min, rollup.valueMin());
+            }
+            if (rollup.valueMax() != null) {
+                max = max == null ? rollup.valueMax() : Math.max(max, rollup.valueMax());
+            }
+            if (rollup.costSum() != null) {
+                cost = cost == null ? rollup.costSum() : cost + rollup.costSum();
+            }
+        }
+
+        Rollup toRollup(long bucketStart) {
+            return new Rollup(bucketStart, count, sum, min, max, cost);
+        }
+    }
+}
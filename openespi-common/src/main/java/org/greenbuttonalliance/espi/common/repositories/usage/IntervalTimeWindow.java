@@ -0,0 +1,229 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Time window applied to exported interval data, built from the ESPI feed query
+ * parameters.
+ * <p>
+ * {@code published-min}/{@code published-max} bound the period the data covers:
+ * interval blocks are kept when their interval overlaps the window, pruned on
+ * {@code interval_blocks.interval_start}, and readings when their own start lies
+ * in it, filtered on {@code interval_readings.time_period_start}. The
+ * {@code updated-min}/{@code updated-max} bounds select blocks by their
+ * {@code updated} timestamp, so incremental pulls only read blocks changed since
+ * the previous one. All bounds are half-open, minimum inclusive and maximum
+ * exclusive, and an absent bound adds no predicate at all.
+ *
+ * @param startMin inclusive lower bound on reading start, epoch seconds, or null
+ * @param startMax exclusive upper bound on reading start, epoch seconds, or null
+ * @param updatedMin inclusive lower bound on block updated time (UTC), or null
+ * @param updatedMax exclusive upper bound on block updated time (UTC), or null
+ */
+public record IntervalTimeWindow(Long startMin, Long startMax, LocalDateTime updatedMin, LocalDateTime updatedMax) {
+
+    public static final String PUBLISHED_MIN = "published-min";
+    public static final String PUBLISHED_MAX = "published-max";
+    public static final String UPDATED_MIN = "updated-min";
+    public static final String UPDATED_MAX = "updated-max";
+
+    /**
+     * Window without any bound.
+     */
+    public static final IntervalTimeWindow UNBOUNDED = new IntervalTimeWindow(null, null, null, null);
+
+    /**
+     * Creates a window bounding only the reading start.
+     *
+     * @param startMin inclusive lower bound, epoch seconds, or null
+     * @param startMax exclusive upper bound, epoch seconds, or null
+     * @return the window
+     */
+    public static IntervalTimeWindow ofReadingStart(Long startMin, Long startMax) {
+        return new IntervalTimeWindow(startMin, startMax, null, null);
+    }
+
+    /**
+     * Creates a window from ESPI query parameters. Values are RFC 3339
+     * timestamps such as {@code 2025-01-01T00:00:00Z}; parameters other than the
+     * four time bounds are ignored.
+     *
+     * @param parameters request query parameters
+     * @return the window
+     * @throws IllegalArgumentException if a bound is not a valid timestamp
+     */
+    public static IntervalTimeWindow fromQueryParameters(Map<String, String> parameters) {
+        OffsetDateTime publishedMin = parse(parameters, PUBLISHED_MIN);
+        OffsetDateTime publishedMax = parse(parameters, PUBLISHED_MAX);
+        OffsetDateTime updatedMin = parse(parameters, UPDATED_MIN);
+        OffsetDateTime updatedMax = parse(parameters, UPDATED_MAX);
+        return new IntervalTimeWindow(
+            publishedMin != null ? publishedMin.toEpochSecond() : null,
+            publishedMax != null ? publishedMax.toEpochSecond() : null,
+            toUtc(updatedMin),
+            toUtc(updatedMax));
+    }
+
+    /**
+     * Writes the window back as ESPI query parameters, in a fixed order and
+     * as UTC timestamps, so that equal windows give equal parameters however
+     * they were requested.
+     *
+     * @return the parameters of the bounds that are set
+     */
+    public Map<String, String> toQueryParameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (startMin != null) {
+            parameters.put(PUBLISHED_MIN, Instant.ofEpochSecond(startMin).toString());
+        }
+        if (startMax != null) {
+            parameters.put(PUBLISHED_MAX, Instant.ofEpochSecond(startMax).toString());
+        }
+        if (updatedMin != null) {
+            parameters.put(UPDATED_MIN, updatedMin.toInstant(ZoneOffset.UTC).toString());
+        }
+        if (updatedMax != null) {
+            parameters.put(UPDATED_MAX, updatedMax.toInstant(ZoneOffset.UTC).toString());
+        }
+        return parameters;
+    }
+
+    /**
+     * @return true if the window restricts which readings of a block are kept
+     */
+    public boolean boundsReadings() {
+        return startMin != null || startMax != null;
+    }
+
+    /**
+     * @return true if the window has no bound
+     */
+    public boolean isUnbounded() {
+        return !boundsReadings() && updatedMin == null && updatedMax == null;
+    }
+
+    /**
+     * Builds the JPQL predicates selecting interval blocks, each prefixed with
+     * {@code AND}, and adds their parameters.
+     *
+     * @param block alias of the interval block
+     * @param parameters query parameters to add to
+     * @return the predicates, empty for an unbounded window
+     */
+    String blockPredicates(String block, Map<String, Object> parameters) {
+        StringBuilder predicates = new StringBuilder();
+        if (startMin != null) {
+            predicates.append(" AND ").append(block).append(".interval.start + ")
+                .append(block).append(".interval.duration > :startMin");
+            parameters.put("startMin", startMin);
+        }
+        if (startMax != null) {
+            predicates.append(" AND ").append(block).append(".interval.start < :startMax");
+            parameters.put("startMax", startMax);
+        }
+        if (updatedMin != null) {
+            predicates.append(" AND ").append(block).append(".updated >= :updatedMin");
+            parameters.put("updatedMin", updatedMin);
+        }
+        if (updatedMax != null) {
+            predicates.append(" AND ").append(block).append(".updated < :updatedMax");
+            parameters.put("updatedMax", updatedMax);
+        }
+        return predicates.toString();
+    }
+
+    /**
+     * Builds the JPQL predicates selecting interval readings, each prefixed with
+     * {@code AND}, and adds their parameters. Meant to be combined with
+     * {@link #blockPredicates(String, Map)} on the same parameters.
+     *
+     * @param reading alias of the interval reading
+     * @param parameters query parameters to add to
+     * @return the predicates, empty if the window does not bound readings
+     */
+    String readingPredicates(String reading, Map<String, Object> parameters) {
+        StringBuilder predicates = new StringBuilder();
+        if (startMin != null) {
+            predicates.append(" AND ").append(reading).append(".id.start >= :startMin");
+            parameters.put("startMin", startMin);
+        }
+        if (startMax != null) {
+            predicates.append(" AND ").append(reading).append(".id.start < :startMax");
+            parameters.put("startMax", startMax);
+        }
+        return predicates.toString();
+    }
+
+    /**
+     * Builds the JPQL {@code ON} condition restricting joined interval readings
+     * to the window, and adds its parameters. Bounding the join rather than the
+     * row keeps blocks whose readings are packed, which have no reading rows
+     * and are filtered by {@link #containsReadingStart(Long)} once unpacked,
+     * and lets the database prune reading partitions by start.
+     *
+     * @param reading alias of the joined interval reading
+     * @param parameters query parameters to add to
+     * @return the condition with a leading space, empty if the window does not bound readings
+     */
+    String readingJoinCondition(String reading, Map<String, Object> parameters) {
+        String predicates = readingPredicates(reading, parameters);
+        if (predicates.isEmpty()) {
+            return predicates;
+        }
+        return " ON " + predicates.substring(" AND ".length());
+    }
+
+    /**
+     * Checks whether a reading start lies in the window.
+     *
+     * @param start reading start, epoch seconds, or null
+     * @return true if the window does not bound readings or contains the start
+     */
+    public boolean containsReadingStart(Long start) {
+        if (!boundsReadings()) {
+            return true;
+        }
+        return start != null && (startMin == null || start >= startMin) && (startMax == null || start < startMax);
+    }
+
+    private static OffsetDateTime parse(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " is not a valid UTC date-time: " + value, e);
+        }
+    }
+
+    private static LocalDateTime toUtc(OffsetDateTime value) {
+        return value != null ? value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime() : null;
+    }
+}
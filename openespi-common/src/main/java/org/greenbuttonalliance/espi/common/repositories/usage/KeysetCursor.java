@@ -0,0 +1,89 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a resource collection ordered by {@code (updated, id)}, used for
+ * keyset (seek) pagination.
+ * <p>
+ * A page following a cursor is selected with
+ * {@code updated > :updated OR (updated = :updated AND id > :id)}, which the
+ * {@code (updated, id)} indexes answer directly, so every page costs the same
+ * regardless of how deep into the collection it is, and rows inserted or
+ * updated meanwhile never shift an already-issued position. Clients receive the
+ * cursor as an opaque URL-safe token.
+ *
+ * @param updated updated timestamp of the last resource returned
+ * @param id ID of the last resource returned
+ */
+public record KeysetCursor(LocalDateTime updated, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Creates the cursor positioned after a resource.
+     *
+     * @param resource the last resource of a page
+     * @return the cursor
+     */
+    public static KeysetCursor after(IdentifiedObject resource) {
+        return new KeysetCursor(resource.getUpdated(), resource.getId());
+    }
+
+    /**
+     * Decodes a continuation token.
+     *
+     * @param token the token, as produced by {@link #encode()}
+     * @return the cursor, or null if the token is null or blank
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed continuation token: " + token);
+            }
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token, e);
+        }
+    }
+
+    /**
+     * @return the opaque continuation token for this cursor
+     */
+    public String encode() {
+        String value = updated.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
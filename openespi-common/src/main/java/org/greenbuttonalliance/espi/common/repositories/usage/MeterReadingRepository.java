@@ -20,6 +20,7 @@
 package org.greenbuttonalliance.espi.common.repositories.usage;
 
 import org.greenbuttonalliance.espi.common.domain.usage.MeterReadingEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +28,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -44,6 +46,9 @@ public interface MeterReadingRepository extends JpaRepository<MeterReadingEntity
 	@Query("SELECT m.id FROM MeterReadingEntity m")
 	List<UUID> findAllIds();
 
+	@Query("SELECT m.updated FROM MeterReadingEntity m WHERE m.id = :id")
+	Optional<LocalDateTime> findUpdatedById(@Param("id") UUID id);
+
 	// findById is already provided by JpaRepository<MeterReadingEntity, UUID>
 	// Optional<MeterReadingEntity> findById(UUID id) is inherited
 
@@ -61,6 +66,21 @@ public interface MeterReadingRepository extends JpaRepository<MeterReadingEntity
 	@Query("SELECT m.id FROM MeterReadingEntity m WHERE m.usagePoint.id = :usagePointId")
 	List<UUID> findAllIdsByUsagePointId(@Param("usagePointId") UUID usagePointId);
 
+	@Query("SELECT m FROM MeterReadingEntity m LEFT JOIN FETCH m.readingType WHERE m.usagePoint.id = :usagePointId")
+	List<MeterReadingEntity> findAllByUsagePointIdWithReadingType(@Param("usagePointId") UUID usagePointId);
+
+	@Query("SELECT m FROM MeterReadingEntity m ORDER BY m.updated, m.id")
+	List<MeterReadingEntity> findFirstKeysetPage(Limit limit);
+
+	@Query("SELECT m FROM MeterReadingEntity m WHERE m.updated > :updated OR (m.updated = :updated AND m.id > :id) ORDER BY m.updated, m.id")
+	List<MeterReadingEntity> findKeysetPageAfter(@Param("updated") LocalDateTime updated, @Param("id") UUID id, Limit limit);
+
+	default List<MeterReadingEntity> findKeysetPage(KeysetCursor after, int limit) {
+		return after == null
+			? findFirstKeysetPage(Limit.of(limit))
+			: findKeysetPageAfter(after.updated(), after.id(), Limit.of(limit));
+	}
+
 	@Query("SELECT DISTINCT m.id FROM UsagePointEntity u, MeterReadingEntity m WHERE u.retailCustomer.id = :o1Id AND m.usagePoint.id = :o2Id")
 	List<UUID> findAllIdsByXpath2(@Param("o1Id") UUID o1Id, @Param("o2Id") UUID o2Id);
 
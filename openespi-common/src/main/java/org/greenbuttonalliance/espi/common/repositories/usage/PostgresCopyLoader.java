@@ -0,0 +1,193 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk loader for PostgreSQL that streams rows with
+ * {@code COPY ... FROM STDIN (FORMAT binary)} instead of batched INSERTs.
+ * <p>
+ * COPY cannot resolve conflicts, so rows are copied into a temporary staging
+ * table shaped like the target, created once per connection and emptied on
+ * commit, and moved into the target with a single
+ * {@code INSERT ... SELECT ... ON CONFLICT} statement. Loading the same rows
+ * twice therefore updates them, as the batched upsert does.
+ * <p>
+ * Only available when the PostgreSQL driver is on the classpath.
+ */
+@Component
+@ConditionalOnClass(name = "org.postgresql.PGConnection")
+public class PostgresCopyLoader {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Upserts rows into a table through a staging table.
+     *
+     * @param connection the connection of the current transaction
+     * @param table the target table
+     * @param columns the columns written, in the order the row writer writes them
+     * @param key the columns of the unique key a conflict is detected on
+     * @param updates the columns overwritten on conflict
+     * @param rows the rows
+     * @param rowWriter writes the fields of one row
+     * @param <T> the row type
+     * @throws SQLException if a statement fails
+     */
+    public <T> void upsert(Connection connection, String table, String columns, String key, List<String> updates,
+                           List<T> rows, RowWriter<T> rowWriter) throws SQLException {
+        String staging = table + "_copy";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE IF NOT EXISTS " + staging +
+                " (LIKE " + table + " INCLUDING DEFAULTS) ON COMMIT DELETE ROWS");
+        }
+
+        int fieldCount = columns.split(",").length;
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new PGCopyOutputStream(pgConnection, "COPY " + staging + " (" + columns + ") FROM STDIN (FORMAT binary)"),
+                BUFFER_SIZE))) {
+            write(out, rows, fieldCount, rowWriter);
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + staging + " failed: " + e.getMessage(), e);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO " + table + " (" + columns + ") SELECT " + columns + " FROM " + staging +
+                " ON CONFLICT (" + key + ") DO UPDATE SET " + updates.stream()
+                    .map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", ")));
+            statement.execute("TRUNCATE " + staging);
+        }
+    }
+
+    /**
+     * Writes rows in the PostgreSQL binary COPY format: the signature and
+     * header, one tuple per row, and the trailer.
+     */
+    static <T> void write(DataOutputStream out, List<T> rows, int fieldCount, RowWriter<T> rowWriter) throws IOException {
+        out.write(SIGNATURE);
+        out.writeInt(0);
+        out.writeInt(0);
+        BinaryRow binaryRow = new BinaryRow(out);
+        for (T row : rows) {
+            out.writeShort(fieldCount);
+            rowWriter.write(row, binaryRow);
+        }
+        out.writeShort(-1);
+    }
+
+    /**
+     * Writes the fields of one row.
+     *
+     * @param <T> the row type
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(T row, BinaryRow out) throws IOException;
+    }
+
+    /**
+     * Field encoder for one tuple of a binary COPY; every field is written as
+     * its length followed by the value in the binary form of its column type.
+     */
+    public static final class BinaryRow {
+
+        private final DataOutputStream out;
+
+        private BinaryRow(DataOutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Writes a {@code char}, {@code varchar} or {@code text} field.
+         */
+        public BinaryRow text(String value) throws IOException {
+            if (value == null) {
+                return writeNull();
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            return this;
+        }
+
+        /**
+         * Writes a {@code uuid} field.
+         */
+        public BinaryRow uuid(UUID value) throws IOException {
+            if (value == null) {
+                return writeNull();
+            }
+            out.writeInt(16);
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+            return this;
+        }
+
+        /**
+         * Writes a {@code bigint} field.
+         */
+        public BinaryRow int8(Long value) throws IOException {
+            if (value == null) {
+                return writeNull();
+            }
+            out.writeInt(8);
+            out.writeLong(value);
+            return this;
+        }
+
+        /**
+         * Writes a {@code timestamp} field, as microseconds since 2000-01-01.
+         */
+        public BinaryRow timestamp(LocalDateTime value) throws IOException {
+            if (value == null) {
+                return writeNull();
+            }
+            out.writeInt(8);
+            out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, value));
+            return this;
+        }
+
+        private BinaryRow writeNull() throws IOException {
+            out.writeInt(-1);
+            return this;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package org.greenbuttonalliance.espi.common.repositories.usage;
 
 import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +28,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Optional;
@@ -69,12 +71,106 @@ public interface UsagePointRepository extends JpaRepository<UsagePointEntity, UU
     @Query("SELECT up.id FROM UsagePointEntity up WHERE up.retailCustomer.id = :retailCustomerId")
     List<UUID> findAllIdsByRetailCustomerId(@Param("retailCustomerId") UUID retailCustomerId);
 
+    /**
+     * Check if a usage point belongs to a retail customer.
+     */
+    @Query("SELECT COUNT(up) > 0 FROM UsagePointEntity up " +
+           "WHERE up.id = :id AND up.retailCustomer.id = :retailCustomerId")
+    boolean existsByIdAndRetailCustomerId(@Param("id") UUID id, @Param("retailCustomerId") UUID retailCustomerId);
+
+    /**
+     * Find all usage point IDs included in a subscription.
+     */
+    @Query("SELECT up.id FROM SubscriptionEntity s JOIN s.usagePoints up WHERE s.id = :subscriptionId")
+    List<UUID> findAllIdsBySubscriptionId(@Param("subscriptionId") UUID subscriptionId);
+
+    /**
+     * Find the first page of usage points in (updated, id) order.
+     */
+    @Query("SELECT up FROM UsagePointEntity up ORDER BY up.updated, up.id")
+    List<UsagePointEntity> findFirstKeysetPage(Limit limit);
+
+    /**
+     * Find the page of usage points following a position in (updated, id) order.
+     */
+    @Query("SELECT up FROM UsagePointEntity up " +
+           "WHERE up.updated > :updated OR (up.updated = :updated AND up.id > :id) " +
+           "ORDER BY up.updated, up.id")
+    List<UsagePointEntity> findKeysetPageAfter(@Param("updated") LocalDateTime updated, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Find a page of usage points in (updated, id) order, starting after the
+     * cursor or at the beginning if it is null.
+     */
+    default List<UsagePointEntity> findKeysetPage(KeysetCursor after, int limit) {
+        return after == null
+            ? findFirstKeysetPage(Limit.of(limit))
+            : findKeysetPageAfter(after.updated(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Find the first page of a subscription's usage points in (updated, id) order.
+     */
+    @Query("SELECT up FROM SubscriptionEntity s JOIN s.usagePoints up WHERE s.id = :subscriptionId " +
+           "ORDER BY up.updated, up.id")
+    List<UsagePointEntity> findFirstKeysetPageBySubscriptionId(@Param("subscriptionId") UUID subscriptionId, Limit limit);
+
+    /**
+     * Find the page of a subscription's usage points following a position in
+     * (updated, id) order.
+     */
+    @Query("SELECT up FROM SubscriptionEntity s JOIN s.usagePoints up WHERE s.id = :subscriptionId " +
+           "AND (up.updated > :updated OR (up.updated = :updated AND up.id > :id)) " +
+           "ORDER BY up.updated, up.id")
+    List<UsagePointEntity> findKeysetPageBySubscriptionIdAfter(@Param("subscriptionId") UUID subscriptionId,
+                                                                @Param("updated") LocalDateTime updated,
+                                                                @Param("id") UUID id, Limit limit);
+
+    /**
+     * Find a page of a subscription's usage points in (updated, id) order,
+     * starting after the cursor or at the beginning if it is null.
+     */
+    default List<UsagePointEntity> findKeysetPageBySubscriptionId(UUID subscriptionId, KeysetCursor after, int limit) {
+        return after == null
+            ? findFirstKeysetPageBySubscriptionId(subscriptionId, Limit.of(limit))
+            : findKeysetPageBySubscriptionIdAfter(subscriptionId, after.updated(), after.id(), Limit.of(limit));
+    }
+
+    /**
+     * Find the IDs of the usage points covered by a third party's bulk
+     * authorizations. The bulk id is carried in the authorization scope as
+     * {@code BR=<bulkId>}, either last or followed by {@code ;}. The patterns
+     * escape LIKE wildcards with {@code !}.
+     */
+    @Query("SELECT DISTINCT up.id FROM AuthorizationEntity a JOIN a.subscription s JOIN s.usagePoints up " +
+           "WHERE a.thirdParty = :thirdParty " +
+           "AND (a.scope LIKE :scopeInner ESCAPE '!' OR a.scope LIKE :scopeLast ESCAPE '!') " +
+           "ORDER BY up.id")
+    List<UUID> findAllIdsByBulkIdScope(@Param("thirdParty") String thirdParty,
+                                       @Param("scopeInner") String scopeInner,
+                                       @Param("scopeLast") String scopeLast);
+
+    /**
+     * Find the IDs of the usage points covered by a third party's bulk
+     * authorizations, in usage point ID order.
+     */
+    default List<UUID> findAllIdsByBulkId(String thirdParty, String bulkId) {
+        String scope = "%BR=" + bulkId.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return findAllIdsByBulkIdScope(thirdParty, scope + ";%", scope);
+    }
+
     /**
      * Find all usage point IDs.
      */
     @Query("SELECT up.id FROM UsagePointEntity up")
     List<UUID> findAllIds();
 
+    /**
+     * Find the last update timestamp of a usage point without loading it.
+     */
+    @Query("SELECT up.updated FROM UsagePointEntity up WHERE up.id = :id")
+    Optional<LocalDateTime> findUpdatedById(@Param("id") UUID id);
+
     /**
      * Check if usage point exists by UUID.
      */
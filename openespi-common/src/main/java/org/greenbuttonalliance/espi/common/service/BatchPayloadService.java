@@ -0,0 +1,69 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service;
+
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalTimeWindow;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
+import org.greenbuttonalliance.espi.common.utils.jaxb.CompressedPayloadStore.Payload;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Serves Batch feeds from the compressed payload store, generating each
+ * payload only when the data behind it has changed.
+ */
+public interface BatchPayloadService {
+
+    /**
+     * Checks whether Batch payloads are stored, or must be streamed directly
+     * through {@link DtoExportService}.
+     *
+     * @return true if the payload store is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Gets the gzip-compressed Batch/Subscription feed page.
+     *
+     * @param subscriptionId the subscription ID
+     * @param window interval data time window
+     * @param after keyset cursor of the previous page, or null for the first page
+     * @param limit maximum number of usage points in the page
+     * @param feedHref URL of the feed, used for the self and next links
+     * @return a lease on the payload file, to be closed once it has been sent
+     * @throws IOException if the payload cannot be generated or stored
+     */
+    Payload subscriptionPayload(UUID subscriptionId, IntervalTimeWindow window, KeysetCursor after, int limit,
+                             String feedHref) throws IOException;
+
+    /**
+     * Gets the gzip-compressed Batch/Bulk feed of a third party.
+     *
+     * @param thirdParty the third party the bulk authorizations were granted to
+     * @param bulkId the bulk ID
+     * @param feedHref URL of the feed, used for the self link
+     * @return a lease on the payload file, to be closed once it has been sent, or empty if no usage points
+     *         are covered by the bulk ID
+     * @throws IOException if the payload cannot be generated or stored
+     */
+    Optional<Payload> bulkPayload(String thirdParty, String bulkId, String feedHref) throws IOException;
+}
@@ -22,6 +22,8 @@ package org.greenbuttonalliance.espi.common.service;
 import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
 import org.greenbuttonalliance.espi.common.dto.atom.AtomFeedDto;
 import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalTimeWindow;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
 
 import java.io.OutputStream;
 import java.util.List;
@@ -51,6 +53,94 @@ public interface DtoExportService {
      */
     void exportUsagePointsFeedByIds(List<UUID> usagePointIds, OutputStream stream);
 
+    /**
+     * Exports the usage points of a subscription as an Atom feed.
+     * 
+     * @param subscriptionId the subscription ID
+     * @param stream output stream for XML
+     */
+    void exportSubscriptionFeed(UUID subscriptionId, OutputStream stream);
+
+    /**
+     * Exports the full resource tree of a retail customer's usage point as an
+     * Atom feed: the usage point, its meter readings and reading types, and every
+     * interval block with its interval readings and reading qualities.
+     * 
+     * @param retailCustomerId the retail customer ID
+     * @param usagePointId the usage point ID
+     * @param stream output stream for XML
+     */
+    void exportUsagePointFull(UUID retailCustomerId, UUID usagePointId, OutputStream stream);
+
+    /**
+     * Tells whether a usage point belongs to a retail customer, so that a full
+     * export can be refused before its response is started.
+     * 
+     * @param retailCustomerId the retail customer ID
+     * @param usagePointId the usage point ID
+     * @return true if the usage point exists and belongs to the retail customer
+     */
+    boolean hasUsagePoint(UUID retailCustomerId, UUID usagePointId);
+
+    /**
+     * Exports the full resource trees of all usage points of a retail customer
+     * as a single Atom feed.
+     * 
+     * @param retailCustomerId the retail customer ID
+     * @param stream output stream for XML
+     */
+    void exportUsagePointsFull(UUID retailCustomerId, OutputStream stream);
+
+    /**
+     * Exports one page of the full resource trees of the usage points of a
+     * subscription as an Atom feed, with interval blocks and readings limited to
+     * a time window. Usage points, meter readings and reading types are always
+     * written. Usage points are paged in (updated, id) order; if more follow,
+     * the feed carries a {@code next} link to the feed URL with a {@code cursor}
+     * parameter positioned after the last usage point written.
+     * 
+     * @param subscriptionId the subscription ID
+     * @param window time window built from the published/updated query parameters
+     * @param after position to continue after, or null for the first page
+     * @param limit maximum number of usage points in the page
+     * @param feedHref URL of the feed, used for the self and next links
+     * @param stream output stream for XML
+     * @return true if the feed was written completely
+     */
+    boolean exportSubscriptionFull(UUID subscriptionId, IntervalTimeWindow window, KeysetCursor after, int limit,
+                                   String feedHref, OutputStream stream);
+
+    /**
+     * Exports the full resource trees of the given usage points as a single
+     * Atom feed, as served for a Batch/Bulk request.
+     * 
+     * @param usagePointIds the usage point IDs covered by the bulk request
+     * @param feedHref URL of the feed, used for the self link
+     * @param stream output stream for XML
+     * @return true if the feed was written completely
+     */
+    boolean exportBulkFull(List<UUID> usagePointIds, String feedHref, OutputStream stream);
+
+    /**
+     * Exports the interval readings of a meter reading as newline-delimited JSON,
+     * one reading per line in reading start order, limited to a time window.
+     * 
+     * @param meterReadingId the meter reading ID
+     * @param window the time window
+     * @param stream output stream for NDJSON
+     */
+    void exportMeterReadingNdjson(UUID meterReadingId, IntervalTimeWindow window, OutputStream stream);
+
+    /**
+     * Exports the interval readings of an interval block as newline-delimited
+     * JSON, one reading per line in reading start order, limited to a time window.
+     * 
+     * @param intervalBlockId the interval block ID
+     * @param window the time window
+     * @param stream output stream for NDJSON
+     */
+    void exportIntervalBlockNdjson(UUID intervalBlockId, IntervalTimeWindow window, OutputStream stream);
+
     /**
      * Exports a usage point entity as an Atom entry.
      * 
@@ -60,7 +150,8 @@ public interface DtoExportService {
     void exportUsagePointEntry(UsagePointEntity usagePoint, OutputStream stream);
 
     /**
-     * Exports usage point entities as an Atom feed.
+     * Exports usage point entities as an Atom feed, writing each entry to the
+     * stream as it is mapped.
      * 
      * @param usagePoints list of usage point entities
      * @param stream output stream for XML
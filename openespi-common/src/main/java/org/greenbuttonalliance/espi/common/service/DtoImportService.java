@@ -0,0 +1,121 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * DTO-based import service for Green Button XML, the counterpart of
+ * {@link DtoExportService}.
+ * 
+ * Feeds are read entry by entry and persisted as they are read, so the heap
+ * needed does not depend on the size of the document.
+ */
+public interface DtoImportService {
+
+    /**
+     * Imports the usage points, reading types, meter readings and interval
+     * blocks of an Atom feed, or of a single Atom entry. Up and self links are
+     * resolved into parent references; other resources are skipped.
+     * 
+     * @param stream input stream of the XML document
+     * @return counts of what was imported
+     * @throws IOException if the stream cannot be read or the document is malformed;
+     *         nothing of the document is imported, unless the import is
+     *         partitioned by UsagePoint, in which case the usage points
+     *         committed before the failure are kept
+     */
+    ImportResult importFeed(InputStream stream) throws IOException;
+
+    /**
+     * Imports a feed as {@link #importFeed(InputStream)} does, reporting
+     * progress after every entry.
+     * 
+     * @param stream input stream of the XML document
+     * @param listener receives the running counts
+     * @return counts of what was imported
+     * @throws IOException if the stream cannot be read or the document is malformed;
+     *         see {@link #importFeed(InputStream)} for what is kept
+     */
+    ImportResult importFeed(InputStream stream, ImportListener listener) throws IOException;
+
+    /**
+     * Imports a feed as {@link #importFeed(InputStream, ImportListener)} does,
+     * journaling checkpoints of the committed entries under a job ID.
+     * <p>
+     * Imported again under the same job ID after a failure, the same document
+     * resumes after the entries committed before: those are passed over
+     * without being unmarshalled or written. The checkpoints of a job are
+     * deleted once its import has succeeded. When checkpoints are enabled, an
+     * import that is not partitioned commits once per checkpoint instead of
+     * in a single transaction.
+     * 
+     * @param stream input stream of the XML document
+     * @param listener receives the running counts, including those of the entries committed before
+     * @param jobId the job ID, or null to keep no checkpoints
+     * @return counts of what was imported, including the entries committed before
+     * @throws IOException if the stream cannot be read or the document is malformed;
+     *         the entries committed up to the last checkpoint are kept
+     */
+    ImportResult importFeed(InputStream stream, ImportListener listener, UUID jobId) throws IOException;
+
+    /**
+     * Deletes the checkpoints of a job that will not be imported again.
+     * 
+     * @param jobId the job ID
+     */
+    void discardCheckpoints(UUID jobId);
+
+    /**
+     * Receives the running counts of an import, on the importing thread.
+     */
+    @FunctionalInterface
+    interface ImportListener {
+
+        /**
+         * @param entries entries read so far
+         * @param intervalBlocks interval blocks written so far
+         * @param intervalReadings interval readings written so far
+         */
+        void progress(int entries, long intervalBlocks, long intervalReadings);
+    }
+
+    /**
+     * Counts of an import.
+     * 
+     * @param entries entries read
+     * @param skippedEntries entries not imported because their resource type is not supported
+     * @param intervalBlocks interval blocks written
+     * @param intervalReadings interval readings written
+     * @param elapsedMillis duration of the import
+     */
+    record ImportResult(int entries, int skippedEntries, long intervalBlocks, long intervalReadings,
+                        long elapsedMillis) {
+
+        /**
+         * @return interval readings written per second
+         */
+        public long readingsPerSecond() {
+            return elapsedMillis > 0 ? intervalReadings * 1000 / elapsedMillis : intervalReadings;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous Green Button imports.
+ * 
+ * An upload is spooled to local disk and queued; a bounded pool of import
+ * workers runs the queued jobs through {@link DtoImportService}, so an upload
+ * request returns as soon as the file is spooled and the number of concurrent
+ * imports, and of database connections they hold, stays fixed. Spooled files
+ * of jobs that did not finish are queued again when the application starts.
+ */
+public interface ImportJobService {
+
+    /**
+     * Spools an upload and queues its import.
+     * 
+     * @param fileName original name of the uploaded file, may be null
+     * @param upload the uploaded document; read fully but not closed
+     * @return the status of the queued job
+     * @throws IOException if the upload cannot be spooled
+     * @throws RejectedExecutionException if the queue is full
+     */
+    ImportJobStatus submit(String fileName, InputStream upload) throws IOException;
+
+    /**
+     * Finds the status of a job.
+     * 
+     * @param jobId the job ID
+     * @return the job status, or empty if the job is unknown or has been forgotten
+     */
+    Optional<ImportJobStatus> findById(UUID jobId);
+
+    /**
+     * Finds the status of the queued, running and most recently finished jobs.
+     * 
+     * @return job statuses, most recently submitted first
+     */
+    List<ImportJobStatus> findAll();
+
+    /**
+     * Lifecycle of an import job.
+     */
+    enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    /**
+     * Point-in-time status of an import job.
+     * 
+     * @param id the job ID
+     * @param fileName original name of the uploaded file
+     * @param state the job state
+     * @param size size of the spooled upload in bytes
+     * @param bytesParsed bytes of the upload consumed by the parser so far
+     * @param entries entries read so far
+     * @param intervalBlocks interval blocks written so far
+     * @param intervalReadings interval readings written so far
+     * @param readingsPerSecond interval readings written per second while running
+     * @param submitted when the upload was spooled
+     * @param started when the import started, or null while queued
+     * @param finished when the import finished, or null until then
+     * @param error the failure message of a failed job
+     */
+    record ImportJobStatus(UUID id, String fileName, State state, long size, long bytesParsed, int entries,
+                           long intervalBlocks, long intervalReadings, long readingsPerSecond,
+                           Instant submitted, Instant started, Instant finished, String error) {
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service;
+
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Granularity;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Rollup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Hourly, daily and monthly interval data rollups.
+ * 
+ * Summaries read the rollups rather than the raw readings: thirteen months of
+ * daily totals are some four hundred rows. Imports keep the rollups current
+ * when {@code espi.rollups.enabled} is set; data written before, or while
+ * they were disabled, is backfilled by a rebuild job started with
+ * {@link #submitRebuild()}, which runs in the background, one meter reading at
+ * a time, and can be followed and cancelled through its status.
+ */
+public interface IntervalRollupService {
+
+    /**
+     * Finds the rollups of a meter reading.
+     * 
+     * @param meterReadingId the meter reading ID
+     * @param granularity the bucket size
+     * @param from the first bucket start
+     * @param to the bucket start to stop before
+     * @return the rollups, in bucket order; buckets without readings are absent
+     */
+    List<Rollup> findByMeterReading(UUID meterReadingId, Granularity granularity, Instant from, Instant to);
+
+    /**
+     * Finds the rollups of the meter readings of a usage point with a reading type.
+     * 
+     * @param usagePointId the usage point ID
+     * @param readingTypeId the reading type ID
+     * @param granularity the bucket size
+     * @param from the first bucket start
+     * @param to the bucket start to stop before
+     * @return the rollups, in bucket order; buckets without readings are absent
+     */
+    List<Rollup> findByUsagePoint(UUID usagePointId, UUID readingTypeId, Granularity granularity,
+                                  Instant from, Instant to);
+
+    /**
+     * Totals the readings of a meter reading starting in a range of whole hours.
+     * 
+     * @param meterReadingId the meter reading ID
+     * @param from the range start, on the hour
+     * @param to the range end, exclusive, on the hour
+     * @return the total
+     * @throws IllegalArgumentException if a bound is not on the hour
+     */
+    Rollup totalByMeterReading(UUID meterReadingId, Instant from, Instant to);
+
+    /**
+     * Totals the readings of the meter readings of a usage point with a reading
+     * type starting in a range of whole hours.
+     * 
+     * @param usagePointId the usage point ID
+     * @param readingTypeId the reading type ID
+     * @param from the range start, on the hour
+     * @param to the range end, exclusive, on the hour
+     * @return the total
+     * @throws IllegalArgumentException if a bound is not on the hour
+     */
+    Rollup totalByUsagePoint(UUID usagePointId, UUID readingTypeId, Instant from, Instant to);
+
+    /**
+     * Recomputes the rollups of a meter reading from its interval data.
+     * 
+     * @param meterReadingId the meter reading ID
+     */
+    void rebuild(UUID meterReadingId);
+
+    /**
+     * Starts a job recomputing the rollups of every meter reading with
+     * interval data, each in a transaction of its own. One rebuild job runs at
+     * a time.
+     * 
+     * @return the status of the started job
+     * @throws RejectedExecutionException if a rebuild job is already running
+     */
+    RebuildJobStatus submitRebuild();
+
+    /**
+     * Finds the status of a rebuild job.
+     * 
+     * @param jobId the job ID
+     * @return the job status, or empty if the job is unknown or has been forgotten
+     */
+    Optional<RebuildJobStatus> findRebuildJob(UUID jobId);
+
+    /**
+     * Cancels a rebuild job. The meter reading being rebuilt is finished, and
+     * the rollups of those rebuilt before are kept.
+     * 
+     * @param jobId the job ID
+     * @return the job status, or empty if the job is unknown or has been forgotten
+     */
+    Optional<RebuildJobStatus> cancelRebuild(UUID jobId);
+
+    /**
+     * Lifecycle of a rebuild job.
+     */
+    enum RebuildState {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    /**
+     * Point-in-time status of a rebuild job.
+     * 
+     * @param id the job ID
+     * @param state the job state
+     * @param meterReadings the number of meter readings to rebuild, once known
+     * @param rebuilt the number of meter readings rebuilt so far
+     * @param submitted when the job was started
+     * @param started when the rebuild started, or null while queued
+     * @param finished when the rebuild finished, or null until then
+     * @param error the failure message of a failed job
+     */
+    record RebuildJobStatus(UUID id, RebuildState state, int meterReadings, int rebuilt, Instant submitted,
+                            Instant started, Instant finished, String error) {
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockExportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalTimeWindow;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.BatchPayloadService;
+import org.greenbuttonalliance.espi.common.service.DtoExportService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.CompressedPayloadStore;
+import org.greenbuttonalliance.espi.common.utils.jaxb.CompressedPayloadStore.Payload;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Batch payloads keyed by everything that shapes the feed: the resource, the
+ * time window, the page and the feed URL written into its links. Callers pass
+ * the feed URL reduced to the parameters that shape the feed, so arbitrary
+ * query strings cannot fill the store. The watermark covers every usage point
+ * tree the resource reaches, so any change to them regenerates the payload on
+ * the next request.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchPayloadServiceImpl implements BatchPayloadService {
+
+    private final UsagePointRepository usagePointRepository;
+    private final IntervalBlockExportRepository intervalBlockExportRepository;
+    private final DtoExportService dtoExportService;
+    private final CompressedPayloadStore payloadStore;
+
+    @Override
+    public boolean isEnabled() {
+        return payloadStore.isEnabled();
+    }
+
+    @Override
+    public Payload subscriptionPayload(UUID subscriptionId, IntervalTimeWindow window, KeysetCursor after, int limit,
+                                    String feedHref) throws IOException {
+        String key = "Subscription|" + subscriptionId + "|" + window + "|" + (after != null ? after.encode() : "")
+            + "|" + limit + "|" + feedHref;
+        List<UUID> usagePointIds = usagePointRepository.findAllIdsBySubscriptionId(subscriptionId);
+        String watermark = intervalBlockExportRepository.findWatermarkByUsagePointIds(usagePointIds);
+
+        return payloadStore.getOrCreate(key, watermark,
+            out -> dtoExportService.exportSubscriptionFull(subscriptionId, window, after, limit, feedHref, out));
+    }
+
+    @Override
+    public Optional<Payload> bulkPayload(String thirdParty, String bulkId, String feedHref) throws IOException {
+        List<UUID> usagePointIds = usagePointRepository.findAllIdsByBulkId(thirdParty, bulkId);
+        if (usagePointIds.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = "Bulk|" + thirdParty + "|" + bulkId + "|" + feedHref;
+        String watermark = intervalBlockExportRepository.findWatermarkByUsagePointIds(usagePointIds);
+
+        return Optional.of(payloadStore.getOrCreate(key, watermark,
+            out -> dtoExportService.exportBulkFull(usagePointIds, feedHref, out)));
+    }
+}
@@ -19,26 +19,54 @@
 
 package org.greenbuttonalliance.espi.common.service.impl;
 
-import jakarta.xml.bind.JAXBContext;
+import jakarta.persistence.EntityManager;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
+import org.greenbuttonalliance.espi.common.domain.usage.MeterReadingEntity;
 import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
 import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
 import org.greenbuttonalliance.espi.common.dto.atom.AtomFeedDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
 import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.mapper.usage.MeterReadingMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.ReadingTypeMapper;
 import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockExportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockExportRepository.IntervalBlockVersion;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalTimeWindow;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
+import org.greenbuttonalliance.espi.common.repositories.usage.MeterReadingRepository;
 import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
 import org.greenbuttonalliance.espi.common.service.DtoExportService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedWriter;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.IntervalBlockFragmentCache;
+import org.greenbuttonalliance.espi.common.utils.jaxb.ParallelEntryRenderer;
+import org.greenbuttonalliance.espi.common.utils.json.IntervalReadingNdjsonWriter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Modern DTO-based export service implementation using JAXB marshalling.
@@ -48,8 +76,20 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DtoExportServiceImpl implements DtoExportService {
 
+    private static final int FRAGMENT_BATCH_SIZE = 100;
+    private static final String CURSOR_PARAMETER = "cursor";
+
     private final UsagePointRepository usagePointRepository;
+    private final MeterReadingRepository meterReadingRepository;
+    private final IntervalBlockExportRepository intervalBlockExportRepository;
     private final UsagePointMapper usagePointMapper;
+    private final MeterReadingMapper meterReadingMapper;
+    private final ReadingTypeMapper readingTypeMapper;
+    private final DtoJaxbContext dtoJaxbContext;
+    private final IntervalBlockFragmentCache fragmentCache;
+    private final EntityManager entityManager;
+    private final ParallelEntryRenderer parallelEntryRenderer;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public void exportUsagePointEntry(UUID usagePointId, OutputStream stream) {
@@ -63,11 +103,300 @@ public class DtoExportServiceImpl implements DtoExportService {
 
     @Override
     public void exportUsagePointsFeedByIds(List<UUID> usagePointIds, OutputStream stream) {
-        List<UsagePointEntity> entities = new ArrayList<>();
-        for (UUID id : usagePointIds) {
-            usagePointRepository.findById(id).ifPresent(entities::add);
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, stream)) {
+            feedWriter.writeStartFeed(UUID.randomUUID().toString(), "Usage Points", OffsetDateTime.now(), null);
+
+            if (parallelEntryRenderer.isEnabled()) {
+                // Each worker loads and maps its usage point in its own read-only transaction
+                parallelEntryRenderer.render(usagePointIds.iterator(), this::renderUsagePointEntry,
+                    feedWriter::writeEntryFragment);
+                feedWriter.writeEndFeed();
+                log.info("Successfully exported usage points feed with " + feedWriter.getEntryCount() + " entries in parallel");
+                return;
+            }
+
+            // Load, write and release one usage point at a time
+            for (UUID id : usagePointIds) {
+                Optional<UsagePointEntity> entity = usagePointRepository.findById(id);
+                if (entity.isPresent()) {
+                    writeUsagePointEntry(feedWriter, entity.get());
+                    entityManager.detach(entity.get());
+                }
+            }
+
+            feedWriter.writeEndFeed();
+            log.info("Successfully exported usage points feed with " + feedWriter.getEntryCount() + " entries");
+
+        } catch (Exception e) {
+            log.error("Failed to export usage points feed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void exportSubscriptionFeed(UUID subscriptionId, OutputStream stream) {
+        exportUsagePointsFeedByIds(usagePointRepository.findAllIdsBySubscriptionId(subscriptionId), stream);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsagePointFull(UUID retailCustomerId, UUID usagePointId, OutputStream stream) {
+        Optional<UsagePointEntity> entity = usagePointRepository.findById(usagePointId)
+            .filter(usagePoint -> usagePoint.getRetailCustomer() != null
+                && retailCustomerId.equals(usagePoint.getRetailCustomer().getId()));
+        if (entity.isEmpty()) {
+            log.warn("Usage point " + usagePointId + " not found for retail customer " + retailCustomerId);
+            return;
+        }
+
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, stream)) {
+            feedWriter.writeStartFeed(UUID.randomUUID().toString(), "Green Button Usage Feed", OffsetDateTime.now(), null);
+            writeUsagePointTree(feedWriter, entity.get(), IntervalTimeWindow.UNBOUNDED, new HashSet<>());
+            feedWriter.writeEndFeed();
+            log.info("Successfully exported usage point " + usagePointId + " with " + feedWriter.getEntryCount() + " entries");
+
+        } catch (Exception e) {
+            log.error("Failed to export usage point " + usagePointId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasUsagePoint(UUID retailCustomerId, UUID usagePointId) {
+        return usagePointRepository.existsByIdAndRetailCustomerId(usagePointId, retailCustomerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsagePointsFull(UUID retailCustomerId, OutputStream stream) {
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, stream)) {
+            feedWriter.writeStartFeed(UUID.randomUUID().toString(), "Green Button Usage Feed", OffsetDateTime.now(), null);
+
+            Set<UUID> writtenReadingTypes = new HashSet<>();
+            for (UUID id : usagePointRepository.findAllIdsByRetailCustomerId(retailCustomerId)) {
+                Optional<UsagePointEntity> entity = usagePointRepository.findById(id);
+                if (entity.isPresent()) {
+                    writeUsagePointTree(feedWriter, entity.get(), IntervalTimeWindow.UNBOUNDED, writtenReadingTypes);
+                }
+            }
+
+            feedWriter.writeEndFeed();
+            log.info("Successfully exported usage points of retail customer " + retailCustomerId + " with "
+                + feedWriter.getEntryCount() + " entries");
+
+        } catch (Exception e) {
+            log.error("Failed to export usage points of retail customer " + retailCustomerId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean exportSubscriptionFull(UUID subscriptionId, IntervalTimeWindow window, KeysetCursor after, int limit,
+                                          String feedHref, OutputStream stream) {
+        // One row more than the page tells whether a next page exists before the header is written
+        List<UsagePointEntity> usagePoints = usagePointRepository.findKeysetPageBySubscriptionId(subscriptionId, after, limit + 1);
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(feedHref));
+        if (usagePoints.size() > limit) {
+            usagePoints = usagePoints.subList(0, limit);
+            links.add(LinkDto.next(UriComponentsBuilder.fromUriString(feedHref)
+                .replaceQueryParam(CURSOR_PARAMETER, KeysetCursor.after(usagePoints.get(limit - 1)).encode())
+                .toUriString()));
+        }
+
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, stream)) {
+            feedWriter.writeStartFeed(UUID.randomUUID().toString(), "Green Button Subscription Feed", OffsetDateTime.now(), links);
+
+            Set<UUID> writtenReadingTypes = new HashSet<>();
+            for (UsagePointEntity usagePoint : usagePoints) {
+                writeUsagePointTree(feedWriter, usagePoint, window, writtenReadingTypes);
+            }
+
+            feedWriter.writeEndFeed();
+            log.info("Successfully exported subscription " + subscriptionId + " with " + feedWriter.getEntryCount() + " entries");
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to export subscription " + subscriptionId + ": " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean exportBulkFull(List<UUID> usagePointIds, String feedHref, OutputStream stream) {
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, stream)) {
+            feedWriter.writeStartFeed(UUID.randomUUID().toString(), "Green Button Bulk Feed", OffsetDateTime.now(),
+                List.of(LinkDto.self(feedHref)));
+
+            Set<UUID> writtenReadingTypes = new HashSet<>();
+            for (UUID id : usagePointIds) {
+                Optional<UsagePointEntity> entity = usagePointRepository.findById(id);
+                if (entity.isPresent()) {
+                    writeUsagePointTree(feedWriter, entity.get(), IntervalTimeWindow.UNBOUNDED, writtenReadingTypes);
+                }
+                // Nothing is written in the read-only transaction; release whatever the tree loaded
+                entityManager.clear();
+            }
+
+            feedWriter.writeEndFeed();
+            log.info("Successfully exported bulk feed with " + feedWriter.getEntryCount() + " entries");
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to export bulk feed: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportMeterReadingNdjson(UUID meterReadingId, IntervalTimeWindow window, OutputStream stream) {
+        try (Stream<IntervalBlockDto> blocks = intervalBlockExportRepository.streamByMeterReadingId(meterReadingId, window)) {
+            writeNdjson(blocks, stream);
+        } catch (Exception e) {
+            log.error("Failed to export interval readings of meter reading " + meterReadingId + ": " + e.getMessage(), e);
         }
-        exportUsagePointsFeed(entities, stream);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportIntervalBlockNdjson(UUID intervalBlockId, IntervalTimeWindow window, OutputStream stream) {
+        try (Stream<IntervalBlockDto> blocks = intervalBlockExportRepository.streamById(intervalBlockId, window)) {
+            writeNdjson(blocks, stream);
+        } catch (Exception e) {
+            log.error("Failed to export interval readings of interval block " + intervalBlockId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void writeNdjson(Stream<IntervalBlockDto> blocks, OutputStream stream) throws IOException {
+        try (IntervalReadingNdjsonWriter ndjsonWriter = new IntervalReadingNdjsonWriter(stream)) {
+            for (Iterator<IntervalBlockDto> it = blocks.iterator(); it.hasNext(); ) {
+                ndjsonWriter.writeReadings(it.next());
+            }
+            log.info("Successfully exported " + ndjsonWriter.getReadingCount() + " interval readings as NDJSON");
+        }
+    }
+
+    /**
+     * Writes a usage point followed by each of its meter readings, the reading
+     * type of each meter reading and its interval blocks. Reading types are
+     * shared across meter readings, so each is written once per feed: the
+     * first time a meter reading of the feed refers to it. Interval blocks are
+     * read through a forward-only cursor and written as they are assembled, and
+     * the usage point and meter readings are detached once written, so the
+     * persistence context does not grow with the size of the tree. Interval
+     * blocks are limited to the given time window.
+     */
+    private void writeUsagePointTree(AtomFeedWriter feedWriter, UsagePointEntity usagePoint, IntervalTimeWindow window,
+                                     Set<UUID> writtenReadingTypes)
+            throws JAXBException, XMLStreamException, IOException {
+        String usagePointHref = usagePoint.getSelfHref();
+        feedWriter.writeEntry(createAtomEntry(usagePoint, "Usage Point", usagePointHref, usagePoint.getUpHref(),
+            List.of(usagePointHref + "/MeterReading"), usagePointMapper.toDto(usagePoint)));
+
+        for (MeterReadingEntity meterReading : meterReadingRepository.findAllByUsagePointIdWithReadingType(usagePoint.getId())) {
+            String meterReadingHref = usagePointHref + "/MeterReading/" + meterReading.getHashedId();
+            List<String> related = new ArrayList<>();
+            related.add(meterReadingHref + "/IntervalBlock");
+            if (meterReading.getReadingType() != null) {
+                related.add(meterReading.getReadingType().getSelfHref());
+            }
+            feedWriter.writeEntry(createAtomEntry(meterReading, "Meter Reading", meterReadingHref,
+                usagePointHref + "/MeterReading", related, meterReadingMapper.toDto(meterReading)));
+
+            if (meterReading.getReadingType() != null) {
+                if (writtenReadingTypes.add(meterReading.getReadingType().getId())) {
+                    feedWriter.writeEntry(createAtomEntry(meterReading.getReadingType(), "Reading Type",
+                        meterReading.getReadingType().getSelfHref(), meterReading.getReadingType().getUpHref(),
+                        List.of(), readingTypeMapper.toDto(meterReading.getReadingType())));
+                }
+                entityManager.detach(meterReading.getReadingType());
+            }
+
+            writeIntervalBlocks(feedWriter, meterReading.getId(), meterReadingHref, window);
+            entityManager.detach(meterReading);
+        }
+        entityManager.detach(usagePoint);
+    }
+
+    /**
+     * Writes the interval blocks of a meter reading. With the fragment cache
+     * enabled, blocks are handled in batches: cached entries of a batch are
+     * spliced in as they are, and only the missing blocks are read from the
+     * database, rendered and added to the cache. A window bounding the reading
+     * start trims blocks to their readings in the window, so such blocks bypass
+     * the cache, which only holds whole blocks.
+     */
+    private void writeIntervalBlocks(AtomFeedWriter feedWriter, UUID meterReadingId, String meterReadingHref,
+                                     IntervalTimeWindow window) throws JAXBException, XMLStreamException, IOException {
+        if (!fragmentCache.isEnabled() || window.boundsReadings()) {
+            try (Stream<IntervalBlockDto> blocks = intervalBlockExportRepository.streamByMeterReadingId(meterReadingId, window)) {
+                for (Iterator<IntervalBlockDto> it = blocks.iterator(); it.hasNext(); ) {
+                    feedWriter.writeEntry(createIntervalBlockEntry(it.next(), meterReadingHref));
+                }
+            }
+            return;
+        }
+
+        List<IntervalBlockVersion> versions = intervalBlockExportRepository.findVersionsByMeterReadingId(meterReadingId, window);
+        for (int from = 0; from < versions.size(); from += FRAGMENT_BATCH_SIZE) {
+            List<IntervalBlockVersion> batch = versions.subList(from, Math.min(from + FRAGMENT_BATCH_SIZE, versions.size()));
+
+            byte[][] fragments = new byte[batch.size()][];
+            List<UUID> missing = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                fragments[i] = fragmentCache.get(batch.get(i).id(), batch.get(i).updated());
+                if (fragments[i] == null) {
+                    missing.add(batch.get(i).id());
+                }
+            }
+
+            // Missing blocks come back in the same order as the batch
+            try (Stream<IntervalBlockDto> blocks = missing.isEmpty()
+                    ? Stream.empty() : intervalBlockExportRepository.streamByIds(missing)) {
+                Iterator<IntervalBlockDto> it = blocks.iterator();
+                IntervalBlockDto pending = null;
+                for (int i = 0; i < batch.size(); i++) {
+                    IntervalBlockVersion version = batch.get(i);
+                    byte[] fragment = fragments[i];
+                    if (fragment == null) {
+                        if (pending == null && it.hasNext()) {
+                            pending = it.next();
+                        }
+                        if (pending == null || !version.id().toString().equals(pending.uuid())) {
+                            continue; // deleted since the versions were read
+                        }
+                        fragment = dtoJaxbContext.marshalFragment(createIntervalBlockEntry(pending, meterReadingHref));
+                        fragmentCache.put(version.id(), version.updated(), fragment);
+                        pending = null;
+                    }
+                    feedWriter.writeEntryFragment(fragment);
+                }
+            }
+        }
+    }
+
+    private AtomEntryDto createIntervalBlockEntry(IntervalBlockDto block, String meterReadingHref) {
+        return new AtomEntryDto("urn:uuid:" + block.uuid(), "Interval Block", block.published(), block.updated(),
+            List.of(LinkDto.self(meterReadingHref + "/IntervalBlock/" + block.uuid()),
+                LinkDto.up(meterReadingHref + "/IntervalBlock")),
+            new AtomContentDto(block));
+    }
+
+    private AtomEntryDto createAtomEntry(IdentifiedObject entity, String title, String selfHref, String upHref,
+                                         List<String> relatedHrefs, Object resource) {
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(selfHref));
+        links.add(LinkDto.up(upHref));
+        for (String href : relatedHrefs) {
+            links.add(LinkDto.related(href));
+        }
+        return new AtomEntryDto("urn:uuid:" + entity.getId(), title, toOffset(entity.getPublished()),
+            toOffset(entity.getUpdated()), links, new AtomContentDto(resource));
+    }
+
+    private static OffsetDateTime toOffset(LocalDateTime localDateTime) {
+        return localDateTime != null ? localDateTime.atOffset(ZoneOffset.UTC) : null;
     }
 
     @Override
@@ -89,43 +418,45 @@ public class DtoExportServiceImpl implements DtoExportService {
 
     @Override
     public void exportUsagePointsFeed(List<UsagePointEntity> usagePoints, OutputStream stream) {
-        try {
-            List<AtomEntryDto> entries = new ArrayList<>();
-            
-            // Convert each entity to DTO and create entry
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, stream)) {
+            feedWriter.writeStartFeed(UUID.randomUUID().toString(), "Usage Points", OffsetDateTime.now(), null);
+
+            // Convert and write each entry as it is mapped
             for (UsagePointEntity entity : usagePoints) {
-                UsagePointDto dto = usagePointMapper.toDto(entity);
-                AtomEntryDto entry = createAtomEntry("Usage Point " + entity.getId(), dto);
-                entries.add(entry);
+                writeUsagePointEntry(feedWriter, entity);
             }
-            
-            // Create feed
-            AtomFeedDto feed = createAtomFeed("Usage Points", entries);
-            
-            // Export as XML
-            exportDto(feed, stream);
-            
+
+            feedWriter.writeEndFeed();
+            log.info("Successfully exported usage points feed with " + feedWriter.getEntryCount() + " entries");
+
         } catch (Exception e) {
             log.error("Failed to export usage points feed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Loads, maps and marshals a single usage point entry on a render worker.
+     * Returns null if the usage point no longer exists.
+     */
+    private byte[] renderUsagePointEntry(UUID usagePointId) throws JAXBException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        AtomEntryDto entry = transaction.execute(status -> usagePointRepository.findById(usagePointId)
+            .map(entity -> createAtomEntry("Usage Point " + entity.getId(), usagePointMapper.toDto(entity)))
+            .orElse(null));
+        return entry != null ? dtoJaxbContext.marshalFragment(entry) : null;
+    }
+
+    private void writeUsagePointEntry(AtomFeedWriter feedWriter, UsagePointEntity entity) throws JAXBException {
+        UsagePointDto dto = usagePointMapper.toDto(entity);
+        feedWriter.writeEntry(createAtomEntry("Usage Point " + entity.getId(), dto));
+    }
+
     @Override
     public void exportDto(Object dto, OutputStream stream) {
         try {
-            // Create JAXB context for DTO classes
-            JAXBContext context = JAXBContext.newInstance(
-                "org.greenbuttonalliance.espi.common.dto.atom:" +
-                "org.greenbuttonalliance.espi.common.dto.usage:" +
-                "org.greenbuttonalliance.espi.common.dto.customer"
-            );
-            
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-            
-            // Marshal DTO to stream
-            marshaller.marshal(dto, stream);
+            // Marshal DTO to stream using the shared context's pooled marshaller
+            dtoJaxbContext.marshal(dto, stream);
             
             log.info("Successfully exported DTO of type: " + dto.getClass().getSimpleName());
             
@@ -0,0 +1,913 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import com.google.common.io.CountingInputStream;
+import jakarta.xml.bind.JAXBException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
+import org.greenbuttonalliance.espi.common.domain.common.LinkType;
+import org.greenbuttonalliance.espi.common.domain.usage.MeterReadingEntity;
+import org.greenbuttonalliance.espi.common.domain.usage.ReadingTypeEntity;
+import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingTypeDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.mapper.usage.MeterReadingMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.ReadingTypeMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
+import org.greenbuttonalliance.espi.common.repositories.usage.ImportCheckpointRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.ImportCheckpointRepository.Checkpoint;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository.ImportedBlock;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.MeterReadingRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.ReadingTypeRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.DtoImportService;
+import org.greenbuttonalliance.espi.common.service.EspiIdGeneratorService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedReader;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedReader.EntryHeader;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming DTO-based import service implementation.
+ * <p>
+ * Usage points, reading types and meter readings are few per feed and are
+ * persisted as entities, each flushed at once so that interval data written
+ * over JDBC can reference it. Interval blocks are handed to
+ * {@link IntervalBlockImportRepository} as they are read and never become
+ * entities; blocks whose meter reading is known are keyed by it and their
+ * start, so a re-delivered block updates the stored one, whatever its ID.
+ * Other resources that already exist are kept as they are.
+ * <p>
+ * Parents are resolved from the up link of each entry against the self links
+ * of the entries read so far. Children read before their parent, and meter
+ * readings read before their reading type, are attached once the whole feed
+ * has been read; only their IDs and the hrefs they point to are kept meanwhile.
+ * <p>
+ * Reading types are shared by content within an import: the first one read
+ * is looked up and stored, and any later one defined alike, under whatever
+ * href, resolves to its ID without touching the database. Feeds that repeat
+ * the same reading type for every meter reading thus store it once.
+ * <p>
+ * When {@code espi.rollups.enabled} is set, each transaction recomputes the
+ * {@link IntervalRollupRepository} rollups of the interval data it wrote.
+ * <p>
+ * Resources are validated against the ESPI schemas while they are read when
+ * {@link EspiSchemaValidation} is enabled for the {@code import} endpoint.
+ * <p>
+ * The whole feed is imported in one transaction unless
+ * {@code espi.import.parallel.enabled} is set, in which case it is partitioned
+ * by UsagePoint and the partitions are persisted concurrently.
+ * <p>
+ * Imports run for a job keep checkpoints in {@link ImportCheckpointRepository},
+ * each written in the transaction that commits the entries it covers; a
+ * sequential import then commits once per checkpoint. When the job is run
+ * again, the entries covered are passed over: only their ids and links are
+ * read, to rebuild the hrefs and pending links later entries resolve against.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DtoImportServiceImpl implements DtoImportService {
+
+    private static final String URN_UUID = "urn:uuid:";
+    private static final String READING_TYPE_PATH = "/ReadingType/";
+    private static final String USAGE_POINT_PATH = "/UsagePoint/";
+
+    /**
+     * Resources unmarshalled even when passed over, since the IDs they are
+     * shared under depend on their content.
+     */
+    private static final Set<String> SHARED_DEFINITIONS = Set.of("ReadingType");
+
+    private final UsagePointRepository usagePointRepository;
+    private final MeterReadingRepository meterReadingRepository;
+    private final ReadingTypeRepository readingTypeRepository;
+    private final IntervalBlockImportRepository intervalBlockImportRepository;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final IntervalRollupRepository intervalRollupRepository;
+    private final UsagePointMapper usagePointMapper;
+    private final MeterReadingMapper meterReadingMapper;
+    private final ReadingTypeMapper readingTypeMapper;
+    private final DtoJaxbContext dtoJaxbContext;
+    private final EspiSchemaValidation espiSchemaValidation;
+    private final EspiIdGeneratorService espiIdGeneratorService;
+    private final PartitionedImportExecutor partitionedImportExecutor;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public ImportResult importFeed(InputStream stream) throws IOException {
+        return importFeed(stream, (entries, intervalBlocks, intervalReadings) -> { });
+    }
+
+    @Override
+    public ImportResult importFeed(InputStream stream, ImportListener listener) throws IOException {
+        return importFeed(stream, listener, null);
+    }
+
+    @Override
+    public ImportResult importFeed(InputStream stream, ImportListener listener, UUID jobId) throws IOException {
+        long start = System.nanoTime();
+        ImportContext context = new ImportContext();
+        CountingInputStream counter = new CountingInputStream(stream);
+        Journal journal = null;
+        if (jobId != null && importCheckpointRepository.getInterval() > 0) {
+            journal = new Journal(jobId, importCheckpointRepository.findByJobId(jobId), counter);
+            if (journal.isResumed()) {
+                log.info("Resuming import job " + jobId + " after entry " + journal.resumed.entryIndex()
+                    + " (" + journal.resumed.byteOffset() + " bytes)");
+            }
+        }
+        try (AtomFeedReader feedReader = new AtomFeedReader(dtoJaxbContext, counter, espiSchemaValidation,
+                EspiSchemaValidation.IMPORT_ENDPOINT)) {
+            ImportResult result = partitionedImportExecutor.isEnabled()
+                ? importPartitioned(feedReader, context, journal, listener, start)
+                : importSequential(feedReader, context, journal, listener, start);
+            if (context.sharedDefinitions.get() > 0) {
+                log.info("Import shared " + context.sharedDefinitions.get() + " reading types with identical ones read before");
+            }
+            if (journal != null && journal.passedOver > 0) {
+                log.info("Import job " + jobId + " passed over " + journal.passedOver + " entries committed before");
+            }
+            log.info("Imported " + result.entries() + " entries with " + result.intervalBlocks() + " interval blocks and "
+                + result.intervalReadings() + " readings in " + result.elapsedMillis() + " ms ("
+                + result.readingsPerSecond() + " readings/s), skipped " + result.skippedEntries() + " entries");
+            return result;
+
+        } catch (XMLStreamException | JAXBException e) {
+            throw new IOException("Malformed Green Button feed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void discardCheckpoints(UUID jobId) {
+        importCheckpointRepository.deleteByJobId(jobId);
+    }
+
+    /**
+     * Imports the whole feed in a single transaction, or with a journal in one
+     * transaction per checkpoint interval.
+     */
+    private ImportResult importSequential(AtomFeedReader feedReader, ImportContext context, Journal journal,
+                                          ImportListener listener, long start)
+            throws IOException, XMLStreamException, JAXBException {
+        int interval = journal != null ? importCheckpointRepository.getInterval() : Integer.MAX_VALUE;
+        AtomicLong blocks = new AtomicLong(journal != null ? journal.resumedBlocks : 0);
+        AtomicLong readings = new AtomicLong(journal != null ? journal.resumedReadings : 0);
+
+        boolean more;
+        do {
+            more = inTransaction(() -> {
+                IntervalBlockImportRepository.Batch batch = intervalBlockImportRepository.openBatch();
+                boolean remaining = true;
+                for (int i = 0; i < interval && remaining; i++) {
+                    AtomEntryDto entry = nextEntry(feedReader, context, journal);
+                    if (entry != null) {
+                        importEntry(entry, context, batch);
+                    } else {
+                        remaining = false;
+                    }
+                    listener.progress(feedReader.getEntryCount(), blocks.get() + batch.getBlockCount(),
+                        readings.get() + batch.getReadingCount());
+                }
+                batch.flush();
+                refreshRollups(batch);
+                blocks.addAndGet(batch.getBlockCount());
+                readings.addAndGet(batch.getReadingCount());
+                if (!remaining) {
+                    resolvePendingLinks(context);
+                    if (journal != null) {
+                        importCheckpointRepository.deleteByJobId(journal.jobId);
+                    }
+                } else if (journal != null) {
+                    journal.save(blocks.get(), readings.get());
+                }
+                return remaining;
+            });
+        } while (more);
+        listener.progress(feedReader.getEntryCount(), blocks.get(), readings.get());
+
+        return new ImportResult(feedReader.getEntryCount(), context.skippedEntries.get(),
+            blocks.get(), readings.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Imports the feed partitioned by UsagePoint.
+     * <p>
+     * Consecutive entries below the same UsagePoint are collected into chunks
+     * that {@link PartitionedImportExecutor} persists in their own transactions,
+     * concurrently with the chunks of other usage points. Entries shared across
+     * usage points, such as reading types, are persisted at once on the reading
+     * thread, each in a short transaction of its own, so that the partitions
+     * only ever read them and never contend for their locks. Links that cannot
+     * be resolved while reading are attached in a final transaction once every
+     * partition has been committed.
+     * <p>
+     * Committed chunks stay in place when a later chunk fails. With a journal,
+     * each chunk saves the checkpoint of its partition, and the feed checkpoint
+     * is advanced up to the oldest entry whose chunk is not yet committed.
+     */
+    private ImportResult importPartitioned(AtomFeedReader feedReader, ImportContext context, Journal journal,
+                                           ImportListener listener, long start)
+            throws IOException, XMLStreamException, JAXBException {
+        PartitionedImportExecutor.Run run = partitionedImportExecutor.start();
+        int chunkSize = partitionedImportExecutor.getChunkSize();
+        AtomicLong blocks = new AtomicLong(journal != null ? journal.resumedBlocks : 0);
+        AtomicLong readings = new AtomicLong(journal != null ? journal.resumedReadings : 0);
+
+        Chunk chunk = new Chunk(null, chunkSize);
+        try {
+            AtomEntryDto entry;
+            while ((entry = nextEntry(feedReader, context, journal)) != null) {
+                String key = partitionKey(entry, ResourceKind.of(entry.getResource()));
+                if (key == null) {
+                    AtomEntryDto shared = entry;
+                    inTransaction(() -> {
+                        importEntry(shared, context, null);
+                        return null;
+                    });
+                } else {
+                    if (!key.equals(chunk.partition) || chunk.entries.size() >= chunkSize) {
+                        submitChunk(run, chunk, context, journal, blocks, readings);
+                        chunk = new Chunk(key, chunkSize);
+                    }
+                    chunk.add(entry, feedReader.getEntryCount(), journal);
+                }
+                if (journal != null) {
+                    journal.advance(blocks.get(), readings.get());
+                }
+                listener.progress(feedReader.getEntryCount(), blocks.get(), readings.get());
+            }
+            submitChunk(run, chunk, context, journal, blocks, readings);
+        } finally {
+            run.await();
+        }
+
+        inTransaction(() -> {
+            resolvePendingLinks(context);
+            if (journal != null) {
+                importCheckpointRepository.deleteByJobId(journal.jobId);
+            }
+            return null;
+        });
+        listener.progress(feedReader.getEntryCount(), blocks.get(), readings.get());
+
+        return new ImportResult(feedReader.getEntryCount(), context.skippedEntries.get(),
+            blocks.get(), readings.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void submitChunk(PartitionedImportExecutor.Run run, Chunk chunk, ImportContext context, Journal journal,
+                             AtomicLong blocks, AtomicLong readings) throws IOException {
+        if (chunk.entries.isEmpty()) {
+            return;
+        }
+        run.submit(chunk.partition, () -> {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                IntervalBlockImportRepository.Batch batch = intervalBlockImportRepository.openBatch();
+                for (AtomEntryDto entry : chunk.entries) {
+                    importEntry(entry, context, batch);
+                }
+                batch.flush();
+                refreshRollups(batch);
+                if (journal != null) {
+                    journal.save(chunk, batch.getBlockCount(), batch.getReadingCount());
+                }
+                blocks.addAndGet(batch.getBlockCount());
+                readings.addAndGet(batch.getReadingCount());
+            });
+            if (journal != null) {
+                journal.committed(chunk);
+            }
+        });
+    }
+
+    /**
+     * Reads the next entry to import. Entries covered by the checkpoints of an
+     * earlier run of the job are passed over and only replayed into the
+     * context; those up to the feed checkpoint are not even unmarshalled.
+     *
+     * @return the entry, or null at the end of the feed
+     */
+    private AtomEntryDto nextEntry(AtomFeedReader feedReader, ImportContext context, Journal journal)
+            throws XMLStreamException, JAXBException {
+        if (journal == null) {
+            AtomEntryDto entry = feedReader.nextEntry();
+            return entry != null
+                ? identified(entry, ResourceKind.of(entry.getResource()), feedReader.getEntryCount())
+                : null;
+        }
+        while (true) {
+            if (journal.isCommitted(feedReader.getEntryCount() + 1)) {
+                EntryHeader header = feedReader.skipEntry(SHARED_DEFINITIONS);
+                if (header == null) {
+                    return null;
+                }
+                ResourceKind kind = ResourceKind.of(header.resource());
+                AtomEntryDto entry = identified(header.entry(), kind, feedReader.getEntryCount());
+                journal.read(feedReader.getEntryCount(), entry);
+                journal.passedOver++;
+                replayEntry(entry, kind, context);
+                continue;
+            }
+            AtomEntryDto read = feedReader.nextEntry();
+            if (read == null) {
+                return null;
+            }
+            ResourceKind kind = ResourceKind.of(read.getResource());
+            AtomEntryDto entry = identified(read, kind, feedReader.getEntryCount());
+            journal.read(feedReader.getEntryCount(), entry);
+            if (!journal.isCommitted(partitionKey(entry, kind), feedReader.getEntryCount())) {
+                return entry;
+            }
+            journal.passedOver++;
+            replayEntry(entry, kind, context);
+        }
+    }
+
+    private <T> T inTransaction(TransactionalWork<T> work) throws IOException, XMLStreamException, JAXBException {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    return work.run();
+                } catch (IOException | XMLStreamException | JAXBException e) {
+                    throw new WrappedException(e);
+                }
+            });
+        } catch (WrappedException e) {
+            switch (e.getCause()) {
+                case IOException io -> throw io;
+                case XMLStreamException xml -> throw xml;
+                case JAXBException jaxb -> throw jaxb;
+                default -> throw e;
+            }
+        }
+    }
+
+    private void importEntry(AtomEntryDto entry, ImportContext context, IntervalBlockImportRepository.Batch batch) {
+        String selfHref = href(entry.getSelfLink());
+        String upHref = href(entry.getUpLink());
+        String parentHref = parentHref(upHref);
+        UUID id = entryId(entry, selfHref);
+
+        switch (entry.getResource()) {
+            case IntervalBlockDto block -> {
+                UUID meterReadingId = context.meterReadings.get(parentHref);
+                UUID blockId = Objects.requireNonNullElse(meterReadingId != null
+                    ? IntervalBlockImportRepository.blockId(meterReadingId, block)
+                    : IntervalBlockImportRepository.blockId(parentHref, block), id);
+                if (meterReadingId == null && parentHref != null) {
+                    context.pendingBlocks.put(blockId, parentHref);
+                }
+                batch.add(new ImportedBlock(blockId, meterReadingId, selfHref, upHref,
+                    toUtc(entry.published()), toUtc(entry.updated()), block));
+            }
+            case MeterReadingDto meterReading -> {
+                if (!meterReadingRepository.existsById(id)) {
+                    MeterReadingEntity entity = identify(meterReadingMapper.toEntity(meterReading), id, entry, selfHref, upHref);
+                    UUID usagePointId = context.usagePoints.get(parentHref);
+                    if (usagePointId != null) {
+                        entity.setUsagePoint(usagePointRepository.getReferenceById(usagePointId));
+                    } else if (parentHref != null) {
+                        context.pendingUsagePoints.put(id, parentHref);
+                    }
+                    String readingTypeHref = readingTypeHref(entry);
+                    UUID readingTypeId = context.readingTypes.get(readingTypeHref);
+                    if (readingTypeId != null) {
+                        entity.setReadingType(readingTypeRepository.getReferenceById(readingTypeId));
+                    } else if (readingTypeHref != null) {
+                        context.pendingReadingTypes.put(id, readingTypeHref);
+                    }
+                    meterReadingRepository.saveAndFlush(entity);
+                }
+                context.register(context.meterReadings, selfHref, id);
+            }
+            case ReadingTypeDto readingType -> {
+                ReadingTypeDto definition = readingType.withoutIdentity();
+                UUID readingTypeId = context.readingTypeIds.get(definition);
+                if (readingTypeId == null) {
+                    if (!readingTypeRepository.existsById(id)) {
+                        readingTypeRepository.saveAndFlush(identify(readingTypeMapper.toEntity(readingType), id, entry, selfHref, upHref));
+                    }
+                    context.readingTypeIds.put(definition, id);
+                    readingTypeId = id;
+                } else {
+                    context.sharedDefinitions.incrementAndGet();
+                }
+                context.register(context.readingTypes, selfHref, readingTypeId);
+            }
+            case UsagePointDto usagePoint -> {
+                if (!usagePointRepository.existsById(id)) {
+                    usagePointRepository.saveAndFlush(identify(usagePointMapper.toEntity(usagePoint), id, entry, selfHref, upHref));
+                }
+                context.register(context.usagePoints, selfHref, id);
+            }
+            case null, default -> {
+                context.skippedEntries.incrementAndGet();
+                log.debug("Skipped import of unsupported entry " + entry.id());
+            }
+        }
+    }
+
+    /**
+     * Registers an entry committed by an earlier run of the job as
+     * {@link #importEntry} did, without writing anything.
+     */
+    private void replayEntry(AtomEntryDto entry, ResourceKind kind, ImportContext context) {
+        String selfHref = href(entry.getSelfLink());
+        String upHref = href(entry.getUpLink());
+        String parentHref = parentHref(upHref);
+        UUID id = entryId(entry, selfHref);
+
+        switch (kind) {
+            case INTERVAL_BLOCK -> {
+                if (parentHref != null && !context.meterReadings.containsKey(parentHref)) {
+                    if (entry.getResource() instanceof IntervalBlockDto block) {
+                        UUID blockId = IntervalBlockImportRepository.blockId(parentHref, block);
+                        context.pendingBlocks.put(Objects.requireNonNullElse(blockId, id), parentHref);
+                    } else {
+                        // Passed over unread, so only its up link tells which rows it wrote
+                        context.pendingBlockLinks.put(upHref, parentHref);
+                    }
+                }
+            }
+            case METER_READING -> {
+                if (parentHref != null && !context.usagePoints.containsKey(parentHref)) {
+                    context.pendingUsagePoints.put(id, parentHref);
+                }
+                String readingTypeHref = readingTypeHref(entry);
+                if (readingTypeHref != null && !context.readingTypes.containsKey(readingTypeHref)) {
+                    context.pendingReadingTypes.put(id, readingTypeHref);
+                }
+                context.register(context.meterReadings, selfHref, id);
+            }
+            case READING_TYPE -> {
+                UUID readingTypeId = id;
+                if (entry.getResource() instanceof ReadingTypeDto readingType) {
+                    readingTypeId = context.readingTypeIds.computeIfAbsent(readingType.withoutIdentity(), definition -> id);
+                }
+                context.register(context.readingTypes, selfHref, readingTypeId);
+            }
+            case USAGE_POINT -> context.register(context.usagePoints, selfHref, id);
+            case OTHER -> context.skippedEntries.incrementAndGet();
+        }
+    }
+
+    private void resolvePendingLinks(ImportContext context) {
+        int unresolved = 0;
+        Set<UUID> relinked = new HashSet<>();
+
+        Map<UUID, UUID> blockParents = new HashMap<>();
+        for (Map.Entry<UUID, String> pending : context.pendingBlocks.entrySet()) {
+            UUID meterReadingId = context.meterReadings.get(pending.getValue());
+            if (meterReadingId != null) {
+                blockParents.put(pending.getKey(), meterReadingId);
+            } else {
+                unresolved++;
+            }
+        }
+        if (!blockParents.isEmpty()) {
+            intervalBlockImportRepository.updateMeterReadingIds(blockParents);
+            relinked.addAll(blockParents.values());
+        }
+
+        Map<String, UUID> blockLinkParents = new HashMap<>();
+        for (Map.Entry<String, String> pending : context.pendingBlockLinks.entrySet()) {
+            UUID meterReadingId = context.meterReadings.get(pending.getValue());
+            if (meterReadingId != null) {
+                blockLinkParents.put(pending.getKey(), meterReadingId);
+            } else {
+                unresolved++;
+            }
+        }
+        if (!blockLinkParents.isEmpty()) {
+            intervalBlockImportRepository.updateMeterReadingIdsByUpLink(blockLinkParents);
+            relinked.addAll(blockLinkParents.values());
+        }
+
+        for (Map.Entry<UUID, String> pending : context.pendingUsagePoints.entrySet()) {
+            UUID usagePointId = context.usagePoints.get(pending.getValue());
+            if (usagePointId != null) {
+                meterReadingRepository.findById(pending.getKey())
+                    .ifPresent(m -> m.setUsagePoint(usagePointRepository.getReferenceById(usagePointId)));
+                relinked.add(pending.getKey());
+            } else {
+                unresolved++;
+            }
+        }
+
+        for (Map.Entry<UUID, String> pending : context.pendingReadingTypes.entrySet()) {
+            UUID readingTypeId = context.readingTypes.get(pending.getValue());
+            if (readingTypeId != null) {
+                meterReadingRepository.findById(pending.getKey())
+                    .ifPresent(m -> m.setReadingType(readingTypeRepository.getReferenceById(readingTypeId)));
+                relinked.add(pending.getKey());
+            } else {
+                unresolved++;
+            }
+        }
+
+        // Interval data of meter readings linked only now was left out of the rollups so far
+        if (intervalRollupRepository.isEnabled() && !relinked.isEmpty()) {
+            meterReadingRepository.flush();
+            intervalRollupRepository.rebuild(relinked);
+        }
+
+        if (unresolved > 0) {
+            log.warn("Import left " + unresolved + " links unresolved; their targets were not part of the feed");
+        }
+    }
+
+    /**
+     * Recomputes the rollups of the interval data a flushed batch has written,
+     * when {@code espi.rollups.enabled} is set.
+     */
+    private void refreshRollups(IntervalBlockImportRepository.Batch batch) {
+        Map<UUID, IntervalRollupRepository.Span> spans = batch.takeWrittenSpans();
+        if (intervalRollupRepository.isEnabled()) {
+            intervalRollupRepository.refresh(spans);
+        }
+    }
+
+    private <E extends IdentifiedObject> E identify(E entity, UUID id, AtomEntryDto entry, String selfHref, String upHref) {
+        entity.setId(id);
+        if (entity.getDescription() == null) {
+            entity.setDescription(entry.title());
+        }
+        entity.setPublished(toUtc(entry.published()));
+        if (selfHref != null) {
+            entity.setSelfLink(new LinkType(selfHref, "self"));
+        }
+        if (upHref != null) {
+            entity.setUpLink(new LinkType(upHref, "up"));
+        }
+        return entity;
+    }
+
+    /**
+     * Takes the ID from the {@code urn:uuid:} id of the entry, or derives it
+     * from the self link as the rest of the system does, or else from the id
+     * of the entry whatever its form.
+     */
+    private UUID entryId(AtomEntryDto entry, String selfHref) {
+        String value = entry.id() != null ? entry.id().trim() : "";
+        if (!value.isEmpty()) {
+            String uuid = value.regionMatches(true, 0, URN_UUID, 0, URN_UUID.length())
+                ? value.substring(URN_UUID.length()) : value;
+            try {
+                return UUID.fromString(uuid);
+            } catch (IllegalArgumentException e) {
+                // Not a UUID; fall back to the self link
+            }
+        }
+        if (selfHref != null) {
+            try {
+                return espiIdGeneratorService.generateEspiId(selfHref);
+            } catch (IllegalArgumentException e) {
+                // Relative href
+                return UUID.nameUUIDFromBytes(selfHref.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // Entries read without an id have been given one by identified()
+        return UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gives an entry with neither an id nor a self link an id derived from its
+     * up link, its kind and its position in the feed, so that importing the
+     * same feed again, or resuming it, writes the same rows.
+     */
+    private static AtomEntryDto identified(AtomEntryDto entry, ResourceKind kind, int entryIndex) {
+        if ((entry.id() != null && !entry.id().isBlank()) || href(entry.getSelfLink()) != null) {
+            return entry;
+        }
+        String name = Objects.requireNonNullElse(href(entry.getUpLink()), "") + "#" + kind + "#" + entryIndex;
+        String id = URN_UUID + UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        return new AtomEntryDto(id, entry.title(), entry.published(), entry.updated(), entry.links(), entry.content());
+    }
+
+    private static String readingTypeHref(AtomEntryDto entry) {
+        if (entry.links() == null) {
+            return null;
+        }
+        return entry.links().stream()
+            .filter(link -> "related".equals(link.rel()) && link.href() != null && link.href().contains(READING_TYPE_PATH))
+            .map(DtoImportServiceImpl::href)
+            .findFirst()
+            .orElse(null);
+    }
+
+    private static String href(LinkDto link) {
+        if (link == null || link.href() == null) {
+            return null;
+        }
+        String href = link.href().trim();
+        return href.endsWith("/") ? href.substring(0, href.length() - 1) : href;
+    }
+
+    private static String parentHref(String upHref) {
+        if (upHref == null) {
+            return null;
+        }
+        int slash = upHref.lastIndexOf('/');
+        return slash > 0 ? upHref.substring(0, slash) : null;
+    }
+
+    /**
+     * Returns the href of the UsagePoint an entry belongs to, or {@code null}
+     * for entries shared across usage points. Meter readings and interval
+     * blocks whose hrefs do not name their usage point are partitioned by
+     * meter reading instead.
+     */
+    static String partitionKey(AtomEntryDto entry, ResourceKind kind) {
+        String selfHref = href(entry.getSelfLink());
+        String upHref = href(entry.getUpLink());
+        String owner = usagePointHref(selfHref != null ? selfHref : upHref);
+        if (owner != null) {
+            return owner;
+        }
+        return switch (kind) {
+            case INTERVAL_BLOCK -> Objects.requireNonNullElse(parentHref(upHref), "");
+            case METER_READING, USAGE_POINT -> selfHref;
+            case READING_TYPE, OTHER -> null;
+        };
+    }
+
+    private static String usagePointHref(String href) {
+        if (href == null) {
+            return null;
+        }
+        int index = href.indexOf(USAGE_POINT_PATH);
+        if (index < 0) {
+            return null;
+        }
+        int end = href.indexOf('/', index + USAGE_POINT_PATH.length());
+        return end < 0 ? href : href.substring(0, end);
+    }
+
+    private static LocalDateTime toUtc(OffsetDateTime value) {
+        return value != null ? value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime() : null;
+    }
+
+    /**
+     * IDs by self href of the parents read so far, IDs of the reading types
+     * by their definition, and the links still to be resolved, for one import.
+     * Shared by the workers of a partitioned import.
+     */
+    private static final class ImportContext {
+
+        private final Map<String, UUID> usagePoints = new ConcurrentHashMap<>();
+        private final Map<String, UUID> meterReadings = new ConcurrentHashMap<>();
+        private final Map<String, UUID> readingTypes = new ConcurrentHashMap<>();
+        private final Map<ReadingTypeDto, UUID> readingTypeIds = new ConcurrentHashMap<>();
+
+        private final Map<UUID, String> pendingBlocks = new ConcurrentHashMap<>();
+        private final Map<String, String> pendingBlockLinks = new ConcurrentHashMap<>();
+        private final Map<UUID, String> pendingUsagePoints = new ConcurrentHashMap<>();
+        private final Map<UUID, String> pendingReadingTypes = new ConcurrentHashMap<>();
+
+        private final AtomicInteger skippedEntries = new AtomicInteger();
+        private final AtomicInteger sharedDefinitions = new AtomicInteger();
+
+        private void register(Map<String, UUID> resources, String selfHref, UUID id) {
+            if (selfHref != null) {
+                resources.put(selfHref, id);
+            }
+        }
+    }
+
+    /**
+     * The resources the import handles, as told by their DTO or, for entries
+     * passed over, by the name of their element.
+     */
+    enum ResourceKind {
+        USAGE_POINT, METER_READING, READING_TYPE, INTERVAL_BLOCK, OTHER;
+
+        private static ResourceKind of(Object resource) {
+            return switch (resource) {
+                case UsagePointDto usagePoint -> USAGE_POINT;
+                case MeterReadingDto meterReading -> METER_READING;
+                case ReadingTypeDto readingType -> READING_TYPE;
+                case IntervalBlockDto block -> INTERVAL_BLOCK;
+                case null, default -> OTHER;
+            };
+        }
+
+        private static ResourceKind of(String elementName) {
+            return switch (elementName) {
+                case "UsagePoint" -> USAGE_POINT;
+                case "MeterReading" -> METER_READING;
+                case "ReadingType" -> READING_TYPE;
+                case "IntervalBlock" -> INTERVAL_BLOCK;
+                case null, default -> OTHER;
+            };
+        }
+    }
+
+    /**
+     * Consecutive entries of one partition, persisted in one transaction.
+     */
+    private static final class Chunk {
+
+        private final String partition;
+        private final List<AtomEntryDto> entries;
+        private int first;
+        private Checkpoint last;
+
+        private Chunk(String partition, int chunkSize) {
+            this.partition = partition;
+            this.entries = new ArrayList<>(chunkSize);
+        }
+
+        private void add(AtomEntryDto entry, int entryIndex, Journal journal) {
+            if (entries.isEmpty()) {
+                first = entryIndex;
+                if (journal != null) {
+                    journal.opened(this);
+                }
+            }
+            entries.add(entry);
+            if (journal != null) {
+                last = journal.current;
+            }
+        }
+    }
+
+    /**
+     * Checkpoints of one import job: those saved by an earlier run, which
+     * decide what is passed over, and the position reached by this one.
+     */
+    private final class Journal {
+
+        private static final Checkpoint START = new Checkpoint(0, 0, null, 0, 0);
+
+        private final UUID jobId;
+        private final CountingInputStream counter;
+        private final Checkpoint resumed;
+        private final Map<String, Integer> resumedPartitions = new HashMap<>();
+        private final long resumedBlocks;
+        private final long resumedReadings;
+
+        private final Map<String, Checkpoint> partitions = new ConcurrentHashMap<>();
+        private final NavigableMap<Integer, Checkpoint> uncommitted = new ConcurrentSkipListMap<>();
+        private Checkpoint previous;
+        private Checkpoint current;
+        private int saved;
+        private int passedOver;
+
+        private Journal(UUID jobId, Map<String, Checkpoint> checkpoints, CountingInputStream counter) {
+            this.jobId = jobId;
+            this.counter = counter;
+            this.resumed = checkpoints.getOrDefault(ImportCheckpointRepository.FEED, START);
+            long partitionBlocks = 0;
+            long partitionReadings = 0;
+            for (Map.Entry<String, Checkpoint> checkpoint : checkpoints.entrySet()) {
+                if (!checkpoint.getKey().equals(ImportCheckpointRepository.FEED)) {
+                    resumedPartitions.put(checkpoint.getKey(), checkpoint.getValue().entryIndex());
+                    partitions.put(checkpoint.getKey(), checkpoint.getValue());
+                    partitionBlocks += checkpoint.getValue().intervalBlocks();
+                    partitionReadings += checkpoint.getValue().intervalReadings();
+                }
+            }
+            // Partition checkpoints count everything committed, the feed checkpoint of a partitioned run only part of it
+            this.resumedBlocks = Math.max(resumed.intervalBlocks(), partitionBlocks);
+            this.resumedReadings = Math.max(resumed.intervalReadings(), partitionReadings);
+            this.previous = START;
+            this.current = START;
+            this.saved = resumed.entryIndex();
+        }
+
+        private boolean isResumed() {
+            return resumed.entryIndex() > 0 || !resumedPartitions.isEmpty();
+        }
+
+        private boolean isCommitted(int entryIndex) {
+            return entryIndex <= resumed.entryIndex();
+        }
+
+        private boolean isCommitted(String partition, int entryIndex) {
+            if (partition == null) {
+                return false;
+            }
+            Integer committed = resumedPartitions.get(ImportCheckpointRepository.partitionKey(partition));
+            return committed != null && entryIndex <= committed;
+        }
+
+        /**
+         * Records the position after an entry has been read or passed over.
+         */
+        private void read(int entryIndex, AtomEntryDto entry) {
+            previous = current;
+            current = new Checkpoint(entryIndex, counter.getCount(), href(entry.getSelfLink()), 0, 0);
+        }
+
+        /**
+         * Saves the feed checkpoint of a sequential import in its transaction.
+         */
+        private void save(long blocks, long readings) {
+            importCheckpointRepository.save(jobId, ImportCheckpointRepository.FEED, withCounts(current, blocks, readings));
+            saved = current.entryIndex();
+        }
+
+        private void opened(Chunk chunk) {
+            uncommitted.put(chunk.first, previous);
+        }
+
+        /**
+         * Saves the checkpoint of the partition of a chunk in its transaction.
+         */
+        private void save(Chunk chunk, long blocks, long readings) {
+            String key = ImportCheckpointRepository.partitionKey(chunk.partition);
+            Checkpoint before = partitions.getOrDefault(key, START);
+            Checkpoint checkpoint = withCounts(chunk.last, before.intervalBlocks() + blocks,
+                before.intervalReadings() + readings);
+            importCheckpointRepository.save(jobId, chunk.partition, checkpoint);
+            partitions.put(key, checkpoint);
+        }
+
+        private void committed(Chunk chunk) {
+            uncommitted.remove(chunk.first);
+        }
+
+        /**
+         * Saves the feed checkpoint of a partitioned import once the entries
+         * committed without a gap have grown by the checkpoint interval.
+         */
+        private void advance(long blocks, long readings) {
+            Map.Entry<Integer, Checkpoint> oldest = uncommitted.firstEntry();
+            Checkpoint committed = oldest != null ? oldest.getValue() : current;
+            if (committed.entryIndex() - saved >= importCheckpointRepository.getInterval()) {
+                Checkpoint checkpoint = withCounts(committed, blocks, readings);
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    importCheckpointRepository.save(jobId, ImportCheckpointRepository.FEED, checkpoint));
+                saved = committed.entryIndex();
+            }
+        }
+
+        private static Checkpoint withCounts(Checkpoint position, long blocks, long readings) {
+            return new Checkpoint(position.entryIndex(), position.byteOffset(), position.lastSelfHref(), blocks, readings);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TransactionalWork<T> {
+        T run() throws IOException, XMLStreamException, JAXBException;
+    }
+
+    /**
+     * Carries a checked exception out of a {@link TransactionTemplate} callback,
+     * rolling the transaction back on the way.
+     */
+    private static final class WrappedException extends RuntimeException {
+        private WrappedException(Exception cause) {
+            super(cause);
+        }
+    }
+}
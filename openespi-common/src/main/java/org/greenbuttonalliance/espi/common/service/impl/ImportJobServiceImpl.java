@@ -0,0 +1,305 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import com.google.common.io.CountingInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.service.DtoImportService;
+import org.greenbuttonalliance.espi.common.service.DtoImportService.ImportResult;
+import org.greenbuttonalliance.espi.common.service.ImportJobService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Import jobs on a fixed pool of {@code espi.import.jobs.threads} workers with
+ * a queue of {@code espi.import.jobs.queue-capacity} jobs. Uploads beyond the
+ * queue are rejected rather than buffered, and API request threads never run
+ * an import, so ingest cannot starve them of threads or, as long as the
+ * worker count stays below the connection pool size, of database connections.
+ * <p>
+ * Uploads are spooled to {@code espi.import.jobs.directory} as
+ * {@code <jobId>.xml} and deleted once their import has finished. An import
+ * interrupted by shutdown, or by a crash, leaves its spooled file and is
+ * queued again at the next start under the same job ID, so that it resumes
+ * from the checkpoints {@link DtoImportService} journaled for it instead of
+ * from the beginning. The checkpoints of a failed job are discarded with its
+ * spooled file. The status of the last {@code espi.import.jobs.retained}
+ * finished jobs is kept in memory.
+ */
+@Slf4j
+@Service
+public class ImportJobServiceImpl implements ImportJobService, DisposableBean {
+
+    private static final String SPOOL_SUFFIX = ".xml";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final DtoImportService dtoImportService;
+    private final Path spoolDirectory;
+    private final int retainedJobs;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobServiceImpl(DtoImportService dtoImportService,
+                                @Value("${espi.import.jobs.directory:${java.io.tmpdir}/espi-import-spool}") Path spoolDirectory,
+                                @Value("${espi.import.jobs.threads:2}") int threads,
+                                @Value("${espi.import.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${espi.import.jobs.retained:100}") int retainedJobs) {
+        this.dtoImportService = dtoImportService;
+        this.spoolDirectory = spoolDirectory;
+        this.retainedJobs = retainedJobs;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new ImportThreadFactory());
+        try {
+            Files.createDirectories(spoolDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create import spool directory " + spoolDirectory, e);
+        }
+        log.info("Import jobs run on " + threads + " workers with a queue of " + queueCapacity);
+    }
+
+    @Override
+    public ImportJobStatus submit(String fileName, InputStream upload) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Import queue is full");
+        }
+
+        UUID id = UUID.randomUUID();
+        Path spoolFile = spoolDirectory.resolve(id + SPOOL_SUFFIX);
+        Path temp = spoolDirectory.resolve(id + TEMP_SUFFIX);
+        try {
+            Files.copy(upload, temp);
+            Files.move(temp, spoolFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        ImportJob job = new ImportJob(id, fileName, spoolFile, Files.size(spoolFile));
+        try {
+            enqueue(job);
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(spoolFile);
+            throw e;
+        }
+        log.info("Queued import job " + id + " for " + fileName + " (" + job.size + " bytes)");
+        return job.status();
+    }
+
+    @Override
+    public Optional<ImportJobStatus> findById(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::status);
+    }
+
+    @Override
+    public List<ImportJobStatus> findAll() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing((ImportJob job) -> job.submitted).reversed())
+            .map(ImportJob::status)
+            .toList();
+    }
+
+    /**
+     * Queues the spooled uploads left by jobs that did not finish before the
+     * last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverSpooledJobs() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (!name.endsWith(SPOOL_SUFFIX)) {
+                    continue;
+                }
+                UUID id;
+                try {
+                    id = UUID.fromString(name.substring(0, name.length() - SPOOL_SUFFIX.length()));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                if (jobs.containsKey(id)) {
+                    continue;
+                }
+                try {
+                    enqueue(new ImportJob(id, name, file, Files.size(file)));
+                    log.info("Queued import job " + id + " again from its spooled upload");
+                } catch (RejectedExecutionException e) {
+                    log.warn("Import queue is full; spooled upload " + name + " stays for the next start");
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to recover spooled imports from " + spoolDirectory + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void enqueue(ImportJob job) {
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+    }
+
+    private void run(ImportJob job) {
+        job.started = Instant.now();
+        job.state = State.RUNNING;
+        boolean keepSpool = false;
+
+        try (CountingInputStream stream = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(job.spoolFile), 65536))) {
+            job.stream = stream;
+            ImportResult result = dtoImportService.importFeed(stream, job::progress, job.id);
+            job.progress(result.entries(), result.intervalBlocks(), result.intervalReadings());
+            job.state = State.SUCCEEDED;
+            log.info("Import job " + job.id + " finished: " + result.entries() + " entries, "
+                + result.intervalReadings() + " readings in " + result.elapsedMillis() + " ms");
+
+        } catch (Exception e) {
+            // Shutdown interrupts running imports; their uploads are imported again at the next start
+            keepSpool = executor.isShutdown();
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            job.state = State.FAILED;
+            log.error("Import job " + job.id + " failed: " + job.error, e);
+
+        } finally {
+            if (!keepSpool) {
+                try {
+                    Files.deleteIfExists(job.spoolFile);
+                } catch (IOException e) {
+                    log.warn("Failed to delete spooled upload " + job.spoolFile + ": " + e.getMessage());
+                }
+                if (job.state == State.FAILED) {
+                    discardCheckpoints(job);
+                }
+            }
+            job.finished = Instant.now();
+            forgetFinishedJobs();
+        }
+    }
+
+    private void discardCheckpoints(ImportJob job) {
+        try {
+            dtoImportService.discardCheckpoints(job.id);
+        } catch (RuntimeException e) {
+            log.warn("Failed to discard the checkpoints of import job " + job.id + ": " + e.getMessage());
+        }
+    }
+
+    private void forgetFinishedJobs() {
+        List<ImportJob> finished = jobs.values().stream()
+            .filter(job -> job.finished != null)
+            .sorted(Comparator.comparing((ImportJob job) -> job.finished).reversed())
+            .toList();
+        for (int i = retainedJobs; i < finished.size(); i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+
+    private static final class ImportJob {
+
+        private final UUID id;
+        private final String fileName;
+        private final Path spoolFile;
+        private final long size;
+        private final Instant submitted = Instant.now();
+
+        private volatile State state = State.QUEUED;
+        private volatile Instant started;
+        private volatile Instant finished;
+        private volatile String error;
+        private volatile CountingInputStream stream;
+        private volatile int entries;
+        private volatile long intervalBlocks;
+        private volatile long intervalReadings;
+
+        private ImportJob(UUID id, String fileName, Path spoolFile, long size) {
+            this.id = id;
+            this.fileName = fileName;
+            this.spoolFile = spoolFile;
+            this.size = size;
+        }
+
+        private void progress(int entries, long intervalBlocks, long intervalReadings) {
+            this.entries = entries;
+            this.intervalBlocks = intervalBlocks;
+            this.intervalReadings = intervalReadings;
+        }
+
+        private ImportJobStatus status() {
+            CountingInputStream counter = stream;
+            long bytesParsed = counter != null ? Math.min(counter.getCount(), size) : 0;
+            long readingsPerSecond = 0;
+            if (started != null) {
+                long millis = Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+                readingsPerSecond = millis > 0 ? intervalReadings * 1000 / millis : intervalReadings;
+            }
+            return new ImportJobStatus(id, fileName, state, size, bytesParsed, entries, intervalBlocks,
+                intervalReadings, readingsPerSecond, submitted, started, finished, error);
+        }
+    }
+
+    private static final class ImportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "espi-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
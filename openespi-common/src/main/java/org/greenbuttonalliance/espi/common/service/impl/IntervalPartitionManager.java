@@ -0,0 +1,197 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalReadingPartitionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of {@code interval_readings} ahead of the data
+ * and purges interval data past the retention horizon.
+ * <p>
+ * Enabled by {@code espi.partitioning.enabled}, maintenance runs once the
+ * application is ready and then on {@code espi.partitioning.cron}, in UTC.
+ * Each run creates the partitions of the current month and the next
+ * {@code espi.partitioning.premake-months} months, and of any later month
+ * whose readings fell into the PostgreSQL default partition.
+ * <p>
+ * The retention horizon lies {@code espi.partitioning.retention.months}
+ * months before the current month; when unset, it follows the longest ESPI
+ * {@code HistoryLength} in the scopes of registered applications and granted
+ * authorizations, and no data expires while no scope sets one. A retention of
+ * 0 months keeps everything. Months before the horizon are dropped, or
+ * detached for archiving when {@code espi.partitioning.retention.detach} is
+ * set; interval blocks ending before the horizon are deleted unless detached
+ * readings still refer to them. Blocks that lose readings are touched, so
+ * that exports cached for them go stale. Dropped data cannot be recovered, so
+ * set the retention explicitly before registering applications with a shorter
+ * history than the data kept.
+ * <p>
+ * When the schema is not partitioned, expired data is deleted row by row.
+ */
+@Slf4j
+@Service
+@EnableScheduling
+@ConditionalOnProperty(name = "espi.partitioning.enabled", havingValue = "true")
+public class IntervalPartitionManager {
+
+    private static final YearMonth EPOCH_MONTH = YearMonth.of(1970, 1);
+
+    private final IntervalReadingPartitionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+    private final Integer retentionMonths;
+    private final boolean detach;
+    private final Clock clock;
+
+    @Autowired
+    public IntervalPartitionManager(IntervalReadingPartitionRepository repository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${espi.partitioning.premake-months:3}") int premakeMonths,
+                                    @Value("${espi.partitioning.retention.months:#{null}}") Integer retentionMonths,
+                                    @Value("${espi.partitioning.retention.detach:false}") boolean detach) {
+        this(repository, transactionManager, premakeMonths, retentionMonths, detach, Clock.systemUTC());
+    }
+
+    IntervalPartitionManager(IntervalReadingPartitionRepository repository,
+                             PlatformTransactionManager transactionManager, int premakeMonths,
+                             Integer retentionMonths, boolean detach, Clock clock) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.premakeMonths = Math.max(0, premakeMonths);
+        this.retentionMonths = retentionMonths;
+        this.detach = detach;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs maintenance at startup and on schedule. Failures are logged rather
+     * than thrown, so that they neither stop the application nor the schedule.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${espi.partitioning.cron:0 15 3 * * *}", zone = "UTC")
+    public void run() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Interval partition maintenance failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates the missing partitions and purges expired interval data.
+     *
+     * @return what was done
+     */
+    public Maintenance maintain() {
+        YearMonth currentMonth = YearMonth.now(clock);
+        Optional<YearMonth> horizon = horizon(currentMonth);
+        boolean partitioned = Boolean.TRUE.equals(transactionTemplate.execute(status -> repository.isPartitioned()));
+
+        List<YearMonth> created = new ArrayList<>();
+        List<YearMonth> removed = new ArrayList<>();
+        if (partitioned) {
+            SortedSet<YearMonth> existing = transactionTemplate.execute(status -> repository.findPartitionMonths());
+            SortedSet<YearMonth> wanted = transactionTemplate.execute(status ->
+                repository.findDefaultPartitionMonths(horizon.orElse(EPOCH_MONTH)));
+            for (int i = 0; i <= premakeMonths; i++) {
+                wanted.add(currentMonth.plusMonths(i));
+            }
+            for (YearMonth month : wanted) {
+                if (existing.contains(month)) {
+                    continue;
+                }
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> repository.createPartition(month)))) {
+                    created.add(month);
+                }
+            }
+            if (horizon.isPresent()) {
+                for (YearMonth month : new TreeSet<>(existing.headSet(horizon.get()))) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        repository.removePartition(month, detach);
+                        repository.touchBlocks(month, month.plusMonths(1));
+                    });
+                    removed.add(month);
+                }
+            }
+        }
+
+        int readings = 0;
+        int blocks = 0;
+        if (horizon.isPresent()) {
+            readings = transactionTemplate.execute(status -> {
+                int deleted = repository.deleteReadingsBefore(horizon.get(), partitioned);
+                if (deleted > 0) {
+                    repository.touchBlocks(EPOCH_MONTH, horizon.get());
+                }
+                return deleted;
+            });
+            if (!detach) {
+                blocks = transactionTemplate.execute(status -> repository.deleteBlocksBefore(horizon.get()));
+            }
+        }
+
+        Maintenance maintenance = new Maintenance(created, removed, readings, blocks);
+        log.info("Interval partition maintenance: created " + created + ", " + (detach ? "detached " : "dropped ") +
+            removed + ", deleted " + readings + " readings and " + blocks + " blocks before " +
+            horizon.map(YearMonth::toString).orElse("no horizon"));
+        return maintenance;
+    }
+
+    /**
+     * @return the first month kept, or empty if all interval data is kept
+     */
+    Optional<YearMonth> horizon(YearMonth currentMonth) {
+        int months = retentionMonths != null
+            ? retentionMonths
+            : transactionTemplate.execute(status -> repository.findLongestHistoryLength()).orElse(0);
+        return months > 0 ? Optional.of(currentMonth.minusMonths(months)) : Optional.empty();
+    }
+
+    /**
+     * The outcome of one maintenance run.
+     *
+     * @param created the months whose partition was created
+     * @param removed the months whose partition was dropped or detached
+     * @param readingsDeleted the readings deleted row by row
+     * @param blocksDeleted the interval blocks deleted
+     */
+    public record Maintenance(List<YearMonth> created, List<YearMonth> removed, int readingsDeleted,
+                              int blocksDeleted) {
+    }
+}
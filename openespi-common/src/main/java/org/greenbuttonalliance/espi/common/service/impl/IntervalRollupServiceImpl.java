@@ -0,0 +1,210 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Granularity;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Rollup;
+import org.greenbuttonalliance.espi.common.service.IntervalRollupService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interval rollup service backed by {@link IntervalRollupRepository}.
+ * <p>
+ * Rebuild jobs run on a single worker without a queue, so a second rebuild
+ * is rejected while one runs rather than waiting behind it, and no request
+ * thread runs one. A job checks for cancellation between meter readings. The
+ * status of the last {@code espi.rollups.rebuild.retained} finished jobs is
+ * kept in memory.
+ */
+@Slf4j
+@Service
+public class IntervalRollupServiceImpl implements IntervalRollupService, DisposableBean {
+
+    private final IntervalRollupRepository intervalRollupRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final int retainedJobs;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, RebuildJob> jobs = new ConcurrentHashMap<>();
+
+    public IntervalRollupServiceImpl(IntervalRollupRepository intervalRollupRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${espi.rollups.rebuild.retained:20}") int retainedJobs) {
+        this.intervalRollupRepository = intervalRollupRepository;
+        this.transactionManager = transactionManager;
+        this.retainedJobs = retainedJobs;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "espi-rollup-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rollup> findByMeterReading(UUID meterReadingId, Granularity granularity, Instant from, Instant to) {
+        return intervalRollupRepository.findByMeterReading(meterReadingId, granularity, from.getEpochSecond(),
+            to.getEpochSecond());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rollup> findByUsagePoint(UUID usagePointId, UUID readingTypeId, Granularity granularity,
+                                         Instant from, Instant to) {
+        return intervalRollupRepository.findByUsagePoint(usagePointId, readingTypeId, granularity,
+            from.getEpochSecond(), to.getEpochSecond());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Rollup totalByMeterReading(UUID meterReadingId, Instant from, Instant to) {
+        return intervalRollupRepository.totalByMeterReading(meterReadingId, from.getEpochSecond(),
+            to.getEpochSecond());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Rollup totalByUsagePoint(UUID usagePointId, UUID readingTypeId, Instant from, Instant to) {
+        return intervalRollupRepository.totalByUsagePoint(usagePointId, readingTypeId, from.getEpochSecond(),
+            to.getEpochSecond());
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(UUID meterReadingId) {
+        intervalRollupRepository.rebuild(meterReadingId);
+    }
+
+    @Override
+    public RebuildJobStatus submitRebuild() {
+        RebuildJob job = new RebuildJob(UUID.randomUUID());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RejectedExecutionException("A rollup rebuild is already running", e);
+        }
+        log.info("Started interval rollup rebuild job " + job.id);
+        return job.status();
+    }
+
+    @Override
+    public Optional<RebuildJobStatus> findRebuildJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(RebuildJob::status);
+    }
+
+    @Override
+    public Optional<RebuildJobStatus> cancelRebuild(UUID jobId) {
+        RebuildJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancelled = true;
+        return Optional.of(job.status());
+    }
+
+    @Override
+    public void destroy() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+    }
+
+    private void run(RebuildJob job) {
+        job.started = Instant.now();
+        job.state = RebuildState.RUNNING;
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            List<UUID> meterReadingIds = transaction.execute(status -> intervalRollupRepository.findMeterReadingIds());
+            job.meterReadings = meterReadingIds.size();
+            for (UUID meterReadingId : meterReadingIds) {
+                if (job.cancelled) {
+                    break;
+                }
+                transaction.executeWithoutResult(status -> intervalRollupRepository.rebuild(meterReadingId));
+                job.rebuilt++;
+            }
+            job.state = job.cancelled ? RebuildState.CANCELLED : RebuildState.SUCCEEDED;
+            log.info("Interval rollup rebuild job " + job.id + " " + job.state.name().toLowerCase() + " after "
+                + job.rebuilt + " of " + job.meterReadings + " meter readings in "
+                + (System.currentTimeMillis() - job.started.toEpochMilli()) + " ms");
+
+        } catch (RuntimeException e) {
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            job.state = RebuildState.FAILED;
+            log.error("Interval rollup rebuild job " + job.id + " failed: " + job.error, e);
+
+        } finally {
+            job.finished = Instant.now();
+            forgetFinishedJobs();
+        }
+    }
+
+    private void forgetFinishedJobs() {
+        List<RebuildJob> finished = jobs.values().stream()
+            .filter(job -> job.finished != null)
+            .sorted(Comparator.comparing((RebuildJob job) -> job.finished).reversed())
+            .toList();
+        for (int i = retainedJobs; i < finished.size(); i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+
+    private static final class RebuildJob {
+
+        private final UUID id;
+        private final Instant submitted = Instant.now();
+
+        private volatile RebuildState state = RebuildState.QUEUED;
+        private volatile boolean cancelled;
+        private volatile Instant started;
+        private volatile Instant finished;
+        private volatile String error;
+        private volatile int meterReadings;
+        private volatile int rebuilt;
+
+        private RebuildJob(UUID id) {
+            this.id = id;
+        }
+
+        private RebuildJobStatus status() {
+            return new RebuildJobStatus(id, state, meterReadings, rebuilt, submitted, started, finished, error);
+        }
+    }
+}
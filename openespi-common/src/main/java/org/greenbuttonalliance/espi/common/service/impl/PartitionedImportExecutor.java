@@ -0,0 +1,190 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Worker pool for imports partitioned by UsagePoint.
+ * <p>
+ * The entries of one partition are handed over in chunks of
+ * {@code espi.import.parallel.chunk-size} entries. Chunks of the same
+ * partition run one after another, in the order they were submitted, so that
+ * each chunk sees the parents committed by the previous one; chunks of
+ * different partitions run concurrently on {@code espi.import.parallel.threads}
+ * workers (0 for one per available processor). Every worker holds a database
+ * connection while it runs a chunk, so the worker count should stay below the
+ * connection pool size.
+ * <p>
+ * At most two chunks per worker are pending at any time; submitting blocks
+ * until one completes, which bounds the entries held in memory.
+ */
+@Slf4j
+@Component
+public class PartitionedImportExecutor implements DisposableBean {
+
+    private final boolean enabled;
+    private final int threads;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    public PartitionedImportExecutor(@Value("${espi.import.parallel.enabled:false}") boolean enabled,
+                                     @Value("${espi.import.parallel.threads:0}") int threads,
+                                     @Value("${espi.import.parallel.chunk-size:100}") int chunkSize) {
+        this.enabled = enabled;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+        this.executor = enabled ? Executors.newFixedThreadPool(this.threads, new PartitionThreadFactory()) : null;
+        if (enabled) {
+            log.info("Partitioned import enabled with " + this.threads + " workers and chunks of " + this.chunkSize + " entries");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Starts the partitioned run of one import.
+     *
+     * @return the run
+     */
+    public Run start() {
+        if (!enabled) {
+            throw new IllegalStateException("Partitioned import is disabled");
+        }
+        return new Run();
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The chunks of one import. Submitting and awaiting must happen on a
+     * single thread.
+     */
+    public class Run {
+
+        private final Semaphore pending = new Semaphore(2 * threads);
+        private final Map<String, CompletableFuture<Void>> tails = new HashMap<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Run() {
+        }
+
+        /**
+         * Queues a chunk after the previously submitted chunks of its partition.
+         *
+         * @param partition the partition key
+         * @param chunk persists the chunk
+         * @throws IOException if a chunk of this run has already failed
+         */
+        public void submit(String partition, Runnable chunk) throws IOException {
+            checkFailure();
+            try {
+                pending.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for an import worker");
+            }
+
+            Runnable guarded = () -> {
+                // Later chunks of a failed run are skipped, not run against a half-imported tree
+                if (failure.get() == null) {
+                    try {
+                        chunk.run();
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+                pending.release();
+            };
+
+            CompletableFuture<Void> previous = tails.get(partition);
+            CompletableFuture<Void> next = previous == null || previous.isDone()
+                ? CompletableFuture.runAsync(guarded, executor)
+                : previous.thenRunAsync(guarded, executor);
+            tails.put(partition, next);
+        }
+
+        /**
+         * Waits for all submitted chunks.
+         *
+         * @throws IOException if a chunk failed
+         */
+        public void await() throws IOException {
+            try {
+                CompletableFuture.allOf(tails.values().toArray(CompletableFuture[]::new)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+                throw new InterruptedIOException("Interrupted while waiting for import workers");
+            } catch (ExecutionException | CompletionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+            tails.clear();
+            checkFailure();
+        }
+
+        private void checkFailure() throws IOException {
+            Throwable cause = failure.get();
+            if (cause != null) {
+                throw new IOException("Partitioned import failed: " + cause.getMessage(), cause);
+            }
+        }
+    }
+
+    private static final class PartitionThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "espi-import-partition-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
 import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
 import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
 import org.greenbuttonalliance.espi.common.service.UsagePointService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -50,6 +51,7 @@ public class UsagePointServiceImpl implements UsagePointService {
 
 	private final UsagePointRepository usagePointRepository;
 	private final UsagePointMapper usagePointMapper;
+	private final DtoJaxbContext dtoJaxbContext;
 
 
 	@Override
@@ -79,6 +81,7 @@ public class UsagePointServiceImpl implements UsagePointService {
 		if (existing != null) {
 			// Update existing entity with new values
 			usagePoint.setId(existing.getId());
+			usagePoint.markNotNew();
 		}
 		usagePointRepository.save(usagePoint);
 		log.info("Created or replaced usage point with UUID: " + usagePoint.getId());
@@ -158,10 +161,8 @@ public class UsagePointServiceImpl implements UsagePointService {
 	@Override
 	public UsagePointEntity importResource(InputStream stream) {
 		try {
-			// Use JAXB to parse XML stream to DTO
-			jakarta.xml.bind.JAXBContext context = jakarta.xml.bind.JAXBContext.newInstance(UsagePointDto.class);
-			jakarta.xml.bind.Unmarshaller unmarshaller = context.createUnmarshaller();
-			UsagePointDto dto = (UsagePointDto) unmarshaller.unmarshal(stream);
+			// Use the shared JAXB context to parse XML stream to DTO
+			UsagePointDto dto = (UsagePointDto) dtoJaxbContext.unmarshal(stream);
 			
 			// Convert DTO to Entity using mapper
 			UsagePointEntity entity = usagePointMapper.toEntity(dto);
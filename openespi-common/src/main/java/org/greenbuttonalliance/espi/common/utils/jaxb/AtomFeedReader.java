@@ -0,0 +1,229 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.JAXBIntrospector;
+import jakarta.xml.bind.Unmarshaller;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming reader for Atom feeds of Green Button DTOs, the counterpart of
+ * {@link AtomFeedWriter}.
+ * <p>
+ * The document is pulled with StAX and each {@code <entry>} is unmarshalled
+ * on its own, so only the entry currently being read is held in memory and a
+ * year-long feed can be consumed with a heap that does not depend on its size.
+ * A document whose root is a single {@code <entry>} is read as a feed of one.
+ * <p>
+ * Readers created for an endpoint validate each resource against the ESPI
+ * schemas as it is read when {@link EspiSchemaValidation} is enabled for that
+ * endpoint; a violation fails {@link #nextEntry()} with a
+ * {@link SchemaValidatingStreamReader.SchemaValidationException}.
+ * <p>
+ * Entries already imported can be passed over with {@link #skipEntry(Set)},
+ * which only tokenizes them: nothing is validated, and unless the resource is
+ * one of those asked for, nothing is unmarshalled either; just the id, the
+ * links and the resource name of the entry are kept.
+ * <p>
+ * DTDs and external entities are not processed. Instances are not thread-safe,
+ * since they borrow the calling thread's pooled unmarshaller from
+ * {@link DtoJaxbContext}. Closing the reader does not close the underlying
+ * stream.
+ */
+public class AtomFeedReader implements AutoCloseable {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final XMLStreamReader source;
+    private final XMLStreamReader reader;
+    private final Unmarshaller unmarshaller;
+    private int entryCount;
+
+    public AtomFeedReader(DtoJaxbContext dtoJaxbContext, InputStream stream) throws XMLStreamException, JAXBException {
+        this(dtoJaxbContext, stream, null, null);
+    }
+
+    /**
+     * Creates a reader for a document received by an endpoint.
+     *
+     * @param dtoJaxbContext the shared JAXB context
+     * @param stream the document
+     * @param validation the schema validation settings, or null not to validate
+     * @param endpoint the endpoint name
+     */
+    public AtomFeedReader(DtoJaxbContext dtoJaxbContext, InputStream stream, EspiSchemaValidation validation,
+                          String endpoint) throws XMLStreamException, JAXBException {
+        this.source = INPUT_FACTORY.createXMLStreamReader(stream);
+        this.reader = validation != null ? validation.filter(endpoint, source) : source;
+        this.unmarshaller = dtoJaxbContext.getUnmarshaller();
+    }
+
+    /**
+     * Reads the next entry of the feed.
+     *
+     * @return the entry, or null at the end of the feed
+     * @throws XMLStreamException if the document is not well-formed
+     * @throws JAXBException if an entry cannot be unmarshalled
+     */
+    public AtomEntryDto nextEntry() throws XMLStreamException, JAXBException {
+        while (reader.getEventType() != XMLStreamConstants.END_DOCUMENT) {
+            if (isEntry(reader)) {
+                // Leaves the reader on the event following </entry>
+                AtomEntryDto entry = unmarshal();
+                entryCount++;
+                return entry;
+            }
+            reader.next();
+        }
+        return null;
+    }
+
+    /**
+     * Passes over the next entry of the feed without validating it, and
+     * without unmarshalling it unless its resource is one of those named.
+     *
+     * @param resources local names of the resources to unmarshal all the same
+     * @return the id and links of the entry, its resource if unmarshalled, and the name of its resource,
+     *         or null at the end of the feed
+     * @throws XMLStreamException if the document is not well-formed
+     * @throws JAXBException if a named resource cannot be unmarshalled
+     */
+    public EntryHeader skipEntry(Set<String> resources) throws XMLStreamException, JAXBException {
+        // Bypasses the validating reader, which only tracks the resources it sees
+        while (source.getEventType() != XMLStreamConstants.END_DOCUMENT) {
+            if (isEntry(source)) {
+                EntryHeader header = readHeader(resources);
+                entryCount++;
+                return header;
+            }
+            source.next();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the entry the source is positioned on, leaving it on {@code </entry>}.
+     */
+    private EntryHeader readHeader(Set<String> resources) throws XMLStreamException, JAXBException {
+        String id = null;
+        String resourceName = null;
+        Object resource = null;
+        List<LinkDto> links = new ArrayList<>();
+        boolean inContent = false;
+        int depth = 0;
+        int event = source.next();
+        while (true) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 0 && AtomFeedWriter.ATOM_NAMESPACE.equals(source.getNamespaceURI())) {
+                    switch (source.getLocalName()) {
+                        case "id" -> {
+                            // Consumes </id> as well
+                            id = source.getElementText().trim();
+                            event = source.next();
+                            continue;
+                        }
+                        case "link" -> links.add(new LinkDto(source.getAttributeValue(null, "rel"),
+                            source.getAttributeValue(null, "href"), source.getAttributeValue(null, "type")));
+                        case "content" -> inContent = true;
+                        default -> { }
+                    }
+                } else if (depth == 1 && inContent && resourceName == null) {
+                    resourceName = source.getLocalName();
+                    if (resources.contains(resourceName)) {
+                        // Leaves the source on the event following the end of the resource
+                        resource = JAXBIntrospector.getValue(unmarshaller.unmarshal(source));
+                        event = source.getEventType();
+                        continue;
+                    }
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    AtomContentDto content = resource != null ? new AtomContentDto(resource) : null;
+                    return new EntryHeader(new AtomEntryDto(id, null, null, null, links, content), resourceName);
+                }
+                if (--depth == 0) {
+                    inContent = false;
+                }
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Unexpected end of document in entry", source.getLocation());
+            }
+            event = source.next();
+        }
+    }
+
+    private static boolean isEntry(XMLStreamReader streamReader) {
+        return streamReader.isStartElement()
+            && "entry".equals(streamReader.getLocalName())
+            && AtomFeedWriter.ATOM_NAMESPACE.equals(streamReader.getNamespaceURI());
+    }
+
+    private AtomEntryDto unmarshal() throws XMLStreamException, JAXBException {
+        try {
+            return unmarshaller.unmarshal(reader, AtomEntryDto.class).getValue();
+        } catch (JAXBException e) {
+            // Report schema violations as such rather than as an unmarshalling failure
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SchemaValidatingStreamReader.SchemaValidationException invalid) {
+                    throw invalid;
+                }
+            }
+            throw e;
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+
+    /**
+     * An entry passed over by {@link #skipEntry(Set)}.
+     *
+     * @param entry the id and links of the entry, without title or dates, and its resource only if unmarshalled
+     * @param resource local name of the resource element of the entry, or null if it has none
+     */
+    public record EntryHeader(AtomEntryDto entry, String resource) {
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Streaming writer for Atom feeds of Green Button DTOs.
+ * <p>
+ * The feed header is written with StAX, each {@code <entry>} is marshalled as a
+ * JAXB fragment directly into the same stream as soon as it is handed over, and
+ * the feed is closed at the end. Only the entry currently being written is held
+ * in memory, so the heap used by a Batch/Bulk response does not grow with the
+ * number of entries.
+ * <p>
+ * Instances are not thread-safe and must be used by a single thread, since they
+ * borrow the calling thread's pooled marshaller from {@link DtoJaxbContext}.
+ * Closing the writer flushes pending output but does not close the underlying
+ * stream.
+ */
+public class AtomFeedWriter implements AutoCloseable {
+
+    public static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+    public static final String ESPI_NAMESPACE = "http://naesb.org/espi";
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private final OutputStream stream;
+    private final XMLStreamWriter writer;
+    private final Marshaller marshaller;
+    private int entryCount;
+
+    public AtomFeedWriter(DtoJaxbContext dtoJaxbContext, OutputStream stream) throws XMLStreamException, JAXBException {
+        this.stream = stream;
+        this.writer = OUTPUT_FACTORY.createXMLStreamWriter(stream, "UTF-8");
+        this.marshaller = dtoJaxbContext.getMarshaller();
+    }
+
+    /**
+     * Writes the XML declaration and the feed header elements.
+     *
+     * @param id feed id
+     * @param title feed title
+     * @param updated feed published/updated timestamp
+     * @param links feed links, may be null
+     * @throws XMLStreamException if the header cannot be written
+     */
+    public void writeStartFeed(String id, String title, OffsetDateTime updated, List<LinkDto> links)
+            throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.setDefaultNamespace(ATOM_NAMESPACE);
+        writer.setPrefix("espi", ESPI_NAMESPACE);
+        writer.writeStartElement(ATOM_NAMESPACE, "feed");
+        writer.writeDefaultNamespace(ATOM_NAMESPACE);
+        writer.writeNamespace("espi", ESPI_NAMESPACE);
+
+        writeTextElement("id", id);
+        writeTextElement("title", title);
+        if (updated != null) {
+            String timestamp = updated.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            writeTextElement("published", timestamp);
+            writeTextElement("updated", timestamp);
+        }
+        if (links != null) {
+            for (LinkDto link : links) {
+                writeLink(link);
+            }
+        }
+    }
+
+    /**
+     * Marshals one entry into the feed.
+     *
+     * @param entry the Atom entry to write
+     * @throws JAXBException if the entry cannot be marshalled
+     */
+    public void writeEntry(AtomEntryDto entry) throws JAXBException {
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+        try {
+            marshaller.marshal(entry, writer);
+        } finally {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+        }
+        entryCount++;
+    }
+
+    /**
+     * Splices an already rendered entry into the feed.
+     *
+     * @param fragment a UTF-8 {@code <entry>} fragment without XML declaration,
+     *                 as produced by {@link DtoJaxbContext#marshalFragment(Object)}
+     * @throws XMLStreamException if pending feed output cannot be flushed
+     * @throws IOException if the fragment cannot be written
+     */
+    public void writeEntryFragment(byte[] fragment) throws XMLStreamException, IOException {
+        // Empty character data closes any start tag still pending in the StAX writer
+        writer.writeCharacters("");
+        writer.flush();
+        stream.write(fragment);
+        entryCount++;
+    }
+
+    /**
+     * Closes the feed element and ends the document.
+     *
+     * @throws XMLStreamException if the feed cannot be closed
+     */
+    public void writeEndFeed() throws XMLStreamException {
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    /**
+     * Gets the number of entries written so far.
+     *
+     * @return entry count
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        writer.flush();
+        writer.close();
+    }
+
+    private void writeTextElement(String name, String text) throws XMLStreamException {
+        if (text == null) {
+            return;
+        }
+        writer.writeStartElement(ATOM_NAMESPACE, name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+
+    private void writeLink(LinkDto link) throws XMLStreamException {
+        writer.writeEmptyElement(ATOM_NAMESPACE, "link");
+        if (link.href() != null) {
+            writer.writeAttribute("href", link.href());
+        }
+        if (link.rel() != null) {
+            writer.writeAttribute("rel", link.rel());
+        }
+        if (link.type() != null) {
+            writer.writeAttribute("type", link.type());
+        }
+    }
+}
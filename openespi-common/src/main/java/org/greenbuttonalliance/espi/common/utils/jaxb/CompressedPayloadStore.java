@@ -0,0 +1,409 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Disk store of gzip-compressed Batch payloads.
+ * <p>
+ * Batch/Bulk and Batch/Subscription feeds are identical for every consumer
+ * until the underlying data changes, so each is generated and compressed once
+ * and stored under {@code espi.export.payload-store.directory}, keyed by the
+ * request it answers and a watermark of the data it was generated from. Later
+ * requests with the same key and watermark are served from the stored file,
+ * which callers can send as-is to clients accepting gzip. Concurrent requests
+ * for a payload not yet stored wait for a single generation. Storing a new
+ * watermark removes the older payloads of the same key.
+ * <p>
+ * The store is bounded by {@code espi.export.payload-store.max-disk-bytes};
+ * least recently served payloads are deleted first. Payloads survive restarts,
+ * since the watermark decides whether they are still current.
+ * <p>
+ * Payloads are handed out as {@link Payload} leases. A payload superseded or
+ * evicted while leased is only removed from the index; its file is deleted
+ * once every lease is closed and {@code espi.export.payload-store.retire-delay}
+ * has passed since the last one, so a send that opens the file by name after
+ * the handler returned, as Tomcat's sendfile does, still finds it. Files
+ * awaiting deletion are not counted against the disk budget.
+ * <p>
+ * Lookups are published as {@code espi.export.payload.store.requests}, tagged
+ * {@code result=hit|miss}.
+ */
+@Slf4j
+@Component
+public class CompressedPayloadStore {
+
+    private static final String FILE_SUFFIX = ".xml.gz";
+    private static final int LOCK_STRIPES = 64;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxDiskBytes;
+
+    private final long retireDelayMillis;
+
+    // All guarded by index
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Integer> leases = new HashMap<>();
+    private final Map<String, Long> retired = new HashMap<>();
+    private long diskBytes;
+
+    private final Object[] generationLocks = new Object[LOCK_STRIPES];
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public CompressedPayloadStore(@Value("${espi.export.payload-store.enabled:true}") boolean enabled,
+                                  @Value("${espi.export.payload-store.directory:${java.io.tmpdir}/espi-payload-store}") Path directory,
+                                  @Value("${espi.export.payload-store.max-disk-bytes:4294967296}") long maxDiskBytes,
+                                  @Value("${espi.export.payload-store.retire-delay:PT1M}") Duration retireDelay,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this(enabled, directory, maxDiskBytes, retireDelay, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public CompressedPayloadStore(boolean enabled, Path directory, long maxDiskBytes, Duration retireDelay,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.retireDelayMillis = retireDelay.toMillis();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            generationLocks[i] = new Object();
+        }
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+
+        if (enabled) {
+            initDirectory();
+        }
+    }
+
+    /**
+     * Checks whether payloads are stored at all.
+     *
+     * @return true if the store is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the stored payload for a key and watermark, generating, compressing
+     * and storing it first if needed.
+     *
+     * @param key identifies the request the payload answers
+     * @param watermark identifies the state of the data the payload reflects
+     * @param writer writes the uncompressed payload
+     * @return a lease on the gzip-compressed payload file, to be closed once it has been sent
+     * @throws IOException if the payload cannot be generated or stored
+     */
+    public Payload getOrCreate(String key, String watermark, PayloadWriter writer) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("Payload store is disabled");
+        }
+        String keyHash = hash(key, 32);
+        String name = keyHash + "-" + hash(watermark, 16) + FILE_SUFFIX;
+        Path file = directory.resolve(name);
+
+        Payload stored = lookup(name, file);
+        if (stored != null) {
+            hits.increment();
+            return stored;
+        }
+
+        synchronized (generationLocks[Math.floorMod(keyHash.hashCode(), LOCK_STRIPES)]) {
+            // Another request may have stored it while this one waited
+            stored = lookup(name, file);
+            if (stored != null) {
+                hits.increment();
+                return stored;
+            }
+            misses.increment();
+
+            Path temp = Files.createTempFile(directory, keyHash, ".tmp");
+            try {
+                boolean complete;
+                try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), 8192)) {
+                    complete = writer.write(out);
+                }
+                if (!complete) {
+                    throw new IOException("Payload generation failed for " + key);
+                }
+                synchronized (index) {
+                    // A retired file of the same name must not be deleted once replaced
+                    retired.remove(name);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                deleteQuietly(temp);
+            }
+
+            removeOtherWatermarks(keyHash, name);
+            long size = Files.size(file);
+            record(name, size, true);
+            log.info("Stored compressed payload " + name + " (" + size + " bytes) for " + key);
+            return new Payload(name, file);
+        }
+    }
+
+    private Payload lookup(String name, Path file) {
+        synchronized (index) {
+            if (index.get(name) == null) {
+                return null;
+            }
+            leases.merge(name, 1, Integer::sum);
+        }
+        Payload payload = new Payload(name, file);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return payload;
+        } catch (IOException e) {
+            // Deleted behind the store's back
+            payload.close();
+            forget(name);
+            return null;
+        }
+    }
+
+    /**
+     * Indexes a stored payload, optionally leasing it to the caller, and
+     * retires the least recently served ones over the disk budget.
+     */
+    private void record(String name, long size, boolean leased) {
+        synchronized (index) {
+            Long previous = index.put(name, size);
+            if (previous != null) {
+                diskBytes -= previous;
+            }
+            diskBytes += size;
+            if (leased) {
+                leases.merge(name, 1, Integer::sum);
+            }
+
+            Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+            List<String> expired = new ArrayList<>();
+            while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(name)) {
+                    continue;
+                }
+                eldest.remove();
+                diskBytes -= entry.getValue();
+                expired.add(entry.getKey());
+            }
+            expired.forEach(this::retire);
+            deleteRetired();
+        }
+    }
+
+    private void removeOtherWatermarks(String keyHash, String current) {
+        synchronized (index) {
+            List<String> stale = new ArrayList<>();
+            for (String name : index.keySet()) {
+                if (name.startsWith(keyHash + "-") && !name.equals(current)) {
+                    stale.add(name);
+                }
+            }
+            stale.forEach(this::forget);
+            stale.forEach(this::retire);
+            deleteRetired();
+        }
+    }
+
+    private void forget(String name) {
+        synchronized (index) {
+            Long size = index.remove(name);
+            if (size != null) {
+                diskBytes -= size;
+            }
+        }
+    }
+
+    private void release(String name) {
+        synchronized (index) {
+            if (leases.merge(name, -1, Integer::sum) <= 0) {
+                leases.remove(name);
+            }
+            if (retired.containsKey(name)) {
+                retire(name);
+            }
+            deleteRetired();
+        }
+    }
+
+    /**
+     * Schedules the deletion of a payload no longer indexed, a retire delay
+     * from now. Called with the index lock held.
+     */
+    private void retire(String name) {
+        retired.put(name, System.currentTimeMillis() + retireDelayMillis);
+    }
+
+    /**
+     * Deletes the retired payloads that are no longer leased and whose retire
+     * delay has passed. Called with the index lock held, so that a payload
+     * regenerated under the same name is never deleted.
+     */
+    private void deleteRetired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> it = retired.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            if (entry.getValue() <= now && !leases.containsKey(entry.getKey())
+                    && deleteQuietly(directory.resolve(entry.getKey()))) {
+                it.remove();
+            }
+        }
+    }
+
+    private void initDirectory() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> payloads = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    if (file.getFileName().toString().endsWith(FILE_SUFFIX)) {
+                        payloads.add(file);
+                    } else {
+                        deleteQuietly(file);
+                    }
+                }
+            }
+            // Rebuild the LRU order from the last time each payload was served
+            payloads.sort(Comparator.comparing(CompressedPayloadStore::lastModified));
+            for (Path file : payloads) {
+                record(file.getFileName().toString(), Files.size(file), false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare payload store directory " + directory, e);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String hash(String value, int length) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, length);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to delete payload file " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("espi.export.payload.store.requests")
+            .description("Batch payload lookups in the compressed payload store")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A lease on a stored payload. The file is kept until the lease is closed
+     * and the retire delay has passed.
+     */
+    public final class Payload implements AutoCloseable {
+
+        private final String name;
+        private final Path file;
+        private boolean closed;
+
+        private Payload(String name, Path file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        /**
+         * @return the gzip-compressed payload file
+         */
+        public Path file() {
+            return file;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(name);
+            }
+        }
+    }
+
+    /**
+     * Writes an uncompressed payload.
+     */
+    @FunctionalInterface
+    public interface PayloadWriter {
+
+        /**
+         * @param out the stream to write to; compressed by the store
+         * @return true if the payload was written completely
+         * @throws IOException if the payload cannot be written
+         */
+        boolean write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import lombok.extern.slf4j.Slf4j;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Shared JAXB context for the Green Button DTO packages.
+ * <p>
+ * Building a {@link JAXBContext} is expensive (reflective model building over
+ * every DTO class), so the context is created once at startup and shared by the
+ * export, import and third-party client paths. {@link Marshaller} and
+ * {@link Unmarshaller} instances are not thread-safe but are cheap to reuse, so
+ * each thread keeps its own instance. Pool hits and creations are published to
+ * Micrometer as {@code espi.jaxb.pool.acquire} (tagged by {@code type} and
+ * {@code result}) together with an {@code espi.jaxb.pool.hit.ratio} gauge.
+ */
+@Slf4j
+@Component
+public class DtoJaxbContext {
+
+    /**
+     * DTO packages bound into the shared context.
+     */
+    public static final String[] DTO_PACKAGES = {
+        "org.greenbuttonalliance.espi.common.dto.atom",
+        "org.greenbuttonalliance.espi.common.dto.usage",
+        "org.greenbuttonalliance.espi.common.dto.customer"
+    };
+
+    private final JAXBContext context;
+    private final boolean formattedOutput;
+
+    private final ThreadLocal<Marshaller> marshallers = new ThreadLocal<>();
+    private final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<>();
+
+    private final PoolMetrics marshallerMetrics;
+    private final PoolMetrics unmarshallerMetrics;
+
+    @Autowired
+    public DtoJaxbContext(@Value("${espi.xml.pretty-print:true}") boolean formattedOutput,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this(formattedOutput, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public DtoJaxbContext(boolean formattedOutput, MeterRegistry meterRegistry) {
+        this.formattedOutput = formattedOutput;
+        this.context = buildContext();
+        this.marshallerMetrics = new PoolMetrics(meterRegistry, "marshaller");
+        this.unmarshallerMetrics = new PoolMetrics(meterRegistry, "unmarshaller");
+    }
+
+    private static JAXBContext buildContext() {
+        long start = System.nanoTime();
+
+        Jaxb2Marshaller scanner = new Jaxb2Marshaller();
+        scanner.setPackagesToScan(DTO_PACKAGES);
+        scanner.setJaxbContextProperties(Map.of(JAXBRIContext.ANNOTATION_READER, new RecordAnnotationReader()));
+        try {
+            scanner.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to initialize DTO JAXB context", e);
+        }
+
+        log.info("Initialized DTO JAXB context in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return scanner.getJaxbContext();
+    }
+
+    /**
+     * Gets the shared JAXB context.
+     *
+     * @return the JAXB context for the DTO packages
+     */
+    public JAXBContext getContext() {
+        return context;
+    }
+
+    /**
+     * Gets the marshaller bound to the calling thread, creating it on first use.
+     * Callers that change marshaller properties must restore them before returning.
+     *
+     * @return the thread's marshaller
+     * @throws JAXBException if a new marshaller cannot be created
+     */
+    public Marshaller getMarshaller() throws JAXBException {
+        Marshaller marshaller = marshallers.get();
+        if (marshaller != null) {
+            marshallerMetrics.hits.increment();
+            return marshaller;
+        }
+
+        marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput);
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        marshallers.set(marshaller);
+        marshallerMetrics.creations.increment();
+        return marshaller;
+    }
+
+    /**
+     * Gets the unmarshaller bound to the calling thread, creating it on first use.
+     *
+     * @return the thread's unmarshaller
+     * @throws JAXBException if a new unmarshaller cannot be created
+     */
+    public Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.get();
+        if (unmarshaller != null) {
+            unmarshallerMetrics.hits.increment();
+            return unmarshaller;
+        }
+
+        unmarshaller = context.createUnmarshaller();
+        unmarshallers.set(unmarshaller);
+        unmarshallerMetrics.creations.increment();
+        return unmarshaller;
+    }
+
+    /**
+     * Marshals a DTO to the stream with the thread's pooled marshaller.
+     *
+     * @param dto the DTO to marshal
+     * @param stream output stream for XML
+     * @throws JAXBException if marshalling fails
+     */
+    public void marshal(Object dto, OutputStream stream) throws JAXBException {
+        getMarshaller().marshal(dto, stream);
+    }
+
+    /**
+     * Marshals a DTO to a standalone UTF-8 XML fragment without an XML
+     * declaration, suitable for splicing into a document being streamed.
+     *
+     * @param dto the DTO to marshal
+     * @return the XML fragment
+     * @throws JAXBException if marshalling fails
+     */
+    public byte[] marshalFragment(Object dto) throws JAXBException {
+        Marshaller marshaller = getMarshaller();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+        try {
+            marshaller.marshal(dto, out);
+        } finally {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Unmarshals a DTO from the stream with the thread's pooled unmarshaller.
+     *
+     * @param stream input stream of XML
+     * @return the unmarshalled DTO
+     * @throws JAXBException if unmarshalling fails
+     */
+    public Object unmarshal(InputStream stream) throws JAXBException {
+        return getUnmarshaller().unmarshal(stream);
+    }
+
+    /**
+     * Hit and creation counters for one kind of pooled JAXB object.
+     */
+    private static final class PoolMetrics {
+
+        private final Counter hits;
+        private final Counter creations;
+
+        private PoolMetrics(MeterRegistry registry, String type) {
+            this.hits = Counter.builder("espi.jaxb.pool.acquire")
+                .description("JAXB marshaller/unmarshaller acquisitions from the per-thread pool")
+                .tag("type", type)
+                .tag("result", "hit")
+                .register(registry);
+            this.creations = Counter.builder("espi.jaxb.pool.acquire")
+                .description("JAXB marshaller/unmarshaller acquisitions from the per-thread pool")
+                .tag("type", type)
+                .tag("result", "created")
+                .register(registry);
+            Gauge.builder("espi.jaxb.pool.hit.ratio", this, PoolMetrics::hitRatio)
+                .description("Fraction of JAXB pool acquisitions served without creating a new instance")
+                .tag("type", type)
+                .register(registry);
+        }
+
+        private double hitRatio() {
+            double total = hits.count() + creations.count();
+            return total == 0 ? 0.0 : hits.count() / total;
+        }
+    }
+}
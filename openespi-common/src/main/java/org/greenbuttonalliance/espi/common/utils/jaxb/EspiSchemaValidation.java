@@ -0,0 +1,179 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Optional schema validation of inbound ESPI XML.
+ * <p>
+ * The ESPI and customer XSDs shipped in this module are compiled once, on
+ * first use, into a thread-safe {@link Schema} shared by all readers.
+ * Validation is enabled per endpoint by listing endpoint names in
+ * {@code espi.xml.validation.endpoints}, for example {@code import}; readers of
+ * other endpoints are left unfiltered and pay nothing. Enabled readers are
+ * wrapped in a {@link SchemaValidatingStreamReader}, so validation runs inline
+ * with the streaming parse.
+ * <p>
+ * The time spent validating each document is published to Micrometer as the
+ * {@code espi.xml.validation} timer, tagged by {@code endpoint} and
+ * {@code result} ({@code valid} or {@code invalid}).
+ */
+@Slf4j
+@Component
+public class EspiSchemaValidation {
+
+    /**
+     * Endpoint name of Green Button feed imports.
+     */
+    public static final String IMPORT_ENDPOINT = "import";
+
+    /**
+     * Endpoint name of resources retrieved by the third party.
+     */
+    public static final String THIRD_PARTY_ENDPOINT = "thirdparty";
+
+    static final String ESPI_NAMESPACE = "http://naesb.org/espi";
+    static final String CUSTOMER_NAMESPACE = "http://naesb.org/espi/customer";
+
+    private static final String[] SCHEMAS = {"/schema/ESPI_4.0/espi.xsd", "/schema/ESPI_4.0/customer.xsd"};
+    private static final Set<String> NAMESPACES = Set.of(ESPI_NAMESPACE, CUSTOMER_NAMESPACE);
+
+    private final Set<String> endpoints;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Schema schema;
+
+    @Autowired
+    public EspiSchemaValidation(@Value("${espi.xml.validation.endpoints:}") String[] endpoints,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this(endpoints, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public EspiSchemaValidation(String[] endpoints, MeterRegistry meterRegistry) {
+        this.endpoints = Arrays.stream(endpoints)
+            .map(String::trim)
+            .filter(endpoint -> !endpoint.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+        this.meterRegistry = meterRegistry;
+        if (!this.endpoints.isEmpty()) {
+            log.info("ESPI schema validation enabled for endpoints " + this.endpoints);
+        }
+    }
+
+    /**
+     * @param endpoint the endpoint name
+     * @return whether documents received by the endpoint are validated
+     */
+    public boolean isEnabled(String endpoint) {
+        return endpoints.contains(endpoint);
+    }
+
+    /**
+     * Wraps a reader of a document received by an endpoint in a validating
+     * filter, if validation is enabled for the endpoint.
+     *
+     * @param endpoint the endpoint name
+     * @param reader the reader, positioned at the start of the document
+     * @return the validating reader, or the reader itself
+     */
+    public XMLStreamReader filter(String endpoint, XMLStreamReader reader) {
+        if (!isEnabled(endpoint)) {
+            return reader;
+        }
+        Timer valid = timer(endpoint, "valid");
+        Timer invalid = timer(endpoint, "invalid");
+        return new SchemaValidatingStreamReader(reader, getSchema(), NAMESPACES,
+            (resources, nanos, isValid) -> (isValid ? valid : invalid).record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Gets the compiled ESPI and customer schema, compiling it on first use.
+     *
+     * @return the schema
+     */
+    public Schema getSchema() {
+        Schema compiled = schema;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = schema;
+                if (compiled == null) {
+                    compiled = compile();
+                    schema = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private Timer timer(String endpoint, String result) {
+        return Timer.builder("espi.xml.validation")
+            .description("Time spent validating inbound ESPI XML against the schema")
+            .tag("endpoint", endpoint)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Schema compile() {
+        long start = System.nanoTime();
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            // Imports are resolved next to the XSDs, never over the network
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file,jar");
+
+            Source[] sources = new Source[SCHEMAS.length];
+            for (int i = 0; i < SCHEMAS.length; i++) {
+                URL url = EspiSchemaValidation.class.getResource(SCHEMAS[i]);
+                if (url == null) {
+                    throw new IllegalStateException("ESPI schema " + SCHEMAS[i] + " not found");
+                }
+                sources[i] = new StreamSource(url.toExternalForm());
+            }
+            Schema compiled = factory.newSchema(sources);
+            log.info("Compiled ESPI schemas in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return compiled;
+
+        } catch (SAXException e) {
+            throw new IllegalStateException("Failed to compile ESPI schemas: " + e.getMessage(), e);
+        }
+    }
+}
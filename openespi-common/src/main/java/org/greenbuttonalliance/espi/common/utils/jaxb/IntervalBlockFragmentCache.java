@@ -0,0 +1,348 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of rendered IntervalBlock {@code <entry>} fragments.
+ * <p>
+ * Closed interval blocks rarely change after ingest, so their rendered Atom
+ * entries are kept and spliced into later feeds instead of being mapped and
+ * marshalled again. Fragments are keyed by block id and {@code updated}
+ * timestamp; any change that bumps {@code updated} produces a new key, and
+ * the stale fragment simply ages out. Writers that change the readings of a
+ * block must therefore also touch the block itself.
+ * <p>
+ * Fragments live in a least-recently-used in-memory tier bounded by
+ * {@code espi.export.fragment-cache.max-memory-bytes}. Fragments evicted from
+ * memory are spilled to {@code espi.export.fragment-cache.spill-directory},
+ * which is bounded by {@code max-disk-bytes} and emptied at startup; a disk
+ * budget of zero disables spilling. With {@code compress} enabled fragments
+ * are stored gzip-compressed and inflated on read.
+ * <p>
+ * Lookups are published as {@code espi.export.fragment.cache.requests}
+ * (tagged {@code result=memory|disk|miss}), evictions as
+ * {@code espi.export.fragment.cache.evictions} (tagged by {@code tier}) and
+ * the stored size as the {@code espi.export.fragment.cache.size} gauge.
+ */
+@Slf4j
+@Component
+public class IntervalBlockFragmentCache {
+
+    private static final String FILE_SUFFIX = ".frag";
+
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final boolean compress;
+    private final Path spillDirectory;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Counter memoryEvictions;
+    private final Counter diskEvictions;
+
+    @Autowired
+    public IntervalBlockFragmentCache(@Value("${espi.export.fragment-cache.enabled:true}") boolean enabled,
+                                      @Value("${espi.export.fragment-cache.max-memory-bytes:67108864}") long maxMemoryBytes,
+                                      @Value("${espi.export.fragment-cache.max-disk-bytes:1073741824}") long maxDiskBytes,
+                                      @Value("${espi.export.fragment-cache.compress:false}") boolean compress,
+                                      @Value("${espi.export.fragment-cache.spill-directory:${java.io.tmpdir}/espi-fragment-cache}") Path spillDirectory,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this(enabled, maxMemoryBytes, maxDiskBytes, compress, spillDirectory,
+            meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public IntervalBlockFragmentCache(boolean enabled, long maxMemoryBytes, long maxDiskBytes, boolean compress,
+                                      Path spillDirectory, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = enabled ? maxDiskBytes : 0;
+        this.compress = compress;
+        this.spillDirectory = spillDirectory;
+
+        this.memoryHits = requests(meterRegistry, "memory");
+        this.diskHits = requests(meterRegistry, "disk");
+        this.misses = requests(meterRegistry, "miss");
+        this.memoryEvictions = evictions(meterRegistry, "memory");
+        this.diskEvictions = evictions(meterRegistry, "disk");
+        Gauge.builder("espi.export.fragment.cache.size", this, cache -> cache.memoryBytes)
+            .description("Bytes of rendered IntervalBlock fragments held by the cache")
+            .baseUnit("bytes")
+            .tag("tier", "memory")
+            .register(meterRegistry);
+        Gauge.builder("espi.export.fragment.cache.size", this, cache -> cache.diskBytes)
+            .description("Bytes of rendered IntervalBlock fragments held by the cache")
+            .baseUnit("bytes")
+            .tag("tier", "disk")
+            .register(meterRegistry);
+
+        if (this.maxDiskBytes > 0) {
+            initSpillDirectory();
+        }
+    }
+
+    /**
+     * Checks whether fragments are cached at all.
+     *
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the rendered entry of an interval block version.
+     *
+     * @param blockId the interval block ID
+     * @param updated the block's updated timestamp
+     * @return the UTF-8 entry fragment, or null if it is not cached
+     */
+    public byte[] get(UUID blockId, LocalDateTime updated) {
+        if (!enabled) {
+            return null;
+        }
+        String key = key(blockId, updated);
+
+        byte[] stored;
+        synchronized (memory) {
+            stored = memory.get(key);
+        }
+        if (stored != null) {
+            memoryHits.increment();
+            return decode(stored);
+        }
+
+        stored = readSpilled(key);
+        if (stored != null) {
+            diskHits.increment();
+            List<Map.Entry<String, byte[]>> evicted = store(key, stored);
+            spill(evicted);
+            return decode(stored);
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the rendered entry of an interval block version.
+     *
+     * @param blockId the interval block ID
+     * @param updated the block's updated timestamp
+     * @param fragment the UTF-8 entry fragment
+     */
+    public void put(UUID blockId, LocalDateTime updated, byte[] fragment) {
+        if (!enabled) {
+            return;
+        }
+        List<Map.Entry<String, byte[]>> evicted = store(key(blockId, updated), encode(fragment));
+        spill(evicted);
+    }
+
+    private List<Map.Entry<String, byte[]>> store(String key, byte[] stored) {
+        List<Map.Entry<String, byte[]>> evicted = new ArrayList<>();
+        synchronized (memory) {
+            byte[] previous = memory.put(key, stored);
+            if (previous != null) {
+                memoryBytes -= previous.length;
+            }
+            memoryBytes += stored.length;
+
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                eldest.remove();
+                memoryBytes -= entry.getValue().length;
+                memoryEvictions.increment();
+                evicted.add(entry);
+            }
+        }
+        return evicted;
+    }
+
+    private void spill(List<Map.Entry<String, byte[]>> evicted) {
+        if (maxDiskBytes <= 0) {
+            return;
+        }
+        for (Map.Entry<String, byte[]> entry : evicted) {
+            if (entry.getValue().length > maxDiskBytes) {
+                continue;
+            }
+            try {
+                Path target = spillDirectory.resolve(entry.getKey() + FILE_SUFFIX);
+                Path temp = Files.createTempFile(spillDirectory, entry.getKey(), ".tmp");
+                Files.write(temp, entry.getValue());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                recordSpilled(entry.getKey(), entry.getValue().length);
+            } catch (IOException e) {
+                log.warn("Failed to spill IntervalBlock fragment " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void recordSpilled(String key, long size) {
+        List<String> expired = new ArrayList<>();
+        synchronized (disk) {
+            Long previous = disk.put(key, size);
+            if (previous != null) {
+                diskBytes -= previous;
+            }
+            diskBytes += size;
+
+            Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+            while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                eldest.remove();
+                diskBytes -= entry.getValue();
+                diskEvictions.increment();
+                expired.add(entry.getKey());
+            }
+        }
+        for (String expiredKey : expired) {
+            deleteQuietly(spillDirectory.resolve(expiredKey + FILE_SUFFIX));
+        }
+    }
+
+    private byte[] readSpilled(String key) {
+        if (maxDiskBytes <= 0) {
+            return null;
+        }
+        synchronized (disk) {
+            Long size = disk.remove(key);
+            if (size == null) {
+                return null;
+            }
+            diskBytes -= size;
+        }
+        Path file = spillDirectory.resolve(key + FILE_SUFFIX);
+        try {
+            byte[] stored = Files.readAllBytes(file);
+            deleteQuietly(file);
+            return stored;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read spilled IntervalBlock fragment " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void initSpillDirectory() {
+        try {
+            Files.createDirectories(spillDirectory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare fragment cache directory " + spillDirectory, e);
+        }
+    }
+
+    private byte[] encode(byte[] fragment) {
+        if (!compress) {
+            return fragment;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(fragment.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(fragment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] decode(byte[] stored) {
+        if (!compress) {
+            return stored;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(UUID blockId, LocalDateTime updated) {
+        if (updated == null) {
+            return blockId.toString();
+        }
+        return blockId + "_" + updated.toEpochSecond(ZoneOffset.UTC) + "_" + updated.getNano();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete fragment file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("espi.export.fragment.cache.requests")
+            .description("IntervalBlock fragment cache lookups")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String tier) {
+        return Counter.builder("espi.export.fragment.cache.evictions")
+            .description("IntervalBlock fragments evicted from a cache tier")
+            .tag("tier", tier)
+            .register(registry);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders Atom entries to byte fragments concurrently while writing them out
+ * in their original order.
+ * <p>
+ * Items are handed to a fixed pool of {@code espi.export.parallel.threads}
+ * workers (the number of available processors by default), each of which maps
+ * and marshals one entry into a fragment. The calling thread writes the
+ * fragments in submission order; at most {@code espi.export.parallel.window}
+ * entries are in flight per feed, so a slow head entry holds back at most that
+ * many rendered fragments and the heap used by a feed stays bounded.
+ * <p>
+ * Rendering is CPU-bound mapping and JAXB marshalling, so platform threads
+ * sized to the cores are used rather than virtual threads. Workers borrow their
+ * own pooled marshaller from {@link DtoJaxbContext}, and must load whatever
+ * entities they map in their own persistence context, since an
+ * {@code EntityManager} cannot be shared across threads.
+ * <p>
+ * The mode is off unless {@code espi.export.parallel.enabled} is set, in which
+ * case callers fall back to rendering entries on the request thread.
+ */
+@Slf4j
+@Component
+public class ParallelEntryRenderer implements DisposableBean {
+
+    private final boolean enabled;
+    private final int window;
+    private final ExecutorService executor;
+
+    public ParallelEntryRenderer(@Value("${espi.export.parallel.enabled:false}") boolean enabled,
+                                 @Value("${espi.export.parallel.threads:0}") int threads,
+                                 @Value("${espi.export.parallel.window:64}") int window) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.enabled = enabled;
+        this.window = Math.max(1, window);
+        this.executor = enabled ? Executors.newFixedThreadPool(poolSize, new RenderThreadFactory()) : null;
+        if (enabled) {
+            log.info("Parallel entry rendering enabled with " + poolSize + " threads and a window of " + this.window);
+        }
+    }
+
+    /**
+     * @return true if entries should be rendered through this renderer
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Renders every item concurrently and writes the fragments to the sink in
+     * iteration order. Items rendered to {@code null} are skipped. On failure
+     * the entries still in flight are cancelled.
+     *
+     * @param items the items to render, consumed on the calling thread
+     * @param renderer renders one item to an entry fragment, called on worker threads
+     * @param sink receives the fragments in order, called on the calling thread
+     * @throws IOException if an entry cannot be rendered or written
+     * @throws XMLStreamException if the sink cannot write a fragment
+     */
+    public <T> void render(Iterator<T> items, FragmentRenderer<T> renderer, FragmentSink sink)
+            throws IOException, XMLStreamException {
+        if (!enabled) {
+            throw new IllegalStateException("Parallel entry rendering is disabled");
+        }
+
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>(window);
+        try {
+            while (items.hasNext() || !inFlight.isEmpty()) {
+                while (inFlight.size() < window && items.hasNext()) {
+                    T item = items.next();
+                    inFlight.add(executor.submit(() -> renderer.render(item)));
+                }
+                byte[] fragment = await(inFlight.poll());
+                if (fragment != null) {
+                    sink.write(fragment);
+                }
+            }
+        } finally {
+            for (Future<byte[]> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a rendered entry");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render entry: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Renders one item to a marshalled entry fragment.
+     */
+    @FunctionalInterface
+    public interface FragmentRenderer<T> {
+        byte[] render(T item) throws Exception;
+    }
+
+    /**
+     * Writes a rendered entry fragment to the feed.
+     */
+    @FunctionalInterface
+    public interface FragmentSink {
+        void write(byte[] fragment) throws XMLStreamException, IOException;
+    }
+
+    private static final class RenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "espi-entry-render-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
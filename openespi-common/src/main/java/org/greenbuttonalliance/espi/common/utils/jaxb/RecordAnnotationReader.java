@@ -0,0 +1,139 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import org.glassfish.jaxb.core.v2.model.annotation.Locatable;
+import org.glassfish.jaxb.core.v2.model.core.ErrorHandler;
+import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeAnnotationReader;
+import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeInlineAnnotationReader;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+
+/**
+ * JAXB annotation reader that lets record DTOs bind with field access.
+ * <p>
+ * Annotations placed on record components are propagated by the compiler to
+ * both the private field and the accessor method. The JAXB runtime rejects the
+ * accessor copies ("annotation is placed on a method that is not a JAXB
+ * property"), so this reader hides annotations on record accessors and
+ * delegates everything else to the default runtime reader.
+ */
+class RecordAnnotationReader implements RuntimeAnnotationReader {
+
+    private final RuntimeAnnotationReader delegate = new RuntimeInlineAnnotationReader();
+
+    @Override
+    public void setErrorHandler(ErrorHandler errorHandler) {
+        delegate.setErrorHandler(errorHandler);
+    }
+
+    @Override
+    public <A extends Annotation> A getFieldAnnotation(Class<A> annotation, Field field, Locatable srcPos) {
+        return delegate.getFieldAnnotation(annotation, field, srcPos);
+    }
+
+    @Override
+    public boolean hasFieldAnnotation(Class<? extends Annotation> annotationType, Field field) {
+        return delegate.hasFieldAnnotation(annotationType, field);
+    }
+
+    @Override
+    public boolean hasClassAnnotation(Class clazz, Class<? extends Annotation> annotationType) {
+        return delegate.hasClassAnnotation(clazz, annotationType);
+    }
+
+    @Override
+    public Annotation[] getAllFieldAnnotations(Field field, Locatable srcPos) {
+        return delegate.getAllFieldAnnotations(field, srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getMethodAnnotation(Class<A> annotation, Method getter, Method setter,
+                                                        Locatable srcPos) {
+        return delegate.getMethodAnnotation(annotation, visible(getter), visible(setter), srcPos);
+    }
+
+    @Override
+    public boolean hasMethodAnnotation(Class<? extends Annotation> annotation, String propertyName,
+                                       Method getter, Method setter, Locatable srcPos) {
+        return delegate.hasMethodAnnotation(annotation, propertyName, visible(getter), visible(setter), srcPos);
+    }
+
+    @Override
+    public Annotation[] getAllMethodAnnotations(Method method, Locatable srcPos) {
+        return isRecordAccessor(method) ? new Annotation[0] : delegate.getAllMethodAnnotations(method, srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getMethodAnnotation(Class<A> annotation, Method method, Locatable srcPos) {
+        return isRecordAccessor(method) ? null : delegate.getMethodAnnotation(annotation, method, srcPos);
+    }
+
+    @Override
+    public boolean hasMethodAnnotation(Class<? extends Annotation> annotation, Method method) {
+        return !isRecordAccessor(method) && delegate.hasMethodAnnotation(annotation, method);
+    }
+
+    @Override
+    public <A extends Annotation> A getMethodParameterAnnotation(Class<A> annotation, Method method, int paramIndex,
+                                                                 Locatable srcPos) {
+        return delegate.getMethodParameterAnnotation(annotation, method, paramIndex, srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getClassAnnotation(Class<A> annotation, Class clazz, Locatable srcPos) {
+        return delegate.getClassAnnotation(annotation, clazz, srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getPackageAnnotation(Class<A> annotation, Class clazz, Locatable srcPos) {
+        return delegate.getPackageAnnotation(annotation, clazz, srcPos);
+    }
+
+    @Override
+    public Type getClassValue(Annotation annotation, String name) {
+        return delegate.getClassValue(annotation, name);
+    }
+
+    @Override
+    public Type[] getClassArrayValue(Annotation annotation, String name) {
+        return delegate.getClassArrayValue(annotation, name);
+    }
+
+    private static Method visible(Method method) {
+        return isRecordAccessor(method) ? null : method;
+    }
+
+    private static boolean isRecordAccessor(Method method) {
+        if (method == null || !method.getDeclaringClass().isRecord()) {
+            return false;
+        }
+        for (RecordComponent component : method.getDeclaringClass().getRecordComponents()) {
+            if (component.getAccessor().equals(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
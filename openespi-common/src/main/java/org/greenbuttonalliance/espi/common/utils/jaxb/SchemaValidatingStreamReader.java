@@ -0,0 +1,253 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import java.util.Set;
+
+/**
+ * StAX filter that validates the ESPI resources of a document against a
+ * {@link Schema} while the document is being pulled.
+ * <p>
+ * Every element in one of the validated namespaces that is not nested in
+ * another one, typically the resource inside an Atom {@code <content>}, is
+ * validated as a document of its own: its events are forwarded to a SAX
+ * {@link ValidatorHandler} as the consumer reads past them, so validation
+ * adds no second pass over the input and builds no tree. The Atom envelope
+ * itself is not validated.
+ * <p>
+ * The first violation fails the read with a {@link SchemaValidationException}.
+ * The time spent validating is reported to the {@link Listener} once, when the
+ * reader fails or is closed. Instances are not thread-safe.
+ */
+public class SchemaValidatingStreamReader extends StreamReaderDelegate {
+
+    private final ValidatorHandler validatorHandler;
+    private final Set<String> namespaces;
+    private final Listener listener;
+
+    private int depth;
+    private long validationNanos;
+    private int validatedResources;
+    private boolean reported;
+
+    /**
+     * @param reader the reader to validate
+     * @param schema the schema of the validated namespaces
+     * @param namespaces the namespaces whose outermost elements are validated
+     * @param listener receives the validation time
+     */
+    public SchemaValidatingStreamReader(XMLStreamReader reader, Schema schema, Set<String> namespaces, Listener listener) {
+        super(reader);
+        this.validatorHandler = schema.newValidatorHandler();
+        this.validatorHandler.setErrorHandler(new FailingErrorHandler());
+        this.namespaces = namespaces;
+        this.listener = listener;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int eventType = super.next();
+        validate(eventType);
+        return eventType;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int eventType = next();
+        while ((eventType == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                || (eventType == XMLStreamConstants.CDATA && isWhiteSpace())
+                || eventType == XMLStreamConstants.SPACE
+                || eventType == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || eventType == XMLStreamConstants.COMMENT) {
+            eventType = next();
+        }
+        if (eventType != XMLStreamConstants.START_ELEMENT && eventType != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("Expected a start or end tag", getLocation());
+        }
+        return eventType;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("Not positioned on a start element", getLocation());
+        }
+        StringBuilder text = new StringBuilder();
+        int eventType = next();
+        while (eventType != XMLStreamConstants.END_ELEMENT) {
+            switch (eventType) {
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE,
+                     XMLStreamConstants.ENTITY_REFERENCE -> text.append(getText());
+                case XMLStreamConstants.PROCESSING_INSTRUCTION, XMLStreamConstants.COMMENT -> {
+                    // Skipped
+                }
+                default -> throw new XMLStreamException("Unexpected event in text-only element", getLocation());
+            }
+            eventType = next();
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        report(true);
+        super.close();
+    }
+
+    /**
+     * @return the number of resources validated so far
+     */
+    public int getValidatedResources() {
+        return validatedResources;
+    }
+
+    /**
+     * @return the time spent validating so far
+     */
+    public long getValidationNanos() {
+        return validationNanos;
+    }
+
+    private void validate(int eventType) throws XMLStreamException {
+        if (depth == 0 && !(eventType == XMLStreamConstants.START_ELEMENT && namespaces.contains(getNamespaceURI()))) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            switch (eventType) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    if (depth++ == 0) {
+                        validatorHandler.startDocument();
+                    }
+                    for (int i = 0; i < getNamespaceCount(); i++) {
+                        validatorHandler.startPrefixMapping(nullToEmpty(getNamespacePrefix(i)), nullToEmpty(getNamespaceURI(i)));
+                    }
+                    validatorHandler.startElement(nullToEmpty(getNamespaceURI()), getLocalName(), qualifiedName(getName()), attributes());
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    validatorHandler.endElement(nullToEmpty(getNamespaceURI()), getLocalName(), qualifiedName(getName()));
+                    for (int i = 0; i < getNamespaceCount(); i++) {
+                        validatorHandler.endPrefixMapping(nullToEmpty(getNamespacePrefix(i)));
+                    }
+                    if (--depth == 0) {
+                        validatorHandler.endDocument();
+                        validatedResources++;
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA ->
+                    validatorHandler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                case XMLStreamConstants.SPACE ->
+                    validatorHandler.ignorableWhitespace(getTextCharacters(), getTextStart(), getTextLength());
+                default -> {
+                    // Comments and processing instructions do not affect validity
+                }
+            }
+        } catch (SAXException e) {
+            validationNanos += System.nanoTime() - start;
+            report(false);
+            throw new SchemaValidationException(e.getMessage(), getLocation(), e);
+        }
+        validationNanos += System.nanoTime() - start;
+    }
+
+    private AttributesImpl attributes() {
+        AttributesImpl attributes = new AttributesImpl();
+        for (int i = 0; i < getAttributeCount(); i++) {
+            QName name = getAttributeName(i);
+            attributes.addAttribute(nullToEmpty(name.getNamespaceURI()), name.getLocalPart(), qualifiedName(name),
+                "CDATA", getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    private void report(boolean valid) {
+        if (!reported) {
+            reported = true;
+            listener.validated(validatedResources, validationNanos, valid);
+        }
+    }
+
+    private static String qualifiedName(QName name) {
+        String prefix = name.getPrefix();
+        return prefix == null || prefix.isEmpty() ? name.getLocalPart() : prefix + ":" + name.getLocalPart();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Receives the outcome of validating one document.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param resources the number of resources validated
+         * @param nanos the time spent validating
+         * @param valid false if the document violated the schema
+         */
+        void validated(int resources, long nanos, boolean valid);
+    }
+
+    /**
+     * Thrown when a validated resource violates the schema.
+     */
+    public static class SchemaValidationException extends XMLStreamException {
+
+        private static final long serialVersionUID = 1L;
+
+        public SchemaValidationException(String message, Location location, Throwable cause) {
+            super("Schema validation failed: " + message, location, cause);
+        }
+    }
+
+    private static final class FailingErrorHandler implements ErrorHandler {
+
+        @Override
+        public void warning(SAXParseException exception) {
+            // Warnings do not make a resource invalid
+        }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming writer for interval reading time series as newline-delimited JSON
+ * ({@code application/x-ndjson}).
+ * <p>
+ * Each interval reading is written as one compact JSON object on its own line,
+ * directly to the stream through a Jackson {@link JsonGenerator}, so nothing
+ * beyond the interval block currently being written is held in memory. Absent
+ * values are omitted rather than written as {@code null}.
+ * <p>
+ * Instances are not thread-safe. Closing the writer flushes pending output but
+ * does not close the underlying stream.
+ */
+public class IntervalReadingNdjsonWriter implements AutoCloseable {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .build();
+
+    private final JsonGenerator generator;
+    private long readingCount;
+
+    public IntervalReadingNdjsonWriter(OutputStream stream) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(stream, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Writes one line per interval reading of the block.
+     *
+     * @param block the interval block
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeReadings(IntervalBlockDto block) throws IOException {
+        if (block.intervalReadings() == null) {
+            return;
+        }
+        for (IntervalReadingDto reading : block.intervalReadings()) {
+            writeReading(block.uuid(), reading);
+        }
+    }
+
+    /**
+     * Writes a single interval reading as one line.
+     *
+     * @param blockId the ID of the interval block the reading belongs to
+     * @param reading the interval reading
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeReading(String blockId, IntervalReadingDto reading) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("intervalBlock", blockId);
+        if (reading.timePeriod() != null) {
+            writeNumberField("start", reading.timePeriod().start());
+            writeNumberField("duration", reading.timePeriod().duration());
+        }
+        writeNumberField("value", reading.value());
+        writeNumberField("cost", reading.cost());
+        writeNumberField("consumptionTier", reading.consumptionTier());
+        writeNumberField("tou", reading.tou());
+        writeNumberField("cpp", reading.cpp());
+        if (reading.readingQualities() != null && !reading.readingQualities().isEmpty()) {
+            generator.writeArrayFieldStart("readingQualities");
+            for (ReadingQualityDto quality : reading.readingQualities()) {
+                generator.writeString(quality.quality());
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        readingCount++;
+    }
+
+    /**
+     * @return number of readings written so far
+     */
+    public long getReadingCount() {
+        return readingCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeNumberField(String name, Long value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private void writeNumberField(String name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+}
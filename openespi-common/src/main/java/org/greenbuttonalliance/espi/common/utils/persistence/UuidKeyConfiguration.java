@@ -0,0 +1,97 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.persistence;
+
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Storage of the UUID keys of the ESPI tables, switched by
+ * {@code espi.schema.binary-uuid-keys}.
+ * <p>
+ * Hibernate maps every UUID attribute, the {@code id} of
+ * {@link org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject}
+ * and the associations referencing it, to the JDBC type of the selected
+ * {@link UuidKeyType}. With binary keys enabled, Flyway additionally runs
+ * {@link V9__Binary_Uuid_Keys} to convert the schema. SQL migrations creating
+ * key columns use the {@code ${uuid_key_type}} placeholder for their type.
+ */
+@Configuration(proxyBeanMethods = false)
+public class UuidKeyConfiguration {
+
+    public static final String BINARY_UUID_KEYS = "espi.schema.binary-uuid-keys";
+
+    @Bean
+    public UuidKeyType uuidKeyType(@Value("${" + BINARY_UUID_KEYS + ":false}") boolean binaryUuidKeys,
+                                   ObjectProvider<DataSource> dataSource) {
+        if (!binaryUuidKeys) {
+            return UuidKeyType.CHAR;
+        }
+        try {
+            return UuidKeyType.of(true, JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+                dataSource.getObject(), DatabaseMetaData::getDatabaseProductName)));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot determine the database of the UUID keys: " + e.getMessage(), e);
+        }
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer uuidKeyHibernateProperties(UuidKeyType uuidKeyType) {
+        return properties -> properties.put(AvailableSettings.PREFERRED_UUID_JDBC_TYPE, uuidKeyType.sqlType());
+    }
+
+    /**
+     * Flyway side, only when Flyway is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.flywaydb.core.Flyway")
+    static class FlywayUuidKeyConfiguration {
+
+        @Bean
+        FlywayConfigurationCustomizer uuidKeyPlaceholder(UuidKeyType uuidKeyType) {
+            return configuration -> {
+                Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+                placeholders.put("uuid_key_type", uuidKeyType.columnType());
+                configuration.placeholders(placeholders);
+            };
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = BINARY_UUID_KEYS, havingValue = "true")
+        JavaMigration binaryUuidKeysMigration() {
+            return new V9__Binary_Uuid_Keys();
+        }
+    }
+}
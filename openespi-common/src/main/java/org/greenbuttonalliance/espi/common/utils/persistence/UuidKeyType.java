@@ -0,0 +1,123 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.persistence;
+
+import org.hibernate.type.SqlTypes;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Column type of the UUID keys of the ESPI tables.
+ * <p>
+ * Keys are stored as {@code CHAR(36)} text unless
+ * {@code espi.schema.binary-uuid-keys} is enabled, in which case they are
+ * stored in 16 bytes: as the native {@code uuid} type on PostgreSQL and H2 and
+ * as {@code BINARY(16)} on MySQL and MariaDB, in the byte order of
+ * {@link UUID#getMostSignificantBits()} and
+ * {@link UUID#getLeastSignificantBits()}. The UUIDs themselves, and the hrefs
+ * derived from them, are the same in every mode.
+ */
+public enum UuidKeyType {
+
+    CHAR("CHAR(36)", SqlTypes.CHAR),
+    NATIVE("UUID", SqlTypes.UUID),
+    BINARY("BINARY(16)", SqlTypes.BINARY);
+
+    private final String columnType;
+    private final int sqlType;
+
+    UuidKeyType(String columnType, int sqlType) {
+        this.columnType = columnType;
+        this.sqlType = sqlType;
+    }
+
+    /**
+     * Selects the key type of a database.
+     *
+     * @param binaryKeys whether binary UUID keys are enabled
+     * @param product the database product name, as normalized by
+     *                {@link org.springframework.jdbc.support.JdbcUtils#commonDatabaseName}
+     * @return the key type
+     * @throws IllegalStateException if binary keys are enabled on an unsupported database
+     */
+    public static UuidKeyType of(boolean binaryKeys, String product) {
+        if (!binaryKeys) {
+            return CHAR;
+        }
+        return switch (product) {
+            case "PostgreSQL", "H2" -> NATIVE;
+            case "MySQL", "MariaDB" -> BINARY;
+            default -> throw new IllegalStateException("Binary UUID keys are not supported on " + product);
+        };
+    }
+
+    /**
+     * Converts a key to the value bound to a JDBC parameter of this type.
+     *
+     * @param id the key, may be null
+     * @return the string, UUID or 16 bytes to bind, or null
+     */
+    public Object bind(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        return switch (this) {
+            case CHAR -> id.toString();
+            case NATIVE -> id;
+            case BINARY -> ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+        };
+    }
+
+    /**
+     * Converts a key read from a column of this type.
+     *
+     * @param value the string, UUID or 16 bytes read, may be null
+     * @return the key, or null
+     */
+    public UUID read(Object value) {
+        return switch (value) {
+            case null -> null;
+            case UUID id -> id;
+            case byte[] bytes -> {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                yield new UUID(buffer.getLong(), buffer.getLong());
+            }
+            default -> UUID.fromString(value.toString().trim());
+        };
+    }
+
+    /**
+     * @return the column type of keys, for DDL
+     */
+    public String columnType() {
+        return columnType;
+    }
+
+    /**
+     * @return the {@link SqlTypes} code Hibernate maps UUID attributes to
+     */
+    public int sqlType() {
+        return sqlType;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Converts the {@code CHAR(36)} UUID keys of the ESPI tables to the binary
+ * {@link UuidKeyType} of the database: {@code uuid} on PostgreSQL and H2,
+ * {@code BINARY(16)} on MySQL and MariaDB.
+ * <p>
+ * Registered only when {@code espi.schema.binary-uuid-keys} is enabled. The
+ * key columns are read from the database metadata instead of being listed per
+ * vendor, so the migration covers every table the earlier migrations created:
+ * all {@code CHAR(36)} columns hold either an {@code id} primary key or a
+ * {@code *_id} column referencing one. The foreign keys between them are
+ * dropped, the columns converted in place, and the foreign keys added back
+ * with their rules. Nullability, primary keys and indexes are kept. The
+ * partitions of a partitioned table are converted with it.
+ * <p>
+ * Enabling binary keys on a database already migrated past this version
+ * requires running Flyway once with {@code spring.flyway.out-of-order=true}.
+ * Flyway cannot undo the conversion.
+ */
+@Slf4j
+public class V9__Binary_Uuid_Keys extends BaseJavaMigration {
+
+    /**
+     * Table types of ordinary and partitioned tables; H2 reports ordinary
+     * tables as base tables.
+     */
+    private static final Set<String> TABLE_TYPES = Set.of("TABLE", "BASE TABLE", "PARTITIONED TABLE");
+
+    /**
+     * Tables whose {@code CHAR(36)} columns are not ESPI keys.
+     */
+    private static final Set<String> EXCLUDED_TABLES = Set.of("import_checkpoints", "flyway_schema_history");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        convert(context.getConnection());
+    }
+
+    /**
+     * Converts the key columns in the schema of a connection.
+     *
+     * @param connection the connection
+     * @throws SQLException if a statement fails
+     */
+    static void convert(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String product = JdbcUtils.commonDatabaseName(metaData.getDatabaseProductName());
+        UuidKeyType keyType = UuidKeyType.of(true, product);
+        String catalog = connection.getCatalog();
+        String schema = connection.getSchema();
+
+        Map<String, List<KeyColumn>> keyColumns =
+            keyColumns(metaData, catalog, schema, partitions(connection, product));
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+        for (String table : keyColumns.keySet()) {
+            foreignKeys.addAll(foreignKeys(metaData, catalog, schema, table));
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (ForeignKey foreignKey : foreignKeys) {
+                statement.execute("ALTER TABLE " + foreignKey.table()
+                    + (keyType == UuidKeyType.BINARY ? " DROP FOREIGN KEY " : " DROP CONSTRAINT ")
+                    + foreignKey.name());
+            }
+            for (Map.Entry<String, List<KeyColumn>> table : keyColumns.entrySet()) {
+                for (String sql : alterColumns(product, table.getKey(), table.getValue())) {
+                    statement.execute(sql);
+                }
+            }
+            for (ForeignKey foreignKey : foreignKeys) {
+                statement.execute(foreignKey.addStatement());
+            }
+        }
+        log.info("Converted " + keyColumns.values().stream().mapToInt(List::size).sum() + " UUID key columns of "
+            + keyColumns.size() + " tables to " + keyType.columnType() + ", re-creating " + foreignKeys.size()
+            + " foreign keys");
+    }
+
+    /**
+     * Builds the statements converting the key columns of one table.
+     *
+     * @param product the database product name, as normalized by {@link JdbcUtils#commonDatabaseName}
+     * @param table the table
+     * @param columns its key columns
+     * @return the statements, in execution order
+     */
+    static List<String> alterColumns(String product, String table, List<KeyColumn> columns) {
+        String alter = "ALTER TABLE " + table + " ";
+        return switch (UuidKeyType.of(true, product)) {
+            case NATIVE -> "PostgreSQL".equals(product)
+                // One rewrite of the table for all of its columns
+                ? List.of(alter + columns.stream()
+                    .map(column -> "ALTER COLUMN " + column.name() + " TYPE UUID USING "
+                        + column.name() + "::text::uuid")
+                    .collect(Collectors.joining(", ")))
+                : columns.stream()
+                    .map(column -> alter + "ALTER COLUMN " + column.name() + " SET DATA TYPE UUID")
+                    .toList();
+            // The text is turned into its 16 bytes in a column wide enough for both
+            case BINARY -> List.of(
+                alter + columns.stream()
+                    .map(column -> "MODIFY " + column.name() + " VARBINARY(36)" + column.nullability())
+                    .collect(Collectors.joining(", ")),
+                "UPDATE " + table + " SET " + columns.stream()
+                    .map(column -> column.name() + " = UNHEX(REPLACE(" + column.name() + ", '-', ''))")
+                    .collect(Collectors.joining(", ")),
+                alter + columns.stream()
+                    .map(column -> "MODIFY " + column.name() + " BINARY(16)" + column.nullability())
+                    .collect(Collectors.joining(", ")));
+            case CHAR -> throw new IllegalStateException("Not a binary key type");
+        };
+    }
+
+    private static Map<String, List<KeyColumn>> keyColumns(DatabaseMetaData metaData, String catalog, String schema,
+                                                           Set<String> partitions) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (ResultSet rs = metaData.getTables(catalog, schema, "%", null)) {
+            while (rs.next()) {
+                String table = rs.getString("TABLE_NAME");
+                String type = rs.getString("TABLE_TYPE");
+                if (type != null && TABLE_TYPES.contains(type) && !partitions.contains(table)
+                        && !EXCLUDED_TABLES.contains(table.toLowerCase(Locale.ROOT))) {
+                    tables.add(table);
+                }
+            }
+        }
+        Map<String, List<KeyColumn>> keyColumns = new LinkedHashMap<>();
+        for (String table : tables) {
+            try (ResultSet rs = metaData.getColumns(catalog, schema, table, "%")) {
+                while (rs.next()) {
+                    if (rs.getInt("DATA_TYPE") == Types.CHAR && rs.getInt("COLUMN_SIZE") == 36) {
+                        keyColumns.computeIfAbsent(table, key -> new ArrayList<>()).add(new KeyColumn(
+                            rs.getString("COLUMN_NAME"), "YES".equals(rs.getString("IS_NULLABLE"))));
+                    }
+                }
+            }
+        }
+        return keyColumns;
+    }
+
+    /**
+     * Lists the partitions of PostgreSQL partitioned tables, which are listed as
+     * ordinary tables but follow the column types and foreign keys of their
+     * partitioned table.
+     */
+    private static Set<String> partitions(Connection connection, String product) throws SQLException {
+        Set<String> partitions = new HashSet<>();
+        if ("PostgreSQL".equals(product)) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                     "SELECT relname FROM pg_class WHERE relispartition AND pg_table_is_visible(oid)")) {
+                while (rs.next()) {
+                    partitions.add(rs.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static List<ForeignKey> foreignKeys(DatabaseMetaData metaData, String catalog, String schema,
+                                                String table) throws SQLException {
+        Map<String, TreeMap<Short, String[]>> columns = new LinkedHashMap<>();
+        Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getImportedKeys(catalog, schema, table)) {
+            while (rs.next()) {
+                String name = rs.getString("FK_NAME");
+                columns.computeIfAbsent(name, key -> new TreeMap<>()).put(rs.getShort("KEY_SEQ"),
+                    new String[] {rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME")});
+                foreignKeys.putIfAbsent(name, new ForeignKey(name, table, List.of(), rs.getString("PKTABLE_NAME"),
+                    List.of(), rs.getShort("DELETE_RULE"), rs.getShort("UPDATE_RULE")));
+            }
+        }
+        return foreignKeys.values().stream()
+            .map(foreignKey -> foreignKey.withColumns(columns.get(foreignKey.name()).values()))
+            .toList();
+    }
+
+    /**
+     * A key column.
+     *
+     * @param name the column name
+     * @param nullable whether the column accepts null
+     */
+    record KeyColumn(String name, boolean nullable) {
+
+        String nullability() {
+            return nullable ? " NULL" : " NOT NULL";
+        }
+    }
+
+    /**
+     * A foreign key between key columns.
+     *
+     * @param name the constraint name
+     * @param table the referencing table
+     * @param columns the referencing columns
+     * @param referencedTable the referenced table
+     * @param referencedColumns the referenced columns, in the order of {@code columns}
+     * @param deleteRule the {@link DatabaseMetaData} rule on delete
+     * @param updateRule the {@link DatabaseMetaData} rule on update
+     */
+    record ForeignKey(String name, String table, List<String> columns, String referencedTable,
+                      List<String> referencedColumns, short deleteRule, short updateRule) {
+
+        ForeignKey withColumns(Iterable<String[]> pairs) {
+            List<String> fkColumns = new ArrayList<>();
+            List<String> pkColumns = new ArrayList<>();
+            for (String[] pair : pairs) {
+                fkColumns.add(pair[0]);
+                pkColumns.add(pair[1]);
+            }
+            return new ForeignKey(name, table, fkColumns, referencedTable, pkColumns, deleteRule, updateRule);
+        }
+
+        String addStatement() {
+            return "ALTER TABLE " + table + " ADD CONSTRAINT " + name + " FOREIGN KEY ("
+                + String.join(", ", columns) + ") REFERENCES " + referencedTable + " ("
+                + String.join(", ", referencedColumns) + ")" + rule("DELETE", deleteRule) + rule("UPDATE", updateRule);
+        }
+
+        private static String rule(String event, short rule) {
+            return switch (rule) {
+                case DatabaseMetaData.importedKeyCascade -> " ON " + event + " CASCADE";
+                case DatabaseMetaData.importedKeySetNull -> " ON " + event + " SET NULL";
+                case DatabaseMetaData.importedKeySetDefault -> " ON " + event + " SET DEFAULT";
+                default -> "";
+            };
+        }
+    }
+}
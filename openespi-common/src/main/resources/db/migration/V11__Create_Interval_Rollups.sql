@@ -0,0 +1,55 @@
+/*
+ * OpenESPI Interval Rollups (Vendor-Neutral)
+ *
+ * Copyright (c) 2018-2025 Green Button Alliance, Inc.
+ * Licensed under the Apache License, Version 2.0
+ *
+ * Hourly, daily and monthly aggregates of interval reading values and costs,
+ * per meter reading and per usage point and reading type. Buckets start at
+ * bucket_start, in UTC epoch seconds, and hold the readings starting within
+ * them. Imports recompute the buckets their interval blocks touch when
+ * espi.rollups.enabled is set; IntervalRollupRepository rebuilds them for
+ * data written before.
+ *
+ * Rollups only reference their meter reading or usage point, so they outlive
+ * the raw readings purged by interval retention.
+ *
+ * Key columns are ${uuid_key_type}, following espi.schema.binary-uuid-keys.
+ *
+ * Compatible with: H2, MySQL, PostgreSQL
+ */
+
+CREATE TABLE meter_reading_rollups
+(
+    meter_reading_id ${uuid_key_type} NOT NULL,
+    granularity      VARCHAR(8)       NOT NULL,
+    bucket_start     BIGINT           NOT NULL,
+    reading_count    BIGINT           NOT NULL,
+    value_sum        BIGINT,
+    value_min        BIGINT,
+    value_max        BIGINT,
+    cost_sum         BIGINT,
+
+    CONSTRAINT pk_meter_reading_rollups PRIMARY KEY (meter_reading_id, granularity, bucket_start),
+    CONSTRAINT fk_meter_reading_rollup_meter_reading FOREIGN KEY (meter_reading_id)
+        REFERENCES meter_readings (id) ON DELETE CASCADE
+);
+
+CREATE TABLE usage_point_rollups
+(
+    usage_point_id   ${uuid_key_type} NOT NULL,
+    reading_type_id  ${uuid_key_type} NOT NULL,
+    granularity      VARCHAR(8)       NOT NULL,
+    bucket_start     BIGINT           NOT NULL,
+    reading_count    BIGINT           NOT NULL,
+    value_sum        BIGINT,
+    value_min        BIGINT,
+    value_max        BIGINT,
+    cost_sum         BIGINT,
+
+    CONSTRAINT pk_usage_point_rollups PRIMARY KEY (usage_point_id, reading_type_id, granularity, bucket_start),
+    CONSTRAINT fk_usage_point_rollup_usage_point FOREIGN KEY (usage_point_id)
+        REFERENCES usage_points (id) ON DELETE CASCADE,
+    CONSTRAINT fk_usage_point_rollup_reading_type FOREIGN KEY (reading_type_id)
+        REFERENCES reading_types (id) ON DELETE CASCADE
+);
@@ -0,0 +1,16 @@
+/*
+ * OpenESPI Keyset Pagination Indexes (Vendor-Neutral)
+ *
+ * Copyright (c) 2018-2025 Green Button Alliance, Inc.
+ * Licensed under the Apache License, Version 2.0
+ *
+ * Resource collections and Batch feeds are paged by seeking on (updated, id).
+ * These composite indexes let each page be read as an index range scan, so a
+ * deep page costs the same as the first one.
+ *
+ * Compatible with: H2, MySQL, PostgreSQL
+ */
+
+CREATE INDEX idx_usage_point_updated_id ON usage_points (updated, id);
+CREATE INDEX idx_meter_reading_updated_id ON meter_readings (updated, id);
+CREATE INDEX idx_authorization_updated_id ON authorizations (updated, id);
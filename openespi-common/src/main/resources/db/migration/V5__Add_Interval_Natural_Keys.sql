@@ -0,0 +1,56 @@
+/*
+ * OpenESPI Interval Data Natural Keys (Vendor-Neutral)
+ *
+ * Copyright (c) 2018-2025 Green Button Alliance, Inc.
+ * Licensed under the Apache License, Version 2.0
+ *
+ * An interval block is identified by its meter reading and start, an interval
+ * reading by its block and start. Imports upsert on these keys, so that a
+ * re-delivered or overlapping feed updates the stored rows instead of adding
+ * duplicates.
+ *
+ * Duplicates stored before are merged first: of the blocks sharing a meter
+ * reading and start, the one with the lowest id is kept and takes over the
+ * readings of the others, which are then deleted. Of the readings sharing a
+ * block and start, the most recently updated one is kept, the highest id
+ * breaking ties; the qualities and related links of the others go with them.
+ * Deletes select their rows through a DISTINCT derived table, which MySQL
+ * materializes, as it does not allow a subquery on the table deleted from.
+ *
+ * Compatible with: H2, MySQL, PostgreSQL
+ */
+
+UPDATE interval_readings
+SET interval_block_id = (
+    SELECT MIN(k.id)
+    FROM interval_blocks b
+    JOIN interval_blocks k ON k.meter_reading_id = b.meter_reading_id AND k.interval_start = b.interval_start
+    WHERE b.id = interval_readings.interval_block_id)
+WHERE interval_block_id IN (
+    SELECT b.id
+    FROM interval_blocks b
+    JOIN interval_blocks k ON k.meter_reading_id = b.meter_reading_id AND k.interval_start = b.interval_start
+    WHERE k.id < b.id);
+
+DELETE FROM interval_blocks
+WHERE id IN (
+    SELECT dropped.id FROM (
+        SELECT DISTINCT b.id
+        FROM interval_blocks b
+        JOIN interval_blocks k ON k.meter_reading_id = b.meter_reading_id AND k.interval_start = b.interval_start
+        WHERE k.id < b.id) dropped);
+
+DELETE FROM interval_readings
+WHERE id IN (
+    SELECT dropped.id FROM (
+        SELECT DISTINCT r.id
+        FROM interval_readings r
+        JOIN interval_readings k ON k.interval_block_id = r.interval_block_id
+            AND k.time_period_start = r.time_period_start
+            AND (k.updated > r.updated OR (k.updated = r.updated AND k.id > r.id))) dropped);
+
+ALTER TABLE interval_blocks
+    ADD CONSTRAINT uk_interval_block_meter_reading_start UNIQUE (meter_reading_id, interval_start);
+
+ALTER TABLE interval_readings
+    ADD CONSTRAINT uk_interval_reading_block_start UNIQUE (interval_block_id, time_period_start);
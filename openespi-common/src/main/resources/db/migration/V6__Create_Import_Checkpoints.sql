@@ -0,0 +1,28 @@
+/*
+ * OpenESPI Import Checkpoints (Vendor-Neutral)
+ *
+ * Copyright (c) 2018-2025 Green Button Alliance, Inc.
+ * Licensed under the Apache License, Version 2.0
+ *
+ * Journal of the entries an import job has committed. Each row is written in
+ * the transaction that commits the entries it describes: the row with an
+ * empty partition key holds the entry index up to which the whole feed is
+ * committed, the other rows the last committed entry of each UsagePoint
+ * partition. A restarted job skips what its rows cover; the rows of a job are
+ * deleted once it has finished.
+ *
+ * Compatible with: H2, MySQL, PostgreSQL
+ */
+
+CREATE TABLE import_checkpoints
+(
+    job_id            CHAR(36)     NOT NULL,
+    partition_key     VARCHAR(512) NOT NULL,
+    entry_index       INTEGER      NOT NULL,
+    byte_offset       BIGINT       NOT NULL,
+    last_self_href    VARCHAR(1024),
+    interval_blocks   BIGINT       NOT NULL,
+    interval_readings BIGINT       NOT NULL,
+    updated           TIMESTAMP    NOT NULL,
+    PRIMARY KEY (job_id, partition_key)
+);
@@ -0,0 +1,130 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.domain.common;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.domain.usage.IntervalBlockEntity;
+import org.greenbuttonalliance.espi.common.domain.usage.IntervalReadingEntity;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that new entities are persisted without a SELECT, and loaded ones
+ * merged as before.
+ */
+@SpringBootTest(classes = { TestApplication.class }, properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "org.greenbuttonalliance.espi.common.domain.common.IdentifiedObjectPersistableTest$SelectCounter"
+})
+@ActiveProfiles("test")
+@DisplayName("IdentifiedObject Persistable Tests")
+class IdentifiedObjectPersistableTest {
+
+    private static final int READINGS = 10_000;
+
+    @Autowired
+    private IntervalBlockRepository intervalBlockRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should save 10k new interval readings without selecting them first")
+    void shouldInsertNewEntitiesWithoutSelect() {
+        IntervalBlockEntity block = new IntervalBlockEntity(new DateTimeInterval(1_700_000_000L, READINGS * 900L));
+        for (int i = 0; i < READINGS; i++) {
+            IntervalReadingEntity reading = new IntervalReadingEntity((long) i, (long) i * 3,
+                new DateTimeInterval(1_700_000_000L + i * 900L, 900L));
+            reading.setIntervalBlock(block);
+            block.getIntervalReadings().add(reading);
+        }
+        assertTrue(block.isNew());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SelectCounter.SELECTS.set(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> intervalBlockRepository.save(block));
+
+        assertEquals(0, SelectCounter.SELECTS.get(), "SELECT statements issued while saving new entities");
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(READINGS + 1, statistics.getEntityInsertCount());
+        assertFalse(block.isNew());
+        assertFalse(block.getIntervalReadings().get(0).isNew());
+    }
+
+    @Test
+    @DisplayName("Should treat loaded entities as existing")
+    void shouldMergeLoadedEntities() {
+        IntervalBlockEntity block = new IntervalBlockEntity(new DateTimeInterval(1_600_000_000L, 86_400L));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> intervalBlockRepository.save(block));
+
+        IntervalBlockEntity loaded = new TransactionTemplate(transactionManager)
+            .execute(status -> intervalBlockRepository.findById(block.getId()).orElseThrow());
+        assertFalse(loaded.isNew());
+
+        loaded.setDescription("Updated");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> intervalBlockRepository.save(loaded));
+
+        IntervalBlockEntity updated = new TransactionTemplate(transactionManager)
+            .execute(status -> intervalBlockRepository.findById(block.getId()).orElseThrow());
+        assertEquals("Updated", updated.getDescription());
+    }
+
+    /**
+     * Counts the SELECT statements Hibernate prepares.
+     */
+    public static class SelectCounter implements StatementInspector {
+
+        static final AtomicLong SELECTS = new AtomicLong();
+
+        @Override
+        public String inspect(String sql) {
+            String statement = sql.strip();
+            if (statement.startsWith("/*")) {
+                // Skip the comment added by hibernate.use_sql_comments
+                statement = statement.substring(statement.indexOf("*/") + 2).strip();
+            }
+            if (statement.toLowerCase(Locale.ROOT).startsWith("select")) {
+                SELECTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.domain.usage;
+
+import org.greenbuttonalliance.espi.common.domain.common.DateTimeInterval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the slim interval reading, keyed by block and start.
+ */
+@DisplayName("Interval Reading Entity Tests")
+class IntervalReadingEntityTest {
+
+    @Test
+    @DisplayName("Should keep the start in the key and the duration in its own column")
+    void shouldSplitTimePeriod() {
+        IntervalReadingEntity reading = new IntervalReadingEntity(282L, 974L, new DateTimeInterval(1_700_000_000L, 900L));
+
+        assertEquals(1_700_000_000L, reading.getId().getStart());
+        assertEquals(900L, reading.getDuration());
+        assertEquals(1_700_000_000L, reading.getTimePeriod().getStart());
+        assertEquals(900L, reading.getTimePeriod().getDuration());
+        assertTrue(reading.isNew());
+
+        reading.setTimePeriod(null);
+        assertNull(reading.getId().getStart());
+        assertNull(reading.getTimePeriod());
+    }
+
+    @Test
+    @DisplayName("Should merge values, time period and qualities")
+    void shouldMerge() {
+        IntervalReadingEntity source = new IntervalReadingEntity(-40L, null, new DateTimeInterval(1_700_000_900L, 900L));
+        source.setTou(2L);
+        source.addQuality("8");
+        source.addQuality("17");
+        source.addQuality("8");
+
+        IntervalReadingEntity target = new IntervalReadingEntity();
+        target.merge(source);
+
+        assertEquals(-40L, target.getValue());
+        assertEquals(2, target.getTouAsInt());
+        assertEquals(1_700_000_900L, target.getId().getStart());
+        assertEquals(List.of("8", "17"), target.getQualities());
+        target.removeQuality("8");
+        assertEquals(List.of("8", "17"), source.getQualities());
+    }
+
+    @Test
+    @DisplayName("Should store quality codes in one column and restore them in order")
+    void shouldConvertQualities() {
+        ReadingQualitiesConverter converter = new ReadingQualitiesConverter();
+
+        assertEquals("8,17", converter.convertToDatabaseColumn(Arrays.asList("8", null, "17")));
+        assertEquals(List.of("8", "17"), converter.convertToEntityAttribute("8,17"));
+        assertNull(converter.convertToDatabaseColumn(List.of()));
+        assertEquals(List.of(), converter.convertToEntityAttribute(null));
+    }
+}
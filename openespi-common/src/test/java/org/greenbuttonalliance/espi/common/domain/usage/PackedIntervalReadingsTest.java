@@ -0,0 +1,110 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.domain.usage;
+
+import org.greenbuttonalliance.espi.common.domain.common.DateTimeInterval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the packed form of an interval block's readings.
+ */
+@DisplayName("Packed Interval Readings Tests")
+class PackedIntervalReadingsTest {
+
+    @Test
+    @DisplayName("Should restore every column, including nulls, negative deltas and qualities")
+    void shouldRoundTrip() {
+        List<PackedIntervalReadings.Reading> readings = List.of(
+            new PackedIntervalReadings.Reading(1_700_000_000L, 900L, 282L, 974L, null, 1L, null, List.of()),
+            new PackedIntervalReadings.Reading(1_700_000_900L, 900L, -40L, null, null, 2L, null, List.of("8", "17")),
+            new PackedIntervalReadings.Reading(1_700_001_800L, 3600L, Long.MAX_VALUE, Long.MIN_VALUE, null, null, null,
+                List.of("17")),
+            new PackedIntervalReadings.Reading(null, null, null, 0L, null, 1L, null, null));
+
+        List<PackedIntervalReadings.Reading> unpacked = PackedIntervalReadings.unpack(PackedIntervalReadings.pack(readings));
+
+        assertEquals(readings.size(), unpacked.size());
+        for (int i = 0; i < readings.size(); i++) {
+            assertEquals(readings.get(i), unpacked.get(i));
+        }
+        assertEquals(List.of(), unpacked.get(3).qualities());
+    }
+
+    @Test
+    @DisplayName("Should pack a year of 15-minute readings into a small fraction of a row each")
+    void shouldPackRegularReadingsCompactly() {
+        List<PackedIntervalReadings.Reading> readings = new ArrayList<>();
+        for (int i = 0; i < 96; i++) {
+            readings.add(new PackedIntervalReadings.Reading(1_700_000_000L + i * 900L, 900L, (long) (i * 17) % 500,
+                null, null, null, null, List.of()));
+        }
+
+        byte[] packed = PackedIntervalReadings.pack(readings);
+
+        // Eight bytes per reading would already be less than the start column alone stored as rows
+        assertTrue(packed.length < readings.size() * 8, "packed to " + packed.length + " bytes");
+        assertEquals(readings, PackedIntervalReadings.unpack(packed));
+    }
+
+    @Test
+    @DisplayName("Should pack a block without readings")
+    void shouldPackEmptyBlock() {
+        assertEquals(List.of(), PackedIntervalReadings.unpack(PackedIntervalReadings.pack(List.of())));
+    }
+
+    @Test
+    @DisplayName("Should reject bytes of an unknown format")
+    void shouldRejectUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> PackedIntervalReadings.unpack(new byte[]{42, 0}));
+        assertThrows(IllegalArgumentException.class, () -> PackedIntervalReadings.unpack(new byte[0]));
+        assertThrows(IllegalArgumentException.class,
+            () -> PackedIntervalReadings.unpack(new byte[]{PackedIntervalReadings.FORMAT_VERSION, 1, 2, 3}));
+    }
+
+    @Test
+    @DisplayName("Should decode packed readings lazily into views of the block")
+    void shouldExposePackedReadingsAsEntities() {
+        IntervalBlockEntity block = new IntervalBlockEntity(new DateTimeInterval(1_700_000_000L, 86_400L));
+        block.setPackedReadings(PackedIntervalReadings.pack(List.of(
+            new PackedIntervalReadings.Reading(1_700_000_000L, 900L, 282L, 974L, 1L, null, null, List.of("8")))));
+
+        List<IntervalReadingEntity> readings = block.getReadings();
+
+        assertSame(readings, block.getReadings());
+        assertTrue(block.getIntervalReadings().isEmpty());
+        IntervalReadingEntity reading = readings.get(0);
+        assertEquals(282L, reading.getValue());
+        assertEquals(974L, reading.getCost());
+        assertEquals(1L, reading.getConsumptionTier());
+        assertEquals(1_700_000_000L, reading.getTimePeriod().getStart());
+        assertSame(block, reading.getIntervalBlock());
+        assertEquals(List.of("8"), reading.getQualities());
+        assertThrows(UnsupportedOperationException.class, () -> readings.add(new IntervalReadingEntity()));
+
+        block.setPackedReadings(null);
+        assertSame(block.getIntervalReadings(), block.getReadings());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository.ImportedBlock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports interval data into a PostgreSQL Test Container through the binary
+ * COPY path.
+ */
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test-postgres")
+@Testcontainers
+@DisplayName("Interval Block Import PostgreSQL COPY Tests")
+class IntervalBlockImportRepositoryPostgresTest {
+
+    private static final int BLOCKS = 3;
+    private static final int READINGS_PER_BLOCK = 96;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("openespi_test")
+            .withUsername("testuser")
+            .withPassword("testpass")
+            .withReuse(true);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration,classpath:db/vendor/postgres");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private IntervalBlockImportRepository intervalBlockImportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should copy readings and qualities and update them when imported again")
+    void shouldCopyAndUpsert() {
+        UUID meterReadingId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO meter_readings (id, uuid, created, updated) VALUES (?, ?, ?, ?)",
+            meterReadingId.toString(), meterReadingId.toString(), LocalDateTime.now(), LocalDateTime.now());
+
+        importBlocks(meterReadingId, 10L);
+        importBlocks(meterReadingId, 20L);
+
+        String blocks = "SELECT id FROM interval_blocks WHERE meter_reading_id = ?";
+        assertEquals(BLOCKS, count("SELECT COUNT(*) FROM interval_blocks WHERE meter_reading_id = ?", meterReadingId));
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, count(
+            "SELECT COUNT(*) FROM interval_readings WHERE interval_block_id IN (" + blocks + ")", meterReadingId));
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, count(
+            "SELECT COUNT(*) FROM interval_readings WHERE reading_value >= 20 AND interval_block_id IN (" + blocks + ")",
+            meterReadingId), "readings imported again were not updated");
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, count(
+            "SELECT COUNT(*) FROM interval_readings WHERE quality = '0' AND interval_block_id IN (" + blocks + ")",
+            meterReadingId));
+    }
+
+    private void importBlocks(UUID meterReadingId, long baseValue) {
+        String meterReadingHref = "MeterReading/" + meterReadingId;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (IntervalBlockImportRepository.Batch batch = intervalBlockImportRepository.openBatch()) {
+                for (int b = 0; b < BLOCKS; b++) {
+                    IntervalBlockDto block = createBlock(b, baseValue);
+                    batch.add(new ImportedBlock(IntervalBlockImportRepository.blockId(meterReadingHref, block),
+                        meterReadingId, null, null, LocalDateTime.now(), LocalDateTime.now(), block));
+                }
+            }
+        });
+    }
+
+    private long count(String sql, UUID meterReadingId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, meterReadingId.toString());
+    }
+
+    private static IntervalBlockDto createBlock(int day, long baseValue) {
+        long dayStart = 1_700_000_000L + day * 86_400L;
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, (long) i, null,
+                baseValue + i, new DateTimeIntervalDto(dayStart + i * 900L, 900L),
+                List.of(new ReadingQualityDto(null, "0")), null, null, null));
+        }
+        return new IntervalBlockDto(null, new DateTimeIntervalDto(dayStart, 86_400L), readings);
+    }
+}
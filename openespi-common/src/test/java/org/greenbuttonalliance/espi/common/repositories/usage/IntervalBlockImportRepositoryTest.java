@@ -0,0 +1,126 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.domain.usage.PackedIntervalReadings;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the natural keys and upsert statements of imported interval data.
+ */
+@DisplayName("Interval Block Import Repository Tests")
+class IntervalBlockImportRepositoryTest {
+
+    private static final List<String> UPDATES = List.of("cost", "reading_value");
+
+    @Test
+    @DisplayName("Should upsert on the natural key with ON CONFLICT on PostgreSQL")
+    void shouldUpsertOnConflictOnPostgres() {
+        String sql = IntervalBlockImportRepository.upsert("PostgreSQL", "interval_readings",
+            "id, cost, reading_value, interval_block_id, time_period_start", "interval_block_id, time_period_start",
+            UPDATES);
+
+        assertEquals("INSERT INTO interval_readings (id, cost, reading_value, interval_block_id, time_period_start) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (interval_block_id, time_period_start) " +
+            "DO UPDATE SET cost = EXCLUDED.cost, reading_value = EXCLUDED.reading_value", sql);
+    }
+
+    @Test
+    @DisplayName("Should upsert with ON DUPLICATE KEY UPDATE on MySQL")
+    void shouldUpsertOnDuplicateKeyOnMysql() {
+        String sql = IntervalBlockImportRepository.upsert("MySQL", "interval_readings",
+            "id, cost, reading_value", "interval_block_id, time_period_start", UPDATES);
+
+        assertEquals("INSERT INTO interval_readings (id, cost, reading_value) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE cost = VALUES(cost), reading_value = VALUES(reading_value)", sql);
+    }
+
+    @Test
+    @DisplayName("Should merge on the natural key on H2")
+    void shouldMergeOnH2() {
+        String sql = IntervalBlockImportRepository.upsert("H2", "interval_readings",
+            "id, cost, reading_value", "interval_block_id, time_period_start", UPDATES);
+
+        assertEquals("MERGE INTO interval_readings (id, cost, reading_value) " +
+            "KEY (interval_block_id, time_period_start) VALUES (?, ?, ?)", sql);
+    }
+
+    @Test
+    @DisplayName("Should reject databases without an upsert statement")
+    void shouldRejectUnknownDatabase() {
+        assertThrows(IllegalStateException.class,
+            () -> IntervalBlockImportRepository.upsert("Derby", "interval_readings", "id", "id", UPDATES));
+    }
+
+    @Test
+    @DisplayName("Should derive the same IDs for the same natural keys")
+    void shouldDeriveIdsFromNaturalKeys() {
+        String meterReadingHref = "/espi/1_1/resource/RetailCustomer/1/UsagePoint/1/MeterReading/1";
+        IntervalBlockDto block = new IntervalBlockDto("a", new DateTimeIntervalDto(1_700_000_000L, 86_400L));
+        IntervalBlockDto redelivered = new IntervalBlockDto("b", new DateTimeIntervalDto(1_700_000_000L, 86_400L));
+        IntervalBlockDto nextDay = new IntervalBlockDto("a", new DateTimeIntervalDto(1_700_086_400L, 86_400L));
+
+        UUID blockId = IntervalBlockImportRepository.blockId(meterReadingHref, block);
+        assertEquals(blockId, IntervalBlockImportRepository.blockId(meterReadingHref, redelivered));
+        assertNotEquals(blockId, IntervalBlockImportRepository.blockId(meterReadingHref, nextDay));
+        assertNotEquals(blockId, IntervalBlockImportRepository.blockId(meterReadingHref + "0", block));
+        assertNull(IntervalBlockImportRepository.blockId(meterReadingHref, new IntervalBlockDto()));
+        assertNull(IntervalBlockImportRepository.blockId((String) null, block));
+
+        UUID meterReadingId = UUID.randomUUID();
+        assertEquals(IntervalBlockImportRepository.blockId(meterReadingId, block),
+            IntervalBlockImportRepository.blockId(meterReadingId, redelivered));
+        assertNotEquals(IntervalBlockImportRepository.blockId(meterReadingId, block),
+            IntervalBlockImportRepository.blockId(UUID.randomUUID(), block));
+        assertNull(IntervalBlockImportRepository.blockId((UUID) null, block));
+    }
+
+    @Test
+    @DisplayName("Should pack readings in start order, keeping the last of repeated readings")
+    void shouldOrderPackedReadingsByStart() {
+        UUID blockId = UUID.randomUUID();
+        IntervalReadingDto second = new IntervalReadingDto(null, null, null, null, null, null, null, 20L, null,
+            200L, new DateTimeIntervalDto(1_700_000_900L, 900L), null, null, null, null);
+        IntervalReadingDto first = new IntervalReadingDto(null, null, null, null, null, null, null, 10L, null,
+            100L, new DateTimeIntervalDto(1_700_000_000L, 900L), null, null, null, null);
+        IntervalReadingDto corrected = new IntervalReadingDto(null, null, null, null, null, null, null, 22L, null,
+            220L, new DateTimeIntervalDto(1_700_000_900L, 900L), null, null, null, null);
+        IntervalBlockImportRepository.ImportedBlock block = new IntervalBlockImportRepository.ImportedBlock(blockId,
+            null, null, null, null, null, new IntervalBlockDto("a", new DateTimeIntervalDto(1_700_000_000L, 86_400L),
+                List.of(second, first, corrected)));
+
+        List<PackedIntervalReadings.Reading> readings = IntervalBlockImportRepository.toPackedReadings(block);
+
+        assertEquals(2, readings.size());
+        assertEquals(1_700_000_000L, readings.get(0).start());
+        assertEquals(100L, readings.get(0).value());
+        assertEquals(220L, readings.get(1).value());
+        assertEquals(22L, readings.get(1).cost());
+    }
+}
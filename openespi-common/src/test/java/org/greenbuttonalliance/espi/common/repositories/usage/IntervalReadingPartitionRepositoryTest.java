@@ -0,0 +1,66 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the month and scope helpers of
+ * {@link IntervalReadingPartitionRepository}.
+ */
+@DisplayName("Interval Reading Partition Repository Tests")
+class IntervalReadingPartitionRepositoryTest {
+
+    @Test
+    @DisplayName("Should read the longest HistoryLength of a scope")
+    void shouldReadLongestHistoryLength() {
+        assertEquals(OptionalInt.of(13), IntervalReadingPartitionRepository.historyLength(
+            "FB=4_5_15;IntervalDuration=3600;BlockDuration=monthly;HistoryLength=13"));
+        assertEquals(OptionalInt.of(24), IntervalReadingPartitionRepository.historyLength(
+            "FB=4_5_15;HistoryLength=13 FB=4_16;HistoryLength=24"));
+        assertEquals(OptionalInt.empty(), IntervalReadingPartitionRepository.historyLength(
+            "FB=4_5_15;IntervalDuration=3600;BlockDuration=monthly"));
+        assertEquals(OptionalInt.empty(),
+            IntervalReadingPartitionRepository.historyLength("HistoryLength=99999999999999"));
+        assertEquals(OptionalInt.empty(), IntervalReadingPartitionRepository.historyLength(null));
+    }
+
+    @Test
+    @DisplayName("Should bound months in UTC epoch seconds")
+    void shouldBoundMonthsInUtc() {
+        assertEquals(0L, IntervalReadingPartitionRepository.start(YearMonth.of(1970, 1)));
+        assertEquals(1_704_067_200L, IntervalReadingPartitionRepository.start(YearMonth.of(2024, 1)));
+        assertEquals(1_706_745_600L, IntervalReadingPartitionRepository.start(YearMonth.of(2024, 2)));
+    }
+
+    @Test
+    @DisplayName("Should name partitions by month")
+    void shouldNamePartitionsByMonth() {
+        assertEquals("interval_readings_202403",
+            IntervalReadingPartitionRepository.partitionName(YearMonth.of(2024, 3)));
+        assertEquals("p202412", IntervalReadingPartitionRepository.mySqlPartitionName(YearMonth.of(2024, 12)));
+    }
+}
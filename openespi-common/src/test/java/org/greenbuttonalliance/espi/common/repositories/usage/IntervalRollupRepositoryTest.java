@@ -0,0 +1,70 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Granularity;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Span;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the UTC buckets of interval rollups.
+ */
+@DisplayName("Interval Rollup Bucket Tests")
+class IntervalRollupRepositoryTest {
+
+    @Test
+    @DisplayName("Should start hour and day buckets on UTC boundaries")
+    void shouldStartHourAndDayBuckets() {
+        long instant = epoch("2025-01-30T13:45:10Z");
+
+        assertEquals(epoch("2025-01-30T13:00:00Z"), Granularity.HOUR.start(instant));
+        assertEquals(epoch("2025-01-30T14:00:00Z"), Granularity.HOUR.next(Granularity.HOUR.start(instant)));
+        assertEquals(epoch("2025-01-30T00:00:00Z"), Granularity.DAY.start(instant));
+        assertEquals(epoch("2025-01-31T00:00:00Z"), Granularity.DAY.next(Granularity.DAY.start(instant)));
+        assertEquals(epoch("1969-12-31T00:00:00Z"), Granularity.DAY.start(-1L));
+    }
+
+    @Test
+    @DisplayName("Should start month buckets on calendar months across years")
+    void shouldStartMonthBuckets() {
+        long december = Granularity.MONTH.start(epoch("2024-12-31T23:59:59Z"));
+
+        assertEquals(epoch("2024-12-01T00:00:00Z"), december);
+        assertEquals(epoch("2025-01-01T00:00:00Z"), Granularity.MONTH.next(december));
+        assertEquals(epoch("2024-03-01T00:00:00Z"), Granularity.MONTH.next(epoch("2024-02-01T00:00:00Z")));
+        assertEquals(epoch("1969-12-01T00:00:00Z"), Granularity.MONTH.start(-1L));
+    }
+
+    @Test
+    @DisplayName("Should cover both spans in their union")
+    void shouldUnionSpans() {
+        assertEquals(new Span(100L, 400L), new Span(200L, 400L).union(new Span(100L, 300L)));
+        assertEquals(new Span(100L, 400L), new Span(100L, 400L).union(new Span(200L, 300L)));
+    }
+
+    private static long epoch(String dateTime) {
+        return OffsetDateTime.parse(dateTime).toEpochSecond();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for translating ESPI time window query parameters into predicates.
+ */
+@DisplayName("Interval Time Window Tests")
+class IntervalTimeWindowTest {
+
+    @Test
+    @DisplayName("Should parse published and updated bounds from query parameters")
+    void shouldParseQueryParameters() {
+        IntervalTimeWindow window = IntervalTimeWindow.fromQueryParameters(Map.of(
+            "published-min", "2025-01-01T00:00:00Z",
+            "published-max", "2025-01-02T00:00:00Z",
+            "updated-min", "2025-01-03T01:00:00+01:00",
+            "max-results", "10"));
+
+        assertEquals(1735689600L, window.startMin());
+        assertEquals(1735776000L, window.startMax());
+        assertEquals(LocalDateTime.of(2025, 1, 3, 0, 0), window.updatedMin());
+        assertNull(window.updatedMax());
+        assertTrue(window.boundsReadings());
+        assertFalse(window.isUnbounded());
+    }
+
+    @Test
+    @DisplayName("Should write equal windows back as equal query parameters")
+    void shouldWriteCanonicalQueryParameters() {
+        IntervalTimeWindow window = IntervalTimeWindow.fromQueryParameters(Map.of(
+            "published-min", "2025-01-01T01:00:00+01:00",
+            "updated-max", "2025-01-03T00:00:00Z"));
+
+        assertEquals(List.of("published-min", "updated-max"), List.copyOf(window.toQueryParameters().keySet()));
+        assertEquals("2025-01-01T00:00:00Z", window.toQueryParameters().get("published-min"));
+        assertEquals("2025-01-03T00:00:00Z", window.toQueryParameters().get("updated-max"));
+        assertEquals(window, IntervalTimeWindow.fromQueryParameters(window.toQueryParameters()));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed bounds")
+    void shouldRejectMalformedBounds() {
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+            () -> IntervalTimeWindow.fromQueryParameters(Map.of("published-max", "yesterday")));
+        assertTrue(failure.getMessage().startsWith("published-max"));
+    }
+
+    @Test
+    @DisplayName("Should add no predicates for an unbounded window")
+    void shouldAddNoPredicatesWhenUnbounded() {
+        Map<String, Object> parameters = new HashMap<>();
+        IntervalTimeWindow window = IntervalTimeWindow.fromQueryParameters(Map.of());
+
+        assertTrue(window.isUnbounded());
+        assertEquals("", window.blockPredicates("b", parameters));
+        assertEquals("", window.readingPredicates("r", parameters));
+        assertTrue(parameters.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should prune blocks by interval overlap and filter readings by start")
+    void shouldBuildHalfOpenPredicates() {
+        Map<String, Object> parameters = new HashMap<>();
+        IntervalTimeWindow window = IntervalTimeWindow.ofReadingStart(100L, 200L);
+
+        assertEquals(" AND b.interval.start + b.interval.duration > :startMin AND b.interval.start < :startMax",
+            window.blockPredicates("b", parameters));
+        assertEquals(" AND r.id.start >= :startMin AND r.id.start < :startMax",
+            window.readingPredicates("r", parameters));
+        assertEquals(Map.of("startMin", 100L, "startMax", 200L), parameters);
+    }
+
+    @Test
+    @DisplayName("Should select blocks by updated time without bounding readings")
+    void shouldSelectBlocksByUpdated() {
+        Map<String, Object> parameters = new HashMap<>();
+        LocalDateTime since = LocalDateTime.of(2025, 6, 1, 12, 0);
+        IntervalTimeWindow window = new IntervalTimeWindow(null, null, since, null);
+
+        assertFalse(window.boundsReadings());
+        assertEquals(" AND b.updated >= :updatedMin", window.blockPredicates("b", parameters));
+        assertEquals("", window.readingPredicates("r", parameters));
+        assertEquals(Map.of("updatedMin", since), parameters);
+    }
+
+    @Test
+    @DisplayName("Should bound the reading join in SQL and filter packed readings by start in Java")
+    void shouldDeferPackedReadingsToJava() {
+        Map<String, Object> parameters = new HashMap<>();
+        IntervalTimeWindow window = IntervalTimeWindow.ofReadingStart(100L, 200L);
+
+        assertEquals(" ON r.id.start >= :startMin AND r.id.start < :startMax",
+            window.readingJoinCondition("r", parameters));
+        assertEquals("", IntervalTimeWindow.UNBOUNDED.readingJoinCondition("r", parameters));
+
+        assertTrue(window.containsReadingStart(100L));
+        assertFalse(window.containsReadingStart(200L));
+        assertFalse(window.containsReadingStart(null));
+        assertTrue(IntervalTimeWindow.UNBOUNDED.containsReadingStart(null));
+    }
+}
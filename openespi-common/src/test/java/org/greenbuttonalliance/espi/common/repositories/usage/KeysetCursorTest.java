@@ -0,0 +1,75 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for keyset pagination continuation tokens.
+ */
+@DisplayName("Keyset Cursor Tests")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip through an opaque URL-safe token")
+    void shouldRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_789),
+            UUID.fromString("48c2a019-5598-4e16-b0f9-49e4ff27f5fb"));
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token must be safe in a query string");
+        assertEquals(cursor, KeysetCursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("Should position after the given resource")
+    void shouldPositionAfterResource() {
+        UsagePointEntity usagePoint = new UsagePointEntity();
+        usagePoint.setUpdated(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        KeysetCursor cursor = KeysetCursor.after(usagePoint);
+
+        assertEquals(usagePoint.getId(), cursor.id());
+        assertEquals(usagePoint.getUpdated(), cursor.updated());
+    }
+
+    @Test
+    @DisplayName("Should treat a missing token as the first page")
+    void shouldTreatMissingTokenAsFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void shouldRejectMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("MjAyNXxub3QtYS11dWlk"));
+    }
+}
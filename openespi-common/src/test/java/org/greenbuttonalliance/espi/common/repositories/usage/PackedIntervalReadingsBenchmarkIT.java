@@ -0,0 +1,164 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository.ImportedBlock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Storage and read benchmark of packed interval readings against reading
+ * rows, run with the integration tests ({@code mvn verify}) against the H2
+ * test database.
+ * <p>
+ * Imports a year of day-long interval blocks with 15-minute readings once as
+ * rows and once packed, then exports both through the block cursor. The packed readings must export identically to the rows and
+ * take a tenth of their column payload at most; the payload sizes and the
+ * import and export times are reported, not asserted. Payload sizes count
+ * column data only, without row overhead and indexes, which favours the rows.
+ * Set {@code -Despi.benchmark.days} to change the period.
+ */
+@Slf4j
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test")
+@DisplayName("Packed Interval Readings Benchmark")
+class PackedIntervalReadingsBenchmarkIT {
+
+    private static final int DAYS = Integer.getInteger("espi.benchmark.days", 365);
+    private static final int READINGS_PER_BLOCK = 96;
+    private static final int EXPORT_ROUNDS = 3;
+
+    // Column data of a reading row: its CHAR(36) block key, seven BIGINTs and the quality codes
+    private static final String ROW_PAYLOAD =
+        "SELECT COALESCE(SUM(OCTET_LENGTH(r.interval_block_id) + 7 * 8 + COALESCE(OCTET_LENGTH(r.quality), 0)), 0) " +
+        "FROM interval_readings r JOIN interval_blocks b ON r.interval_block_id = b.id WHERE b.description = ?";
+    private static final String PACKED_PAYLOAD =
+        "SELECT COALESCE(SUM(OCTET_LENGTH(packed_readings)), 0) FROM interval_blocks WHERE description = ?";
+
+    @Autowired private IntervalBlockExportRepository intervalBlockExportRepository;
+    @Autowired private ObjectProvider<PostgresCopyLoader> copyLoader;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should store a year of readings packed in a fraction of the rows and export it unchanged")
+    void shouldShrinkStorageAndExportIdentically() {
+        String rowsRun = "rows-" + UUID.randomUUID();
+        String packedRun = "packed-" + UUID.randomUUID();
+
+        List<UUID> rowsBlockIds = new ArrayList<>();
+        long rowsImportNanos = importYear(
+            new IntervalBlockImportRepository(jdbcTemplate, 1000, copyLoader, false, false, false), rowsRun, rowsBlockIds);
+        List<UUID> packedBlockIds = new ArrayList<>();
+        long packedImportNanos = importYear(
+            new IntervalBlockImportRepository(jdbcTemplate, 1000, copyLoader, false, true, false), packedRun, packedBlockIds);
+
+        long rowsBytes = jdbcTemplate.queryForObject(ROW_PAYLOAD, Long.class, rowsRun);
+        long packedBytes = jdbcTemplate.queryForObject(PACKED_PAYLOAD, Long.class, packedRun);
+        assertEquals(0L, jdbcTemplate.queryForObject(ROW_PAYLOAD, Long.class, packedRun));
+        assertTrue(packedBytes * 10 < rowsBytes, "packed " + packedBytes + " bytes, rows " + rowsBytes + " bytes");
+
+        List<List<IntervalReadingDto>> rowsReadings = null;
+        List<List<IntervalReadingDto>> packedReadings = null;
+        long rowsExportNanos = Long.MAX_VALUE;
+        long packedExportNanos = Long.MAX_VALUE;
+        for (int round = 0; round < EXPORT_ROUNDS; round++) {
+            long start = System.nanoTime();
+            rowsReadings = export(rowsBlockIds);
+            rowsExportNanos = Math.min(rowsExportNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            packedReadings = export(packedBlockIds);
+            packedExportNanos = Math.min(packedExportNanos, System.nanoTime() - start);
+        }
+
+        assertEquals(DAYS, packedReadings.size());
+        assertEquals(rowsReadings, packedReadings);
+
+        long readings = (long) DAYS * READINGS_PER_BLOCK;
+        log.info(String.format("rows    payload=%10d B (%6.1f B/reading)  import=%6d ms  export=%6d ms",
+            rowsBytes, (double) rowsBytes / readings, rowsImportNanos / 1_000_000, rowsExportNanos / 1_000_000));
+        log.info(String.format("packed  payload=%10d B (%6.1f B/reading)  import=%6d ms  export=%6d ms",
+            packedBytes, (double) packedBytes / readings, packedImportNanos / 1_000_000, packedExportNanos / 1_000_000));
+        log.info(String.format("packed/rows  storage=%5.3fx  export speedup=%5.2fx",
+            (double) packedBytes / rowsBytes, (double) rowsExportNanos / packedExportNanos));
+    }
+
+    /**
+     * Imports the year of one run, keying the blocks by a meter reading ID of
+     * the run's own and marking them with the run in their description.
+     */
+    private long importYear(IntervalBlockImportRepository repository, String run, List<UUID> blockIds) {
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (IntervalBlockImportRepository.Batch batch = repository.openBatch()) {
+                for (int day = 0; day < DAYS; day++) {
+                    IntervalBlockDto block = createBlock(run, day);
+                    UUID blockId = IntervalBlockImportRepository.blockId("MeterReading/" + run, block);
+                    blockIds.add(blockId);
+                    batch.add(new ImportedBlock(blockId, null, null, null, LocalDateTime.now(), LocalDateTime.now(), block));
+                }
+            }
+        });
+        return System.nanoTime() - start;
+    }
+
+    private List<List<IntervalReadingDto>> export(List<UUID> blockIds) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            try (Stream<IntervalBlockDto> blocks = intervalBlockExportRepository.streamByIds(blockIds)) {
+                return blocks.map(IntervalBlockDto::intervalReadings).toList();
+            }
+        });
+    }
+
+    private static IntervalBlockDto createBlock(String run, int day) {
+        long dayStart = 1_700_000_000L + day * 86_400L;
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, (long) (i % 24) * 3, null,
+                (long) (day * 7 + i * 17) % 5000, new DateTimeIntervalDto(dayStart + i * 900L, 900L),
+                null, null, null, null));
+        }
+        return new IntervalBlockDto(null, null, null, null, null, null, null, run,
+            new DateTimeIntervalDto(dayStart, 86_400L), readings);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.repositories.usage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary COPY encoding, without a PostgreSQL server.
+ */
+@DisplayName("PostgreSQL COPY Loader Tests")
+class PostgresCopyLoaderTest {
+
+    private record Row(String id, Long value, LocalDateTime start) {
+    }
+
+    @Test
+    @DisplayName("Should encode rows in the binary COPY format")
+    void shouldEncodeBinaryCopy() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            PostgresCopyLoader.write(out, List.of(
+                    new Row("a", 42L, LocalDateTime.of(2000, 1, 1, 0, 0, 1)),
+                    new Row(null, null, null)),
+                3, (row, binaryRow) -> binaryRow.text(row.id()).int8(row.value()).timestamp(row.start()));
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        byte[] signature = new byte[11];
+        in.readFully(signature);
+        assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        assertEquals(0, in.readInt(), "flags");
+        assertEquals(0, in.readInt(), "header extension length");
+
+        assertEquals(3, in.readShort());
+        assertEquals(1, in.readInt());
+        assertEquals('a', in.readByte());
+        assertEquals(8, in.readInt());
+        assertEquals(42L, in.readLong());
+        assertEquals(8, in.readInt());
+        assertEquals(1_000_000L, in.readLong(), "microseconds since 2000-01-01");
+
+        assertEquals(3, in.readShort());
+        assertEquals(-1, in.readInt());
+        assertEquals(-1, in.readInt());
+        assertEquals(-1, in.readInt());
+
+        assertEquals(-1, in.readShort(), "trailer");
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    @DisplayName("Should encode text as UTF-8 and timestamps before 2000 as negative")
+    void shouldEncodeTextAndEarlyTimestamps() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            PostgresCopyLoader.write(out, List.of(new Row("kWh·h", null, LocalDateTime.of(1999, 12, 31, 23, 59, 59))),
+                3, (row, binaryRow) -> binaryRow.text(row.id()).int8(row.value()).timestamp(row.start()));
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        in.skipBytes(11 + 4 + 4 + 2);
+        byte[] expected = "kWh·h".getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length, in.readInt());
+        byte[] text = new byte[expected.length];
+        in.readFully(text);
+        assertArrayEquals(expected, text);
+        assertEquals(-1, in.readInt());
+        assertEquals(8, in.readInt());
+        assertEquals(-1_000_000L, in.readLong());
+    }
+}
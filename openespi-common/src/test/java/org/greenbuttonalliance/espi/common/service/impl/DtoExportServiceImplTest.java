@@ -0,0 +1,193 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.domain.usage.RetailCustomerEntity;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingTypeDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.RetailCustomerRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.DtoExportService;
+import org.greenbuttonalliance.espi.common.service.DtoImportService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedReader;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedWriter;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the full usage point export of Download My Data against the H2
+ * test database.
+ */
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test")
+@DisplayName("DTO Export Service Full Export Tests")
+class DtoExportServiceImplTest {
+
+    private static final int METER_READINGS = 2;
+    private static final int READINGS = 4;
+
+    @Autowired private DtoExportService dtoExportService;
+    @Autowired private DtoImportService dtoImportService;
+    @Autowired private UsagePointRepository usagePointRepository;
+    @Autowired private RetailCustomerRepository retailCustomerRepository;
+    @Autowired private DtoJaxbContext dtoJaxbContext;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private UUID retailCustomerId;
+    private UUID usagePointId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String run = UUID.randomUUID().toString();
+        String usagePointHref = "/espi/1_1/resource/RetailCustomer/" + run + "/UsagePoint/1";
+        dtoImportService.importFeed(new ByteArrayInputStream(createFeed(run, usagePointHref)));
+        usagePointId = UUID.nameUUIDFromBytes(usagePointHref.getBytes(StandardCharsets.UTF_8));
+
+        retailCustomerId = new TransactionTemplate(transactionManager).execute(status -> {
+            RetailCustomerEntity retailCustomer = new RetailCustomerEntity();
+            retailCustomer.setUsername("customer-" + run);
+            retailCustomerRepository.save(retailCustomer);
+            usagePointRepository.findById(usagePointId).orElseThrow().setRetailCustomer(retailCustomer);
+            return retailCustomer.getId();
+        });
+    }
+
+    @Test
+    @DisplayName("Should stream the usage point, meter readings, reading type and interval blocks of the customer")
+    void shouldStreamFullUsagePointTree() throws Exception {
+        assertTrue(dtoExportService.hasUsagePoint(retailCustomerId, usagePointId));
+
+        List<Object> resources = exportedEntries().stream().map(AtomEntryDto::getResource).toList();
+
+        assertEquals(6, resources.size());
+        assertInstanceOf(UsagePointDto.class, resources.get(0));
+        assertInstanceOf(MeterReadingDto.class, resources.get(1));
+        assertInstanceOf(ReadingTypeDto.class, resources.get(2));
+        IntervalBlockDto block = assertInstanceOf(IntervalBlockDto.class, resources.get(3));
+        assertEquals(READINGS, block.intervalReadings().size());
+        assertInstanceOf(MeterReadingDto.class, resources.get(4));
+        assertInstanceOf(IntervalBlockDto.class, resources.get(5));
+    }
+
+    @Test
+    @DisplayName("Should write a reading type shared by meter readings once per feed")
+    void shouldWriteSharedReadingTypeOnce() throws Exception {
+        List<AtomEntryDto> entries = exportedEntries();
+
+        assertEquals(1, entries.stream().filter(entry -> entry.getResource() instanceof ReadingTypeDto).count());
+        assertEquals(entries.size(), entries.stream().map(AtomEntryDto::id).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should write nothing for a usage point of another customer")
+    void shouldRefuseUsagePointOfAnotherCustomer() {
+        UUID otherCustomerId = UUID.randomUUID();
+        assertFalse(dtoExportService.hasUsagePoint(otherCustomerId, usagePointId));
+        assertFalse(dtoExportService.hasUsagePoint(retailCustomerId, UUID.randomUUID()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoExportService.exportUsagePointFull(otherCustomerId, usagePointId, out);
+
+        assertEquals(0, out.size());
+    }
+
+    private List<AtomEntryDto> exportedEntries() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoExportService.exportUsagePointFull(retailCustomerId, usagePointId, out);
+
+        List<AtomEntryDto> entries = new ArrayList<>();
+        try (AtomFeedReader feedReader =
+                 new AtomFeedReader(dtoJaxbContext, new ByteArrayInputStream(out.toByteArray()))) {
+            AtomEntryDto entry;
+            while ((entry = feedReader.nextEntry()) != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private byte[] createFeed(String run, String usagePointHref) throws Exception {
+        String readingTypeHref = "/espi/1_1/resource/" + run + "/ReadingType/1";
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        long start = published.toEpochSecond();
+        List<IntervalReadingDto> readings = new ArrayList<>();
+        for (int i = 0; i < READINGS; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, null, null,
+                (long) i * 100, new DateTimeIntervalDto(start + i * 900L, 900L), null, null, null, null));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:" + run, "Usage Points", published, null);
+            feedWriter.writeEntry(entry(readingTypeHref, "/espi/1_1/resource/" + run + "/ReadingType", null,
+                new ReadingTypeDto(null, null, "Energy Delivered (kWh)")));
+            UsagePointDto usagePoint = new UsagePointDto();
+            usagePoint.setDescription("Usage Point " + run);
+            feedWriter.writeEntry(entry(usagePointHref, "/espi/1_1/resource/RetailCustomer/" + run + "/UsagePoint",
+                null, usagePoint));
+            for (int m = 1; m <= METER_READINGS; m++) {
+                String meterReadingHref = usagePointHref + "/MeterReading/" + m;
+                feedWriter.writeEntry(entry(meterReadingHref, usagePointHref + "/MeterReading", readingTypeHref,
+                    new MeterReadingDto()));
+                feedWriter.writeEntry(entry(meterReadingHref + "/IntervalBlock/1", meterReadingHref + "/IntervalBlock",
+                    null, new IntervalBlockDto(null, new DateTimeIntervalDto(start, READINGS * 900L), readings)));
+            }
+            feedWriter.writeEndFeed();
+        }
+        return out.toByteArray();
+    }
+
+    private static AtomEntryDto entry(String selfHref, String upHref, String relatedHref, Object resource) {
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(selfHref));
+        links.add(LinkDto.up(upHref));
+        if (relatedHref != null) {
+            links.add(LinkDto.related(relatedHref));
+        }
+        String id = "urn:uuid:" + UUID.nameUUIDFromBytes(selfHref.getBytes(StandardCharsets.UTF_8));
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        return new AtomEntryDto(id, selfHref, published, published, links, new AtomContentDto(resource));
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingTypeDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.mapper.usage.MeterReadingMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.ReadingTypeMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
+import org.greenbuttonalliance.espi.common.repositories.usage.ImportCheckpointRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.MeterReadingRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.ReadingTypeRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.DtoImportService.ImportResult;
+import org.greenbuttonalliance.espi.common.service.EspiIdGeneratorService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedWriter;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for resuming import jobs from their checkpoints.
+ * <p>
+ * A job is first run on a truncated copy of its feed, which fails once the
+ * entries before the cut have been read. The readings it committed are then
+ * marked, and the job is run again on the whole feed: the marked readings
+ * must stay untouched, since the entries they belong to are passed over,
+ * while everything else is imported and linked as usual.
+ */
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test")
+@DisplayName("DTO Import Checkpoint Tests")
+class DtoImportServiceImplCheckpointTest {
+
+    private static final int USAGE_POINTS = 3;
+    private static final int BLOCKS_PER_USAGE_POINT = 8;
+    private static final int READINGS_PER_BLOCK = 4;
+    private static final int CHECKPOINT_INTERVAL = 3;
+    private static final long MARK = -1L;
+
+    @Autowired private UsagePointRepository usagePointRepository;
+    @Autowired private MeterReadingRepository meterReadingRepository;
+    @Autowired private ReadingTypeRepository readingTypeRepository;
+    @Autowired private IntervalBlockImportRepository intervalBlockImportRepository;
+    @Autowired private IntervalRollupRepository intervalRollupRepository;
+    @Autowired private UsagePointMapper usagePointMapper;
+    @Autowired private MeterReadingMapper meterReadingMapper;
+    @Autowired private ReadingTypeMapper readingTypeMapper;
+    @Autowired private DtoJaxbContext dtoJaxbContext;
+    @Autowired private EspiSchemaValidation espiSchemaValidation;
+    @Autowired private EspiIdGeneratorService espiIdGeneratorService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should resume a sequential import after its feed checkpoint")
+    void shouldResumeSequentialImport() throws Exception {
+        PartitionedImportExecutor executor = new PartitionedImportExecutor(false, 0, 10);
+        try {
+            resumeAndVerify(executor, jobId -> {
+                Integer entryIndex = jdbcTemplate.queryForObject(
+                    "SELECT entry_index FROM import_checkpoints WHERE job_id = ? AND partition_key = ''",
+                    Integer.class, jobId.toString());
+                // A reading type, a usage point and its meter reading precede the blocks
+                assertTrue(entryIndex > 3, "no block was committed before the failure");
+                assertEquals(0, entryIndex % CHECKPOINT_INTERVAL);
+                return (long) (entryIndex - 3) * READINGS_PER_BLOCK;
+            });
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume a partitioned import after the checkpoints of its partitions")
+    void shouldResumePartitionedImport() throws Exception {
+        PartitionedImportExecutor executor = new PartitionedImportExecutor(true, 2, 2);
+        try {
+            resumeAndVerify(executor, jobId -> jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(interval_readings), 0) FROM import_checkpoints WHERE job_id = ? AND partition_key <> ''",
+                Long.class, jobId.toString()));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should discard the checkpoints of a job")
+    void shouldDiscardCheckpoints() throws Exception {
+        PartitionedImportExecutor executor = new PartitionedImportExecutor(false, 0, 10);
+        try {
+            UUID jobId = UUID.randomUUID();
+            byte[] feed = createFeed(jobId.toString());
+            DtoImportServiceImpl service = createService(executor);
+
+            assertThrows(IOException.class, () -> service.importFeed(truncated(feed), (e, b, r) -> { }, jobId));
+            assertTrue(checkpoints(jobId) > 0);
+
+            service.discardCheckpoints(jobId);
+            assertEquals(0, checkpoints(jobId));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should import the last partial chunk of every partition")
+    void shouldFlushLastChunks() throws Exception {
+        // Every partition holds a usage point, its meter reading and its blocks, which chunks of 3 do not divide
+        PartitionedImportExecutor executor = new PartitionedImportExecutor(true, 2, 3);
+        try {
+            String run = UUID.randomUUID().toString();
+            ImportResult result = createService(executor).importFeed(new ByteArrayInputStream(createFeed(run)));
+
+            long expected = (long) USAGE_POINTS * BLOCKS_PER_USAGE_POINT * READINGS_PER_BLOCK;
+            assertEquals(expected, result.intervalReadings());
+            assertEquals(expected, readings(run));
+            assertEquals(USAGE_POINTS * BLOCKS_PER_USAGE_POINT, jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                + "FROM interval_blocks WHERE self_link_href LIKE ? AND meter_reading_id IS NOT NULL",
+                Integer.class, "%/" + run + "/%"));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private void resumeAndVerify(PartitionedImportExecutor executor, CommittedReadings committedReadings)
+            throws Exception {
+        UUID jobId = UUID.randomUUID();
+        String run = jobId.toString();
+        byte[] feed = createFeed(run);
+        DtoImportServiceImpl service = createService(executor);
+
+        assertThrows(IOException.class, () -> service.importFeed(truncated(feed), (e, b, r) -> { }, jobId));
+        long committed = committedReadings.count(jobId);
+        assertTrue(committed > 0, "nothing was committed before the failure");
+        assertEquals(committed, readings(run));
+
+        jdbcTemplate.update("UPDATE interval_readings SET reading_value = ? WHERE interval_block_id IN "
+            + "(SELECT id FROM interval_blocks WHERE self_link_href LIKE ?)", MARK, "%/" + run + "/%");
+
+        ImportResult result = service.importFeed(new ByteArrayInputStream(feed), (e, b, r) -> { }, jobId);
+
+        long expected = (long) USAGE_POINTS * BLOCKS_PER_USAGE_POINT * READINGS_PER_BLOCK;
+        assertEquals(1 + USAGE_POINTS * (2 + BLOCKS_PER_USAGE_POINT), result.entries());
+        assertEquals(expected, result.intervalReadings());
+        assertEquals(expected, readings(run));
+        assertEquals(committed, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM interval_readings r "
+            + "JOIN interval_blocks b ON r.interval_block_id = b.id WHERE b.self_link_href LIKE ? AND r.reading_value = ?",
+            Long.class, "%/" + run + "/%", MARK));
+        assertEquals(USAGE_POINTS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meter_readings "
+            + "WHERE self_link_href LIKE ? AND usage_point_id IS NOT NULL AND reading_type_id IS NOT NULL",
+            Long.class, "%/" + run + "/%"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM interval_blocks "
+            + "WHERE self_link_href LIKE ? AND meter_reading_id IS NULL", Long.class, "%/" + run + "/%"));
+        assertEquals(0, checkpoints(jobId));
+    }
+
+    private DtoImportServiceImpl createService(PartitionedImportExecutor executor) {
+        return new DtoImportServiceImpl(usagePointRepository, meterReadingRepository, readingTypeRepository,
+            intervalBlockImportRepository, new ImportCheckpointRepository(jdbcTemplate, CHECKPOINT_INTERVAL),
+            intervalRollupRepository, usagePointMapper, meterReadingMapper, readingTypeMapper, dtoJaxbContext,
+            espiSchemaValidation, espiIdGeneratorService, executor, transactionManager);
+    }
+
+    private long readings(String run) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM interval_readings r "
+            + "JOIN interval_blocks b ON r.interval_block_id = b.id WHERE b.self_link_href LIKE ?",
+            Long.class, "%/" + run + "/%");
+    }
+
+    private long checkpoints(UUID jobId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM import_checkpoints WHERE job_id = ?",
+            Long.class, jobId.toString());
+    }
+
+    /**
+     * Cuts the feed two thirds in, so that its end is malformed.
+     */
+    private static ByteArrayInputStream truncated(byte[] feed) {
+        return new ByteArrayInputStream(Arrays.copyOf(feed, feed.length * 2 / 3));
+    }
+
+    /**
+     * Generates a feed whose hrefs, and so IDs, are those of one test.
+     */
+    private byte[] createFeed(String run) throws Exception {
+        String base = "/espi/1_1/resource";
+        String readingTypeHref = base + "/" + run + "/ReadingType/1";
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:" + run, "Usage Points", published, null);
+            feedWriter.writeEntry(entry(readingTypeHref, base + "/" + run + "/ReadingType", null,
+                new ReadingTypeDto(null, null, "Energy Delivered (kWh)")));
+
+            for (int u = 0; u < USAGE_POINTS; u++) {
+                String usagePointHref = base + "/RetailCustomer/" + run + "/UsagePoint/" + u;
+                UsagePointDto usagePoint = new UsagePointDto();
+                usagePoint.setDescription("Usage Point " + u);
+                feedWriter.writeEntry(entry(usagePointHref, base + "/RetailCustomer/" + run + "/UsagePoint", null, usagePoint));
+
+                String meterReadingHref = usagePointHref + "/MeterReading/1";
+                feedWriter.writeEntry(entry(meterReadingHref, usagePointHref + "/MeterReading", readingTypeHref,
+                    new MeterReadingDto()));
+
+                for (int b = 0; b < BLOCKS_PER_USAGE_POINT; b++) {
+                    feedWriter.writeEntry(entry(meterReadingHref + "/IntervalBlock/" + b,
+                        meterReadingHref + "/IntervalBlock", null, createBlock(b)));
+                }
+            }
+            feedWriter.writeEndFeed();
+        }
+        return out.toByteArray();
+    }
+
+    private static AtomEntryDto entry(String selfHref, String upHref, String relatedHref, Object resource) {
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(selfHref));
+        links.add(LinkDto.up(upHref));
+        if (relatedHref != null) {
+            links.add(LinkDto.related(relatedHref));
+        }
+        String id = "urn:uuid:" + UUID.nameUUIDFromBytes(selfHref.getBytes(StandardCharsets.UTF_8));
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        return new AtomEntryDto(id, selfHref, published, published, links, new AtomContentDto(resource));
+    }
+
+    private static IntervalBlockDto createBlock(int day) {
+        long dayStart = 1_700_000_000L + day * 86_400L;
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, (long) i * 3, null,
+                (long) (day * 7 + i * 17), new DateTimeIntervalDto(dayStart + i * 21_600L, 21_600L),
+                null, null, null, null));
+        }
+        return new IntervalBlockDto(null, new DateTimeIntervalDto(dayStart, 86_400L), readings);
+    }
+
+    @FunctionalInterface
+    private interface CommittedReadings {
+        long count(UUID jobId);
+    }
+}
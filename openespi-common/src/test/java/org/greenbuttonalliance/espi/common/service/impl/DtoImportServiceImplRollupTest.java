@@ -0,0 +1,288 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingTypeDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.mapper.usage.MeterReadingMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.ReadingTypeMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
+import org.greenbuttonalliance.espi.common.repositories.usage.ImportCheckpointRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Granularity;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Rollup;
+import org.greenbuttonalliance.espi.common.repositories.usage.MeterReadingRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.ReadingTypeRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.EspiIdGeneratorService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedWriter;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
+import org.greenbuttonalliance.espi.common.utils.persistence.UuidKeyType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the interval rollups maintained by imports.
+ * <p>
+ * Two meter readings of one usage point, sharing a reading type, each get
+ * three daily blocks of hourly readings across a month end. The second
+ * meter reading reads twice the first.
+ */
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test")
+@DisplayName("DTO Import Rollup Tests")
+class DtoImportServiceImplRollupTest {
+
+    private static final int METER_READINGS = 2;
+    private static final int DAYS = 3;
+    private static final int READINGS_PER_BLOCK = 24;
+    private static final long COST = 10L;
+    private static final OffsetDateTime FIRST_DAY = OffsetDateTime.parse("2025-01-30T00:00:00Z");
+    private static final OffsetDateTime END = FIRST_DAY.plusDays(DAYS);
+
+    @Autowired private UsagePointRepository usagePointRepository;
+    @Autowired private MeterReadingRepository meterReadingRepository;
+    @Autowired private ReadingTypeRepository readingTypeRepository;
+    @Autowired private IntervalBlockImportRepository intervalBlockImportRepository;
+    @Autowired private UsagePointMapper usagePointMapper;
+    @Autowired private MeterReadingMapper meterReadingMapper;
+    @Autowired private ReadingTypeMapper readingTypeMapper;
+    @Autowired private DtoJaxbContext dtoJaxbContext;
+    @Autowired private EspiSchemaValidation espiSchemaValidation;
+    @Autowired private EspiIdGeneratorService espiIdGeneratorService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UuidKeyType uuidKeyType;
+
+    @Test
+    @DisplayName("Should roll up imported readings by hour, day and month, per meter reading and usage point")
+    void shouldRollUpImportedReadings() throws Exception {
+        String run = UUID.randomUUID().toString();
+        IntervalRollupRepository rollups = new IntervalRollupRepository(jdbcTemplate, uuidKeyType, true);
+        importFeed(rollups, run, 1);
+
+        UUID meterReadingId = meterReadingId(run, 0);
+        List<Rollup> days = rollups.findByMeterReading(meterReadingId, Granularity.DAY, start(), end());
+        assertEquals(List.of(
+            new Rollup(epoch(FIRST_DAY), 24, 300L, 1L, 24L, 240L),
+            new Rollup(epoch(FIRST_DAY.plusDays(1)), 24, 300L, 1L, 24L, 240L),
+            new Rollup(epoch(FIRST_DAY.plusDays(2)), 24, 300L, 1L, 24L, 240L)), days);
+        assertEquals(DAYS * READINGS_PER_BLOCK,
+            rollups.findByMeterReading(meterReadingId, Granularity.HOUR, start(), end()).size());
+        assertEquals(List.of(
+                new Rollup(epoch(OffsetDateTime.parse("2025-01-01T00:00:00Z")), 48, 600L, 1L, 24L, 480L),
+                new Rollup(epoch(OffsetDateTime.parse("2025-02-01T00:00:00Z")), 24, 300L, 1L, 24L, 240L)),
+            rollups.findByMeterReading(meterReadingId, Granularity.MONTH, 0L, Long.MAX_VALUE));
+
+        UUID usagePointId = usagePointId(run);
+        UUID readingTypeId = readingTypeId(meterReadingId);
+        assertEquals(new Rollup(epoch(FIRST_DAY), 48, 900L, 1L, 48L, 480L),
+            rollups.findByUsagePoint(usagePointId, readingTypeId, Granularity.DAY, start(), end()).get(0));
+
+        // 23 hours of the first day, then two whole days
+        assertEquals(new Rollup(start() + 3_600L, 71, 899L, 2L, 24L, 710L),
+            rollups.totalByMeterReading(meterReadingId, start() + 3_600L, end()));
+        assertThrows(IllegalArgumentException.class,
+            () -> rollups.totalByMeterReading(meterReadingId, start() + 60L, end()));
+    }
+
+    @Test
+    @DisplayName("Should replace the rollups of re-imported readings")
+    void shouldReplaceRollupsOfReimportedReadings() throws Exception {
+        String run = UUID.randomUUID().toString();
+        IntervalRollupRepository rollups = new IntervalRollupRepository(jdbcTemplate, uuidKeyType, true);
+        importFeed(rollups, run, 1);
+        importFeed(rollups, run, 2);
+
+        UUID meterReadingId = meterReadingId(run, 0);
+        long secondDay = epoch(FIRST_DAY.plusDays(1));
+        assertEquals(new Rollup(secondDay, 24, 600L, 2L, 48L, 240L),
+            rollups.findByMeterReading(meterReadingId, Granularity.DAY, secondDay, secondDay + 86_400L).get(0));
+        assertEquals(DAYS * READINGS_PER_BLOCK,
+            rollups.findByMeterReading(meterReadingId, Granularity.HOUR, start(), end()).size());
+        assertEquals(900L, rollups.findByMeterReading(meterReadingId, Granularity.MONTH, 0L, Long.MAX_VALUE)
+            .get(0).valueSum());
+        assertEquals(new Rollup(secondDay, 48, 1_800L, 2L, 96L, 480L), rollups.findByUsagePoint(usagePointId(run),
+            readingTypeId(meterReadingId), Granularity.DAY, secondDay, secondDay + 86_400L).get(0));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollups of a meter reading from its interval data")
+    void shouldRebuildRollups() throws Exception {
+        String run = UUID.randomUUID().toString();
+        importFeed(new IntervalRollupRepository(jdbcTemplate, uuidKeyType, false), run, 1);
+        IntervalRollupRepository rollups = new IntervalRollupRepository(jdbcTemplate, uuidKeyType, true);
+
+        UUID meterReadingId = meterReadingId(run, 0);
+        assertTrue(rollups.findByMeterReading(meterReadingId, Granularity.DAY, start(), end()).isEmpty(),
+            "rollups were maintained while disabled");
+        assertTrue(rollups.findMeterReadingIds().contains(meterReadingId));
+
+        rollups.rebuild(meterReadingId);
+
+        assertEquals(DAYS, rollups.findByMeterReading(meterReadingId, Granularity.DAY, start(), end()).size());
+        assertEquals(new Rollup(start(), DAYS * READINGS_PER_BLOCK, 900L, 1L, 24L, 720L),
+            rollups.totalByMeterReading(meterReadingId, start(), end()));
+    }
+
+    @Test
+    @DisplayName("Should add up the meter readings of a usage point imported by concurrent partitions")
+    void shouldRollUpUsagePointAcrossPartitions() throws Exception {
+        String run = UUID.randomUUID().toString();
+        // Hrefs that do not name the usage point put each meter reading in a partition of its own
+        String usagePointHref = "/espi/1_1/resource/Point/" + run;
+        IntervalRollupRepository rollups = new IntervalRollupRepository(jdbcTemplate, uuidKeyType, true);
+        importFeed(rollups, new PartitionedImportExecutor(true, METER_READINGS, 1), createFeed(run, usagePointHref, 1));
+
+        UUID usagePointId = UUID.nameUUIDFromBytes(usagePointHref.getBytes(StandardCharsets.UTF_8));
+        UUID readingTypeId = readingTypeId(UUID.nameUUIDFromBytes((usagePointHref + "/MeterReading/0")
+            .getBytes(StandardCharsets.UTF_8)));
+        assertEquals(new Rollup(start(), METER_READINGS * DAYS * READINGS_PER_BLOCK, 2_700L, 1L, 48L, 1_440L),
+            rollups.totalByUsagePoint(usagePointId, readingTypeId, start(), end()));
+        assertEquals(DAYS * READINGS_PER_BLOCK,
+            rollups.findByUsagePoint(usagePointId, readingTypeId, Granularity.HOUR, start(), end()).size());
+    }
+
+    private void importFeed(IntervalRollupRepository rollups, String run, long secondDayFactor) throws Exception {
+        importFeed(rollups, new PartitionedImportExecutor(false, 0, 10),
+            createFeed(run, usagePointHref(run), secondDayFactor));
+    }
+
+    private void importFeed(IntervalRollupRepository rollups, PartitionedImportExecutor executor, byte[] feed)
+            throws Exception {
+        try {
+            new DtoImportServiceImpl(usagePointRepository, meterReadingRepository, readingTypeRepository,
+                intervalBlockImportRepository, new ImportCheckpointRepository(jdbcTemplate, 0), rollups,
+                usagePointMapper, meterReadingMapper, readingTypeMapper, dtoJaxbContext, espiSchemaValidation,
+                espiIdGeneratorService, executor, transactionManager)
+                .importFeed(new ByteArrayInputStream(feed));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private UUID readingTypeId(UUID meterReadingId) {
+        return uuidKeyType.read(jdbcTemplate.queryForObject("SELECT reading_type_id FROM meter_readings WHERE id = ?",
+            Object.class, uuidKeyType.bind(meterReadingId)));
+    }
+
+    private static UUID usagePointId(String run) {
+        return UUID.nameUUIDFromBytes(usagePointHref(run).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UUID meterReadingId(String run, int m) {
+        return UUID.nameUUIDFromBytes((usagePointHref(run) + "/MeterReading/" + m).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String usagePointHref(String run) {
+        return "/espi/1_1/resource/RetailCustomer/" + run + "/UsagePoint/1";
+    }
+
+    private static long start() {
+        return epoch(FIRST_DAY);
+    }
+
+    private static long end() {
+        return epoch(END);
+    }
+
+    private static long epoch(OffsetDateTime dateTime) {
+        return dateTime.toEpochSecond();
+    }
+
+    private byte[] createFeed(String run, String usagePointHref, long secondDayFactor) throws Exception {
+        String base = "/espi/1_1/resource";
+        String readingTypeHref = base + "/" + run + "/ReadingType/1";
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:" + run, "Usage Points", published, null);
+            feedWriter.writeEntry(entry(readingTypeHref, base + "/" + run + "/ReadingType", null,
+                new ReadingTypeDto(null, null, "Energy Delivered (kWh)")));
+            UsagePointDto usagePoint = new UsagePointDto();
+            usagePoint.setDescription("Usage Point " + run);
+            feedWriter.writeEntry(entry(usagePointHref, usagePointHref.substring(0, usagePointHref.lastIndexOf('/')),
+                null, usagePoint));
+
+            for (int m = 0; m < METER_READINGS; m++) {
+                String meterReadingHref = usagePointHref + "/MeterReading/" + m;
+                feedWriter.writeEntry(entry(meterReadingHref, usagePointHref + "/MeterReading", readingTypeHref,
+                    new MeterReadingDto()));
+                for (int d = 0; d < DAYS; d++) {
+                    feedWriter.writeEntry(entry(meterReadingHref + "/IntervalBlock/" + d,
+                        meterReadingHref + "/IntervalBlock", null,
+                        createBlock(d, (m + 1) * (d == 1 ? secondDayFactor : 1))));
+                }
+            }
+            feedWriter.writeEndFeed();
+        }
+        return out.toByteArray();
+    }
+
+    private static AtomEntryDto entry(String selfHref, String upHref, String relatedHref, Object resource) {
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(selfHref));
+        links.add(LinkDto.up(upHref));
+        if (relatedHref != null) {
+            links.add(LinkDto.related(relatedHref));
+        }
+        String id = "urn:uuid:" + UUID.nameUUIDFromBytes(selfHref.getBytes(StandardCharsets.UTF_8));
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        return new AtomEntryDto(id, selfHref, published, published, links, new AtomContentDto(resource));
+    }
+
+    /**
+     * Hourly readings of one day, valued 1 to 24 times a scale.
+     */
+    private static IntervalBlockDto createBlock(int day, long scale) {
+        long dayStart = epoch(FIRST_DAY.plusDays(day));
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, COST, null,
+                scale * (i + 1), new DateTimeIntervalDto(dayStart + i * 3_600L, 3_600L), null, null, null, null));
+        }
+        return new IntervalBlockDto(null, new DateTimeIntervalDto(dayStart, 86_400L), readings);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingTypeDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockExportRepository;
+import org.greenbuttonalliance.espi.common.service.DtoImportService;
+import org.greenbuttonalliance.espi.common.service.DtoImportService.ImportResult;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedWriter;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming DTO import service against the H2 test database.
+ */
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test")
+@DisplayName("DTO Import Service Tests")
+class DtoImportServiceImplTest {
+
+    private static final int USAGE_POINTS = 5;
+    private static final int BLOCKS = 3;
+    private static final int READINGS_PER_BLOCK = 4;
+
+    @Autowired private DtoImportService dtoImportService;
+    @Autowired private DtoJaxbContext dtoJaxbContext;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private IntervalBlockExportRepository intervalBlockExportRepository;
+
+    @Test
+    @DisplayName("Should store reading types defined alike once and link every meter reading to it")
+    void shouldShareIdenticalReadingTypes() throws Exception {
+        String run = UUID.randomUUID().toString();
+        String base = "/espi/1_1/resource/RetailCustomer/" + run + "/UsagePoint";
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:" + run, "Usage Points", published, null);
+            for (int u = 0; u < USAGE_POINTS; u++) {
+                // Every meter reading comes with a reading type of its own, all defined alike
+                String readingTypeHref = "/espi/1_1/resource/" + run + "/ReadingType/" + u;
+                feedWriter.writeEntry(entry(readingTypeHref, "/espi/1_1/resource/" + run + "/ReadingType", null,
+                    new ReadingTypeDto(null, null, "Energy Delivered (kWh)", "ELECTRICITY", "ENERGY", "WH")));
+
+                String usagePointHref = base + "/" + u;
+                UsagePointDto usagePoint = new UsagePointDto();
+                usagePoint.setDescription("Usage Point " + u);
+                feedWriter.writeEntry(entry(usagePointHref, base, null, usagePoint));
+                feedWriter.writeEntry(entry(usagePointHref + "/MeterReading/1", usagePointHref + "/MeterReading",
+                    readingTypeHref, new MeterReadingDto()));
+            }
+            feedWriter.writeEndFeed();
+        }
+
+        ImportResult result = dtoImportService.importFeed(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(USAGE_POINTS * 3, result.entries());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reading_types WHERE self_link_href LIKE ?",
+            Long.class, "%/" + run + "/%"));
+        String firstReadingType = UUID.nameUUIDFromBytes(("/espi/1_1/resource/" + run + "/ReadingType/0")
+            .getBytes(StandardCharsets.UTF_8)).toString();
+        assertEquals(List.of(firstReadingType), jdbcTemplate.queryForList("SELECT DISTINCT reading_type_id "
+            + "FROM meter_readings WHERE self_link_href LIKE ?", String.class, "%/" + run + "/%"));
+    }
+
+    @Test
+    @DisplayName("Should derive the same IDs for entries without id or self link when a feed is imported again")
+    void shouldDeriveSameIdsOnReplay() throws Exception {
+        String run = UUID.randomUUID().toString();
+        String base = "/espi/1_1/resource/RetailCustomer/" + run + "/UsagePoint";
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:" + run, "Usage Points", published, null);
+            for (int u = 0; u < USAGE_POINTS; u++) {
+                UsagePointDto usagePoint = new UsagePointDto();
+                usagePoint.setDescription("Usage Point " + u);
+                feedWriter.writeEntry(new AtomEntryDto(null, "Usage Point " + u, published, published,
+                    List.of(LinkDto.up(base)), new AtomContentDto(usagePoint)));
+            }
+            feedWriter.writeEndFeed();
+        }
+
+        dtoImportService.importFeed(new ByteArrayInputStream(out.toByteArray()));
+        List<String> imported = jdbcTemplate.queryForList("SELECT id FROM usage_points WHERE up_link_href = ? "
+            + "ORDER BY description", String.class, base);
+        dtoImportService.importFeed(new ByteArrayInputStream(out.toByteArray()));
+        List<String> replayed = jdbcTemplate.queryForList("SELECT id FROM usage_points WHERE up_link_href = ? "
+            + "ORDER BY description", String.class, base);
+
+        assertEquals(USAGE_POINTS, imported.size());
+        assertEquals(imported, replayed);
+    }
+
+    @Test
+    @DisplayName("Should import blocks read before their meter reading again without duplicating them")
+    void shouldReplayBlocksReadBeforeTheirMeterReading() throws Exception {
+        String run = UUID.randomUUID().toString();
+
+        dtoImportService.importFeed(intervalFeed(run, false, READINGS_PER_BLOCK, 0));
+        dtoImportService.importFeed(intervalFeed(run, false, READINGS_PER_BLOCK, 0));
+        List<String> blockIds = blockIds(run);
+        // The meter reading now comes first, so the blocks are written with it
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK, 0));
+
+        assertEquals(BLOCKS, blockIds.size());
+        assertEquals(blockIds, blockIds(run));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM interval_blocks "
+            + "WHERE self_link_href LIKE ? AND meter_reading_id IS NULL", Long.class, "%/" + run + "/%"));
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, readings(run));
+    }
+
+    @Test
+    @DisplayName("Should update blocks stored under other IDs on their meter reading and start")
+    void shouldUpdateBlocksStoredUnderOtherIds() throws Exception {
+        String run = UUID.randomUUID().toString();
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK, 0));
+        jdbcTemplate.update("DELETE FROM interval_readings WHERE interval_block_id IN "
+            + "(SELECT id FROM interval_blocks WHERE self_link_href LIKE ?)", "%/" + run + "/%");
+        for (String blockId : blockIds(run)) {
+            UUID storedId = UUID.randomUUID();
+            jdbcTemplate.update("UPDATE interval_blocks SET id = ?, uuid = ? WHERE id = ?",
+                storedId.toString(), storedId.toString(), blockId);
+        }
+        List<String> storedIds = blockIds(run);
+
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK, 0));
+
+        assertEquals(storedIds, blockIds(run));
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, readings(run));
+    }
+
+    @Test
+    @DisplayName("Should touch blocks whose readings an import changed, so that cached renderings go stale")
+    void shouldTouchReimportedBlocks() throws Exception {
+        String run = UUID.randomUUID().toString();
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK, 0));
+        List<UUID> usagePointIds = List.of(UUID.fromString(jdbcTemplate.queryForObject(
+            "SELECT id FROM usage_points WHERE self_link_href LIKE ?", String.class, "%/" + run + "/%")));
+        Timestamp updated = lastUpdated(run);
+        String watermark = intervalBlockExportRepository.findWatermarkByUsagePointIds(usagePointIds);
+
+        Thread.sleep(10);
+        // The entries keep their updated times; only a reading value changes
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK, 1));
+
+        assertTrue(lastUpdated(run).after(updated));
+        assertNotEquals(watermark, intervalBlockExportRepository.findWatermarkByUsagePointIds(usagePointIds));
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, readings(run));
+    }
+
+    @Test
+    @DisplayName("Should drop the readings left out of a block imported again")
+    void shouldDropReadingsLeftOutOfReimportedBlocks() throws Exception {
+        String run = UUID.randomUUID().toString();
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK, 0));
+        assertEquals(BLOCKS * READINGS_PER_BLOCK, readings(run));
+
+        dtoImportService.importFeed(intervalFeed(run, true, READINGS_PER_BLOCK - 1, 0));
+
+        assertEquals(BLOCKS * (READINGS_PER_BLOCK - 1), readings(run));
+    }
+
+    /**
+     * Generates a feed of one usage point with a meter reading and its
+     * blocks, the meter reading written before or after the blocks.
+     */
+    private ByteArrayInputStream intervalFeed(String run, boolean meterReadingFirst, int readingsPerBlock,
+                                              long valueOffset) throws Exception {
+        String base = "/espi/1_1/resource/RetailCustomer/" + run + "/UsagePoint";
+        String usagePointHref = base + "/1";
+        String meterReadingHref = usagePointHref + "/MeterReading/1";
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:" + run, "Usage Points", published, null);
+            UsagePointDto usagePoint = new UsagePointDto();
+            usagePoint.setDescription("Usage Point " + run);
+            feedWriter.writeEntry(entry(usagePointHref, base, null, usagePoint));
+            AtomEntryDto meterReading = entry(meterReadingHref, usagePointHref + "/MeterReading", null,
+                new MeterReadingDto());
+            if (meterReadingFirst) {
+                feedWriter.writeEntry(meterReading);
+            }
+            for (int b = 0; b < BLOCKS; b++) {
+                long dayStart = 1_700_000_000L + b * 86_400L;
+                List<IntervalReadingDto> readings = new ArrayList<>();
+                for (int i = 0; i < readingsPerBlock; i++) {
+                    readings.add(new IntervalReadingDto(null, b * 10L + i + valueOffset,
+                        new DateTimeIntervalDto(dayStart + i * 3_600L, 3_600L)));
+                }
+                feedWriter.writeEntry(entry(meterReadingHref + "/IntervalBlock/" + b,
+                    meterReadingHref + "/IntervalBlock", null,
+                    new IntervalBlockDto(null, new DateTimeIntervalDto(dayStart, 86_400L), readings)));
+            }
+            if (!meterReadingFirst) {
+                feedWriter.writeEntry(meterReading);
+            }
+            feedWriter.writeEndFeed();
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private List<String> blockIds(String run) {
+        return jdbcTemplate.queryForList("SELECT id FROM interval_blocks WHERE self_link_href LIKE ? ORDER BY id",
+            String.class, "%/" + run + "/%");
+    }
+
+    private long readings(String run) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM interval_readings r "
+            + "JOIN interval_blocks b ON r.interval_block_id = b.id WHERE b.self_link_href LIKE ?",
+            Long.class, "%/" + run + "/%");
+    }
+
+    private Timestamp lastUpdated(String run) {
+        return jdbcTemplate.queryForObject("SELECT MAX(updated) FROM interval_blocks WHERE self_link_href LIKE ?",
+            Timestamp.class, "%/" + run + "/%");
+    }
+
+    private static AtomEntryDto entry(String selfHref, String upHref, String relatedHref, Object resource) {
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(selfHref));
+        links.add(LinkDto.up(upHref));
+        if (relatedHref != null) {
+            links.add(LinkDto.related(relatedHref));
+        }
+        String id = "urn:uuid:" + UUID.nameUUIDFromBytes(selfHref.getBytes(StandardCharsets.UTF_8));
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        return new AtomEntryDto(id, selfHref, published, published, links, new AtomContentDto(resource));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.service.DtoImportService;
+import org.greenbuttonalliance.espi.common.service.ImportJobService.ImportJobStatus;
+import org.greenbuttonalliance.espi.common.service.ImportJobService.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the asynchronous import job service.
+ */
+@DisplayName("Import Job Service Tests")
+class ImportJobServiceImplTest {
+
+    private static final String FEED = "<feed xmlns=\"http://www.w3.org/2005/Atom\"/>";
+
+    @TempDir
+    Path spoolDirectory;
+
+    private ImportJobServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should import a spooled upload and report its counts")
+    void shouldRunJob() throws Exception {
+        service = new ImportJobServiceImpl(new FakeImportService(null, null), spoolDirectory, 1, 4, 10);
+
+        ImportJobStatus queued = service.submit("usage.xml", upload());
+        ImportJobStatus finished = awaitFinished(queued);
+
+        assertEquals(State.SUCCEEDED, finished.state());
+        assertEquals("usage.xml", finished.fileName());
+        assertEquals(FEED.length(), finished.size());
+        assertEquals(FEED.length(), finished.bytesParsed());
+        assertEquals(3, finished.entries());
+        assertEquals(96, finished.intervalReadings());
+        assertNull(finished.error());
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    @DisplayName("Should report the error of a failed import")
+    void shouldReportFailure() throws Exception {
+        service = new ImportJobServiceImpl(new FakeImportService(null, new IOException("Malformed feed")),
+            spoolDirectory, 1, 4, 10);
+
+        ImportJobStatus finished = awaitFinished(service.submit("broken.xml", upload()));
+
+        assertEquals(State.FAILED, finished.state());
+        assertEquals("Malformed feed", finished.error());
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    @DisplayName("Should reject uploads once the queue is full")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        service = new ImportJobServiceImpl(new FakeImportService(release, null), spoolDirectory, 1, 1, 10);
+
+        ImportJobStatus running = service.submit("first.xml", upload());
+        awaitState(running, State.RUNNING);
+        service.submit("second.xml", upload());
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit("third.xml", upload()));
+        assertEquals(2, service.findAll().size());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should queue spooled uploads left by a previous run")
+    void shouldRecoverSpooledUploads() throws Exception {
+        Path spooled = spoolDirectory.resolve("6ba7b810-9dad-11d1-80b4-00c04fd430c8.xml");
+        Files.writeString(spooled, FEED);
+        Files.writeString(spoolDirectory.resolve("partial.tmp"), "partial");
+        service = new ImportJobServiceImpl(new FakeImportService(null, null), spoolDirectory, 1, 4, 10);
+
+        service.recoverSpooledJobs();
+
+        ImportJobStatus recovered = service.findAll().get(0);
+        assertEquals(State.SUCCEEDED, awaitFinished(recovered).state());
+        assertEquals(0, spooledFiles());
+    }
+
+    private ImportJobStatus awaitFinished(ImportJobStatus job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ImportJobStatus status = service.findById(job.id()).orElseThrow();
+            if (status.finished() != null) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import job did not finish");
+    }
+
+    private void awaitState(ImportJobStatus job, State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.findById(job.id()).orElseThrow().state() != state) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Import job did not reach " + state);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private long spooledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static InputStream upload() {
+        return new ByteArrayInputStream(FEED.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the whole document and reports fixed counts, optionally waiting
+     * for a latch or failing.
+     */
+    private record FakeImportService(CountDownLatch release, IOException failure) implements DtoImportService {
+
+        @Override
+        public ImportResult importFeed(InputStream stream) throws IOException {
+            return importFeed(stream, (entries, intervalBlocks, intervalReadings) -> { });
+        }
+
+        @Override
+        public ImportResult importFeed(InputStream stream, ImportListener listener) throws IOException {
+            return importFeed(stream, listener, null);
+        }
+
+        @Override
+        public void discardCheckpoints(UUID jobId) {
+        }
+
+        @Override
+        public ImportResult importFeed(InputStream stream, ImportListener listener, UUID jobId) throws IOException {
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            stream.readAllBytes();
+            if (failure != null) {
+                throw failure;
+            }
+            listener.progress(3, 1, 96);
+            return new ImportResult(3, 0, 1, 96, 5);
+        }
+    }
+}
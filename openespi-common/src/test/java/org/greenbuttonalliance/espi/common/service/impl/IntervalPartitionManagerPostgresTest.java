@@ -0,0 +1,162 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository.ImportedBlock;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalReadingPartitionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Maintains the monthly {@code interval_readings} partitions of a PostgreSQL
+ * Test Container at a fixed date.
+ */
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test-postgres")
+@Testcontainers
+@DisplayName("Interval Partition Manager PostgreSQL Tests")
+class IntervalPartitionManagerPostgresTest {
+
+    private static final int READINGS_PER_BLOCK = 96;
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-15T00:00:00Z"), ZoneOffset.UTC);
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("openespi_test")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration,classpath:db/vendor/postgres");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private IntervalReadingPartitionRepository partitionRepository;
+
+    @Autowired
+    private IntervalBlockImportRepository intervalBlockImportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should create months ahead, move default readings, and drop expired months and blocks")
+    void shouldMaintainPartitions() {
+        UUID meterReadingId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO meter_readings (id, uuid, created, updated) VALUES (?, ?, ?, ?)",
+            meterReadingId.toString(), meterReadingId.toString(), LocalDateTime.now(), LocalDateTime.now());
+        importBlocks(meterReadingId, YearMonth.of(2024, 1), YearMonth.of(2025, 3), YearMonth.of(2025, 7));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            partitionRepository.createPartition(YearMonth.of(2024, 1)));
+
+        assertTrue(partitionRepository.isPartitioned());
+        assertEquals(READINGS_PER_BLOCK * 2L, count("interval_readings_default", meterReadingId));
+        assertEquals(READINGS_PER_BLOCK, count("interval_readings_202401", meterReadingId));
+
+        IntervalPartitionManager manager =
+            new IntervalPartitionManager(partitionRepository, transactionManager, 2, 12, false, CLOCK);
+        IntervalPartitionManager.Maintenance maintenance = manager.maintain();
+
+        assertTrue(partitionRepository.findPartitionMonths().containsAll(List.of(YearMonth.of(2025, 3),
+            YearMonth.of(2025, 6), YearMonth.of(2025, 7), YearMonth.of(2025, 8))));
+        assertEquals(List.of(YearMonth.of(2024, 1)), maintenance.removed());
+        assertFalse(partitionRepository.findPartitionMonths().contains(YearMonth.of(2024, 1)));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('interval_readings_202401')::text", String.class));
+
+        assertEquals(0L, count("interval_readings_default", meterReadingId));
+        assertEquals(READINGS_PER_BLOCK, count("interval_readings_202503", meterReadingId));
+        assertEquals(READINGS_PER_BLOCK, count("interval_readings_202507", meterReadingId));
+        assertEquals(2L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM interval_blocks WHERE meter_reading_id = ?", Long.class, meterReadingId.toString()));
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+            "EXPLAIN SELECT * FROM interval_readings " +
+            "WHERE time_period_start >= 1740787200 AND time_period_start < 1743465600", String.class));
+        assertTrue(plan.contains("interval_readings_202503"), plan);
+        assertFalse(plan.contains("interval_readings_202507"), plan);
+        assertFalse(plan.contains("interval_readings_default"), plan);
+    }
+
+    private void importBlocks(UUID meterReadingId, YearMonth... months) {
+        String meterReadingHref = "MeterReading/" + meterReadingId;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (IntervalBlockImportRepository.Batch batch = intervalBlockImportRepository.openBatch()) {
+                for (YearMonth month : months) {
+                    IntervalBlockDto block = createBlock(month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC));
+                    batch.add(new ImportedBlock(IntervalBlockImportRepository.blockId(meterReadingHref, block),
+                        meterReadingId, null, null, LocalDateTime.now(), LocalDateTime.now(), block));
+                }
+            }
+        });
+    }
+
+    private long count(String table, UUID meterReadingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE interval_block_id IN " +
+            "(SELECT id FROM interval_blocks WHERE meter_reading_id = ?)", Long.class, meterReadingId.toString());
+    }
+
+    private static IntervalBlockDto createBlock(long dayStart) {
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, (long) i, null,
+                (long) i, new DateTimeIntervalDto(dayStart + i * 900L, 900L),
+                List.of(new ReadingQualityDto(null, "0")), null, null, null));
+        }
+        return new IntervalBlockDto(null, new DateTimeIntervalDto(dayStart, 86_400L), readings);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository;
+import org.greenbuttonalliance.espi.common.service.IntervalRollupService.RebuildJobStatus;
+import org.greenbuttonalliance.espi.common.service.IntervalRollupService.RebuildState;
+import org.greenbuttonalliance.espi.common.utils.persistence.UuidKeyType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the background rollup rebuild jobs.
+ */
+@DisplayName("Interval Rollup Service Tests")
+class IntervalRollupServiceImplTest {
+
+    private static final List<UUID> METER_READINGS = IntStream.range(0, 3).mapToObj(i -> UUID.randomUUID()).toList();
+
+    private IntervalRollupServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild every meter reading in the background and report the counts")
+    void shouldRunRebuildJob() throws Exception {
+        FakeRollupRepository repository = new FakeRollupRepository(null, null);
+        service = new IntervalRollupServiceImpl(repository, new FakeTransactionManager(), 10);
+
+        RebuildJobStatus submitted = service.submitRebuild();
+        RebuildJobStatus finished = awaitFinished(submitted);
+
+        assertEquals(RebuildState.SUCCEEDED, finished.state());
+        assertEquals(3, finished.meterReadings());
+        assertEquals(3, finished.rebuilt());
+        assertNull(finished.error());
+        assertEquals(Set.copyOf(METER_READINGS), repository.rebuilt);
+    }
+
+    @Test
+    @DisplayName("Should report the error of a failed rebuild")
+    void shouldReportFailure() throws Exception {
+        service = new IntervalRollupServiceImpl(
+            new FakeRollupRepository(null, new IllegalStateException("Rollup table missing")),
+            new FakeTransactionManager(), 10);
+
+        RebuildJobStatus finished = awaitFinished(service.submitRebuild());
+
+        assertEquals(RebuildState.FAILED, finished.state());
+        assertEquals("Rollup table missing", finished.error());
+    }
+
+    @Test
+    @DisplayName("Should reject a rebuild while another one runs")
+    void shouldRejectConcurrentRebuild() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        service = new IntervalRollupServiceImpl(new FakeRollupRepository(release, null),
+            new FakeTransactionManager(), 10);
+
+        RebuildJobStatus running = service.submitRebuild();
+        awaitState(running, RebuildState.RUNNING);
+
+        assertThrows(RejectedExecutionException.class, () -> service.submitRebuild());
+        release.countDown();
+        assertEquals(RebuildState.SUCCEEDED, awaitFinished(running).state());
+    }
+
+    @Test
+    @DisplayName("Should stop a cancelled rebuild after the current meter reading")
+    void shouldCancelRebuild() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FakeRollupRepository repository = new FakeRollupRepository(release, null);
+        service = new IntervalRollupServiceImpl(repository, new FakeTransactionManager(), 10);
+
+        RebuildJobStatus running = service.submitRebuild();
+        awaitState(running, RebuildState.RUNNING);
+        assertTrue(service.cancelRebuild(running.id()).isPresent());
+        release.countDown();
+
+        RebuildJobStatus finished = awaitFinished(running);
+        assertEquals(RebuildState.CANCELLED, finished.state());
+        assertEquals(1, finished.rebuilt());
+        assertEquals(1, repository.rebuilt.size());
+        assertTrue(service.cancelRebuild(UUID.randomUUID()).isEmpty());
+        assertTrue(service.findRebuildJob(UUID.randomUUID()).isEmpty());
+    }
+
+    private RebuildJobStatus awaitFinished(RebuildJobStatus job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            RebuildJobStatus status = service.findRebuildJob(job.id()).orElseThrow();
+            if (status.finished() != null) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Rebuild job did not finish");
+    }
+
+    private void awaitState(RebuildJobStatus job, RebuildState state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.findRebuildJob(job.id()).orElseThrow().state() != state) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Rebuild job did not reach " + state);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Lists fixed meter readings and records the ones rebuilt, optionally
+     * waiting for a latch during the first rebuild or failing.
+     */
+    private static final class FakeRollupRepository extends IntervalRollupRepository {
+
+        private final CountDownLatch release;
+        private final RuntimeException failure;
+        private final Set<UUID> rebuilt = ConcurrentHashMap.newKeySet();
+
+        private FakeRollupRepository(CountDownLatch release, RuntimeException failure) {
+            super(null, UuidKeyType.CHAR, true);
+            this.release = release;
+            this.failure = failure;
+        }
+
+        @Override
+        public List<UUID> findMeterReadingIds() {
+            return METER_READINGS;
+        }
+
+        @Override
+        public void rebuild(UUID meterReadingId) {
+            if (failure != null) {
+                throw failure;
+            }
+            rebuilt.add(meterReadingId);
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs each transaction callback without a resource.
+     */
+    private static final class FakeTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.TestApplication;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingTypeDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.mapper.usage.MeterReadingMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.ReadingTypeMapper;
+import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
+import org.greenbuttonalliance.espi.common.repositories.usage.ImportCheckpointRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockImportRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.MeterReadingRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.ReadingTypeRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.DtoImportService.ImportResult;
+import org.greenbuttonalliance.espi.common.service.EspiIdGeneratorService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.AtomFeedWriter;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for imports partitioned by UsagePoint, run with the
+ * integration tests ({@code mvn verify}) against the H2 test database.
+ * <p>
+ * Imports a generated feed of usage points sharing one reading type, each with
+ * a meter reading of day-long interval blocks with 15-minute readings, first
+ * in a single transaction and then partitioned at increasing worker counts, up
+ * to the available processors or the connection pool size. Every run must
+ * store all readings and link every meter reading to its usage point and the
+ * shared reading type; the throughput figures are reported, not asserted. Set
+ * {@code -Despi.benchmark.usage-points} and
+ * {@code -Despi.benchmark.blocks-per-usage-point} to change the feed size.
+ */
+@Slf4j
+@SpringBootTest(classes = { TestApplication.class })
+@ActiveProfiles("test")
+@DisplayName("Parallel Import Benchmark")
+class ParallelImportBenchmarkIT {
+
+    private static final int USAGE_POINTS = Integer.getInteger("espi.benchmark.usage-points", 100);
+    private static final int BLOCKS_PER_USAGE_POINT = Integer.getInteger("espi.benchmark.blocks-per-usage-point", 20);
+    private static final int READINGS_PER_BLOCK = 96;
+    private static final int MAX_THREADS = 8;
+
+    @Autowired private UsagePointRepository usagePointRepository;
+    @Autowired private MeterReadingRepository meterReadingRepository;
+    @Autowired private ReadingTypeRepository readingTypeRepository;
+    @Autowired private IntervalBlockImportRepository intervalBlockImportRepository;
+    @Autowired private ImportCheckpointRepository importCheckpointRepository;
+    @Autowired private IntervalRollupRepository intervalRollupRepository;
+    @Autowired private UsagePointMapper usagePointMapper;
+    @Autowired private MeterReadingMapper meterReadingMapper;
+    @Autowired private ReadingTypeMapper readingTypeMapper;
+    @Autowired private DtoJaxbContext dtoJaxbContext;
+    @Autowired private EspiSchemaValidation espiSchemaValidation;
+    @Autowired private EspiIdGeneratorService espiIdGeneratorService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should scale import throughput with partition workers and keep every link")
+    void shouldScaleWithThreads() throws Exception {
+        int limit = Math.min(Runtime.getRuntime().availableProcessors(), MAX_THREADS);
+        List<Integer> threadCounts = new ArrayList<>();
+        threadCounts.add(0);
+        for (int threads = 1; threads < limit; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(limit);
+
+        long expectedReadings = (long) USAGE_POINTS * BLOCKS_PER_USAGE_POINT * READINGS_PER_BLOCK;
+        double baselineRate = 0;
+        for (int round = 0; round < threadCounts.size(); round++) {
+            int threads = threadCounts.get(round);
+            byte[] feed = createFeed(round);
+            PartitionedImportExecutor executor = new PartitionedImportExecutor(threads > 0, threads, 10);
+            try {
+                long readingsBefore = count("SELECT COUNT(*) FROM interval_readings");
+                long linkedBefore = count("SELECT COUNT(*) FROM meter_readings WHERE usage_point_id IS NOT NULL AND reading_type_id IS NOT NULL");
+
+                ImportResult result = createService(executor).importFeed(new ByteArrayInputStream(feed));
+
+                assertEquals(expectedReadings, result.intervalReadings());
+                assertEquals(expectedReadings, count("SELECT COUNT(*) FROM interval_readings") - readingsBefore);
+                assertEquals(USAGE_POINTS, count("SELECT COUNT(*) FROM meter_readings WHERE usage_point_id IS NOT NULL AND reading_type_id IS NOT NULL") - linkedBefore);
+
+                double rate = result.readingsPerSecond();
+                if (round == 0) {
+                    baselineRate = rate;
+                }
+                log.info(String.format("%-11s  readings/s=%10.0f  speedup=%5.2fx",
+                    threads > 0 ? "threads=" + threads : "sequential", rate, rate / baselineRate));
+            } finally {
+                executor.destroy();
+            }
+        }
+    }
+
+    private DtoImportServiceImpl createService(PartitionedImportExecutor executor) {
+        return new DtoImportServiceImpl(usagePointRepository, meterReadingRepository, readingTypeRepository,
+            intervalBlockImportRepository, importCheckpointRepository, intervalRollupRepository, usagePointMapper,
+            meterReadingMapper, readingTypeMapper, dtoJaxbContext, espiSchemaValidation, espiIdGeneratorService, executor,
+            transactionManager);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * Generates the feed of one round. Every round uses hrefs, and so IDs, of
+     * its own.
+     */
+    private byte[] createFeed(int round) throws Exception {
+        String base = "/espi/1_1/resource";
+        String readingTypeHref = base + "/ReadingType/" + round;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:benchmark-" + round, "Usage Points", OffsetDateTime.parse("2025-01-01T00:00:00Z"), null);
+            feedWriter.writeEntry(entry(readingTypeHref, base + "/ReadingType", null,
+                new ReadingTypeDto(null, null, "Energy Delivered (kWh)")));
+
+            for (int u = 0; u < USAGE_POINTS; u++) {
+                String usagePointHref = base + "/RetailCustomer/" + round + "/UsagePoint/" + u;
+                UsagePointDto usagePoint = new UsagePointDto();
+                usagePoint.setDescription("Usage Point " + u);
+                feedWriter.writeEntry(entry(usagePointHref, base + "/RetailCustomer/" + round + "/UsagePoint", null, usagePoint));
+
+                String meterReadingHref = usagePointHref + "/MeterReading/1";
+                feedWriter.writeEntry(entry(meterReadingHref, usagePointHref + "/MeterReading", readingTypeHref, new MeterReadingDto()));
+
+                for (int b = 0; b < BLOCKS_PER_USAGE_POINT; b++) {
+                    feedWriter.writeEntry(entry(meterReadingHref + "/IntervalBlock/" + b, meterReadingHref + "/IntervalBlock",
+                        null, createBlock(u, b)));
+                }
+            }
+            feedWriter.writeEndFeed();
+        }
+        return out.toByteArray();
+    }
+
+    private static AtomEntryDto entry(String selfHref, String upHref, String relatedHref, Object resource) {
+        List<LinkDto> links = new ArrayList<>();
+        links.add(LinkDto.self(selfHref));
+        links.add(LinkDto.up(upHref));
+        if (relatedHref != null) {
+            links.add(LinkDto.related(relatedHref));
+        }
+        String id = "urn:uuid:" + UUID.nameUUIDFromBytes(selfHref.getBytes(StandardCharsets.UTF_8));
+        OffsetDateTime published = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        return new AtomEntryDto(id, selfHref, published, published, links, new AtomContentDto(resource));
+    }
+
+    private static IntervalBlockDto createBlock(int usagePoint, int day) {
+        long dayStart = 1_700_000_000L + day * 86_400L;
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, (long) i * 3, null,
+                (long) (usagePoint * 31 + day * 7 + i * 17) % 5000, new DateTimeIntervalDto(dayStart + i * 900L, 900L),
+                null, null, null, null));
+        }
+        return new IntervalBlockDto(null, new DateTimeIntervalDto(dayStart, 86_400L), readings);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+
+package org.greenbuttonalliance.espi.common.service.impl;
+
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.service.impl.DtoImportServiceImpl.ResourceKind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the worker pool of partitioned imports and the partition keys
+ * entries are assigned to.
+ */
+@DisplayName("Partitioned Import Executor Tests")
+class PartitionedImportExecutorTest {
+
+    private static final String BASE = "/espi/1_1/resource";
+    private static final String USAGE_POINT = BASE + "/RetailCustomer/1/UsagePoint/7";
+
+    private final PartitionedImportExecutor executor = new PartitionedImportExecutor(true, 4, 2);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should partition entries under a usage point by that usage point")
+    void shouldPartitionByUsagePoint() {
+        assertEquals(USAGE_POINT, DtoImportServiceImpl.partitionKey(
+            entry(USAGE_POINT, BASE + "/RetailCustomer/1/UsagePoint"), ResourceKind.USAGE_POINT));
+        assertEquals(USAGE_POINT, DtoImportServiceImpl.partitionKey(
+            entry(USAGE_POINT + "/MeterReading/1", USAGE_POINT + "/MeterReading"), ResourceKind.METER_READING));
+        assertEquals(USAGE_POINT, DtoImportServiceImpl.partitionKey(
+            entry(USAGE_POINT + "/MeterReading/1/IntervalBlock/3", USAGE_POINT + "/MeterReading/1/IntervalBlock"),
+            ResourceKind.INTERVAL_BLOCK));
+        assertEquals(USAGE_POINT, DtoImportServiceImpl.partitionKey(
+            entry(null, USAGE_POINT + "/MeterReading/1/IntervalBlock"), ResourceKind.INTERVAL_BLOCK));
+    }
+
+    @Test
+    @DisplayName("Should partition entries whose hrefs name no usage point by meter reading")
+    void shouldFallBackToMeterReading() {
+        String meterReading = BASE + "/MeterReading/5";
+        assertEquals(meterReading, DtoImportServiceImpl.partitionKey(
+            entry(meterReading, BASE + "/MeterReading"), ResourceKind.METER_READING));
+        assertEquals(meterReading, DtoImportServiceImpl.partitionKey(
+            entry(meterReading + "/IntervalBlock/3", meterReading + "/IntervalBlock"), ResourceKind.INTERVAL_BLOCK));
+        assertEquals("", DtoImportServiceImpl.partitionKey(entry(null, null), ResourceKind.INTERVAL_BLOCK));
+    }
+
+    @Test
+    @DisplayName("Should leave shared entries unpartitioned")
+    void shouldNotPartitionSharedEntries() {
+        assertNull(DtoImportServiceImpl.partitionKey(
+            entry(BASE + "/ReadingType/1", BASE + "/ReadingType"), ResourceKind.READING_TYPE));
+        assertNull(DtoImportServiceImpl.partitionKey(
+            entry(BASE + "/LocalTimeParameters/1", BASE + "/LocalTimeParameters"), ResourceKind.OTHER));
+    }
+
+    @Test
+    @DisplayName("Should run the chunks of a partition in the order they were submitted")
+    void shouldRunChunksOfPartitionInOrder() throws Exception {
+        Map<String, List<Integer>> runs = new ConcurrentHashMap<>();
+        PartitionedImportExecutor.Run run = executor.start();
+        for (int i = 0; i < 200; i++) {
+            String partition = "partition-" + i % 3;
+            int chunk = i;
+            run.submit(partition, () -> {
+                sleep(chunk % 7 == 0 ? 2 : 0);
+                runs.computeIfAbsent(partition, p -> Collections.synchronizedList(new ArrayList<>())).add(chunk);
+            });
+        }
+        run.await();
+
+        assertEquals(3, runs.size());
+        runs.forEach((partition, chunks) -> {
+            List<Integer> sorted = new ArrayList<>(chunks);
+            Collections.sort(sorted);
+            assertEquals(sorted, chunks, "chunks of " + partition + " ran out of order");
+        });
+        assertEquals(200, runs.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("Should run the chunks of different partitions concurrently")
+    void shouldRunPartitionsConcurrently() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        PartitionedImportExecutor.Run run = executor.start();
+        for (String partition : List.of("a", "b")) {
+            run.submit(partition, () -> {
+                started.countDown();
+                try {
+                    overlapped.compareAndSet(false, started.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        run.await();
+
+        assertTrue(overlapped.get());
+    }
+
+    @Test
+    @DisplayName("Should fail the run with the error of a worker and skip the later chunks of the run")
+    void shouldPropagateWorkerFailure() throws Exception {
+        IllegalStateException error = new IllegalStateException("constraint violated");
+        AtomicInteger ranAfter = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        PartitionedImportExecutor.Run run = executor.start();
+        run.submit("a", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw error;
+        });
+        run.submit("a", ranAfter::incrementAndGet);
+        release.countDown();
+
+        IOException thrown = assertThrows(IOException.class, run::await);
+        assertSame(error, thrown.getCause());
+        assertEquals(0, ranAfter.get());
+        assertThrows(IOException.class, () -> run.submit("b", ranAfter::incrementAndGet));
+        assertEquals(0, ranAfter.get());
+    }
+
+    @Test
+    @DisplayName("Should wait for the last chunk submitted before the run completes")
+    void shouldAwaitLastChunk() throws Exception {
+        AtomicInteger done = new AtomicInteger();
+        PartitionedImportExecutor.Run run = executor.start();
+        for (int i = 0; i < 5; i++) {
+            run.submit("a", done::incrementAndGet);
+        }
+        run.submit("b", () -> {
+            sleep(200);
+            done.incrementAndGet();
+        });
+        run.await();
+
+        assertEquals(6, done.get());
+    }
+
+    @Test
+    @DisplayName("Should refuse to start a run when partitioned import is disabled")
+    void shouldRefuseStartWhenDisabled() {
+        PartitionedImportExecutor disabled = new PartitionedImportExecutor(false, 4, 2);
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, disabled::start);
+    }
+
+    private static AtomEntryDto entry(String selfHref, String upHref) {
+        List<LinkDto> links = new ArrayList<>();
+        if (selfHref != null) {
+            links.add(LinkDto.self(selfHref));
+        }
+        if (upHref != null) {
+            links.add(LinkDto.up(upHref));
+        }
+        return new AtomEntryDto(null, null, null, null, links, null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
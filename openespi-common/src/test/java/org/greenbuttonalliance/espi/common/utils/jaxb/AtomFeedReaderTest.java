@@ -0,0 +1,181 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming Atom feed reader.
+ */
+@DisplayName("Atom Feed Reader Tests")
+class AtomFeedReaderTest {
+
+    private DtoJaxbContext dtoJaxbContext;
+
+    @BeforeEach
+    void setUp() {
+        dtoJaxbContext = new DtoJaxbContext(false, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should read back the entries of a written feed in order")
+    void shouldReadWrittenFeed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:feed", "Usage Points", OffsetDateTime.now(),
+                List.of(LinkDto.self("/espi/1_1/resource/Batch/Subscription/1")));
+            for (int i = 0; i < 3; i++) {
+                UsagePointDto usagePoint = new UsagePointDto();
+                usagePoint.setDescription("Usage Point " + i);
+                feedWriter.writeEntry(new AtomEntryDto("urn:uuid:entry-" + i, "Usage Point " + i, usagePoint));
+            }
+            feedWriter.writeEndFeed();
+        }
+
+        List<AtomEntryDto> entries = readAll(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(3, entries.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("urn:uuid:entry-" + i, entries.get(i).id());
+            UsagePointDto usagePoint = entries.get(i).content().getResourceAs(UsagePointDto.class);
+            assertNotNull(usagePoint);
+            assertEquals("Usage Point " + i, usagePoint.getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read Green Button download files with links and interval readings")
+    void shouldReadGreenButtonFile() throws Exception {
+        List<AtomEntryDto> entries;
+        try (InputStream stream = getClass().getResourceAsStream("/fixtures/test_usage_data_01.xml")) {
+            entries = readAll(stream);
+        }
+
+        assertEquals(7, entries.size());
+        AtomEntryDto meterReading = entries.stream()
+            .filter(entry -> entry.getResource() instanceof MeterReadingDto)
+            .findFirst()
+            .orElseThrow();
+        assertNotNull(meterReading.getSelfLink());
+        assertNotNull(meterReading.getUpLink());
+
+        IntervalBlockDto block = entries.stream()
+            .map(AtomEntryDto::getResource)
+            .filter(IntervalBlockDto.class::isInstance)
+            .map(IntervalBlockDto.class::cast)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(1330578000L, block.interval().start());
+        assertEquals(96, block.intervalReadings().size());
+        assertEquals(974L, block.intervalReadings().get(0).cost());
+    }
+
+    @Test
+    @DisplayName("Should pass over entries keeping their ids, links and resource names")
+    void shouldSkipEntries() throws Exception {
+        List<AtomEntryDto> entries;
+        try (InputStream stream = getClass().getResourceAsStream("/fixtures/test_usage_data_01.xml")) {
+            entries = readAll(stream);
+        }
+
+        try (InputStream stream = getClass().getResourceAsStream("/fixtures/test_usage_data_01.xml");
+             AtomFeedReader feedReader = new AtomFeedReader(dtoJaxbContext, stream)) {
+            for (int i = 0; i < entries.size() - 1; i++) {
+                AtomFeedReader.EntryHeader header = feedReader.skipEntry(Set.of("MeterReading"));
+                assertNotNull(header);
+                AtomEntryDto expected = entries.get(i);
+                assertEquals(expected.id(), header.entry().id());
+                assertEquals(expected.links(), header.entry().links());
+                assertNotNull(header.resource());
+                if (expected.getResource() instanceof MeterReadingDto) {
+                    assertEquals("MeterReading", header.resource());
+                    assertInstanceOf(MeterReadingDto.class, header.entry().getResource());
+                } else {
+                    assertNull(header.entry().getResource());
+                }
+                assertEquals(i + 1, feedReader.getEntryCount());
+            }
+
+            AtomEntryDto last = feedReader.nextEntry();
+            assertNotNull(last);
+            assertEquals(entries.get(entries.size() - 1).id(), last.id());
+            assertNull(feedReader.skipEntry(Set.of()));
+            assertEquals(entries.size(), feedReader.getEntryCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read a single entry document as a feed of one")
+    void shouldReadSingleEntry() throws Exception {
+        String xml = "<entry xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:uuid:one</id><title>One</title>" +
+                     "<content><MeterReading xmlns=\"http://naesb.org/espi\"/></content></entry>";
+
+        List<AtomEntryDto> entries = readAll(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, entries.size());
+        assertInstanceOf(MeterReadingDto.class, entries.get(0).getResource());
+    }
+
+    @Test
+    @DisplayName("Should not resolve external entities")
+    void shouldNotResolveExternalEntities() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE feed [<!ENTITY x SYSTEM \"file:///etc/hostname\">]>" +
+                     "<feed xmlns=\"http://www.w3.org/2005/Atom\"><entry><title>[&x;]</title></entry></feed>";
+
+        try {
+            List<AtomEntryDto> entries = readAll(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+            String title = entries.get(0).title();
+            assertTrue(title == null || title.equals("[]"), "External entity was resolved: " + title);
+        } catch (Exception e) {
+            // Rejecting the document is fine as well
+        }
+    }
+
+    private List<AtomEntryDto> readAll(InputStream stream) throws Exception {
+        List<AtomEntryDto> entries = new ArrayList<>();
+        try (AtomFeedReader feedReader = new AtomFeedReader(dtoJaxbContext, stream)) {
+            AtomEntryDto entry;
+            while ((entry = feedReader.nextEntry()) != null) {
+                entries.add(entry);
+            }
+            assertEquals(entries.size(), feedReader.getEntryCount());
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.xml.bind.Marshaller;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming Atom feed writer.
+ */
+@DisplayName("Atom Feed Writer Tests")
+class AtomFeedWriterTest {
+
+    private static final String ATOM = AtomFeedWriter.ATOM_NAMESPACE;
+    private static final String ESPI = AtomFeedWriter.ESPI_NAMESPACE;
+
+    private DtoJaxbContext dtoJaxbContext;
+
+    @BeforeEach
+    void setUp() {
+        dtoJaxbContext = new DtoJaxbContext(false, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should stream a well-formed feed with one entry per written resource")
+    void shouldStreamWellFormedFeed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:feed", "Usage Points", OffsetDateTime.now(),
+                List.of(LinkDto.self("/espi/1_1/resource/Batch/Subscription/1")));
+            for (int i = 0; i < 3; i++) {
+                UsagePointDto usagePoint = new UsagePointDto();
+                usagePoint.setDescription("Usage Point " + i);
+                feedWriter.writeEntry(new AtomEntryDto("urn:uuid:entry-" + i, "Usage Point " + i, usagePoint));
+            }
+            feedWriter.writeEndFeed();
+            assertEquals(3, feedWriter.getEntryCount());
+        }
+
+        Document document = parse(out.toByteArray());
+        Element feed = document.getDocumentElement();
+        assertEquals(ATOM, feed.getNamespaceURI());
+        assertEquals("feed", feed.getLocalName());
+        assertEquals("urn:uuid:feed", feed.getElementsByTagNameNS(ATOM, "id").item(0).getTextContent());
+        assertEquals("self", ((Element) feed.getElementsByTagNameNS(ATOM, "link").item(0)).getAttribute("rel"));
+
+        NodeList entries = feed.getElementsByTagNameNS(ATOM, "entry");
+        assertEquals(3, entries.getLength());
+        NodeList usagePoints = feed.getElementsByTagNameNS(ESPI, "UsagePoint");
+        assertEquals(3, usagePoints.getLength());
+        assertEquals("Usage Point 2", ((Element) usagePoints.item(2))
+            .getElementsByTagNameNS(ESPI, "description").item(0).getTextContent());
+    }
+
+    @Test
+    @DisplayName("Should write an empty feed and leave the pooled marshaller in document mode")
+    void shouldWriteEmptyFeed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:empty", "Usage Points", null, null);
+            feedWriter.writeEndFeed();
+        }
+
+        Document document = parse(out.toByteArray());
+        assertEquals(0, document.getElementsByTagNameNS(ATOM, "entry").getLength());
+        assertEquals(Boolean.FALSE, dtoJaxbContext.getMarshaller().getProperty(Marshaller.JAXB_FRAGMENT));
+    }
+
+    @Test
+    @DisplayName("Should splice pre-rendered entry fragments between marshalled entries")
+    void shouldSpliceEntryFragments() throws Exception {
+        UsagePointDto cached = new UsagePointDto();
+        cached.setDescription("Cached");
+        byte[] fragment = dtoJaxbContext.marshalFragment(new AtomEntryDto("urn:uuid:cached", "Cached", cached));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:feed", "Usage Points", null,
+                List.of(LinkDto.self("/espi/1_1/resource/Batch/Subscription/1")));
+            feedWriter.writeEntryFragment(fragment);
+            feedWriter.writeEntry(new AtomEntryDto("urn:uuid:live", "Live", new UsagePointDto()));
+            feedWriter.writeEntryFragment(fragment);
+            feedWriter.writeEndFeed();
+            assertEquals(3, feedWriter.getEntryCount());
+        }
+
+        Document document = parse(out.toByteArray());
+        NodeList entries = document.getElementsByTagNameNS(ATOM, "entry");
+        assertEquals(3, entries.getLength());
+        assertEquals("Cached", ((Element) entries.item(2))
+            .getElementsByTagNameNS(ESPI, "description").item(0).getTextContent());
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+}
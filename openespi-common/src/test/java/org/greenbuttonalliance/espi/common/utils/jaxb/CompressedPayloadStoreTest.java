@@ -0,0 +1,193 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compressed Batch payload store.
+ */
+@DisplayName("Compressed Payload Store Tests")
+class CompressedPayloadStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should generate a payload once per key and watermark")
+    void shouldGenerateOnce() throws IOException {
+        CompressedPayloadStore store = newStore(directory, 1 << 20);
+        AtomicInteger generations = new AtomicInteger();
+
+        Path first = get(store, "Bulk|a", "w1", out -> write(out, "feed", generations));
+        Path second = get(store, "Bulk|a", "w1", out -> write(out, "other", generations));
+
+        assertEquals(first, second);
+        assertEquals(1, generations.get());
+        assertEquals("feed", decompress(first));
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    @DisplayName("Should replace the payload when the watermark changes")
+    void shouldReplaceOnNewWatermark() throws IOException {
+        CompressedPayloadStore store = newStore(directory, 1 << 20);
+        AtomicInteger generations = new AtomicInteger();
+
+        Path old = get(store, "Bulk|a", "w1", out -> write(out, "old", generations));
+        Path current = get(store, "Bulk|a", "w2", out -> write(out, "new", generations));
+
+        assertNotEquals(old, current);
+        assertFalse(Files.exists(old));
+        assertEquals("new", decompress(current));
+    }
+
+    @Test
+    @DisplayName("Should not store a payload whose generation failed")
+    void shouldNotStoreFailedPayload() throws IOException {
+        CompressedPayloadStore store = newStore(directory, 1 << 20);
+
+        assertThrows(IOException.class, () -> get(store, "Bulk|a", "w1", out -> false));
+
+        assertEquals(0, fileCount());
+        assertEquals("feed", decompress(get(store, "Bulk|a", "w1", out -> write(out, "feed", new AtomicInteger()))));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently served payload over the disk budget")
+    void shouldEvictOverBudget() throws IOException {
+        CompressedPayloadStore probe = newStore(directory.resolve("probe"), 1 << 20);
+        long size = Files.size(get(probe, "x", "w", out -> write(out, "payload-0", new AtomicInteger())));
+        CompressedPayloadStore store = newStore(directory.resolve("store"), size * 2);
+
+        Path a = get(store, "a", "w", out -> write(out, "payload-a", new AtomicInteger()));
+        Path b = get(store, "b", "w", out -> write(out, "payload-b", new AtomicInteger()));
+        get(store, "a", "w", out -> fail("should be served from disk"));
+        Path c = get(store, "c", "w", out -> write(out, "payload-c", new AtomicInteger()));
+
+        assertTrue(Files.exists(a));
+        assertFalse(Files.exists(b));
+        assertTrue(Files.exists(c));
+    }
+
+    @Test
+    @DisplayName("Should keep stored payloads across restarts and drop partial files")
+    void shouldReloadOnRestart() throws IOException {
+        CompressedPayloadStore store = newStore(directory, 1 << 20);
+        Path payload = get(store, "Bulk|a", "w1", out -> write(out, "feed", new AtomicInteger()));
+        Files.writeString(directory.resolve("partial.tmp"), "partial");
+
+        CompressedPayloadStore restarted = newStore(directory, 1 << 20);
+
+        assertEquals(payload, get(restarted, "Bulk|a", "w1", out -> fail("should be served from disk")));
+        assertFalse(Files.exists(directory.resolve("partial.tmp")));
+    }
+
+    @Test
+    @DisplayName("Should keep a superseded payload until its lease is closed")
+    void shouldKeepLeasedPayload() throws IOException {
+        CompressedPayloadStore store = newStore(directory, 1 << 20);
+
+        try (CompressedPayloadStore.Payload old = store.getOrCreate("Bulk|a", "w1",
+                out -> write(out, "old", new AtomicInteger()))) {
+            Path current = get(store, "Bulk|a", "w2", out -> write(out, "new", new AtomicInteger()));
+
+            assertEquals("old", decompress(old.file()));
+            assertEquals("new", decompress(current));
+        }
+
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    @DisplayName("Should delete a superseded payload only after the retire delay")
+    void shouldDelayDeletion() throws IOException {
+        CompressedPayloadStore store = new CompressedPayloadStore(true, directory, 1 << 20, Duration.ofHours(1),
+            meterRegistry);
+
+        Path old = get(store, "Bulk|a", "w1", out -> write(out, "old", new AtomicInteger()));
+        get(store, "Bulk|a", "w2", out -> write(out, "new", new AtomicInteger()));
+
+        // Served by name after the handler returned, as with sendfile
+        assertEquals("old", decompress(old));
+    }
+
+    private CompressedPayloadStore newStore(Path storeDirectory, long maxDiskBytes) {
+        return new CompressedPayloadStore(true, storeDirectory, maxDiskBytes, Duration.ZERO, meterRegistry);
+    }
+
+    /**
+     * Gets a payload and closes its lease at once.
+     */
+    private static Path get(CompressedPayloadStore store, String key, String watermark,
+                            CompressedPayloadStore.PayloadWriter writer) throws IOException {
+        try (CompressedPayloadStore.Payload payload = store.getOrCreate(key, watermark, writer)) {
+            return payload.file();
+        }
+    }
+
+    private static boolean write(OutputStream out, String content, AtomicInteger generations) throws IOException {
+        generations.incrementAndGet();
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        return true;
+    }
+
+    private static String decompress(Path payload) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(payload))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("espi.export.payload.store.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.xml.bind.Marshaller;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomFeedDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the shared DTO JAXB context and its per-thread marshaller pool.
+ */
+@DisplayName("DTO JAXB Context Tests")
+class DtoJaxbContextTest {
+
+    private MeterRegistry meterRegistry;
+    private DtoJaxbContext dtoJaxbContext;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dtoJaxbContext = new DtoJaxbContext(false, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should marshal an Atom feed of record DTOs with the shared context")
+    void shouldMarshalAtomFeedOfRecordDtos() throws Exception {
+        IntervalBlockDto block = new IntervalBlockDto("block-1", new DateTimeIntervalDto(1330578000L, 86400L),
+            List.of(new IntervalReadingDto(null, 974L, new DateTimeIntervalDto(1330578000L, 900L))));
+        AtomFeedDto feed = new AtomFeedDto("urn:uuid:feed", "Interval Blocks", null, null, null,
+            List.of(new AtomEntryDto("urn:uuid:entry", "Interval Block", block)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoJaxbContext.marshal(feed, out);
+        String xml = out.toString(StandardCharsets.UTF_8);
+
+        assertTrue(xml.contains("feed"), "XML should contain the Atom feed element");
+        assertTrue(xml.contains("IntervalBlock"), "XML should contain the IntervalBlock resource");
+        assertTrue(xml.contains(">974<"), "XML should contain the reading value");
+    }
+
+    @Test
+    @DisplayName("Should unmarshal a UsagePoint with the pooled unmarshaller")
+    void shouldUnmarshalUsagePoint() throws Exception {
+        UsagePointDto usagePoint = new UsagePointDto();
+        usagePoint.setDescription("Residential Electric Service");
+        usagePoint.setStatus((short) 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoJaxbContext.marshal(usagePoint, out);
+        UsagePointDto roundTrip = (UsagePointDto) dtoJaxbContext.unmarshal(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals("Residential Electric Service", roundTrip.getDescription());
+        assertEquals((short) 1, roundTrip.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reuse one marshaller per thread and report pool metrics")
+    void shouldReuseMarshallerPerThread() throws Exception {
+        Marshaller first = dtoJaxbContext.getMarshaller();
+        Marshaller second = dtoJaxbContext.getMarshaller();
+        assertSame(first, second, "Same thread should get the pooled marshaller");
+
+        AtomicReference<Marshaller> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                other.set(dtoJaxbContext.getMarshaller());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNotSame(first, other.get(), "Other threads should get their own marshaller");
+
+        assertEquals(2.0, meterRegistry.get("espi.jaxb.pool.acquire")
+            .tags("type", "marshaller", "result", "created").counter().count());
+        assertEquals(1.0, meterRegistry.get("espi.jaxb.pool.acquire")
+            .tags("type", "marshaller", "result", "hit").counter().count());
+        assertEquals(1.0 / 3.0, meterRegistry.get("espi.jaxb.pool.hit.ratio")
+            .tags("type", "marshaller").gauge().value(), 0.0001);
+    }
+}
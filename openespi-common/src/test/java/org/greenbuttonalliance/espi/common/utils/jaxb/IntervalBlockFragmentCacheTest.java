@@ -0,0 +1,141 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the rendered IntervalBlock fragment cache.
+ */
+@DisplayName("IntervalBlock Fragment Cache Tests")
+class IntervalBlockFragmentCacheTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @TempDir
+    Path spillDirectory;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should key fragments by block id and updated timestamp")
+    void shouldKeyByIdAndUpdated() {
+        IntervalBlockFragmentCache cache = new IntervalBlockFragmentCache(true, 1024, 0, false, spillDirectory, meterRegistry);
+        UUID blockId = UUID.randomUUID();
+
+        assertNull(cache.get(blockId, UPDATED));
+        cache.put(blockId, UPDATED, fragment(1));
+
+        assertArrayEquals(fragment(1), cache.get(blockId, UPDATED));
+        assertNull(cache.get(blockId, UPDATED.plusSeconds(1)));
+        assertEquals(1.0, requests("memory"));
+        assertEquals(2.0, requests("miss"));
+    }
+
+    @Test
+    @DisplayName("Should spill fragments evicted from memory to disk and read them back")
+    void shouldSpillToDisk() throws Exception {
+        byte[] first = fragment(1);
+        IntervalBlockFragmentCache cache = new IntervalBlockFragmentCache(true, first.length, 1024 * 1024, false,
+            spillDirectory, meterRegistry);
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+
+        cache.put(firstId, UPDATED, first);
+        cache.put(secondId, UPDATED, fragment(2));
+
+        assertEquals(1.0, meterRegistry.get("espi.export.fragment.cache.evictions").tag("tier", "memory").counter().count());
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(1, files.filter(file -> file.toString().endsWith(".frag")).count());
+        }
+
+        assertArrayEquals(first, cache.get(firstId, UPDATED));
+        assertEquals(1.0, requests("disk"));
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest spilled fragments beyond the disk budget")
+    void shouldBoundDiskTier() {
+        byte[] fragment = fragment(1);
+        IntervalBlockFragmentCache cache = new IntervalBlockFragmentCache(true, 0, fragment.length * 2L, false,
+            spillDirectory, meterRegistry);
+        UUID[] ids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+        for (UUID id : ids) {
+            cache.put(id, UPDATED, fragment);
+        }
+
+        assertEquals(1.0, meterRegistry.get("espi.export.fragment.cache.evictions").tag("tier", "disk").counter().count());
+        assertNull(cache.get(ids[0], UPDATED));
+        assertArrayEquals(fragment, cache.get(ids[2], UPDATED));
+    }
+
+    @Test
+    @DisplayName("Should return the original bytes when fragments are stored compressed")
+    void shouldRoundTripCompressedFragments() {
+        IntervalBlockFragmentCache cache = new IntervalBlockFragmentCache(true, 1024 * 1024, 0, true, spillDirectory, meterRegistry);
+        UUID blockId = UUID.randomUUID();
+        byte[] fragment = "<entry>".concat("<IntervalReading/>".repeat(500)).concat("</entry>").getBytes(StandardCharsets.UTF_8);
+
+        cache.put(blockId, UPDATED, fragment);
+
+        assertArrayEquals(fragment, cache.get(blockId, UPDATED));
+        assertTrue(meterRegistry.get("espi.export.fragment.cache.size").tag("tier", "memory").gauge().value() < fragment.length);
+    }
+
+    @Test
+    @DisplayName("Should not store anything when disabled")
+    void shouldBypassWhenDisabled() {
+        IntervalBlockFragmentCache cache = new IntervalBlockFragmentCache(false, 1024, 1024, false, spillDirectory, meterRegistry);
+        UUID blockId = UUID.randomUUID();
+
+        cache.put(blockId, UPDATED, fragment(1));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(blockId, UPDATED));
+        assertEquals(0.0, requests("miss"));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("espi.export.fragment.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static byte[] fragment(int index) {
+        return ("<entry><id>urn:uuid:" + index + "</id></entry>").getBytes(StandardCharsets.UTF_8);
+    }
+}
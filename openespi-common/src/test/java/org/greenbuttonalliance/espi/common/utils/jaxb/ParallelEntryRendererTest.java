@@ -0,0 +1,125 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the order-preserving parallel entry renderer.
+ */
+@DisplayName("Parallel Entry Renderer Tests")
+class ParallelEntryRendererTest {
+
+    private ParallelEntryRenderer renderer;
+
+    @AfterEach
+    void tearDown() {
+        if (renderer != null) {
+            renderer.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write fragments in submission order regardless of completion order")
+    void shouldPreserveOrder() throws Exception {
+        renderer = new ParallelEntryRenderer(true, 4, 8);
+        List<Integer> items = IntStream.range(0, 200).boxed().toList();
+        List<String> written = new ArrayList<>();
+
+        renderer.render(items.iterator(), item -> {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            return String.valueOf(item).getBytes(StandardCharsets.UTF_8);
+        }, fragment -> written.add(new String(fragment, StandardCharsets.UTF_8)));
+
+        assertEquals(items.stream().map(String::valueOf).toList(), written);
+    }
+
+    @Test
+    @DisplayName("Should skip items rendered to null")
+    void shouldSkipNullFragments() throws Exception {
+        renderer = new ParallelEntryRenderer(true, 2, 4);
+        List<String> written = new ArrayList<>();
+
+        renderer.render(List.of(1, 2, 3, 4).iterator(),
+            item -> item % 2 == 0 ? null : String.valueOf(item).getBytes(StandardCharsets.UTF_8),
+            fragment -> written.add(new String(fragment, StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("1", "3"), written);
+    }
+
+    @Test
+    @DisplayName("Should never have more entries in flight than the window")
+    void shouldBoundInFlightEntries() throws Exception {
+        renderer = new ParallelEntryRenderer(true, 8, 3);
+        AtomicInteger submitted = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+
+        renderer.render(IntStream.range(0, 50).boxed().iterator(), item -> {
+            submitted.incrementAndGet();
+            return new byte[0];
+        }, fragment -> {
+            maxAhead.accumulateAndGet(submitted.get() - written.get(), Math::max);
+            written.incrementAndGet();
+        });
+
+        assertEquals(50, written.get());
+        assertTrue(maxAhead.get() <= 3, "at most the window may be rendered ahead of the writer");
+    }
+
+    @Test
+    @DisplayName("Should propagate render failures as IOException")
+    void shouldPropagateRenderFailures() {
+        renderer = new ParallelEntryRenderer(true, 2, 4);
+        List<String> written = new ArrayList<>();
+
+        IOException failure = assertThrows(IOException.class, () -> renderer.render(List.of(1, 2, 3).iterator(), item -> {
+            if (item == 2) {
+                throw new IllegalStateException("boom");
+            }
+            return String.valueOf(item).getBytes(StandardCharsets.UTF_8);
+        }, fragment -> written.add(new String(fragment, StandardCharsets.UTF_8))));
+
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(List.of("1"), written);
+    }
+
+    @Test
+    @DisplayName("Should refuse to render when disabled")
+    void shouldRefuseWhenDisabled() {
+        renderer = new ParallelEntryRenderer(false, 0, 64);
+
+        assertFalse(renderer.isEnabled());
+        assertThrows(IllegalStateException.class,
+            () -> renderer.render(List.of(1).iterator(), item -> new byte[0], fragment -> { }));
+    }
+}
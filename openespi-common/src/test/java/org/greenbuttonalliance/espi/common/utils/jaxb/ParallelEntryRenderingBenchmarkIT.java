@@ -0,0 +1,133 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomContentDto;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.atom.LinkDto;
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for parallel entry rendering, run with the integration
+ * tests ({@code mvn verify}).
+ * <p>
+ * Renders a feed of day-long interval blocks with 15-minute readings at
+ * increasing worker counts, from one thread up to the available processors, and
+ * logs entries per second for each. Every run must produce a feed byte-identical
+ * to the single-threaded one; the throughput figures are reported, not asserted,
+ * since they depend on the machine. Set {@code -Despi.benchmark.entries} to
+ * change the feed size.
+ */
+@Slf4j
+@DisplayName("Parallel Entry Rendering Benchmark")
+class ParallelEntryRenderingBenchmarkIT {
+
+    private static final int ENTRIES = Integer.getInteger("espi.benchmark.entries", 5_000);
+    private static final int READINGS_PER_BLOCK = 96;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    private final DtoJaxbContext dtoJaxbContext = new DtoJaxbContext(false, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should scale rendering throughput with worker threads and keep entry order")
+    void shouldScaleWithThreads() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        byte[] baseline = null;
+        double baselineRate = 0;
+        for (int threads : threadCounts) {
+            ParallelEntryRenderer renderer = new ParallelEntryRenderer(true, threads, 4 * threads);
+            try {
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    renderFeed(renderer, OutputStream.nullOutputStream());
+                }
+
+                long best = Long.MAX_VALUE;
+                ByteArrayOutputStream out = null;
+                for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                    out = new ByteArrayOutputStream();
+                    long start = System.nanoTime();
+                    renderFeed(renderer, out);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+
+                double rate = ENTRIES / (best / 1e9);
+                if (baseline == null) {
+                    baseline = out.toByteArray();
+                    baselineRate = rate;
+                } else {
+                    assertTrue(Arrays.equals(baseline, out.toByteArray()),
+                        "feed rendered with " + threads + " threads differs from the single-threaded feed");
+                }
+                log.info(String.format("threads=%2d  entries/s=%10.0f  speedup=%5.2fx", threads, rate, rate / baselineRate));
+            } finally {
+                renderer.destroy();
+            }
+        }
+    }
+
+    private void renderFeed(ParallelEntryRenderer renderer, OutputStream out) throws Exception {
+        try (AtomFeedWriter feedWriter = new AtomFeedWriter(dtoJaxbContext, out)) {
+            feedWriter.writeStartFeed("urn:uuid:benchmark", "Interval Blocks", OffsetDateTime.parse("2025-01-01T00:00:00Z"), null);
+            renderer.render(IntStream.range(0, ENTRIES).iterator(),
+                index -> dtoJaxbContext.marshalFragment(createEntry(index)),
+                feedWriter::writeEntryFragment);
+            feedWriter.writeEndFeed();
+            assertEquals(ENTRIES, feedWriter.getEntryCount());
+        }
+    }
+
+    private static AtomEntryDto createEntry(int index) {
+        long dayStart = 1_700_000_000L + index * 86_400L;
+        List<IntervalReadingDto> readings = new ArrayList<>(READINGS_PER_BLOCK);
+        for (int i = 0; i < READINGS_PER_BLOCK; i++) {
+            readings.add(new IntervalReadingDto(null, null, null, null, null, null, null, (long) i * 3, null,
+                (long) (index * 31 + i * 17) % 5000, new DateTimeIntervalDto(dayStart + i * 900L, 900L),
+                null, null, null, null));
+        }
+        IntervalBlockDto block = new IntervalBlockDto("block-" + index, new DateTimeIntervalDto(dayStart, 86_400L), readings);
+        String href = "/espi/1_1/resource/MeterReading/1/IntervalBlock/" + index;
+        return new AtomEntryDto("urn:uuid:block-" + index, "Interval Block", null, null,
+            List.of(LinkDto.self(href), LinkDto.up("/espi/1_1/resource/MeterReading/1/IntervalBlock")),
+            new AtomContentDto(block));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.jaxb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for validating ESPI resources against the schema while a feed is read.
+ */
+@DisplayName("Schema Validating Stream Reader Tests")
+class SchemaValidatingStreamReaderTest {
+
+    private static final String VALID_READING =
+        "<IntervalReading><cost>974</cost><timePeriod><duration>900</duration><start>1330578000</start></timePeriod>" +
+        "<value>282</value></IntervalReading>";
+
+    // cost must precede value
+    private static final String MISORDERED_READING =
+        "<IntervalReading><value>282</value><cost>974</cost></IntervalReading>";
+
+    private DtoJaxbContext dtoJaxbContext;
+    private MeterRegistry meterRegistry;
+    private EspiSchemaValidation validation;
+
+    @BeforeEach
+    void setUp() {
+        dtoJaxbContext = new DtoJaxbContext(false, new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        validation = new EspiSchemaValidation(new String[]{EspiSchemaValidation.IMPORT_ENDPOINT}, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should read resources that conform to the schema and time their validation")
+    void shouldReadValidFeed() throws Exception {
+        try (AtomFeedReader feedReader = reader(feed(VALID_READING), EspiSchemaValidation.IMPORT_ENDPOINT)) {
+            AtomEntryDto entry = feedReader.nextEntry();
+            assertNotNull(entry);
+            IntervalBlockDto block = assertInstanceOf(IntervalBlockDto.class, entry.getResource());
+            assertEquals(974L, block.intervalReadings().get(0).cost());
+            assertNull(feedReader.nextEntry());
+        }
+
+        assertEquals(1, timer("valid").count());
+        assertNull(meterRegistry.find("espi.xml.validation").tag("result", "invalid").timer());
+    }
+
+    @Test
+    @DisplayName("Should fail on the first resource that violates the schema")
+    void shouldRejectInvalidResource() throws Exception {
+        try (AtomFeedReader feedReader = reader(feed(MISORDERED_READING), EspiSchemaValidation.IMPORT_ENDPOINT)) {
+            SchemaValidatingStreamReader.SchemaValidationException failure = assertThrows(
+                SchemaValidatingStreamReader.SchemaValidationException.class, feedReader::nextEntry);
+            assertTrue(failure.getMessage().contains("Schema validation failed"), failure.getMessage());
+        }
+
+        assertEquals(1, timer("invalid").count());
+    }
+
+    @Test
+    @DisplayName("Should not validate documents of endpoints without validation")
+    void shouldSkipDisabledEndpoint() throws Exception {
+        assertFalse(validation.isEnabled(EspiSchemaValidation.THIRD_PARTY_ENDPOINT));
+
+        try (AtomFeedReader feedReader = reader(feed(MISORDERED_READING), EspiSchemaValidation.THIRD_PARTY_ENDPOINT)) {
+            assertNotNull(feedReader.nextEntry());
+        }
+
+        assertNull(meterRegistry.find("espi.xml.validation").timer());
+    }
+
+    @Test
+    @DisplayName("Should compile the schema once")
+    void shouldCacheSchema() {
+        assertSame(validation.getSchema(), validation.getSchema());
+    }
+
+    private AtomFeedReader reader(String xml, String endpoint) throws Exception {
+        return new AtomFeedReader(dtoJaxbContext, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+            validation, endpoint);
+    }
+
+    private Timer timer(String result) {
+        return meterRegistry.get("espi.xml.validation")
+            .tag("endpoint", EspiSchemaValidation.IMPORT_ENDPOINT)
+            .tag("result", result)
+            .timer();
+    }
+
+    private static String feed(String reading) {
+        return "<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:uuid:feed</id><title>Feed</title>" +
+               "<entry><id>urn:uuid:block</id><title>Block</title><content>" +
+               "<IntervalBlock xmlns=\"http://naesb.org/espi\">" +
+               "<interval><duration>86400</duration><start>1330578000</start></interval>" + reading +
+               "</IntervalBlock></content></entry></feed>";
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.json;
+
+import org.greenbuttonalliance.espi.common.dto.usage.DateTimeIntervalDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalReadingDto;
+import org.greenbuttonalliance.espi.common.dto.usage.ReadingQualityDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the NDJSON interval reading writer.
+ */
+@DisplayName("Interval Reading NDJSON Writer Tests")
+class IntervalReadingNdjsonWriterTest {
+
+    @Test
+    @DisplayName("Should write one compact reading per line and omit absent values")
+    void shouldWriteOneCompactReadingPerLine() throws Exception {
+        IntervalBlockDto block = new IntervalBlockDto("block-1", new DateTimeIntervalDto(1700000000L, 7200L), List.of(
+            reading(1700000000L, 1250L, null, List.of()),
+            reading(1700003600L, 980L, 12L, List.of(new ReadingQualityDto("q-1", "8")))
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (IntervalReadingNdjsonWriter writer = new IntervalReadingNdjsonWriter(out)) {
+            writer.writeReadings(block);
+            assertEquals(2, writer.getReadingCount());
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("{\"intervalBlock\":\"block-1\",\"start\":1700000000,\"duration\":3600,\"value\":1250}", lines[0]);
+        assertEquals("{\"intervalBlock\":\"block-1\",\"start\":1700003600,\"duration\":3600,\"value\":980,"
+            + "\"cost\":12,\"readingQualities\":[\"8\"]}", lines[1]);
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    @DisplayName("Should leave the underlying stream open when closed")
+    void shouldLeaveStreamOpen() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("underlying stream must not be closed");
+            }
+        };
+        try (IntervalReadingNdjsonWriter writer = new IntervalReadingNdjsonWriter(out)) {
+            writer.writeReadings(new IntervalBlockDto("block-1", null, null));
+        }
+        assertEquals(0, out.size());
+    }
+
+    private static IntervalReadingDto reading(long start, long value, Long cost, List<ReadingQualityDto> qualities) {
+        return new IntervalReadingDto(null, null, null, null, null, null, null, cost, null, value,
+            new DateTimeIntervalDto(start, 3600L), qualities, null, null, null);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Index size and join latency benchmark of binary UUID keys against
+ * {@code CHAR(36)} keys, run with the integration tests ({@code mvn verify})
+ * against a PostgreSQL Test Container.
+ * <p>
+ * Migrates a schema up to V8, seeds usage points, meter readings, day-long
+ * interval blocks and 15-minute readings, and measures the index size of
+ * those four tables and the latency of joining a usage point down to its
+ * readings. The keys are then converted by {@link V9__Binary_Uuid_Keys} and
+ * both are measured again. Indexes are rebuilt before the first measurement,
+ * as the conversion rebuilds them. The binary keys must shrink the indexes and
+ * join to the same readings; the latencies are reported, not asserted. Set
+ * {@code -Despi.benchmark.days} to change the number of blocks per meter
+ * reading.
+ */
+@Slf4j
+@Testcontainers
+@DisplayName("Binary UUID Keys Benchmark")
+class BinaryUuidKeysBenchmarkIT {
+
+    private static final int USAGE_POINTS = 20;
+    private static final int METER_READINGS_PER_USAGE_POINT = 2;
+    private static final int DAYS = Integer.getInteger("espi.benchmark.days", 90);
+    private static final int READINGS_PER_BLOCK = 96;
+    private static final int JOIN_ROUNDS = 50;
+
+    private static final String[] TABLES = {"usage_points", "meter_readings", "interval_blocks", "interval_readings"};
+
+    private static final String INDEX_SIZE =
+        "SELECT COALESCE(SUM(pg_relation_size(i.indexrelid)), 0) FROM pg_index i " +
+        "WHERE i.indrelid IN ('usage_points'::regclass, 'meter_readings'::regclass, " +
+        "'interval_blocks'::regclass, 'interval_readings'::regclass)";
+    private static final String JOIN =
+        "SELECT COUNT(*), COALESCE(SUM(r.reading_value), 0) FROM usage_points u " +
+        "JOIN meter_readings m ON m.usage_point_id = u.id " +
+        "JOIN interval_blocks b ON b.meter_reading_id = m.id " +
+        "JOIN interval_readings r ON r.interval_block_id = b.id WHERE u.id = ?";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("openespi_benchmark")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @Test
+    @DisplayName("Should shrink the key indexes and join the same readings after converting to binary keys")
+    void shouldShrinkIndexesAndJoinIdentically() {
+        DataSource dataSource = new DriverManagerDataSource(postgresContainer.getJdbcUrl(),
+            postgresContainer.getUsername(), postgresContainer.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        flyway(dataSource).target("8").load().migrate();
+        seed(jdbcTemplate);
+        for (String table : TABLES) {
+            jdbcTemplate.execute("REINDEX TABLE " + table);
+        }
+        Measurement text = measure(jdbcTemplate, UuidKeyType.CHAR);
+
+        flyway(dataSource).target("9").javaMigrations(new V9__Binary_Uuid_Keys()).load().migrate();
+        Measurement binary = measure(jdbcTemplate, UuidKeyType.NATIVE);
+
+        assertEquals("uuid", jdbcTemplate.queryForObject(
+            "SELECT data_type FROM information_schema.columns " +
+            "WHERE table_name = 'interval_readings' AND column_name = 'interval_block_id'", String.class));
+        assertEquals(text.joined(), binary.joined());
+        assertEquals((long) USAGE_POINTS * METER_READINGS_PER_USAGE_POINT * DAYS * READINGS_PER_BLOCK,
+            text.joined().stream().mapToLong(row -> row.get(0)).sum());
+        assertTrue(binary.indexBytes() < text.indexBytes(),
+            "binary " + binary.indexBytes() + " bytes, text " + text.indexBytes() + " bytes");
+
+        log.info(String.format("CHAR(36)  indexes=%10d B  join median=%8.3f ms", text.indexBytes(),
+            text.joinMedianNanos() / 1_000_000.0));
+        log.info(String.format("uuid      indexes=%10d B  join median=%8.3f ms", binary.indexBytes(),
+            binary.joinMedianNanos() / 1_000_000.0));
+        log.info(String.format("uuid/CHAR(36)  indexes=%5.3fx  join speedup=%5.2fx",
+            (double) binary.indexBytes() / text.indexBytes(), text.joinMedianNanos() / binary.joinMedianNanos()));
+    }
+
+    private static FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration", "classpath:db/vendor/postgres");
+    }
+
+    /**
+     * Seeds the four tables with keys derived from their position, so that
+     * both measurements see the same rows.
+     */
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update(
+            "INSERT INTO usage_points (id, uuid) " +
+            "SELECT md5('usage-point/' || p)::uuid::text, md5('usage-point/' || p)::uuid::text " +
+            "FROM generate_series(1, ?) p", USAGE_POINTS);
+        jdbcTemplate.update(
+            "INSERT INTO meter_readings (id, uuid, created, updated, usage_point_id) " +
+            "SELECT md5('meter-reading/' || p || '/' || m)::uuid::text, " +
+            "md5('meter-reading/' || p || '/' || m)::uuid::text, now(), now(), md5('usage-point/' || p)::uuid::text " +
+            "FROM generate_series(1, ?) p, generate_series(1, ?) m", USAGE_POINTS, METER_READINGS_PER_USAGE_POINT);
+        jdbcTemplate.update(
+            "INSERT INTO interval_blocks " +
+            "(id, uuid, created, updated, meter_reading_id, interval_start, interval_duration) " +
+            "SELECT md5(m.id || '/' || d)::uuid::text, md5(m.id || '/' || d)::uuid::text, now(), now(), m.id, " +
+            "1700000000 + d * 86400, 86400 FROM meter_readings m, generate_series(0, ? - 1) d", DAYS);
+        jdbcTemplate.update(
+            "INSERT INTO interval_readings " +
+            "(interval_block_id, time_period_start, time_period_duration, reading_value) " +
+            "SELECT b.id, b.interval_start + i * 900, 900, (b.interval_start / 86400 + i * 37) % 1000 " +
+            "FROM interval_blocks b, generate_series(0, ? - 1) i", READINGS_PER_BLOCK);
+    }
+
+    private static Measurement measure(JdbcTemplate jdbcTemplate, UuidKeyType keyType) {
+        for (String table : TABLES) {
+            jdbcTemplate.execute("VACUUM ANALYZE " + table);
+        }
+        List<UUID> usagePointIds = new ArrayList<>();
+        for (int p = 1; p <= USAGE_POINTS; p++) {
+            usagePointIds.add(md5Uuid("usage-point/" + p));
+        }
+        List<List<Long>> joined = new ArrayList<>();
+        for (UUID id : usagePointIds) {
+            joined.add(join(jdbcTemplate, keyType, id));
+        }
+
+        long[] nanos = new long[JOIN_ROUNDS];
+        for (int round = 0; round < JOIN_ROUNDS; round++) {
+            UUID id = usagePointIds.get(round % usagePointIds.size());
+            long start = System.nanoTime();
+            join(jdbcTemplate, keyType, id);
+            nanos[round] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new Measurement(jdbcTemplate.queryForObject(INDEX_SIZE, Long.class), nanos[JOIN_ROUNDS / 2], joined);
+    }
+
+    private static List<Long> join(JdbcTemplate jdbcTemplate, UuidKeyType keyType, UUID usagePointId) {
+        return jdbcTemplate.queryForObject(JOIN, (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)),
+            keyType.bind(usagePointId));
+    }
+
+    /**
+     * The UUID PostgreSQL casts {@code md5(text)} to.
+     */
+    private static UUID md5Uuid(String text) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(
+                MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8)));
+            return new UUID(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Measurement(long indexBytes, double joinMedianNanos, List<List<Long>> joined) {
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.common.utils.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the conversion of {@code CHAR(36)} keys to binary UUID keys,
+ * run on a private H2 database.
+ */
+@DisplayName("Binary UUID Keys Migration Tests")
+class BinaryUuidKeysMigrationTest {
+
+    private static final UUID PARENT = UUID.fromString("48c2a019-5598-4e16-b0f9-49e4ff27f5fb");
+    private static final UUID CHILD = UUID.fromString("0b8a2f3e-61c5-5d8e-9a1f-3c2d4e5f6a7b");
+    private static final UUID JOB = UUID.fromString("7f9c1d2e-3b4a-4c5d-8e6f-0a1b2c3d4e5f");
+    private static final List<V9__Binary_Uuid_Keys.KeyColumn> CHILD_COLUMNS = List.of(
+        new V9__Binary_Uuid_Keys.KeyColumn("id", false), new V9__Binary_Uuid_Keys.KeyColumn("parent_id", true));
+
+    @Test
+    @DisplayName("Should convert keys in place and keep the foreign keys with their rules")
+    void shouldConvertKeysAndForeignKeys() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:binary-uuid-keys")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE parents (id CHAR(36) NOT NULL PRIMARY KEY, uuid VARCHAR(36) NOT NULL)");
+                statement.execute("CREATE TABLE children (id CHAR(36) NOT NULL PRIMARY KEY, "
+                    + "parent_id CHAR(36) NOT NULL, FOREIGN KEY (parent_id) REFERENCES parents (id) ON DELETE CASCADE)");
+                statement.execute("CREATE TABLE links (id CHAR(36) NOT NULL PRIMARY KEY, parent_id CHAR(36), "
+                    + "FOREIGN KEY (parent_id) REFERENCES parents (id) ON DELETE SET NULL)");
+                statement.execute("CREATE TABLE import_checkpoints (job_id CHAR(36) NOT NULL PRIMARY KEY)");
+                statement.execute("INSERT INTO parents VALUES ('" + PARENT + "', '" + PARENT + "')");
+                statement.execute("INSERT INTO children VALUES ('" + CHILD + "', '" + PARENT + "')");
+                statement.execute("INSERT INTO links VALUES ('" + CHILD + "', '" + PARENT + "')");
+                statement.execute("INSERT INTO import_checkpoints VALUES ('" + JOB + "')");
+            }
+
+            V9__Binary_Uuid_Keys.convert(connection);
+
+            assertEquals("UUID", typeName(connection, "PARENTS", "ID"));
+            assertEquals("UUID", typeName(connection, "CHILDREN", "PARENT_ID"));
+            assertEquals("UUID", typeName(connection, "LINKS", "PARENT_ID"));
+            assertEquals("CHARACTER VARYING", typeName(connection, "PARENTS", "UUID"));
+            assertEquals("CHARACTER", typeName(connection, "IMPORT_CHECKPOINTS", "JOB_ID"));
+            assertEquals("NO", nullable(connection, "CHILDREN", "PARENT_ID"));
+            assertEquals("YES", nullable(connection, "LINKS", "PARENT_ID"));
+
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT c.id FROM children c JOIN parents p ON c.parent_id = p.id WHERE p.id = ?")) {
+                select.setObject(1, PARENT);
+                try (ResultSet rs = select.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(CHILD, rs.getObject(1, UUID.class));
+                }
+            }
+
+            try (PreparedStatement orphan = connection.prepareStatement("INSERT INTO children VALUES (?, ?)")) {
+                orphan.setObject(1, JOB);
+                orphan.setObject(2, JOB);
+                assertThrows(SQLException.class, orphan::executeUpdate);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM parents");
+                try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM children")) {
+                    assertTrue(rs.next());
+                    assertEquals(0, rs.getInt(1));
+                }
+                try (ResultSet rs = statement.executeQuery("SELECT parent_id FROM links")) {
+                    assertTrue(rs.next());
+                    assertNull(rs.getObject(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert MySQL keys through their hex text in one rewrite per step")
+    void shouldBuildMySqlStatements() {
+        List<String> statements = V9__Binary_Uuid_Keys.alterColumns("MySQL", "children", CHILD_COLUMNS);
+
+        assertEquals(List.of(
+            "ALTER TABLE children MODIFY id VARBINARY(36) NOT NULL, MODIFY parent_id VARBINARY(36) NULL",
+            "UPDATE children SET id = UNHEX(REPLACE(id, '-', '')), parent_id = UNHEX(REPLACE(parent_id, '-', ''))",
+            "ALTER TABLE children MODIFY id BINARY(16) NOT NULL, MODIFY parent_id BINARY(16) NULL"), statements);
+    }
+
+    @Test
+    @DisplayName("Should convert PostgreSQL keys in one rewrite per table")
+    void shouldBuildPostgresStatements() {
+        List<String> statements = V9__Binary_Uuid_Keys.alterColumns("PostgreSQL", "children", CHILD_COLUMNS);
+
+        assertEquals(List.of("ALTER TABLE children ALTER COLUMN id TYPE UUID USING id::text::uuid, "
+            + "ALTER COLUMN parent_id TYPE UUID USING parent_id::text::uuid"), statements);
+    }
+
+    @Test
+    @DisplayName("Should select and bind the key type of each database")
+    void shouldBindKeys() {
+        assertEquals(UuidKeyType.CHAR, UuidKeyType.of(false, "MySQL"));
+        assertEquals(UuidKeyType.NATIVE, UuidKeyType.of(true, "PostgreSQL"));
+        assertEquals(UuidKeyType.NATIVE, UuidKeyType.of(true, "H2"));
+        assertEquals(UuidKeyType.BINARY, UuidKeyType.of(true, "MariaDB"));
+        assertThrows(IllegalStateException.class, () -> UuidKeyType.of(true, "Oracle"));
+
+        assertEquals(PARENT.toString(), UuidKeyType.CHAR.bind(PARENT));
+        assertEquals(PARENT, UuidKeyType.NATIVE.bind(PARENT));
+        assertEquals(PARENT.toString().replace("-", ""),
+            HexFormat.of().formatHex((byte[]) UuidKeyType.BINARY.bind(PARENT)));
+        assertNull(UuidKeyType.BINARY.bind(null));
+    }
+
+    private static String typeName(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, table, column)) {
+            assertTrue(rs.next(), table + "." + column);
+            return rs.getString("TYPE_NAME");
+        }
+    }
+
+    private static String nullable(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, table, column)) {
+            assertTrue(rs.next(), table + "." + column);
+            return rs.getString("IS_NULLABLE");
+        }
+    }
+}
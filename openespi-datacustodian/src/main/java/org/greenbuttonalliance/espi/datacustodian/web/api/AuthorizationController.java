@@ -30,13 +30,12 @@ import org.greenbuttonalliance.espi.common.dto.usage.AuthorizationDto;
 import org.greenbuttonalliance.espi.common.repositories.usage.AuthorizationRepository;
 import org.greenbuttonalliance.espi.common.mapper.usage.AuthorizationMapper;
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -76,6 +75,7 @@ public class AuthorizationController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Authorizations retrieved successfully",
                 content = @Content(schema = @Schema(implementation = AuthorizationDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or offset"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
         }
@@ -84,16 +84,16 @@ public class AuthorizationController {
     public ResponseEntity<List<AuthorizationDto>> getAllAuthorizations(
             @Parameter(description = "Maximum number of results to return", example = "50")
             @RequestParam(defaultValue = "50") int limit,
-            @Parameter(description = "Offset for pagination", example = "0")
-            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Continuation token taken from the next link of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true)
+            @RequestParam(required = false) String offset,
             Authentication authentication) {
         
-        Pageable pageable = PageRequest.of(offset / limit, limit);
-        List<AuthorizationEntity> authorizationEntities = authorizationRepository.findAll(pageable).getContent();
-        List<AuthorizationDto> authorizations = authorizationEntities.stream()
-            .map(authorizationMapper::toDto)
-            .toList();
-        return ResponseEntity.ok(authorizations);
+        KeysetPages.rejectOffset(offset);
+        int pageSize = KeysetPages.limit(limit);
+        List<AuthorizationEntity> authorizationEntities = authorizationRepository.findKeysetPage(KeysetPages.cursor(cursor), pageSize + 1);
+        return KeysetPages.page(authorizationEntities, pageSize, authorizationMapper::toDto);
     }
 
     /**
@@ -107,6 +107,7 @@ public class AuthorizationController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Authorization retrieved successfully",
                 content = @Content(schema = @Schema(implementation = AuthorizationDto.class))),
+            @ApiResponse(responseCode = "304", description = "Authorization not modified"),
             @ApiResponse(responseCode = "404", description = "Authorization not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
@@ -116,11 +117,11 @@ public class AuthorizationController {
     public ResponseEntity<AuthorizationDto> getAuthorization(
             @Parameter(description = "Unique identifier of the Authorization", required = true)
             @PathVariable UUID authorizationId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         
-        return authorizationRepository.findById(authorizationId)
-            .map(authorizationMapper::toDto)
-            .map(authorization -> ResponseEntity.ok(authorization))
-            .orElse(ResponseEntity.notFound().build());
+        // Answer conditional requests before loading or mapping the entity
+        return ResourceValidators.conditionalGet(authorizationId, authorizationRepository::findUpdatedById,
+            () -> authorizationRepository.findById(authorizationId).map(authorizationMapper::toDto), webRequest);
     }
 }
\ No newline at end of file
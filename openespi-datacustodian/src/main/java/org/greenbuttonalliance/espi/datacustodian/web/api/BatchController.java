@@ -0,0 +1,199 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalTimeWindow;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
+import org.greenbuttonalliance.espi.common.repositories.usage.SubscriptionRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.BatchPayloadService;
+import org.greenbuttonalliance.espi.common.service.DtoExportService;
+import org.greenbuttonalliance.espi.common.utils.jaxb.CompressedPayloadStore.Payload;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * REST Controller for ESPI Batch resources.
+ * 
+ * Subscription batches are streamed as Atom feeds of the full usage point
+ * trees. The ESPI published-min/published-max and updated-min/updated-max query
+ * parameters, as sent in third-party notifications, limit the interval data to
+ * the requested window in the database query itself. Feeds are paged by usage
+ * point in (updated, id) order; the Atom next link carries an opaque cursor, so
+ * an interrupted download resumes from the page it was reading.
+ * 
+ * Unless espi.export.payload-store.enabled is false, each feed is generated
+ * once per state of its data and served gzip-compressed from disk.
+ * 
+ * Supported endpoints:
+ * - GET /espi/1_1/resource/Batch/Subscription/{subscriptionId} - Download subscription data
+ * - GET /espi/1_1/resource/Batch/Bulk/{bulkId} - Download bulk data
+ */
+@RestController
+@RequestMapping("/espi/1_1/resource")
+@Tag(name = "Batch", description = "ESPI Batch resource endpoints")
+@SecurityRequirement(name = "oauth2")
+public class BatchController {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final UsagePointRepository usagePointRepository;
+    private final DtoExportService dtoExportService;
+    private final BatchPayloadService batchPayloadService;
+
+    public BatchController(SubscriptionRepository subscriptionRepository, UsagePointRepository usagePointRepository,
+                           DtoExportService dtoExportService, BatchPayloadService batchPayloadService) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.usagePointRepository = usagePointRepository;
+        this.dtoExportService = dtoExportService;
+        this.batchPayloadService = batchPayloadService;
+    }
+
+    /**
+     * Download the data of a Subscription as a Green Button feed.
+     */
+    @GetMapping(value = "/Batch/Subscription/{subscriptionId}",
+                produces = {MediaType.APPLICATION_ATOM_XML_VALUE, MediaType.APPLICATION_XML_VALUE})
+    @Operation(
+        summary = "Download Subscription Data",
+        description = "Stream the usage points of a subscription, with their meter readings, reading types and " +
+                      "interval blocks, as a Green Button feed limited to the published/updated time window",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Subscription data streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid time window, limit or cursor parameters"),
+            @ApiResponse(responseCode = "404", description = "Subscription not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_FB_15_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_16_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_36_READ_3rd_party')")
+    public ResponseEntity<StreamingResponseBody> getSubscriptionBatch(
+            @Parameter(description = "Unique identifier of the Subscription", required = true)
+            @PathVariable UUID subscriptionId,
+            @Parameter(description = "Maximum number of usage points per page", example = "50")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Continuation token taken from the next link of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Query parameters, including published-min, published-max, updated-min and updated-max")
+            @RequestParam Map<String, String> params,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        IntervalTimeWindow window;
+        try {
+            window = IntervalTimeWindow.fromQueryParameters(params);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = KeysetPages.limit(limit);
+        KeysetCursor after = KeysetPages.cursor(cursor);
+        if (!subscriptionRepository.existsById(subscriptionId)) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> feedParameters = new LinkedHashMap<>(window.toQueryParameters());
+        feedParameters.put("limit", pageSize);
+        String feedHref = KeysetPages.canonicalHref(feedParameters);
+
+        if (batchPayloadService.isEnabled()) {
+            try (Payload payload = batchPayloadService.subscriptionPayload(subscriptionId, window, after, pageSize,
+                    feedHref)) {
+                CompressedPayloads.send(payload.file(), request, response);
+            }
+            return null;
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_ATOM_XML)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=GreenButtonDownload.xml")
+            .body(stream -> dtoExportService.exportSubscriptionFull(subscriptionId, window, after, pageSize, feedHref, stream));
+    }
+
+    /**
+     * Download the data of all usage points covered by a third party's bulk
+     * authorizations as a Green Button feed.
+     */
+    @GetMapping(value = "/Batch/Bulk/{bulkId}",
+                produces = {MediaType.APPLICATION_ATOM_XML_VALUE, MediaType.APPLICATION_XML_VALUE})
+    @Operation(
+        summary = "Download Bulk Data",
+        description = "Stream the usage points covered by the bulk authorizations of the calling third party, with " +
+                      "their meter readings, reading types and interval blocks, as a Green Button feed",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Bulk data streamed successfully"),
+            @ApiResponse(responseCode = "404", description = "No usage points are covered by the bulk ID"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_FB_15_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_16_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_36_READ_3rd_party')")
+    public ResponseEntity<StreamingResponseBody> getBulkBatch(
+            @Parameter(description = "Bulk identifier from the BR parameter of the authorization scope", required = true)
+            @PathVariable String bulkId,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String thirdParty = authentication.getName();
+        String feedHref = KeysetPages.canonicalHref(Map.of());
+
+        if (batchPayloadService.isEnabled()) {
+            Optional<Payload> payload = batchPayloadService.bulkPayload(thirdParty, bulkId, feedHref);
+            if (payload.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            try (Payload leased = payload.get()) {
+                CompressedPayloads.send(leased.file(), request, response);
+            }
+            return null;
+        }
+
+        List<UUID> usagePointIds = usagePointRepository.findAllIdsByBulkId(thirdParty, bulkId);
+        if (usagePointIds.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_ATOM_XML)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=GreenButtonDownload.xml")
+            .body(stream -> dtoExportService.exportBulkFull(usagePointIds, feedHref, stream));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends gzip-compressed Atom payloads from the payload store.
+ * <p>
+ * Clients accepting gzip get the stored file unchanged, with
+ * {@code Content-Encoding: gzip}: through Tomcat's sendfile support when the
+ * connector offers it, otherwise with {@link FileChannel#transferTo}. Either
+ * way the payload is not copied through the heap. Clients that do not accept
+ * gzip get it decompressed on the fly.
+ */
+final class CompressedPayloads {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private CompressedPayloads() {
+    }
+
+    /**
+     * Writes a stored payload as the response.
+     *
+     * @param payload the gzip-compressed payload file, leased by the caller
+     *                until this returns; sendfile opens it afterwards, within
+     *                the retire delay of the payload store
+     * @param request the current request
+     * @param response the response, not yet committed
+     * @throws IOException if the payload cannot be sent
+     */
+    static void send(Path payload, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_ATOM_XML_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=GreenButtonDownload.xml");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (!acceptsGzip(request)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(payload), 8192)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        try (FileChannel channel = FileChannel.open(payload, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentLengthLong(size);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, payload.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                return;
+            }
+
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Checks whether the request accepts gzip content coding, honouring
+     * {@code q=0} exclusions.
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        if (headers == null) {
+            return false;
+        }
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equalsIgnoreCase("x-gzip") && !name.equals("*")) {
+                    continue;
+                }
+                boolean excluded = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        excluded = true;
+                    }
+                }
+                if (!excluded) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
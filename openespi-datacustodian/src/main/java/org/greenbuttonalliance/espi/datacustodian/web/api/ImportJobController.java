@@ -0,0 +1,146 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.greenbuttonalliance.espi.common.service.ImportJobService;
+import org.greenbuttonalliance.espi.common.service.ImportJobService.ImportJobStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST Controller for Green Button import jobs.
+ * 
+ * An uploaded file is spooled and queued for import, and the request returns
+ * at once with the job status; the import itself runs on the bounded import
+ * worker pool. The job resource reports bytes parsed, entries and readings
+ * written, throughput and errors while the job runs and after it finished.
+ * 
+ * Supported endpoints:
+ * - POST /espi/1_1/resource/ImportJob - Upload a Green Button file for import
+ * - GET /espi/1_1/resource/ImportJob - List recent import jobs
+ * - GET /espi/1_1/resource/ImportJob/{jobId} - Get the status of an import job
+ */
+@RestController
+@RequestMapping("/espi/1_1/resource")
+@Tag(name = "Import Jobs", description = "Green Button file import API")
+@SecurityRequirement(name = "oauth2")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * Upload a Green Button file for asynchronous import.
+     */
+    @PostMapping(value = "/ImportJob", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Upload Green Button File",
+        description = "Spool a Green Button XML file and queue it for import",
+        responses = {
+            @ApiResponse(responseCode = "202", description = "File spooled and import queued"),
+            @ApiResponse(responseCode = "400", description = "No file uploaded"),
+            @ApiResponse(responseCode = "503", description = "Import queue is full"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<ImportJobStatus> uploadFile(
+            @Parameter(description = "Green Button XML file", required = true)
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No file uploaded");
+        }
+
+        ImportJobStatus status;
+        try (InputStream stream = file.getInputStream()) {
+            status = importJobService.submit(file.getOriginalFilename(), stream);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Import queue is full", e);
+        }
+
+        return ResponseEntity.accepted()
+            .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(status.id()).toUri())
+            .body(status);
+    }
+
+    /**
+     * List the queued, running and recently finished import jobs.
+     */
+    @GetMapping(value = "/ImportJob", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "List Import Jobs",
+        description = "Retrieve the status of the queued, running and recently finished import jobs",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Import jobs retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<List<ImportJobStatus>> getImportJobs() {
+        return ResponseEntity.ok(importJobService.findAll());
+    }
+
+    /**
+     * Get the status of an import job.
+     */
+    @GetMapping(value = "/ImportJob/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get Import Job",
+        description = "Retrieve the progress, throughput and errors of an import job",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Import job retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Import job not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<ImportJobStatus> getImportJob(
+            @Parameter(description = "Unique identifier of the import job", required = true)
+            @PathVariable UUID jobId) {
+        return importJobService.findById(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
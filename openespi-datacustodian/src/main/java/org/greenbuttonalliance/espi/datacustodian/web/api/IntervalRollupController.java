@@ -0,0 +1,296 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Granularity;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalRollupRepository.Rollup;
+import org.greenbuttonalliance.espi.common.service.IntervalRollupService;
+import org.greenbuttonalliance.espi.common.service.IntervalRollupService.RebuildJobStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST Controller for interval data rollups.
+ * 
+ * Serves hourly, daily and monthly totals of interval readings from the rollup
+ * tables instead of the raw readings, and rebuilds the rollups after a
+ * backfill. Buckets are aligned on UTC hours, days and months; ranges are
+ * half-open, from inclusive and to exclusive. Rebuilding one meter reading
+ * returns once it is done; rebuilding all of them starts a background job,
+ * whose resource reports its progress and cancels it.
+ * 
+ * Supported endpoints:
+ * - GET /espi/1_1/resource/MeterReading/{meterReadingId}/IntervalRollup - Rollups of a meter reading
+ * - GET /espi/1_1/resource/MeterReading/{meterReadingId}/IntervalRollup/Total - Total of a meter reading
+ * - GET /espi/1_1/resource/UsagePoint/{usagePointId}/ReadingType/{readingTypeId}/IntervalRollup
+ *   - Rollups of a usage point
+ * - GET /espi/1_1/resource/UsagePoint/{usagePointId}/ReadingType/{readingTypeId}/IntervalRollup/Total
+ *   - Total of a usage point
+ * - POST /espi/1_1/resource/IntervalRollup/rebuild - Rebuild the rollups of one or all meter readings
+ * - GET /espi/1_1/resource/IntervalRollup/rebuild/{jobId} - Get the status of a rebuild job
+ * - DELETE /espi/1_1/resource/IntervalRollup/rebuild/{jobId} - Cancel a rebuild job
+ */
+@RestController
+@RequestMapping("/espi/1_1/resource")
+@Tag(name = "Interval Rollups", description = "Hourly, daily and monthly interval data totals API")
+@SecurityRequirement(name = "oauth2")
+public class IntervalRollupController {
+
+    private final IntervalRollupService intervalRollupService;
+
+    public IntervalRollupController(IntervalRollupService intervalRollupService) {
+        this.intervalRollupService = intervalRollupService;
+    }
+
+    /**
+     * Get the rollups of a meter reading.
+     */
+    @GetMapping(value = "/MeterReading/{meterReadingId}/IntervalRollup", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get Meter Reading Rollups",
+        description = "Retrieve the hourly, daily or monthly rollups of a meter reading over a time range",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Rollups retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<List<Rollup>> getMeterReadingRollups(
+            @Parameter(description = "Unique identifier of the meter reading", required = true)
+            @PathVariable UUID meterReadingId,
+            @Parameter(description = "Bucket size: HOUR, DAY or MONTH")
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @Parameter(description = "First bucket start, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Bucket start to stop before, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return ResponseEntity.ok(intervalRollupService.findByMeterReading(meterReadingId, granularity,
+            from.toInstant(), to.toInstant()));
+    }
+
+    /**
+     * Get the total of a meter reading over whole hours.
+     */
+    @GetMapping(value = "/MeterReading/{meterReadingId}/IntervalRollup/Total",
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get Meter Reading Total",
+        description = "Total the readings of a meter reading over a range of whole hours",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Total computed successfully"),
+            @ApiResponse(responseCode = "400", description = "Range bounds not on the hour"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<Rollup> getMeterReadingTotal(
+            @Parameter(description = "Unique identifier of the meter reading", required = true)
+            @PathVariable UUID meterReadingId,
+            @Parameter(description = "Range start on the hour, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Range end on the hour, exclusive, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        try {
+            return ResponseEntity.ok(intervalRollupService.totalByMeterReading(meterReadingId,
+                from.toInstant(), to.toInstant()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the rollups of a usage point for a reading type.
+     */
+    @GetMapping(value = "/UsagePoint/{usagePointId}/ReadingType/{readingTypeId}/IntervalRollup",
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get Usage Point Rollups",
+        description = "Retrieve the hourly, daily or monthly rollups of the meter readings of a usage point "
+            + "with a reading type over a time range",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Rollups retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<List<Rollup>> getUsagePointRollups(
+            @Parameter(description = "Unique identifier of the usage point", required = true)
+            @PathVariable UUID usagePointId,
+            @Parameter(description = "Unique identifier of the reading type", required = true)
+            @PathVariable UUID readingTypeId,
+            @Parameter(description = "Bucket size: HOUR, DAY or MONTH")
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @Parameter(description = "First bucket start, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Bucket start to stop before, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return ResponseEntity.ok(intervalRollupService.findByUsagePoint(usagePointId, readingTypeId, granularity,
+            from.toInstant(), to.toInstant()));
+    }
+
+    /**
+     * Get the total of a usage point for a reading type over whole hours.
+     */
+    @GetMapping(value = "/UsagePoint/{usagePointId}/ReadingType/{readingTypeId}/IntervalRollup/Total",
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get Usage Point Total",
+        description = "Total the readings of the meter readings of a usage point with a reading type "
+            + "over a range of whole hours",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Total computed successfully"),
+            @ApiResponse(responseCode = "400", description = "Range bounds not on the hour"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<Rollup> getUsagePointTotal(
+            @Parameter(description = "Unique identifier of the usage point", required = true)
+            @PathVariable UUID usagePointId,
+            @Parameter(description = "Unique identifier of the reading type", required = true)
+            @PathVariable UUID readingTypeId,
+            @Parameter(description = "Range start on the hour, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Range end on the hour, exclusive, ISO-8601 date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        try {
+            return ResponseEntity.ok(intervalRollupService.totalByUsagePoint(usagePointId, readingTypeId,
+                from.toInstant(), to.toInstant()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the rollups of a meter reading, or start a job rebuilding those
+     * of all meter readings.
+     */
+    @PostMapping(value = "/IntervalRollup/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Rebuild Rollups",
+        description = "Recompute the rollups from the interval data of one meter reading, returning once they "
+            + "are rebuilt, or start a background job rebuilding those of all meter readings after a backfill",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Rollups of the meter reading rebuilt successfully"),
+            @ApiResponse(responseCode = "202", description = "Rebuild job of all meter readings started"),
+            @ApiResponse(responseCode = "409", description = "A rebuild job is already running"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<?> rebuild(
+            @Parameter(description = "Unique identifier of the meter reading; all meter readings when absent")
+            @RequestParam(required = false) UUID meterReadingId) {
+        if (meterReadingId != null) {
+            Instant start = Instant.now();
+            intervalRollupService.rebuild(meterReadingId);
+            return ResponseEntity.ok(new RebuildResult(1, start, Instant.now()));
+        }
+
+        RebuildJobStatus status;
+        try {
+            status = intervalRollupService.submitRebuild();
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+        return ResponseEntity.accepted()
+            .location(ServletUriComponentsBuilder.fromCurrentRequest().replaceQuery(null).path("/{jobId}")
+                .buildAndExpand(status.id()).toUri())
+            .body(status);
+    }
+
+    /**
+     * Get the status of a rebuild job.
+     */
+    @GetMapping(value = "/IntervalRollup/rebuild/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get Rebuild Job",
+        description = "Retrieve the progress and errors of a rollup rebuild job",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Rebuild job retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Rebuild job not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<RebuildJobStatus> getRebuildJob(
+            @Parameter(description = "Unique identifier of the rebuild job", required = true)
+            @PathVariable UUID jobId) {
+        return intervalRollupService.findRebuildJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancel a rebuild job.
+     */
+    @DeleteMapping(value = "/IntervalRollup/rebuild/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Cancel Rebuild Job",
+        description = "Stop a rollup rebuild job after the meter reading it is rebuilding",
+        responses = {
+            @ApiResponse(responseCode = "202", description = "Cancellation requested"),
+            @ApiResponse(responseCode = "404", description = "Rebuild job not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - admin access required")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access')")
+    public ResponseEntity<RebuildJobStatus> cancelRebuildJob(
+            @Parameter(description = "Unique identifier of the rebuild job", required = true)
+            @PathVariable UUID jobId) {
+        return intervalRollupService.cancelRebuild(jobId)
+            .map(status -> ResponseEntity.accepted().body(status))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Outcome of the rollup rebuild of a meter reading.
+     *
+     * @param meterReadings the number of meter readings rebuilt
+     * @param started when the rebuild started
+     * @param finished when the rebuild finished
+     */
+    public record RebuildResult(int meterReadings, Instant started, Instant finished) {
+    }
+}
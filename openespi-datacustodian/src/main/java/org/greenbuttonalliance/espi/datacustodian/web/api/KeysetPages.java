@@ -0,0 +1,137 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for ESPI resource collections.
+ * <p>
+ * Collections are read in {@code (updated, id)} order, one row more than the
+ * requested limit. If that extra row exists, the response carries a
+ * {@code Link: <...>; rel="next"} header whose URL repeats the current request
+ * with the {@code cursor} parameter set to the opaque position of the last
+ * returned resource. The {@code offset} parameter of the former offset
+ * pagination is rejected.
+ */
+final class KeysetPages {
+
+    static final String CURSOR_PARAMETER = "cursor";
+    static final String OFFSET_PARAMETER = "offset";
+    static final int MAX_LIMIT = 500;
+
+    private KeysetPages() {
+    }
+
+    /**
+     * Validates the requested page size.
+     *
+     * @param limit the requested number of resources per page
+     * @return the page size, capped at {@link #MAX_LIMIT}
+     * @throws ResponseStatusException with 400 if the limit is not positive
+     */
+    static int limit(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Rejects the offset parameter that keyset pagination replaced, so that
+     * clients still paging by offset fail instead of reading the first page
+     * over and over. An offset of 0 names the first page and is accepted.
+     *
+     * @param offset the offset parameter, may be null
+     * @throws ResponseStatusException with 400 if an offset other than 0 is given
+     */
+    static void rejectOffset(String offset) {
+        if (offset != null && !offset.equals("0")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                OFFSET_PARAMETER + " is not supported; follow the next link, whose " + CURSOR_PARAMETER
+                    + " parameter continues after the previous page");
+        }
+    }
+
+    /**
+     * Decodes the continuation token of a request.
+     *
+     * @param token the cursor parameter, may be null
+     * @return the cursor, or null for the first page
+     * @throws ResponseStatusException with 400 if the token is malformed
+     */
+    static KeysetCursor cursor(String token) {
+        try {
+            return KeysetCursor.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Builds the response for a page read with {@code limit + 1} rows.
+     *
+     * @param rows the rows read, at most one more than the limit
+     * @param limit the page size
+     * @param mapper maps each entity to its DTO
+     * @return the page, with a next link if more rows follow
+     */
+    static <E extends IdentifiedObject, D> ResponseEntity<List<D>> page(List<E> rows, int limit, Function<E, D> mapper) {
+        boolean more = rows.size() > limit;
+        List<E> page = more ? rows.subList(0, limit) : rows;
+        List<D> body = page.stream().map(mapper).toList();
+        if (!more) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+            .header(HttpHeaders.LINK, "<" + nextHref(KeysetCursor.after(page.get(limit - 1))) + ">; rel=\"next\"")
+            .body(body);
+    }
+
+    /**
+     * Builds the URL of the current request with its query reduced to the
+     * given parameters, so that requests for the same feed share one URL
+     * whatever else their query string carries.
+     *
+     * @param parameters the query parameters, in the order they are written
+     * @return the URL
+     */
+    static String canonicalHref(Map<String, ?> parameters) {
+        ServletUriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentRequestUri();
+        parameters.forEach((name, value) -> builder.queryParam(name, value));
+        return builder.toUriString();
+    }
+
+    private static String nextHref(KeysetCursor cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam(CURSOR_PARAMETER, cursor.encode())
+            .toUriString();
+    }
+}
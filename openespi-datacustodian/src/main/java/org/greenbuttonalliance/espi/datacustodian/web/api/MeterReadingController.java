@@ -27,16 +27,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.greenbuttonalliance.espi.common.dto.usage.MeterReadingDto;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalBlockRepository;
+import org.greenbuttonalliance.espi.common.repositories.usage.IntervalTimeWindow;
 import org.greenbuttonalliance.espi.common.repositories.usage.MeterReadingRepository;
+import org.greenbuttonalliance.espi.common.service.DtoExportService;
+import org.greenbuttonalliance.espi.common.utils.json.IntervalReadingNdjsonWriter;
 import org.greenbuttonalliance.espi.common.mapper.usage.MeterReadingMapper;
 import org.greenbuttonalliance.espi.common.domain.usage.MeterReadingEntity;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -50,6 +54,8 @@ import java.util.UUID;
  * Supported endpoints:
  * - GET /espi/1_1/resource/MeterReading - List all meter readings
  * - GET /espi/1_1/resource/MeterReading/{meterReadingId} - Get specific meter reading
+ * - GET /espi/1_1/resource/MeterReading/{meterReadingId} (application/x-ndjson) - Stream its interval readings
+ * - GET /espi/1_1/resource/MeterReading/{meterReadingId}/IntervalBlock/{intervalBlockId} (application/x-ndjson) - Stream a block's interval readings
  */
 @RestController
 @RequestMapping("/espi/1_1/resource")
@@ -59,10 +65,15 @@ public class MeterReadingController {
 
     private final MeterReadingRepository meterReadingRepository;
     private final MeterReadingMapper meterReadingMapper;
+    private final IntervalBlockRepository intervalBlockRepository;
+    private final DtoExportService dtoExportService;
 
-    public MeterReadingController(MeterReadingRepository meterReadingRepository, MeterReadingMapper meterReadingMapper) {
+    public MeterReadingController(MeterReadingRepository meterReadingRepository, MeterReadingMapper meterReadingMapper,
+                                  IntervalBlockRepository intervalBlockRepository, DtoExportService dtoExportService) {
         this.meterReadingRepository = meterReadingRepository;
         this.meterReadingMapper = meterReadingMapper;
+        this.intervalBlockRepository = intervalBlockRepository;
+        this.dtoExportService = dtoExportService;
     }
 
     /**
@@ -76,6 +87,7 @@ public class MeterReadingController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Meter Readings retrieved successfully",
                 content = @Content(schema = @Schema(implementation = MeterReadingDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or offset"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
         }
@@ -87,16 +99,16 @@ public class MeterReadingController {
     public ResponseEntity<List<MeterReadingDto>> getAllMeterReadings(
             @Parameter(description = "Maximum number of results to return", example = "50")
             @RequestParam(defaultValue = "50") int limit,
-            @Parameter(description = "Offset for pagination", example = "0")
-            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Continuation token taken from the next link of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true)
+            @RequestParam(required = false) String offset,
             Authentication authentication) {
         
-        Pageable pageable = PageRequest.of(offset / limit, limit);
-        List<MeterReadingEntity> meterReadingEntities = meterReadingRepository.findAll(pageable).getContent();
-        List<MeterReadingDto> meterReadings = meterReadingEntities.stream()
-            .map(meterReadingMapper::toDto)
-            .toList();
-        return ResponseEntity.ok(meterReadings);
+        KeysetPages.rejectOffset(offset);
+        int pageSize = KeysetPages.limit(limit);
+        List<MeterReadingEntity> meterReadingEntities = meterReadingRepository.findKeysetPage(KeysetPages.cursor(cursor), pageSize + 1);
+        return KeysetPages.page(meterReadingEntities, pageSize, meterReadingMapper::toDto);
     }
 
     /**
@@ -109,6 +121,7 @@ public class MeterReadingController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Meter Reading retrieved successfully",
                 content = @Content(schema = @Schema(implementation = MeterReadingDto.class))),
+            @ApiResponse(responseCode = "304", description = "Meter Reading not modified"),
             @ApiResponse(responseCode = "404", description = "Meter Reading not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
@@ -121,11 +134,88 @@ public class MeterReadingController {
     public ResponseEntity<MeterReadingDto> getMeterReading(
             @Parameter(description = "Unique identifier of the Meter Reading", required = true)
             @PathVariable UUID meterReadingId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         
-        return meterReadingRepository.findById(meterReadingId)
-            .map(meterReadingMapper::toDto)
-            .map(meterReading -> ResponseEntity.ok(meterReading))
-            .orElse(ResponseEntity.notFound().build());
+        // Answer conditional requests before loading or mapping the entity
+        return ResourceValidators.conditionalGet(meterReadingId, meterReadingRepository::findUpdatedById,
+            () -> meterReadingRepository.findById(meterReadingId).map(meterReadingMapper::toDto), webRequest);
+    }
+
+    /**
+     * Stream the interval readings of a Meter Reading as newline-delimited JSON.
+     * Readings are read through a database cursor and written one per line as
+     * they are fetched, so the response size is not bounded by memory.
+     */
+    @GetMapping(value = "/MeterReading/{meterReadingId}", produces = IntervalReadingNdjsonWriter.MEDIA_TYPE)
+    @Operation(
+        summary = "Stream Meter Reading interval readings",
+        description = "Stream the interval readings of a Meter Reading as newline-delimited JSON, one reading per line",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Interval readings streamed successfully"),
+            @ApiResponse(responseCode = "404", description = "Meter Reading not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access') or " +
+                 "hasAuthority('SCOPE_FB_15_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_16_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_36_READ_3rd_party')")
+    public ResponseEntity<StreamingResponseBody> streamMeterReadingIntervalReadings(
+            @Parameter(description = "Unique identifier of the Meter Reading", required = true)
+            @PathVariable UUID meterReadingId,
+            @Parameter(description = "Earliest reading start to include, epoch seconds (inclusive)")
+            @RequestParam(name = "start-min", required = false) Long startMin,
+            @Parameter(description = "Latest reading start to include, epoch seconds (exclusive)")
+            @RequestParam(name = "start-max", required = false) Long startMax,
+            Authentication authentication) {
+
+        if (!meterReadingRepository.existsById(meterReadingId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(IntervalReadingNdjsonWriter.MEDIA_TYPE))
+            .body(stream -> dtoExportService.exportMeterReadingNdjson(meterReadingId,
+                IntervalTimeWindow.ofReadingStart(startMin, startMax), stream));
+    }
+
+    /**
+     * Stream the interval readings of an Interval Block as newline-delimited JSON.
+     */
+    @GetMapping(value = "/MeterReading/{meterReadingId}/IntervalBlock/{intervalBlockId}",
+                produces = IntervalReadingNdjsonWriter.MEDIA_TYPE)
+    @Operation(
+        summary = "Stream Interval Block interval readings",
+        description = "Stream the interval readings of an Interval Block as newline-delimited JSON, one reading per line",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Interval readings streamed successfully"),
+            @ApiResponse(responseCode = "404", description = "Interval Block not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
+        }
+    )
+    @PreAuthorize("hasAuthority('SCOPE_DataCustodian_Admin_Access') or " +
+                 "hasAuthority('SCOPE_FB_15_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_16_READ_3rd_party') or " +
+                 "hasAuthority('SCOPE_FB_36_READ_3rd_party')")
+    public ResponseEntity<StreamingResponseBody> streamIntervalBlockIntervalReadings(
+            @Parameter(description = "Unique identifier of the Meter Reading", required = true)
+            @PathVariable UUID meterReadingId,
+            @Parameter(description = "Unique identifier of the Interval Block", required = true)
+            @PathVariable UUID intervalBlockId,
+            @Parameter(description = "Earliest reading start to include, epoch seconds (inclusive)")
+            @RequestParam(name = "start-min", required = false) Long startMin,
+            @Parameter(description = "Latest reading start to include, epoch seconds (exclusive)")
+            @RequestParam(name = "start-max", required = false) Long startMax,
+            Authentication authentication) {
+
+        if (!intervalBlockRepository.existsByIdAndMeterReadingId(intervalBlockId, meterReadingId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(IntervalReadingNdjsonWriter.MEDIA_TYPE))
+            .body(stream -> dtoExportService.exportIntervalBlockNdjson(intervalBlockId,
+                IntervalTimeWindow.ofReadingStart(startMin, startMax), stream));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Validators for conditional GET on ESPI resources.
+ * <p>
+ * The strong entity tag of a resource is derived from its id and
+ * {@code updated} timestamp, both of which can be read with a scalar query,
+ * so controllers can answer {@code If-None-Match} and {@code If-Modified-Since}
+ * with 304 before loading, mapping or marshalling the entity. The XML and JSON
+ * representations of a resource carry different tags, since a strong tag
+ * identifies one exact representation.
+ */
+final class ResourceValidators {
+
+    private ResourceValidators() {
+    }
+
+    /**
+     * Answers a GET of a resource, short-circuiting conditional requests
+     * before the entity is loaded.
+     *
+     * @param id the resource ID
+     * @param updatedLookup reads the resource's updated timestamp by ID
+     * @param body loads and maps the resource
+     * @param request the current request
+     * @return the resource with its validators, 404 if it does not exist, or
+     *     null if the response was committed as 304 Not Modified
+     */
+    static <T> ResponseEntity<T> conditionalGet(UUID id, Function<UUID, Optional<LocalDateTime>> updatedLookup,
+                                                Supplier<Optional<T>> body, WebRequest request) {
+        Optional<LocalDateTime> updated = updatedLookup.apply(id);
+        if (updated.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String eTag = eTag(id, updated.get(), request);
+        long lastModified = lastModified(updated.get());
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+
+        return body.get()
+            .map(resource -> ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(resource))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Builds the strong entity tag of a resource representation.
+     *
+     * @param id the resource ID
+     * @param updated the resource's updated timestamp
+     * @param request the current request, used to pick the representation
+     * @return the quoted entity tag
+     */
+    static String eTag(UUID id, LocalDateTime updated, WebRequest request) {
+        long version = updated.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updated.getNano();
+        return "\"" + id + "-" + Long.toHexString(version) + "-" + representation(request) + "\"";
+    }
+
+    /**
+     * Converts the updated timestamp to a Last-Modified value.
+     *
+     * @param updated the resource's updated timestamp
+     * @return milliseconds since the epoch
+     */
+    static long lastModified(LocalDateTime updated) {
+        return updated.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Resolves which of the XML and JSON representations the request will get,
+     * following the same preference as content negotiation: the acceptable type
+     * with the highest quality wins, and XML is produced when both are equally
+     * acceptable.
+     */
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return "xml";
+        }
+
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "xml";
+        }
+
+        double xmlQuality = 0;
+        double jsonQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_XML)) {
+                xmlQuality = Math.max(xmlQuality, mediaType.getQualityValue());
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, mediaType.getQualityValue());
+            }
+        }
+        return jsonQuality > xmlQuality ? "json" : "xml";
+    }
+}
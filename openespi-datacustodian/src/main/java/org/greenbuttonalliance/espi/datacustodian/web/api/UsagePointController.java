@@ -30,13 +30,12 @@ import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
 import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
 import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
 import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -78,6 +77,7 @@ public class UsagePointController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Usage Points retrieved successfully",
                 content = @Content(schema = @Schema(implementation = UsagePointDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or offset"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
         }
@@ -89,16 +89,16 @@ public class UsagePointController {
     public ResponseEntity<List<UsagePointDto>> getAllUsagePoints(
             @Parameter(description = "Maximum number of results to return", example = "50")
             @RequestParam(defaultValue = "50") int limit,
-            @Parameter(description = "Offset for pagination", example = "0")
-            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Continuation token taken from the next link of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true)
+            @RequestParam(required = false) String offset,
             Authentication authentication) {
         
-        Pageable pageable = PageRequest.of(offset / limit, limit);
-        List<UsagePointEntity> usagePointEntities = usagePointRepository.findAll(pageable).getContent();
-        List<UsagePointDto> usagePoints = usagePointEntities.stream()
-            .map(usagePointMapper::toDto)
-            .toList();
-        return ResponseEntity.ok(usagePoints);
+        KeysetPages.rejectOffset(offset);
+        int pageSize = KeysetPages.limit(limit);
+        List<UsagePointEntity> usagePointEntities = usagePointRepository.findKeysetPage(KeysetPages.cursor(cursor), pageSize + 1);
+        return KeysetPages.page(usagePointEntities, pageSize, usagePointMapper::toDto);
     }
 
     /**
@@ -111,6 +111,7 @@ public class UsagePointController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Usage Point retrieved successfully",
                 content = @Content(schema = @Schema(implementation = UsagePointDto.class))),
+            @ApiResponse(responseCode = "304", description = "Usage Point not modified"),
             @ApiResponse(responseCode = "404", description = "Usage Point not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
@@ -123,12 +124,12 @@ public class UsagePointController {
     public ResponseEntity<UsagePointDto> getUsagePoint(
             @Parameter(description = "Unique identifier of the Usage Point", required = true)
             @PathVariable UUID usagePointId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         
-        return usagePointRepository.findById(usagePointId)
-            .map(usagePointMapper::toDto)
-            .map(usagePoint -> ResponseEntity.ok(usagePoint))
-            .orElse(ResponseEntity.notFound().build());
+        // Answer conditional requests before loading or mapping the entity
+        return ResourceValidators.conditionalGet(usagePointId, usagePointRepository::findUpdatedById,
+            () -> usagePointRepository.findById(usagePointId).map(usagePointMapper::toDto), webRequest);
     }
 
     /**
@@ -142,6 +143,7 @@ public class UsagePointController {
             @ApiResponse(responseCode = "200", description = "Usage Points retrieved successfully",
                 content = @Content(schema = @Schema(implementation = UsagePointDto.class))),
             @ApiResponse(responseCode = "404", description = "Subscription not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or offset"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
         }
@@ -154,18 +156,16 @@ public class UsagePointController {
             @PathVariable UUID subscriptionId,
             @Parameter(description = "Maximum number of results to return", example = "50")
             @RequestParam(defaultValue = "50") int limit,
-            @Parameter(description = "Offset for pagination", example = "0")
-            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Continuation token taken from the next link of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true)
+            @RequestParam(required = false) String offset,
             Authentication authentication) {
         
-        // TODO: Implement subscription-based filtering when subscription relationship is available
-        // For now, return all usage points with pagination as a temporary solution
-        Pageable pageable = PageRequest.of(offset / limit, limit);
-        List<UsagePointEntity> usagePointEntities = usagePointRepository.findAll(pageable).getContent();
-        List<UsagePointDto> usagePoints = usagePointEntities.stream()
-            .map(usagePointMapper::toDto)
-            .toList();
-        return ResponseEntity.ok(usagePoints);
+        KeysetPages.rejectOffset(offset);
+        int pageSize = KeysetPages.limit(limit);
+        List<UsagePointEntity> usagePointEntities = usagePointRepository.findKeysetPageBySubscriptionId(subscriptionId, KeysetPages.cursor(cursor), pageSize + 1);
+        return KeysetPages.page(usagePointEntities, pageSize, usagePointMapper::toDto);
     }
 
     /**
@@ -178,6 +178,7 @@ public class UsagePointController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Usage Point retrieved successfully",
                 content = @Content(schema = @Schema(implementation = UsagePointDto.class))),
+            @ApiResponse(responseCode = "304", description = "Usage Point not modified"),
             @ApiResponse(responseCode = "404", description = "Usage Point or SubscriptionEntity not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden - insufficient scope")
@@ -191,13 +192,13 @@ public class UsagePointController {
             @PathVariable UUID subscriptionId,
             @Parameter(description = "Unique identifier of the Usage Point", required = true)
             @PathVariable UUID usagePointId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         
         // TODO: Implement subscription-based validation when subscription relationship is available
         // For now, just return the usage point if it exists
-        return usagePointRepository.findById(usagePointId)
-            .map(usagePointMapper::toDto)
-            .map(usagePoint -> ResponseEntity.ok(usagePoint))
-            .orElse(ResponseEntity.notFound().build());
+        // Answer conditional requests before loading or mapping the entity
+        return ResourceValidators.conditionalGet(usagePointId, usagePointRepository::findUpdatedById,
+            () -> usagePointRepository.findById(usagePointId).map(usagePointMapper::toDto), webRequest);
     }
 }
\ No newline at end of file
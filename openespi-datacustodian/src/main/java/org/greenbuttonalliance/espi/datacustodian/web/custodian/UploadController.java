@@ -21,6 +21,7 @@
 package org.greenbuttonalliance.espi.datacustodian.web.custodian;
 
 import org.greenbuttonalliance.espi.common.repositories.usage.UsagePointRepository;
+import org.greenbuttonalliance.espi.common.service.ImportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
@@ -33,14 +34,15 @@ import org.xml.sax.SAXException;
 
 import jakarta.xml.bind.JAXBException;
 import java.io.IOException;
+import java.io.InputStream;
 
 // @Controller - COMMENTED OUT: UI not needed in resource server
 // @Component
 @RequestMapping("/custodian/upload")
 public class UploadController {
 
-	// @Autowired
-	// private ImportService importService; // TODO: Implement
+	@Autowired
+	private ImportJobService importJobService;
 
 	@Autowired
 	private UsagePointRepository usagePointService;
@@ -62,11 +64,9 @@ public class UploadController {
 	public String uploadPost(@ModelAttribute UploadForm uploadForm,
 			BindingResult result) throws IOException, JAXBException {
 		
-		try {
-			// TODO: Implement ImportService
-			// importService.importData(uploadForm.getFile().getInputStream(), null);
-			result.addError(new ObjectError("uploadForm", "Import functionality not yet implemented"));
-			return "/custodian/upload";
+		try (InputStream stream = uploadForm.getFile().getInputStream()) {
+			importJobService.submit(uploadForm.getFile().getOriginalFilename(), stream);
+			return "redirect:/custodian/home";
 			
 		} catch (Exception e) {
 				
@@ -76,13 +76,13 @@ public class UploadController {
 		} 
 	}
 
-	// public void setImportService(ImportService importService) {
-	//	this.importService = importService;
-	// }
+	public void setImportJobService(ImportJobService importJobService) {
+		this.importJobService = importJobService;
+	}
 
-	// public ImportService getImportService() {
-	//	return this.importService;
-	// }
+	public ImportJobService getImportJobService() {
+		return this.importJobService;
+	}
 
 	public void setUsagePointRepository(UsagePointRepository usagePointService) {
 		this.usagePointService = usagePointService;
@@ -32,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Map;
+import java.util.UUID;
 
 // @Controller - COMMENTED OUT: UI not needed in resource server
 // @Component
@@ -43,17 +44,18 @@ public class CustomerDownloadMyDataController {
 
 	@GetMapping("/RetailCustomer/{retailCustomerId}/DownloadMyData/UsagePoint/{usagePointId}")
 	public void downloadMyData(HttpServletResponse response,
-			@PathVariable Long retailCustomerId,
-			@PathVariable Long usagePointId,
+			@PathVariable UUID retailCustomerId,
+			@PathVariable UUID usagePointId,
 			@RequestParam Map<String, String> params) throws IOException {
+		if (!exportService.hasUsagePoint(retailCustomerId, usagePointId)) {
+			response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
 		response.setContentType(MediaType.APPLICATION_XML_VALUE);
 		response.addHeader("Content-Disposition",
 				"attachment; filename=GreenButtonDownload.xml");
 		try {
-			// TODO: Implement export methods in DtoExportService
-			// exportService.exportUsagePointFull(0L, retailCustomerId, usagePointId, response.getOutputStream(), new ExportFilter(params));
-			response.setStatus(HttpServletResponse.SC_NOT_IMPLEMENTED);
-			response.getWriter().write("Download My Data not yet implemented");
+			exportService.exportUsagePointFull(retailCustomerId, usagePointId, response.getOutputStream());
 		} catch (Exception e) {
 			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
 		}
@@ -61,18 +63,14 @@ public class CustomerDownloadMyDataController {
 
 	@GetMapping("/RetailCustomer/{retailCustomerId}/DownloadMyData/UsagePoint")
 	public void downloadMyDataCollection(HttpServletResponse response,
-			@PathVariable Long retailCustomerId,
+			@PathVariable UUID retailCustomerId,
 			@RequestParam Map<String, String> params) throws IOException {
 
 		response.setContentType(MediaType.APPLICATION_XML_VALUE);
 		response.addHeader("Content-Disposition",
 				"attachment; filename=GreenButtonDownload.xml");
 		try {
-			// TODO: Implement export methods in DtoExportService  
-			// exportService.exportUsagePointsFull(0L, retailCustomerId, response.getOutputStream(), params);
-			response.setStatus(HttpServletResponse.SC_NOT_IMPLEMENTED);
-			response.getWriter().write("Download My Data Collection not yet implemented");
-
+			exportService.exportUsagePointsFull(retailCustomerId, response.getOutputStream());
 		} catch (Exception e) {
 			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
 		}
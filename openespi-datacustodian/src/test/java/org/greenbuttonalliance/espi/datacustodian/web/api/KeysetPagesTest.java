@@ -0,0 +1,128 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.greenbuttonalliance.espi.common.repositories.usage.KeysetCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for keyset pagination of ESPI resource collections.
+ */
+@DisplayName("Keyset Pages Tests")
+class KeysetPagesTest {
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/espi/1_1/resource/UsagePoint");
+        request.setQueryString("limit=2&cursor=old");
+        request.setParameter("limit", "2");
+        request.setParameter("cursor", "old");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should link to the page after the last returned resource when more rows follow")
+    void shouldLinkToNextPage() {
+        List<UsagePointEntity> rows = usagePoints(3);
+
+        ResponseEntity<List<UUID>> response = KeysetPages.page(rows, 2, UsagePointEntity::getId);
+
+        assertEquals(List.of(rows.get(0).getId(), rows.get(1).getId()), response.getBody());
+        String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+        assertNotNull(link);
+        assertTrue(link.endsWith(">; rel=\"next\""));
+        String href = link.substring(1, link.indexOf('>'));
+        String token = UriComponentsBuilder.fromUriString(href).build().getQueryParams().getFirst("cursor");
+        assertEquals(KeysetCursor.after(rows.get(1)), KeysetCursor.decode(token));
+        assertFalse(href.contains("cursor=old"));
+    }
+
+    @Test
+    @DisplayName("Should not link further from the last page")
+    void shouldNotLinkFromLastPage() {
+        ResponseEntity<List<UUID>> response = KeysetPages.page(usagePoints(2), 2, UsagePointEntity::getId);
+
+        assertEquals(2, response.getBody().size());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.LINK));
+    }
+
+    @Test
+    @DisplayName("Should reduce the current URL to the given parameters")
+    void shouldBuildCanonicalHref() {
+        assertEquals("http://localhost/espi/1_1/resource/UsagePoint?limit=2",
+            KeysetPages.canonicalHref(Map.of("limit", 2)));
+        assertEquals("http://localhost/espi/1_1/resource/UsagePoint", KeysetPages.canonicalHref(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and non-positive limits with 400")
+    void shouldRejectInvalidParameters() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+            assertThrows(ResponseStatusException.class, () -> KeysetPages.cursor("%%%")).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+            assertThrows(ResponseStatusException.class, () -> KeysetPages.limit(0)).getStatusCode());
+        assertEquals(KeysetPages.MAX_LIMIT, KeysetPages.limit(10_000));
+    }
+
+    @Test
+    @DisplayName("Should reject the removed offset parameter unless it names the first page")
+    void shouldRejectOffset() {
+        ResponseStatusException rejected =
+            assertThrows(ResponseStatusException.class, () -> KeysetPages.rejectOffset("50"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertTrue(rejected.getReason().contains("cursor"));
+        assertDoesNotThrow(() -> KeysetPages.rejectOffset(null));
+        assertDoesNotThrow(() -> KeysetPages.rejectOffset("0"));
+    }
+
+    private static List<UsagePointEntity> usagePoints(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            UsagePointEntity usagePoint = new UsagePointEntity();
+            usagePoint.setUpdated(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            return usagePoint;
+        }).toList();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package org.greenbuttonalliance.espi.datacustodian.web.api;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the conditional GET validators of ESPI resources.
+ */
+@DisplayName("Resource Validators Tests")
+class ResourceValidatorsTest {
+
+    private static final UUID ID = UUID.fromString("48c2a019-5598-4e16-b0f9-49e4ff27f5fb");
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_000_000);
+
+    @Test
+    @DisplayName("Should change the entity tag when the resource is updated")
+    void shouldTrackUpdatedTimestamp() {
+        ServletWebRequest request = request(null);
+
+        String eTag = ResourceValidators.eTag(ID, UPDATED, request);
+
+        assertTrue(eTag.startsWith("\"" + ID));
+        assertEquals(eTag, ResourceValidators.eTag(ID, UPDATED, request));
+        assertNotEquals(eTag, ResourceValidators.eTag(ID, UPDATED.plusNanos(1000), request));
+    }
+
+    @Test
+    @DisplayName("Should give the XML and JSON representations different entity tags")
+    void shouldDistinguishRepresentations() {
+        String xml = ResourceValidators.eTag(ID, UPDATED, request("application/xml"));
+        String json = ResourceValidators.eTag(ID, UPDATED, request("application/json"));
+
+        assertNotEquals(xml, json);
+        assertEquals(xml, ResourceValidators.eTag(ID, UPDATED, request("*/*")));
+        assertEquals(json, ResourceValidators.eTag(ID, UPDATED, request("application/xml;q=0.5, application/json")));
+    }
+
+    @Test
+    @DisplayName("Should report not modified for a matching If-None-Match")
+    void shouldShortCircuitMatchingRequest() {
+        String eTag = ResourceValidators.eTag(ID, UPDATED, request(null));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/espi/1_1/resource/UsagePoint/" + ID);
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(servletRequest, servletResponse);
+
+        assertTrue(webRequest.checkNotModified(eTag, ResourceValidators.lastModified(UPDATED)));
+        assertEquals(304, servletResponse.getStatus());
+        assertEquals(eTag, servletResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Should answer a GET with the resource and its validators")
+    void shouldAnswerWithValidators() {
+        ServletWebRequest webRequest = request(null);
+
+        ResponseEntity<String> response = ResourceValidators.conditionalGet(ID, id -> Optional.of(UPDATED),
+            () -> Optional.of("usage point"), webRequest);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("usage point", response.getBody());
+        assertEquals(ResourceValidators.eTag(ID, UPDATED, webRequest), response.getHeaders().getETag());
+        assertEquals(ResourceValidators.lastModified(UPDATED) / 1000 * 1000,
+            response.getHeaders().getLastModified());
+        assertEquals(HttpHeaders.ACCEPT, response.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    @DisplayName("Should return null without loading the resource for a matching If-None-Match")
+    void shouldSkipLoadingWhenNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/espi/1_1/resource/UsagePoint/" + ID);
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, ResourceValidators.eTag(ID, UPDATED, request(null)));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<String> response = ResourceValidators.conditionalGet(ID, id -> Optional.of(UPDATED),
+            () -> fail("Should not load the resource"), new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(304, servletResponse.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for a missing resource")
+    void shouldAnswerNotFound() {
+        ResponseEntity<String> missing = ResourceValidators.conditionalGet(ID, id -> Optional.empty(),
+            () -> fail("Should not load the resource"), request(null));
+        ResponseEntity<String> deleted = ResourceValidators.conditionalGet(ID, id -> Optional.of(UPDATED),
+            Optional::empty, request(null));
+
+        assertEquals(404, missing.getStatusCode().value());
+        assertEquals(404, deleted.getStatusCode().value());
+    }
+
+    private static ServletWebRequest request(String accept) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/espi/1_1/resource/UsagePoint/" + ID);
+        if (accept != null) {
+            servletRequest.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.datacustodian.web.customer;
+
+import org.greenbuttonalliance.espi.common.service.DtoExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the Download My Data endpoints.
+ */
+@DisplayName("Customer Download My Data Controller Tests")
+class CustomerDownloadMyDataControllerTest {
+
+    private static final UUID RETAIL_CUSTOMER_ID = UUID.randomUUID();
+    private static final UUID USAGE_POINT_ID = UUID.randomUUID();
+
+    private DtoExportService exportService;
+    private CustomerDownloadMyDataController controller;
+
+    @BeforeEach
+    void setUp() {
+        exportService = mock(DtoExportService.class);
+        controller = new CustomerDownloadMyDataController();
+        controller.setDtoExportService(exportService);
+    }
+
+    @Test
+    @DisplayName("Should stream the full export of a usage point of the customer")
+    void shouldStreamFullExport() throws Exception {
+        when(exportService.hasUsagePoint(RETAIL_CUSTOMER_ID, USAGE_POINT_ID)).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("<feed/>".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportUsagePointFull(eq(RETAIL_CUSTOMER_ID), eq(USAGE_POINT_ID), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.downloadMyData(response, RETAIL_CUSTOMER_ID, USAGE_POINT_ID, Map.of());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("attachment; filename=GreenButtonDownload.xml", response.getHeader("Content-Disposition"));
+        assertEquals("<feed/>", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should answer 404 before streaming when the usage point is not the customer's")
+    void shouldRejectUnknownUsagePoint() throws Exception {
+        when(exportService.hasUsagePoint(RETAIL_CUSTOMER_ID, USAGE_POINT_ID)).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.downloadMyData(response, RETAIL_CUSTOMER_ID, USAGE_POINT_ID, Map.of());
+
+        assertEquals(404, response.getStatus());
+        assertNull(response.getHeader("Content-Disposition"));
+        assertEquals(0, response.getContentAsByteArray().length);
+        verify(exportService, never()).exportUsagePointFull(any(), any(), any());
+    }
+}
@@ -21,7 +21,15 @@ package org.greenbuttonalliance.espi.thirdparty.repository;
 
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
 import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import reactor.core.publisher.Flux;
 
 public interface ResourceRESTRepository {
 	IdentifiedObject get(AuthorizationEntity authorization, String uri);
+
+	/**
+	 * Retrieves a feed and emits its entries as they are received, so that
+	 * large feeds such as batch subscriptions are never held in memory whole.
+	 */
+	Flux<AtomEntryDto> getEntries(AuthorizationEntity authorization, String uri);
 }
@@ -21,23 +21,38 @@ package org.greenbuttonalliance.espi.thirdparty.repository.impl;
 
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
 import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
 import org.greenbuttonalliance.espi.thirdparty.repository.ResourceRESTRepository;
+import org.greenbuttonalliance.espi.thirdparty.utils.AtomEntryDecoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.oxm.UnmarshallingFailureException;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stax.StAXSource;
 import javax.xml.transform.stream.StreamSource;
-import java.io.StringReader;
+import java.io.IOException;
+import java.io.InputStream;
 
 @Repository
 public class ResourceRESTRepositoryImpl implements ResourceRESTRepository {
 
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
 	@Autowired
 	private WebClient webClient;
 
@@ -48,7 +63,51 @@ public class ResourceRESTRepositoryImpl implements ResourceRESTRepository {
 	@Qualifier(value = "atomMarshaller")
 	private Jaxb2Marshaller marshaller;
 
+	@Autowired
+	private EspiSchemaValidation espiSchemaValidation;
+
+	@Autowired
+	private AtomEntryDecoder atomEntryDecoder;
+
+	@Value("${espi.thirdparty.max-resource-size:16777216}")
+	private int maxResourceSize;
+
 	public IdentifiedObject get(AuthorizationEntity authorization, String url) {
+		// Join the body's buffers rather than decoding it to a String, so it is held once, as bytes;
+		// feeds larger than one resource are read entry by entry through getEntries
+		DataBuffer responseBody = DataBufferUtils.join(retrieve(authorization, url), maxResourceSize)
+				.onErrorMap(DataBufferLimitException.class, e -> new UnmarshallingFailureException(
+						"Resource from " + url + " exceeds " + maxResourceSize + " bytes", e))
+				.block();
+		if (responseBody == null) {
+			throw new UnmarshallingFailureException("Empty resource from " + url);
+		}
+
+		try (InputStream stream = responseBody.asInputStream(true)) {
+			if (!espiSchemaValidation.isEnabled(EspiSchemaValidation.THIRD_PARTY_ENDPOINT)) {
+				return (IdentifiedObject) marshaller.unmarshal(new StreamSource(stream));
+			}
+
+			// Validate against the ESPI schemas while unmarshalling, in the same pass
+			XMLStreamReader reader = espiSchemaValidation.filter(EspiSchemaValidation.THIRD_PARTY_ENDPOINT,
+					INPUT_FACTORY.createXMLStreamReader(stream));
+			try {
+				return (IdentifiedObject) marshaller.unmarshal(new StAXSource(reader));
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new UnmarshallingFailureException("Invalid resource from " + url + ": " + e.getMessage(), e);
+		} catch (IOException e) {
+			throw new UnmarshallingFailureException("Could not read resource from " + url + ": " + e.getMessage(), e);
+		}
+	}
+
+	public Flux<AtomEntryDto> getEntries(AuthorizationEntity authorization, String url) {
+		return atomEntryDecoder.decode(retrieve(authorization, url));
+	}
+
+	private Flux<DataBuffer> retrieve(AuthorizationEntity authorization, String url) {
 		// Use OAuth2 client registration to get authorized client
 		OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest
 				.withClientRegistrationId("datacustodian-monthly")
@@ -58,16 +117,18 @@ public class ResourceRESTRepositoryImpl implements ResourceRESTRepository {
 		OAuth2AuthorizedClient authorizedClient = authorizedClientManager.authorize(authorizeRequest);
 
 		// Make authenticated request using WebClient with OAuth2 support
-		Mono<String> responseMono = webClient.get()
+		return webClient.get()
 				.uri(url)
 				.attributes(static1 -> static1.put("oauth2AuthorizedClient", authorizedClient))
 				.retrieve()
-				.bodyToMono(String.class);
-
-		String responseBody = responseMono.block();
+				.bodyToFlux(DataBuffer.class);
+	}
 
-		return (IdentifiedObject) marshaller.unmarshal(new StreamSource(
-				new StringReader(responseBody)));
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return factory;
 	}
 
 	public void setWebClient(WebClient webClient) {
@@ -86,4 +147,16 @@ public class ResourceRESTRepositoryImpl implements ResourceRESTRepository {
 		return this.marshaller;
 	}
 
+	public void setEspiSchemaValidation(EspiSchemaValidation espiSchemaValidation) {
+		this.espiSchemaValidation = espiSchemaValidation;
+	}
+
+	public void setAtomEntryDecoder(AtomEntryDecoder atomEntryDecoder) {
+		this.atomEntryDecoder = atomEntryDecoder;
+	}
+
+	public void setMaxResourceSize(int maxResourceSize) {
+		this.maxResourceSize = maxResourceSize;
+	}
+
 }
@@ -28,22 +28,19 @@ import org.greenbuttonalliance.espi.common.service.AuthorizationService;
 import org.greenbuttonalliance.espi.common.service.RetailCustomerService;
 // UsagePointService removed in migration
 import org.greenbuttonalliance.espi.thirdparty.repository.UsagePointRESTRepository;
+import org.greenbuttonalliance.espi.thirdparty.utils.AtomEntryDecoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.greenbuttonalliance.espi.common.dto.atom.AtomFeedDto;
 import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
 import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
+import reactor.core.publisher.Flux;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
-import java.io.ByteArrayInputStream;
-import java.io.StringReader;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Repository
 public class UsagePointRESTRepositoryImpl implements UsagePointRESTRepository {
@@ -57,15 +54,8 @@ public class UsagePointRESTRepositoryImpl implements UsagePointRESTRepository {
 	@Autowired
 	private WebClient webClient;
 
-	private JAXBContext jaxbContext;
-
-	public UsagePointRESTRepositoryImpl() {
-		try {
-			this.jaxbContext = JAXBContext.newInstance(AtomFeedDto.class);
-		} catch (JAXBException e) {
-			throw new RuntimeException("Failed to initialize JAXB context", e);
-		}
-	}
+	@Autowired
+	private AtomEntryDecoder atomEntryDecoder;
 
 	@Autowired
 	private UsagePointRepository usagePointRepository;
@@ -83,6 +73,10 @@ public class UsagePointRESTRepositoryImpl implements UsagePointRESTRepository {
 		this.webClient = webClient;
 	}
 
+	public void setAtomEntryDecoder(AtomEntryDecoder atomEntryDecoder) {
+		this.atomEntryDecoder = atomEntryDecoder;
+	}
+
 	public void setRetailCustomerService(
 			RetailCustomerService retailCustomerService) {
 		this.retailCustomerService = retailCustomerService;
@@ -105,27 +99,19 @@ public class UsagePointRESTRepositoryImpl implements UsagePointRESTRepository {
 
 		AuthorizationEntity authorization = findAuthorization(retailCustomerId);
 		
-		// Make OAuth2 REST call to data custodian
-		String xmlResponse = webClient.get()
+		// Make OAuth2 REST call to data custodian, decoding the feed entry by entry as it arrives
+		Flux<DataBuffer> body = webClient.get()
 				.uri(authorization.getResourceURI())
 				.headers(headers -> headers.setBearerAuth(authorization.getAccessToken()))
 				.retrieve()
-				.bodyToMono(String.class)
-				.block();
-
-		// Use openespi-common JAXB unmarshalling
-		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-		AtomFeedDto feedDto = (AtomFeedDto) unmarshaller.unmarshal(new StringReader(xmlResponse));
+				.bodyToFlux(DataBuffer.class);
 
 		// Use openespi-common mappers for transformation
-		List<UsagePointEntity> usagePoints = feedDto.entries().stream()
-				.map(entry -> {
-					UsagePointDto dto = (UsagePointDto) entry.getResource();
-					return usagePointMapper.toEntity(dto);
-				})
-				.collect(Collectors.toList());
-
-		return usagePoints;
+		return atomEntryDecoder.decode(body)
+				.filter(entry -> entry.getResource() instanceof UsagePointDto)
+				.map(entry -> usagePointMapper.toEntity((UsagePointDto) entry.getResource()))
+				.collectList()
+				.block();
 	}
 
 	@Override
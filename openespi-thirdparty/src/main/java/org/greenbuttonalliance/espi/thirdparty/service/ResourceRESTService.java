@@ -22,9 +22,13 @@ package org.greenbuttonalliance.espi.thirdparty.service;
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
 import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
 import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import reactor.core.publisher.Flux;
 
 public interface ResourceRESTService {
 	IdentifiedObject get(AuthorizationEntity authorization, String uri);
 
+	Flux<AtomEntryDto> getEntries(AuthorizationEntity authorization, String uri);
+
 	void update(UsagePointEntity resource);
 }
@@ -19,6 +19,7 @@
 
 package org.greenbuttonalliance.espi.thirdparty.service;
 
+import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
 import org.springframework.stereotype.Service;
 
 import jakarta.xml.bind.JAXBException;
@@ -26,4 +27,10 @@ import jakarta.xml.bind.JAXBException;
 @Service
 public interface UpdateRESTService {
 	void update(String url) throws JAXBException;
+
+	/**
+	 * Pulls a resource or feed with an authorization found by the caller,
+	 * such as the one of the subscription a notification names.
+	 */
+	void update(AuthorizationEntity authorization, String url) throws JAXBException;
 }
@@ -22,11 +22,13 @@ package org.greenbuttonalliance.espi.thirdparty.service.impl;
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
 import org.greenbuttonalliance.espi.common.domain.common.IdentifiedObject;
 import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
 import org.greenbuttonalliance.espi.common.repositories.usage.ResourceRepository;
 import org.greenbuttonalliance.espi.thirdparty.repository.ResourceRESTRepository;
 import org.greenbuttonalliance.espi.thirdparty.service.ResourceRESTService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 @Service
 public class ResourceRESTServiceImpl implements ResourceRESTService {
@@ -40,6 +42,10 @@ public class ResourceRESTServiceImpl implements ResourceRESTService {
 		return resourceRESTRepository.get(authorization, uri);
 	}
 
+	public Flux<AtomEntryDto> getEntries(AuthorizationEntity authorization, String uri) {
+		return resourceRESTRepository.getEntries(authorization, uri);
+	}
+
 	@Override
 	public void update(UsagePointEntity resource) {
 		resourceRepository.update(resource);
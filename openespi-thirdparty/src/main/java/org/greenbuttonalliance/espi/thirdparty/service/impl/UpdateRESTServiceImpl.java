@@ -20,7 +20,9 @@
 package org.greenbuttonalliance.espi.thirdparty.service.impl;
 
 import org.greenbuttonalliance.espi.common.domain.usage.AuthorizationEntity;
-import org.greenbuttonalliance.espi.common.domain.usage.UsagePointEntity;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.usage.UsagePointDto;
+import org.greenbuttonalliance.espi.common.mapper.usage.UsagePointMapper;
 import org.greenbuttonalliance.espi.common.service.AuthorizationService;
 import org.greenbuttonalliance.espi.thirdparty.service.ResourceRESTService;
 import org.greenbuttonalliance.espi.thirdparty.service.UpdateRESTService;
@@ -37,11 +39,24 @@ public class UpdateRESTServiceImpl implements UpdateRESTService {
 	@Autowired
 	private ResourceRESTService resourceRESTService;
 
+	@Autowired
+	private UsagePointMapper usagePointMapper;
+
+	/**
+	 * Pulls a resource or feed, such as a Batch/Subscription, and updates its
+	 * usage points one entry at a time as the entries are decoded, so that the
+	 * feed is never held in memory whole.
+	 */
 	public void update(String uri) throws JAXBException {
-		AuthorizationEntity authorization = authorizationService.findByURI(uri);
-		UsagePointEntity resource = (UsagePointEntity) resourceRESTService.get(
-				authorization, uri);
-		resourceRESTService.update(resource);
+		update(authorizationService.findByURI(uri), uri);
+	}
+
+	public void update(AuthorizationEntity authorization, String uri) throws JAXBException {
+		for (AtomEntryDto entry : resourceRESTService.getEntries(authorization, uri).toIterable()) {
+			if (entry.getResource() instanceof UsagePointDto usagePoint) {
+				resourceRESTService.update(usagePointMapper.toEntity(usagePoint));
+			}
+		}
 	}
 
 	public void setResourceRESTService(ResourceRESTService resourceRESTService) {
@@ -53,6 +68,10 @@ public class UpdateRESTServiceImpl implements UpdateRESTService {
 		this.authorizationService = authorizationService;
 	}
 
+	public void setUsagePointMapper(UsagePointMapper usagePointMapper) {
+		this.usagePointMapper = usagePointMapper;
+	}
+
 	public ResourceRESTService getResourceRESTService() {
 		return this.resourceRESTService;
 	}
@@ -0,0 +1,159 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.thirdparty.utils;
+
+import jakarta.xml.bind.JAXBException;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
+import org.greenbuttonalliance.espi.common.utils.jaxb.SchemaValidatingStreamReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.xml.XmlEventDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.xml.StaxUtils;
+import reactor.core.publisher.Flux;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decodes an Atom feed, or a single Atom entry, into {@link AtomEntryDto}s as
+ * its bytes arrive, rather than after the whole response has been buffered.
+ * <p>
+ * The body is tokenized by Spring's {@link XmlEventDecoder}, which uses the
+ * non-blocking Aalto parser so that each data buffer is parsed as soon as it
+ * is received. The events of one entry at a time are collected and
+ * unmarshalled with the shared {@link DtoJaxbContext}; anything outside the
+ * entries, such as the feed's own id and links, is dropped. Memory is thus
+ * bounded by the largest entry, which is limited by
+ * {@code espi.thirdparty.max-entry-size}, and not by the size of the feed.
+ * <p>
+ * Resources are validated against the ESPI schemas as they are unmarshalled
+ * when {@link EspiSchemaValidation} is enabled for the third party endpoint.
+ * Entries are unmarshalled on the thread that delivers the data buffers.
+ */
+@Component
+public class AtomEntryDecoder {
+
+	private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+	private static final ResolvableType XML_EVENT_TYPE = ResolvableType.forClass(XMLEvent.class);
+
+	private final XmlEventDecoder xmlEventDecoder = new XmlEventDecoder();
+
+	private final DtoJaxbContext dtoJaxbContext;
+
+	private final EspiSchemaValidation espiSchemaValidation;
+
+	public AtomEntryDecoder(DtoJaxbContext dtoJaxbContext, EspiSchemaValidation espiSchemaValidation,
+			@Value("${espi.thirdparty.max-entry-size:4194304}") int maxEntrySize) {
+		this.dtoJaxbContext = dtoJaxbContext;
+		this.espiSchemaValidation = espiSchemaValidation;
+		// Aalto counts bytes per child of the document element, i.e. per entry of a feed
+		this.xmlEventDecoder.setMaxInMemorySize(maxEntrySize);
+	}
+
+	/**
+	 * Decodes the entries of a response body.
+	 *
+	 * @param body the data buffers of the body, which are released once parsed
+	 * @return the entries in document order
+	 */
+	public Flux<AtomEntryDto> decode(Flux<DataBuffer> body) {
+		return Flux.defer(() -> {
+			EntrySplitter splitter = new EntrySplitter();
+			return xmlEventDecoder.decode(body, XML_EVENT_TYPE, null, Collections.emptyMap())
+					.<List<XMLEvent>>handle((event, sink) -> {
+						List<XMLEvent> entry = splitter.add(event);
+						if (entry != null) {
+							sink.next(entry);
+						}
+					})
+					.map(this::unmarshal);
+		});
+	}
+
+	private AtomEntryDto unmarshal(List<XMLEvent> events) {
+		try {
+			XMLStreamReader reader = espiSchemaValidation.filter(EspiSchemaValidation.THIRD_PARTY_ENDPOINT,
+					StaxUtils.createEventStreamReader(StaxUtils.createXMLEventReader(events)));
+			try {
+				return dtoJaxbContext.getUnmarshaller().unmarshal(reader, AtomEntryDto.class).getValue();
+			} finally {
+				reader.close();
+			}
+		} catch (JAXBException e) {
+			// Report schema violations as such rather than as an unmarshalling failure
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof SchemaValidatingStreamReader.SchemaValidationException invalid) {
+					throw new DecodingException("Invalid Atom entry: " + invalid.getMessage(), invalid);
+				}
+			}
+			throw new DecodingException("Could not unmarshal Atom entry: " + e.getMessage(), e);
+		} catch (XMLStreamException e) {
+			throw new DecodingException("Invalid Atom entry: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Collects the events from the start of an Atom entry to its end.
+	 */
+	static final class EntrySplitter {
+
+		private List<XMLEvent> events;
+
+		private int depth;
+
+		/**
+		 * @param event the next event of the document
+		 * @return the events of an entry once its end is reached, otherwise null
+		 */
+		List<XMLEvent> add(XMLEvent event) {
+			if (events == null) {
+				if (!event.isStartElement() || !isEntry(event)) {
+					return null;
+				}
+				events = new ArrayList<>();
+			}
+
+			events.add(event);
+			if (event.isStartElement()) {
+				depth++;
+			} else if (event.isEndElement() && --depth == 0) {
+				List<XMLEvent> entry = events;
+				events = null;
+				return entry;
+			}
+			return null;
+		}
+
+		private static boolean isEntry(XMLEvent event) {
+			return "entry".equals(event.asStartElement().getName().getLocalPart())
+					&& ATOM_NAMESPACE.equals(event.asStartElement().getName().getNamespaceURI());
+		}
+	}
+}
@@ -24,7 +24,7 @@ import org.greenbuttonalliance.espi.common.domain.usage.BatchListEntity;
 import org.greenbuttonalliance.espi.common.domain.usage.RetailCustomerEntity;
 //  // TODO: Find correct Routes import
 import org.greenbuttonalliance.espi.common.service.*;
-import org.greenbuttonalliance.espi.thirdparty.service.WebClientService;
+import org.greenbuttonalliance.espi.thirdparty.service.UpdateRESTService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,7 +64,7 @@ public class NotificationController extends BaseController {
 	// private ImportService importService;
 
 	@Autowired
-	private WebClientService webClientService;
+	private UpdateRESTService updateRESTService;
 
 	@Autowired
 	private WebClient webClient;
@@ -108,7 +108,6 @@ public class NotificationController extends BaseController {
 		logger.debug("Start Asynchronous Input: {}: {}", threadName, subscriptionUri);
 
 		String resourceUri = subscriptionUri;
-		String accessToken = "";
 		AuthorizationEntity authorization = null;
 		RetailCustomerEntity retailCustomer = null;
 
@@ -180,28 +179,21 @@ public class NotificationController extends BaseController {
 				// retailCustomer = authorization.getRetailCustomer();
 				// accessToken = authorization.getAccessToken();
 
-				try {
-					// Create authenticated WebClient for resource access
-					WebClient authenticatedClient = webClientService.createAuthenticatedWebClient(accessToken);
-
-					// Get the subscription data using WebClient
-					String responseBody = webClientService.getForObject(
-						authenticatedClient, subscriptionUri, String.class);
-
-					// if (responseBody != null) {
-					// 	// Import data into the repository
-					// 	ByteArrayInputStream bs = new ByteArrayInputStream(responseBody.getBytes());
-					// 	importService.importData(bs, retailCustomer.getId());
-					// 	logger.debug("Successfully imported data from subscription: {}", subscriptionUri);
-					// } else {
-					// 	logger.warn("No data received from subscription: {}", subscriptionUri);
-					// }
-
-				} catch (WebClientResponseException e) {
-					logger.error("HTTP error during subscription import: {} - {}", 
-						e.getStatusCode(), e.getResponseBodyAsString());
-				} catch (Exception e) {
-					logger.error("Error during asynchronous import from subscription: {}", subscriptionUri, e);
+				authorization = authorizationService.findByURI(resourceUri);
+				if (authorization == null) {
+					logger.info("No authorization found for resource URI: {} - will import later", resourceUri);
+				} else {
+					try {
+						// Stream the subscription's entries into the repository as they are received
+						updateRESTService.update(authorization, subscriptionUri);
+						logger.debug("Successfully imported data from subscription: {}", subscriptionUri);
+
+					} catch (WebClientResponseException e) {
+						logger.error("HTTP error during subscription import: {} - {}", 
+							e.getStatusCode(), e.getResponseBodyAsString());
+					} catch (Exception e) {
+						logger.error("Error during asynchronous import from subscription: {}", subscriptionUri, e);
+					}
 				}
 
 			} catch (EmptyResultDataAccessException e) {
@@ -217,6 +209,10 @@ public class NotificationController extends BaseController {
 		this.batchListService = batchListService;
 	}
 
+	public void setUpdateRESTService(UpdateRESTService updateRESTService) {
+		this.updateRESTService = updateRESTService;
+	}
+
 	// public void setImportService(ImportService importService) {
 	// 	this.importService = importService;
 	// }
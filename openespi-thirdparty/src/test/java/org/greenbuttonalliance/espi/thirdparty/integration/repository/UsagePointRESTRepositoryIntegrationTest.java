@@ -27,12 +27,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -114,7 +117,8 @@ public class UsagePointRESTRepositoryIntegrationTest {
         when(requestHeadersUriSpec.uri(mockAuthorization.getResourceURI())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.headers(org.mockito.ArgumentMatchers.any())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(xmlResponse));
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(Flux.just(
+                DefaultDataBufferFactory.sharedInstance.wrap(xmlResponse.getBytes(StandardCharsets.UTF_8))));
 
         // Execute test
         List<UsagePointEntity> result = usagePointRESTRepository.findAllByRetailCustomerId(UUID.randomUUID());
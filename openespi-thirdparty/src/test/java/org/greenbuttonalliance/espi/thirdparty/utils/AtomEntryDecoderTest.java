@@ -0,0 +1,138 @@
+/*
+ *
+ *        Copyright (c) 2025 Green Button Alliance, Inc.
+ *
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package org.greenbuttonalliance.espi.thirdparty.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenbuttonalliance.espi.common.dto.atom.AtomEntryDto;
+import org.greenbuttonalliance.espi.common.dto.usage.IntervalBlockDto;
+import org.greenbuttonalliance.espi.common.utils.jaxb.DtoJaxbContext;
+import org.greenbuttonalliance.espi.common.utils.jaxb.EspiSchemaValidation;
+import org.greenbuttonalliance.espi.common.utils.jaxb.SchemaValidatingStreamReader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for decoding the entries of a feed as its data buffers arrive.
+ */
+@DisplayName("Atom Entry Decoder Tests")
+class AtomEntryDecoderTest {
+
+	private static final String VALID_READING =
+		"<IntervalReading><cost>974</cost><timePeriod><duration>900</duration><start>1330578000</start></timePeriod>" +
+		"<value>282</value></IntervalReading>";
+
+	// cost must precede value
+	private static final String MISORDERED_READING =
+		"<IntervalReading><value>282</value><cost>974</cost></IntervalReading>";
+
+	private static DtoJaxbContext dtoJaxbContext;
+
+	@BeforeAll
+	static void setUp() {
+		dtoJaxbContext = new DtoJaxbContext(false, new SimpleMeterRegistry());
+	}
+
+	@Test
+	@DisplayName("Should decode entries split across arbitrary buffer boundaries")
+	void shouldDecodeSplitBuffers() {
+		List<AtomEntryDto> entries = decoder().decode(buffers(feed(VALID_READING, VALID_READING), 7))
+			.collectList()
+			.block();
+
+		assertNotNull(entries);
+		assertEquals(2, entries.size());
+		assertEquals("urn:uuid:block-0", entries.get(0).id());
+		assertEquals("urn:uuid:block-1", entries.get(1).id());
+		IntervalBlockDto block = assertInstanceOf(IntervalBlockDto.class, entries.get(1).getResource());
+		assertEquals(974L, block.intervalReadings().get(0).cost());
+		assertEquals("Blöck", entries.get(0).title());
+	}
+
+	@Test
+	@DisplayName("Should decode a single entry document")
+	void shouldDecodeSingleEntry() {
+		String entry = feed(VALID_READING);
+		entry = entry.substring(entry.indexOf("<entry>"), entry.indexOf("</feed>"))
+			.replace("<entry>", "<entry xmlns=\"http://www.w3.org/2005/Atom\">");
+
+		List<AtomEntryDto> entries = decoder().decode(buffers(entry, 64)).collectList().block();
+
+		assertNotNull(entries);
+		assertEquals(1, entries.size());
+		assertInstanceOf(IntervalBlockDto.class, entries.get(0).getResource());
+	}
+
+	@Test
+	@DisplayName("Should emit the entries before a resource that violates the schema")
+	void shouldRejectInvalidResource() {
+		AtomEntryDecoder decoder = new AtomEntryDecoder(dtoJaxbContext,
+			new EspiSchemaValidation(new String[]{EspiSchemaValidation.THIRD_PARTY_ENDPOINT}, new SimpleMeterRegistry()),
+			1024 * 1024);
+		List<AtomEntryDto> decoded = new ArrayList<>();
+
+		DecodingException failure = assertThrows(DecodingException.class, () ->
+			decoder.decode(buffers(feed(VALID_READING, MISORDERED_READING), 16))
+				.doOnNext(decoded::add)
+				.blockLast());
+
+		assertEquals(1, decoded.size());
+		assertInstanceOf(SchemaValidatingStreamReader.SchemaValidationException.class, failure.getCause());
+	}
+
+	private static AtomEntryDecoder decoder() {
+		return new AtomEntryDecoder(dtoJaxbContext,
+			new EspiSchemaValidation(new String[0], new SimpleMeterRegistry()), 1024 * 1024);
+	}
+
+	private static Flux<DataBuffer> buffers(String xml, int size) {
+		byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int offset = 0; offset < bytes.length; offset += size) {
+			buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+				Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size))));
+		}
+		return Flux.fromIterable(buffers);
+	}
+
+	private static String feed(String... readings) {
+		StringBuilder feed = new StringBuilder("<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:uuid:feed</id>" +
+			"<title>Feed</title><link rel=\"self\" href=\"/espi/1_1/resource/Batch/Subscription/1\"/>");
+		for (int i = 0; i < readings.length; i++) {
+			feed.append("<entry><id>urn:uuid:block-").append(i).append("</id><title>Blöck</title><content>")
+				.append("<IntervalBlock xmlns=\"http://naesb.org/espi\">")
+				.append("<interval><duration>86400</duration><start>1330578000</start></interval>")
+				.append(readings[i])
+				.append("</IntervalBlock></content></entry>");
+		}
+		return feed.append("</feed>").toString();
+	}
+}